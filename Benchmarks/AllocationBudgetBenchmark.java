@@ -0,0 +1,227 @@
+package Benchmarks;
+
+import CommonEnum.LockingMode;
+import CommonEnum.SeatCategory;
+import ConcreteLockProviders.SeatLockProvider;
+import CoreClasses.Booking;
+import CoreClasses.Movie;
+import CoreClasses.Screen;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.Theatre;
+import CoreClasses.User;
+import Services.BookingService;
+import Services.SeatAvailabilityService;
+import Utilities.EventLog;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Allocation regression check for the booking hot path. Each operation runs many times on one thread
+ * while the JVM's per-thread allocation counter (com.sun.management.ThreadMXBean) is read right
+ * before and after the call, so only the operation's own garbage is counted, not the fixture set-up
+ * around it. Each operation is first run the same number of times unreported, to warm up the JIT.
+ *
+ * Every operation declares a budget in bytes per call, as a function of the data sizes (seats on the
+ * screen, bookings already confirmed for the show, seats per cart). When any operation allocates more
+ * than its budget the run ends with exit status 1, so it can gate a build.
+ *
+ * The event log is installed (into a temporary directory, without console echo) so log calls take the
+ * same allocation-free path as in production rather than formatting and printing.
+ *
+ * Usage: java Benchmarks.AllocationBudgetBenchmark [seatCount] [confirmedBookings] [seatsPerCart] [iterations]
+ */
+public class AllocationBudgetBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final int seatCount;
+    private final int confirmedBookings;
+    private final int seatsPerCart;
+    private final int iterations;
+    private boolean overBudget;
+
+    private AllocationBudgetBenchmark(final int seatCount, final int confirmedBookings, final int seatsPerCart,
+                                      final int iterations) {
+        this.seatCount = seatCount;
+        this.confirmedBookings = confirmedBookings;
+        this.seatsPerCart = seatsPerCart;
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final int seatCount = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        final int confirmedBookings = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        final int seatsPerCart = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        final int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+        if ((confirmedBookings + 2) * seatsPerCart > seatCount) {
+            System.err.println("Need at least " + (confirmedBookings + 2) * seatsPerCart + " seats for "
+                    + confirmedBookings + " bookings of " + seatsPerCart + " seats, the held cart and one free cart.");
+            System.exit(2);
+        }
+        if (!THREADS.isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM does not report per-thread allocation.");
+            System.exit(2);
+        }
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        final Path logDirectory = Files.createTempDirectory("allocation-budget");
+        EventLog.start(logDirectory, 1 << 16, 64L * 1024 * 1024, 2, false);
+        final AllocationBudgetBenchmark benchmark =
+                new AllocationBudgetBenchmark(seatCount, confirmedBookings, seatsPerCart, iterations);
+        System.out.printf("seats=%d confirmedBookings=%d seatsPerCart=%d iterations=%d%n",
+                seatCount, confirmedBookings, seatsPerCart, iterations);
+        System.out.printf("%-18s %14s %14s%n", "operation", "bytes/op", "budget");
+        try {
+            benchmark.runAll();
+        } finally {
+            EventLog.stop();
+        }
+        System.exit(benchmark.overBudget ? 1 : 0);
+    }
+
+    private void runAll() throws Exception {
+        final int bookedSeats = confirmedBookings * seatsPerCart;
+
+        // Holding one cart: a SeatLock and map entry per seat, plus the per-call list bookkeeping
+        measure("lockSeats", 256 + 128L * seatsPerCart, meter -> {
+            final Fixture fixture = shared();
+            final List<Seat> cart = fixture.freeCart(meter.round);
+            meter.start();
+            fixture.lockProvider.lockSeats(fixture.show, cart, fixture.buyer);
+            meter.stop();
+            fixture.lockProvider.unlockSeats(fixture.show, cart, fixture.buyer);
+        });
+
+        // A lookup on the seat map, should not allocate at all once compiled
+        measure("validateLock", 64, meter -> {
+            final Fixture fixture = shared();
+            final Seat seat = fixture.heldCart.get(meter.round % seatsPerCart);
+            meter.start();
+            fixture.lockProvider.validateLock(fixture.show, seat, fixture.buyer);
+            meter.stop();
+        });
+
+        // Checking the cart against every confirmed booking copies the show's bookings and booked seats
+        measure("createBooking", 2048 + 128L * confirmedBookings + 32L * bookedSeats + 256L * seatsPerCart, meter -> {
+            final Fixture fixture = new Fixture();
+            final List<Seat> cart = fixture.freeCart(0);
+            meter.start();
+            fixture.bookingService.createBooking(fixture.buyer, fixture.show, cart);
+            meter.stop();
+        });
+
+        // Lock validation per seat and the notification, no observers registered
+        measure("confirmBooking", 256 + 32L * seatsPerCart, meter -> {
+            final Fixture fixture = new Fixture();
+            final Booking booking = fixture.bookingService.createBooking(fixture.buyer, fixture.show, fixture.freeCart(0));
+            meter.start();
+            fixture.bookingService.confirmBooking(booking, fixture.buyer);
+            meter.stop();
+        });
+
+        // Merges booked and held seats, then copies the whole layout minus those
+        measure("getAvailableSeats", 1024 + 12L * seatCount + 48L * bookedSeats + 128L * confirmedBookings, meter -> {
+            final Fixture fixture = shared();
+            meter.start();
+            fixture.availabilityService.getAvailableSeats(fixture.show);
+            meter.stop();
+        });
+    }
+
+    private Fixture sharedFixture;
+
+    // One fixture reused by the operations that leave no state behind
+    private Fixture shared() throws Exception {
+        if (sharedFixture == null) {
+            sharedFixture = new Fixture();
+            sharedFixture.lockProvider.lockSeats(sharedFixture.show, sharedFixture.heldCart, sharedFixture.buyer);
+        }
+        return sharedFixture;
+    }
+
+    private void measure(final String name, final long budget, final Trial trial) throws Exception {
+        final Meter warmUp = new Meter();
+        for (int i = 0; i < iterations; i++) {
+            warmUp.round = i;
+            trial.run(warmUp);
+        }
+        final Meter meter = new Meter();
+        for (int i = 0; i < iterations; i++) {
+            meter.round = i;
+            trial.run(meter);
+        }
+        final long perCall = meter.bytes / Math.max(1, meter.calls);
+        final boolean over = perCall > budget;
+        overBudget |= over;
+        System.out.printf("%-18s %,14d %,14d%s%n", name, perCall, budget, over ? "  OVER BUDGET" : "");
+    }
+
+    private interface Trial {
+        void run(Meter meter) throws Exception;
+    }
+
+    // Accumulates the bytes the current thread allocates between start() and stop()
+    private static final class Meter {
+        private int round; // Iteration number, lets a trial vary its input
+        private long bytes;
+        private long calls;
+        private long startBytes;
+
+        private void start() {
+            startBytes = THREADS.getCurrentThreadAllocatedBytes();
+        }
+
+        private void stop() {
+            bytes += THREADS.getCurrentThreadAllocatedBytes() - startBytes;
+            calls++;
+        }
+    }
+
+    /**
+     * A show whose first confirmedBookings * seatsPerCart seats are sold (one booking per cart), the
+     * next cart held by the buyer and the rest free.
+     */
+    private final class Fixture {
+        private final SeatLockProvider lockProvider = new SeatLockProvider(show -> 600, 600, LockingMode.READ_WRITE);
+        private final BookingService bookingService = new BookingService(lockProvider);
+        private final SeatAvailabilityService availabilityService = new SeatAvailabilityService(bookingService, lockProvider);
+        private final User buyer = new User("buyer", "buyer@example.com");
+        private final List<Seat> seats = new ArrayList<>();
+        private final List<Seat> heldCart;
+        private final Show show;
+
+        private Fixture() throws Exception {
+            final Screen screen = new Screen(1, "Screen 1", new Theatre(1, "Bench"));
+            for (int i = 0; i < seatCount; i++) {
+                seats.add(new Seat(i + 1, i / 20, SeatCategory.values()[i * SeatCategory.values().length / seatCount]));
+            }
+            screen.addSeats(seats);
+            show = new Show(1, new Movie(1, "Bench", 120), screen, new Date(System.currentTimeMillis() + 3_600_000L), 120);
+            for (int b = 0; b < confirmedBookings; b++) {
+                final User user = new User("user" + b, "user" + b + "@example.com");
+                final Booking booking = bookingService.createBooking(user, show, cart(b));
+                bookingService.confirmBooking(booking, user);
+            }
+            heldCart = cart(confirmedBookings);
+        }
+
+        private List<Seat> cart(final int index) {
+            return new ArrayList<>(seats.subList(index * seatsPerCart, (index + 1) * seatsPerCart));
+        }
+
+        // A cart of seats that are neither sold nor held, chosen by round among the free ones (main() ensures one exists)
+        private List<Seat> freeCart(final int round) {
+            final int firstFree = (confirmedBookings + 1) * seatsPerCart;
+            final int freeCarts = (seatCount - firstFree) / seatsPerCart;
+            final int start = firstFree + (round % freeCarts) * seatsPerCart;
+            return new ArrayList<>(seats.subList(start, start + seatsPerCart));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package Benchmarks;
+
+import CommonEnum.BookingStatus;
+import CommonEnum.LockingMode;
+import CommonEnum.ReplicationMode;
+import CommonEnum.SeatCategory;
+import ConcreteLockProviders.SeatLockProvider;
+import CoreClasses.Booking;
+import CoreClasses.Movie;
+import CoreClasses.Screen;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.Theatre;
+import CoreClasses.User;
+import Services.BookingService;
+import Services.ReplicationPrimary;
+import Services.ReplicationStandby;
+import Services.ShowService;
+import Utilities.EventLog;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Runs a sale against a primary that replicates to a standby over a local socket, then kills the
+ * primary mid-stream and waits for the standby to promote itself. Reported per acknowledgement mode:
+ * confirmBooking latency, replication lag, failover time, and how the promoted standby's bookings
+ * and holds compare with what the primary had: confirmations lost, statuses that differ, and holds
+ * of unpaid bookings that are missing.
+ *
+ * Both sides run in this JVM for the measurement but only talk through the socket, as two processes
+ * would. Each worker books two seats at a time; every fifth booking is abandoned and every worker's
+ * last booking is left unpaid, so holds and expiries are replicated as well.
+ *
+ * Usage: java Benchmarks.FailoverBenchmark [workers] [bookingsPerWorker] [primaryTimeoutMillis]
+ */
+public class FailoverBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int workers = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        final int bookingsPerWorker = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        final long primaryTimeoutMillis = args.length > 2 ? Long.parseLong(args[2]) : 300;
+
+        EventLog.start(Files.createTempDirectory("failover"), 1 << 16, 64L * 1024 * 1024, 2, false);
+        try {
+            for (ReplicationMode mode : ReplicationMode.values()) {
+                run(mode, workers, bookingsPerWorker, primaryTimeoutMillis);
+            }
+        } finally {
+            EventLog.stop();
+        }
+    }
+
+    private static void run(final ReplicationMode mode, final int workers, final int bookingsPerWorker,
+                            final long primaryTimeoutMillis) throws Exception {
+        final int seatsPerShow = bookingsPerWorker * 2;
+
+        final ShowService standbyShows = catalog(workers, seatsPerShow);
+        final SeatLockProvider standbyLocks = new SeatLockProvider(show -> 600, 600, LockingMode.READ_WRITE);
+        final BookingService standbyBookings = new BookingService(standbyLocks);
+        final ReplicationStandby standby = new ReplicationStandby(0, standbyShows, standbyBookings, standbyLocks,
+                primaryTimeoutMillis, true, standbyLocks::startLockCleanup);
+        standby.start();
+
+        final ShowService primaryShows = catalog(workers, seatsPerShow);
+        final SeatLockProvider primaryLocks = new SeatLockProvider(show -> 600, 600, LockingMode.READ_WRITE);
+        final BookingService primaryBookings = new BookingService(primaryLocks);
+        final ReplicationPrimary primary = new ReplicationPrimary(standby.getPort(), mode, 500, primaryTimeoutMillis / 3, 1 << 20);
+        primary.start();
+        primaryLocks.addSeatLockListener(primary);
+        primaryBookings.addObserver(primary);
+        primaryBookings.addConfirmationGuard(primary);
+
+        final List<Long> confirmNanos = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < workers; w++) {
+            final Show show = primaryShows.getShow(w + 1);
+            final User user = new User("user" + w, "user" + w + "@example.com");
+            threads.add(new Thread(() -> {
+                final List<Seat> seats = show.getScreen().getSeats();
+                for (int b = 0; b < bookingsPerWorker; b++) {
+                    try {
+                        final Booking booking = primaryBookings.createBooking(user, show,
+                                new ArrayList<>(seats.subList(2 * b, 2 * b + 2)));
+                        if (b == bookingsPerWorker - 1) {
+                            continue; // Left unpaid, its hold must survive the failover
+                        }
+                        if (b % 5 == 4) {
+                            primaryBookings.abandonBooking(booking);
+                            continue;
+                        }
+                        final long start = System.nanoTime();
+                        primaryBookings.confirmBooking(booking, user);
+                        confirmNanos.add(System.nanoTime() - start);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }));
+        }
+        final long saleStart = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        final double saleSeconds = (System.nanoTime() - saleStart) / 1e9;
+        final long lagAtKill = primary.getLagRecords();
+
+        final long killedAt = System.currentTimeMillis();
+        primary.shutdown(); // The primary dies; anything still queued is lost
+        while (!standby.isPromoted()) {
+            Thread.sleep(1);
+        }
+        final long failoverMillis = System.currentTimeMillis() - killedAt;
+
+        int lostConfirmations = 0;
+        int statusMismatches = 0;
+        int missingHolds = 0;
+        for (Booking original : primaryBookings.getAllBookings()) {
+            final Booking replica;
+            try {
+                replica = standbyBookings.getBooking(original.getId());
+            } catch (Exception e) {
+                if (original.getBookingStatus() == BookingStatus.CONFIRMED) lostConfirmations++;
+                else statusMismatches++;
+                continue;
+            }
+            if (replica.getBookingStatus() != original.getBookingStatus()) {
+                if (original.getBookingStatus() == BookingStatus.CONFIRMED) lostConfirmations++;
+                else statusMismatches++;
+            } else if (replica.getBookingStatus() == BookingStatus.CREATED) {
+                final User owner = standby.resolveUser(original.getUser().getUserName(), original.getUser().getUserEmail());
+                for (Seat seat : replica.getSeatsBooked()) {
+                    if (!standbyLocks.validateLock(replica.getShow(), seat, owner)) missingHolds++;
+                }
+            }
+        }
+
+        final List<Long> latencies = new ArrayList<>(confirmNanos);
+        Collections.sort(latencies);
+        System.out.printf("%-5s confirms=%d (%.0f/s) p50=%.2fms p99=%.2fms syncTimeouts=%d | records=%d unacked at kill=%d "
+                        + "ack lag max=%dms apply lag max=%dms%n",
+                mode, latencies.size(), latencies.size() / saleSeconds, percentile(latencies, 0.50),
+                percentile(latencies, 0.99), primary.getSyncTimeoutCount(), primary.getLastSequence(), lagAtKill,
+                primary.getMaxAckLagMillis(), standby.getMaxApplyLagMillis());
+        System.out.printf("      failover=%dms (standby: %dms since primary last heard, %dms to promote) | "
+                        + "lost confirmations=%d other status mismatches=%d missing holds=%d apply errors=%d%n",
+                failoverMillis, standby.getFailoverMillis(), standby.getPromotionMillis(), lostConfirmations,
+                statusMismatches, missingHolds, standby.getApplyErrorCount());
+        standbyLocks.shutdown();
+    }
+
+    // Same catalog on both sides: one show per worker, shows and seats numbered identically
+    private static ShowService catalog(final int shows, final int seatsPerShow) {
+        final ShowService showService = new ShowService();
+        final Movie movie = new Movie(1, "Premiere", 150);
+        final Date startTime = new Date(System.currentTimeMillis() + 3_600_000L);
+        for (int s = 0; s < shows; s++) {
+            final Screen screen = new Screen(s + 1, "Screen " + (s + 1), new Theatre(s + 1, "Theatre " + (s + 1)));
+            final List<Seat> seats = new ArrayList<>(seatsPerShow);
+            for (int i = 0; i < seatsPerShow; i++) {
+                seats.add(new Seat(s * seatsPerShow + i + 1, i / 20, SeatCategory.GOLD));
+            }
+            screen.addSeats(seats);
+            showService.createShow(movie, screen, startTime, 150);
+        }
+        return showService;
+    }
+
+    private static double percentile(final List<Long> sorted, final double fraction) {
+        if (sorted.isEmpty()) return 0;
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * fraction))) / 1e6;
+    }
+}
@@ -0,0 +1,74 @@
+package Benchmarks;
+
+import CommonEnum.SeatCategory;
+import CoreClasses.Booking;
+import CoreClasses.EmailMessage;
+import CoreClasses.Movie;
+import CoreClasses.Screen;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.Theatre;
+import CoreClasses.User;
+import Services.NotificationService;
+import Utilities.FakeSmtpServer;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Pushes confirmation emails through NotificationService into the embedded FakeSmtpServer and
+ * reports enqueue cost, delivery throughput, retries and dead letters under injected failures.
+ *
+ * Usage: java Benchmarks.NotificationThroughputBenchmark [messages] [dispatchers] [batchSize]
+ *        [latencyMillis] [transientFailureRate] [dropConnectionRate]
+ * Every 100th recipient is at a domain the server rejects permanently.
+ */
+public class NotificationThroughputBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        final int messages = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        final int dispatchers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        final int batchSize = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        final long latencyMillis = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        final double transientFailureRate = args.length > 4 ? Double.parseDouble(args[4]) : 0.01;
+        final double dropConnectionRate = args.length > 5 ? Double.parseDouble(args[5]) : 0.001;
+
+        final FakeSmtpServer server = new FakeSmtpServer();
+        server.setLatencyMillis(latencyMillis);
+        server.setTransientFailureRate(transientFailureRate);
+        server.setDropConnectionRate(dropConnectionRate);
+        server.setRejectedDomain("@bounce.example");
+        server.start();
+        final NotificationService notificationService = new NotificationService(server.getHost(), server.getPort(),
+                dispatchers, batchSize, messages, 5);
+
+        final Theatre theatre = new Theatre(1, "Bench Cinemas");
+        final Screen screen = new Screen(1, "Screen 1", theatre);
+        final Show show = new Show(1, new Movie(1, "Bench", 120), screen, new Date(), 120);
+        final List<Seat> seats = Collections.singletonList(new Seat(1, 1, SeatCategory.GOLD));
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            final String domain = i % 100 == 99 ? "bounce.example" : "example.com";
+            final User user = new User("user" + i, "user" + i + "@" + domain);
+            notificationService.enqueue(new Booking(String.valueOf(i), show, user, seats, 250));
+        }
+        final long enqueueNanos = System.nanoTime() - start;
+        final boolean drained = notificationService.awaitIdle(120_000);
+        final long totalNanos = System.nanoTime() - start;
+
+        System.out.printf("messages=%d dispatchers=%d batch=%d latency=%dms%n", messages, dispatchers, batchSize, latencyMillis);
+        System.out.printf("enqueue: %.2f us/message%n", enqueueNanos / 1_000.0 / messages);
+        System.out.printf("delivered: %d in %.2fs (%,.0f msg/s)%s%n", notificationService.getSentCount(),
+                totalNanos / 1e9, notificationService.getSentCount() / (totalNanos / 1e9), drained ? "" : " [timed out]");
+        System.out.printf("retries=%d deadLetters=%d smtpConnections=%d serverAccepted=%d%n",
+                notificationService.getRetryCount(), notificationService.getDeadLetters().size(),
+                server.getConnectionCount(), server.getReceivedCount());
+        for (EmailMessage message : notificationService.getDeadLetters().subList(0, Math.min(3, notificationService.getDeadLetters().size()))) {
+            System.out.println("  dead letter " + message.getBooking().getId() + " -> " + message.getLastError());
+        }
+        notificationService.shutdown();
+        server.stop();
+    }
+}
@@ -0,0 +1,116 @@
+package Benchmarks;
+
+import CommonEnum.RequestPriority;
+import Utilities.AdaptiveConcurrencyLimiter;
+import Utilities.RequestRejectedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shows what the AdaptiveConcurrencyLimiter buys a checkout during a traffic spike. The "backend" can
+ * serve a fixed number of requests at once (a fair semaphore, each request holding it for a few ms);
+ * many browse threads flood it while a few checkout threads time their requests. Without a limiter
+ * every request queues behind the flood; with one, browsing is shed and checkouts stay fast.
+ *
+ * Usage: java Benchmarks.OverloadBenchmark [browseThreads] [checkoutThreads] [seconds]
+ */
+public class OverloadBenchmark {
+
+    private static final int BACKEND_CAPACITY = 8; // Requests the backend serves in parallel
+    private static final long SERVICE_MILLIS = 2; // Time each request holds the backend
+
+    public static void main(String[] args) throws Exception {
+        final int browseThreads = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        final int checkoutThreads = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        final int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        run("unlimited", AdaptiveConcurrencyLimiter.unlimited(), browseThreads, checkoutThreads, seconds);
+        run("adaptive", new AdaptiveConcurrencyLimiter(16, 4, 256), browseThreads, checkoutThreads, seconds);
+    }
+
+    private static void run(final String name, final AdaptiveConcurrencyLimiter limiter, final int browseThreads,
+                            final int checkoutThreads, final int seconds) throws Exception {
+        final Semaphore backend = new Semaphore(BACKEND_CAPACITY, true);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final LongAdder browsed = new LongAdder();
+        final LongAdder browseRejected = new LongAdder();
+        final LongAdder checkoutRejected = new LongAdder();
+        final List<Long> checkoutNanos = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < browseThreads; i++) {
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    try {
+                        limiter.call(RequestPriority.BROWSE, () -> serve(backend));
+                        browsed.increment();
+                    } catch (RequestRejectedException e) {
+                        browseRejected.increment();
+                        sleepQuietly(e.getRetryAfterMillis());
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        for (int i = 0; i < checkoutThreads; i++) {
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    final long start = System.nanoTime();
+                    try {
+                        limiter.call(RequestPriority.CHECKOUT, () -> serve(backend));
+                        checkoutNanos.add(System.nanoTime() - start);
+                    } catch (RequestRejectedException e) {
+                        checkoutRejected.increment();
+                    } catch (Exception e) {
+                        return;
+                    }
+                    sleepQuietly(20); // A buyer doesn't pay in a tight loop
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        TimeUnit.SECONDS.sleep(seconds);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final List<Long> latencies = new ArrayList<>(checkoutNanos);
+        Collections.sort(latencies);
+        System.out.printf("%-9s checkouts=%d p50=%.1fms p99=%.1fms rejected=%d | browse ok/s=%,d rejected/s=%,d | limit=%d%n",
+                name, latencies.size(), percentile(latencies, 0.50), percentile(latencies, 0.99), checkoutRejected.sum(),
+                browsed.sum() / seconds, browseRejected.sum() / seconds, limiter.getLimit());
+    }
+
+    private static Object serve(final Semaphore backend) throws InterruptedException {
+        backend.acquire();
+        try {
+            Thread.sleep(SERVICE_MILLIS);
+            return null;
+        } finally {
+            backend.release();
+        }
+    }
+
+    private static double percentile(final List<Long> sorted, final double fraction) {
+        if (sorted.isEmpty()) return 0;
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * fraction))) / 1e6;
+    }
+
+    private static void sleepQuietly(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
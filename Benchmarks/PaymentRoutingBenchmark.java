@@ -0,0 +1,111 @@
+package Benchmarks;
+
+import CommonEnum.PaymentMethod;
+import CommonEnum.PaymentStatus;
+import ConcretePaymentStrategies.SimulatedPaymentGateway;
+import Services.PaymentRouter;
+import Utilities.EventLog;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pays through a pool of three simulated card gateways, each with a slow tail, in three phases:
+ * steady, the first gateway failing every call (outage), and the first gateway healthy again. The
+ * same run is made twice: once pinned to one gateway (one attempt per payment, as before routing)
+ * and once routed with hedging, failover and circuit breakers.
+ *
+ * Per phase it reports latency percentiles and the share of payments that succeeded; at the end,
+ * hedges, failovers, timeouts, circuit trips per gateway, and the money check: captures minus
+ * voided captures must equal the payments reported as successful, or a customer was charged twice.
+ *
+ * Usage: java Benchmarks.PaymentRoutingBenchmark [workers] [paymentsPerWorkerPerPhase] [tailMillis]
+ */
+public class PaymentRoutingBenchmark {
+
+    private static final String[] PHASES = {"steady", "outage", "recovered"};
+
+    public static void main(String[] args) throws Exception {
+        final int workers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        final int paymentsPerWorker = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        final long tailMillis = args.length > 2 ? Long.parseLong(args[2]) : 400;
+
+        EventLog.start(Files.createTempDirectory("payment-routing"), 1 << 16, 64L * 1024 * 1024, 2, false);
+        try {
+            System.out.printf("workers=%d payments/worker/phase=%d slow tail=%dms%n", workers, paymentsPerWorker, tailMillis);
+            run("single", 1, workers, paymentsPerWorker, tailMillis);
+            run("routed", 3, workers, paymentsPerWorker, tailMillis);
+        } finally {
+            EventLog.stop();
+        }
+    }
+
+    private static void run(final String label, final int maxAttempts, final int workers, final int paymentsPerWorker,
+                            final long tailMillis) throws Exception {
+        final SimulatedPaymentGateway[] pool = {
+                new SimulatedPaymentGateway("gw-a", 20, 0.03, tailMillis, 0, 0.01),
+                new SimulatedPaymentGateway("gw-b", 25, 0.03, tailMillis, 0, 0.01),
+                new SimulatedPaymentGateway("gw-c", 30, 0.02, tailMillis, 0, 0.01)
+        };
+        final PaymentRouter router = new PaymentRouter(2_000, 0.95, maxAttempts, 50, 10, 0.5, 500, 1024);
+        for (int g = 0; g < (maxAttempts == 1 ? 1 : pool.length); g++) { // Pinned: only the first gateway
+            router.addGateway(PaymentMethod.CREDIT_CARD, pool[g].getName(), pool[g]);
+        }
+
+        final LongAdder succeeded = new LongAdder();
+        for (int phase = 0; phase < PHASES.length; phase++) {
+            pool[0].setErrorRate(phase == 1 ? 1.0 : 0);
+            Thread.sleep(1_000); // Quiet gap, longer than a circuit stays open, so a tripped one can probe again
+            final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+            final LongAdder phaseSucceeded = new LongAdder();
+            final List<Thread> threads = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                threads.add(new Thread(() -> {
+                    for (int p = 0; p < paymentsPerWorker; p++) {
+                        final long start = System.nanoTime();
+                        final PaymentStatus status = router.route(PaymentMethod.CREDIT_CARD, 250).processPayment();
+                        latencies.add(System.nanoTime() - start);
+                        if (status == PaymentStatus.SUCCESS) phaseSucceeded.increment();
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            final List<Long> sorted = new ArrayList<>(latencies);
+            Collections.sort(sorted);
+            System.out.printf("%-7s %-10s p50=%6.1fms p99=%6.1fms max=%6.1fms succeeded=%5.1f%%%n", label, PHASES[phase],
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0),
+                    100.0 * phaseSucceeded.sum() / Math.max(1, sorted.size()));
+            succeeded.add(phaseSucceeded.sum());
+        }
+        Thread.sleep(3 * tailMillis); // Let calls still running after their payment was decided finish and void
+        router.retryFailedVoids(); // Refunds that failed the first time, as a periodic job would
+
+        long captured = 0;
+        long refunds = 0;
+        final StringBuilder trips = new StringBuilder();
+        for (int g = 0; g < (maxAttempts == 1 ? 1 : pool.length); g++) {
+            captured += pool[g].getChargeCount();
+            refunds += pool[g].getRefundCount();
+            trips.append(' ').append(pool[g].getName()).append('=')
+                    .append(router.getCircuitBreaker(pool[g].getName()).getTimesOpened());
+        }
+        System.out.printf("%-7s hedged=%d failovers=%d timedOut=%d unrouted=%d circuit trips:%s%n", label,
+                router.getHedgedCount(), router.getFailoverCount(), router.getTimedOutCount(), router.getUnroutedCount(), trips);
+        System.out.printf("%-7s captured=%d voided=%d succeeded=%d still to void=%d -> %s%n", label, captured, refunds,
+                succeeded.sum(), router.getFailedVoidCount(), captured - refunds == succeeded.sum() ? "no double charges" : "MISMATCH");
+        router.shutdown();
+    }
+
+    private static double percentile(final List<Long> sorted, final double fraction) {
+        if (sorted.isEmpty()) return 0;
+        return sorted.get(Math.min(sorted.size() - 1, (int) (sorted.size() * fraction))) / 1e6;
+    }
+}
@@ -0,0 +1,104 @@
+package Benchmarks;
+
+import CommonEnum.LockingMode;
+import CommonEnum.SeatCategory;
+import ConcreteLockProviders.SeatLockProvider;
+import CoreClasses.Movie;
+import CoreClasses.Screen;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.Theatre;
+import CoreClasses.User;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares seat-map read throughput of SeatLockProvider in READ_WRITE and OPTIMISTIC mode.
+ * Reader threads hammer validateLock/getLockedSeats on one show while a single writer keeps
+ * locking and unlocking seats on it, like a busy seat map with an occasional hold.
+ *
+ * Usage: java Benchmarks.SeatLockReadBenchmark [readerThreads] [seconds]
+ */
+public class SeatLockReadBenchmark {
+
+    private static final int SEAT_COUNT = 200;
+
+    public static void main(String[] args) throws Exception {
+        final int readers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        final int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        for (LockingMode mode : LockingMode.values()) {
+            run(mode, readers, 1); // Warm-up round, not reported
+        }
+        for (LockingMode mode : LockingMode.values()) {
+            final long[] result = run(mode, readers, seconds);
+            System.out.printf("%-10s readers=%d reads/s=%,d writes/s=%,d%n",
+                    mode, readers, result[0] / seconds, result[1] / seconds);
+        }
+    }
+
+    // Returns {total reads, total writes} for one timed round
+    private static long[] run(final LockingMode mode, final int readers, final int seconds) throws Exception {
+        final SeatLockProvider provider = new SeatLockProvider(show -> 60, 60, mode);
+        final Theatre theatre = new Theatre(1, "Bench");
+        final Screen screen = new Screen(1, "Screen 1", theatre);
+        final List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < SEAT_COUNT; i++) {
+            seats.add(new Seat(i + 1, i / 20, SeatCategory.SILVER));
+        }
+        final Show show = new Show(1, new Movie(1, "Bench", 120), screen, new Date(System.currentTimeMillis() + 3_600_000L), 120);
+        final User reader = new User("reader", "reader@example.com");
+        final User writer = new User("writer", "writer@example.com");
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final LongAdder reads = new LongAdder();
+        final LongAdder writes = new LongAdder();
+        final CountDownLatch done = new CountDownLatch(readers + 1);
+
+        for (int t = 0; t < readers; t++) {
+            new Thread(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                while (running.get()) {
+                    if ((count & 15) == 0) {
+                        provider.getLockedSeats(show);
+                    } else {
+                        provider.validateLock(show, seats.get(random.nextInt(SEAT_COUNT)), reader);
+                    }
+                    count++;
+                }
+                reads.add(count);
+                done.countDown();
+            }).start();
+        }
+        new Thread(() -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            long count = 0;
+            while (running.get()) {
+                final List<Seat> hold = Collections.singletonList(seats.get(random.nextInt(SEAT_COUNT)));
+                try {
+                    provider.lockSeats(show, hold, writer);
+                    provider.unlockSeats(show, hold, writer);
+                    count++;
+                } catch (Exception ignored) {
+                    // Cannot happen with a single writer, every seat is released right away
+                }
+                Thread.onSpinWait(); // Keep the writer occasional rather than saturating the lock
+            }
+            writes.add(count);
+            done.countDown();
+        }).start();
+
+        Thread.sleep(seconds * 1000L);
+        running.set(false);
+        done.await();
+        return new long[]{reads.sum(), writes.sum()};
+    }
+}
@@ -5,5 +5,6 @@ package CommonEnum;
 public enum BookingStatus {
     CREATED,// Booking has been created but not yet confirmed
     CONFIRMED, // Booking has been successfully confirmed
-    EXPIRED; // Booking has expired due to timeout or other factors
+    EXPIRED, // Booking has expired due to timeout or other factors
+    CANCELLED; // Confirmed booking cancelled by the user or with its show; seats went back on sale
 }
\ No newline at end of file
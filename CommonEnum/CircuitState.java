@@ -0,0 +1,7 @@
+package CommonEnum;
+
+public enum CircuitState {
+    CLOSED, // Calls go through
+    OPEN, // Calls are refused until the open period is over
+    HALF_OPEN // One probe call decides whether to close again
+}
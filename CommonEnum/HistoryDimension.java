@@ -0,0 +1,11 @@
+package CommonEnum;
+
+// Dimensions a booking history query can group by
+public enum HistoryDimension {
+    SHOW, // Show ID
+    MOVIE, // Movie ID
+    THEATRE, // Theatre ID
+    CATEGORY, // SeatCategory of the seats
+    DAY, // Calendar day (UTC) the booking was made
+    WEEK; // Calendar week (UTC, starting Monday) the booking was made
+}
@@ -0,0 +1,7 @@
+package CommonEnum;
+
+// How SeatLockProvider guards each show's seat-lock table
+public enum LockingMode {
+    READ_WRITE, // ReentrantReadWriteLock: every reader takes the shared read lock
+    OPTIMISTIC; // StampedLock: readers validate an optimistic stamp and only lock on conflict
+}
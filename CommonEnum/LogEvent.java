@@ -0,0 +1,80 @@
+package CommonEnum;
+
+/**
+ * Event types of the binary event log. A record stores the ordinal, so constants may only be
+ * appended. Templates use {t} for the record's text, {0}..{2} for its numeric arguments and
+ * {0e} for argument 0 decoded as a constant of the event's enum type.
+ */
+public enum LogEvent {
+    EVENTS_DROPPED("Event log ring was full, {0} events dropped."),
+    LOCK_CLEANUP_STARTED("Background seat lock cleanup started (checks every {0}s)."),
+    LOCK_CLEANUP_STOPPED("Background seat lock cleanup stopped."),
+    BOOKING_CONFIRMED("Booking {t} confirmed. Notifying observers..."),
+    BOOKING_LOCKS_RELEASED("Seats for failed Booking ID {t} have been unlocked."),
+    BOOKING_ROLLBACK_FAILED("Could not roll back Booking ID {t}."),
+    PAYMENT_FAILED("Payment failed for Booking ID: {t} with status: {0e}", PaymentStatus.class),
+    CART_PAYMENT_FAILED("Payment failed for Cart ID: {t} with status: {0e}", PaymentStatus.class),
+    DEBIT_CARD_PAYMENT("Processing Debit Card payment... Success!"),
+    UPI_PAYMENT("Processing UPI payment... Bank error!"),
+    EMAIL_QUEUED("--> [EMAIL OBSERVER]: Queued confirmation email for Booking ID: {t}"),
+    EMAIL_SENT("--> [EMAIL OBSERVER]: Sending confirmation email for Booking ID: {t}"),
+    ANALYTICS_UPDATED("--> [ANALYTICS OBSERVER]: Updating analytics for Show ID: {0}. Seats booked: {1}"),
+    BOOKING_CANCELLED("Booking {t} cancelled, {0} seats back on sale."),
+    DEBIT_CARD_REFUND("Refunding {0} to Debit Card... Success!"),
+    UPI_REFUND("Refunding {0} over UPI... Success!"),
+    REFUND_FAILED("Refund failed for Booking ID: {t} with status: {0e}", PaymentStatus.class),
+    SHOW_CANCELLED("Show {0} cancelled: {1} bookings cancelled, {2} refunds failed."),
+    WAITLIST_OFFERED("--> [WAITLIST]: Held {1} seats in Show ID: {0} for waitlist entry {2}, Booking ID: {t}"),
+    SHOW_STATE_CHANGED("Show {1} is now {0e}.", ShowState.class),
+    REPLICATION_CONNECTED("Replication: streaming to standby on port {0} ({t} acknowledgement)."),
+    REPLICATION_STOPPED("Replication: standby lost after {0} records ({1} acknowledged), replication stopped."),
+    STANDBY_PROMOTED("Standby promoted after record {0}: {1} ms since the primary was last heard, {2} ms to promote."),
+    CREDIT_CARD_PAYMENT("Processing Credit Card payment... Success!"),
+    CREDIT_CARD_REFUND("Refunding {0} to Credit Card... Success!"),
+    GATEWAY_CIRCUIT_CHANGED("Payment gateway {t} circuit is now {0e}.", CircuitState.class),
+    GATEWAY_CAPTURE_VOIDED("Payment gateway {t} captured {1} after the payment was decided; refund {0e}.", PaymentStatus.class),
+    NO_PAYMENT_GATEWAY("No payment gateway available for {0e}, every circuit is open.", PaymentMethod.class),
+    SEAT_LOCK_LISTENER_FAILED("Seat lock listener {t} failed on Show ID: {0}; the lock change stands."),
+    CART_CONFIRM_FAILED("Cart ID: {t} could not be confirmed after payment, its bookings were rolled back; refund {0e}.", PaymentStatus.class),
+    NOTIFICATION_BATCH_FAILED("Notification batch failed with {t}; {0} messages were dead-lettered."),
+    NOTIFICATION_DISPATCHER_STOPPED("Notification dispatcher stopped ({0} sent, {1} dead-lettered)."),
+    FAKE_SMTP_STARTED("Fake SMTP server listening on port {0}."),
+    BOOKING_CONFIRM_FAILED("Booking ID: {t} could not be confirmed after payment; refund {0e}.", PaymentStatus.class),
+    SHOW_LIFECYCLE_LISTENER_FAILED("Show lifecycle listener {t} failed on Show ID: {1} becoming {0e}.", ShowState.class);
+
+    private final String template;
+    private final Class<? extends Enum<?>> enumType; // How {0e} is decoded, null if unused
+
+    LogEvent(final String template) {
+        this(template, null);
+    }
+
+    LogEvent(final String template, final Class<? extends Enum<?>> enumType) {
+        this.template = template;
+        this.enumType = enumType;
+    }
+
+    // Renders the message; only ever called by the background writer or the reader tool
+    public String format(final String text, final long arg0, final long arg1, final long arg2) {
+        final StringBuilder out = new StringBuilder(template.length() + 16);
+        for (int i = 0; i < template.length(); i++) {
+            final char c = template.charAt(i);
+            final int close = c == '{' ? template.indexOf('}', i) : -1;
+            if (close < 0) {
+                out.append(c);
+                continue;
+            }
+            final String field = template.substring(i + 1, close);
+            if (field.equals("t")) {
+                out.append(text);
+            } else if (field.equals("0e") && enumType != null) {
+                final Enum<?>[] constants = enumType.getEnumConstants();
+                out.append(arg0 >= 0 && arg0 < constants.length ? constants[(int) arg0].name() : String.valueOf(arg0));
+            } else {
+                out.append(field.equals("0") ? arg0 : field.equals("1") ? arg1 : arg2);
+            }
+            i = close;
+        }
+        return out.toString();
+    }
+}
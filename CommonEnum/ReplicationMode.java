@@ -0,0 +1,7 @@
+package CommonEnum;
+
+// When confirmBooking returns relative to the standby having the confirmation
+public enum ReplicationMode {
+    SYNC, // After the standby acknowledged it (or the sync timeout passed)
+    ASYNC; // Right away; the standby may trail by whatever is still in flight
+}
@@ -0,0 +1,13 @@
+package CommonEnum;
+
+// Record types of the primary-to-standby change log; the ordinal goes on the wire, so only append
+public enum ReplicationRecordType {
+    HEARTBEAT, // Sent when the primary is idle, so the standby can tell quiet from dead
+    SEATS_HELD,
+    SEATS_RELEASED,
+    SEATS_EXPIRED,
+    BOOKING_CREATED,
+    BOOKING_CONFIRMED,
+    BOOKING_EXPIRED,
+    BOOKING_CANCELLED;
+}
@@ -0,0 +1,8 @@
+package CommonEnum;
+
+// Order in which the controllers shed load when the system is over its concurrency limit
+public enum RequestPriority {
+    CHECKOUT, // Payment and renewing holds of buyers already checking out; never shed before the others
+    HOLD, // New seat holds and carts
+    BROWSE; // Read-only pages: shows, seat maps, prices, listings
+}
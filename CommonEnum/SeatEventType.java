@@ -0,0 +1,10 @@
+package CommonEnum;
+
+// Kinds of events recorded in a show's seat event log
+public enum SeatEventType {
+    HOLD, // Seat locked for a user
+    RELEASE, // Hold released explicitly (payment failed, booking abandoned)
+    EXPIRE, // Hold timed out and was swept
+    BOOK, // Seat sold in a confirmed booking
+    CANCEL; // Sold seat returned to inventory by a cancelled booking
+}
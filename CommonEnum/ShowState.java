@@ -0,0 +1,9 @@
+package CommonEnum;
+
+// Where a show is in its lifecycle, moved along by ShowLifecycleService from its start time and duration
+public enum ShowState {
+    ON_SALE, // Scheduled, seats can be held and bought
+    STARTED, // Running, no new bookings
+    FINISHED, // Over, kept for a while for late cancellations and reports
+    RETIRED; // Gone, everything kept per show has been freed
+}
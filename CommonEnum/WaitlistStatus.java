@@ -0,0 +1,9 @@
+package CommonEnum;
+
+// Where a waitlist entry stands
+public enum WaitlistStatus {
+    WAITING, // In the queue for its show
+    OFFERED, // Seats were held for the user; the offer is a normal booking awaiting payment
+    LEFT, // The user left the waitlist before getting an offer
+    CLOSED; // The show started before seats came free
+}
@@ -0,0 +1,547 @@
+package ConcreteLockProviders;
+
+import CommonEnum.LogEvent;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.HoldTimeoutPolicy;
+import Interfaces.ISeatLockProvider;
+import Interfaces.SeatLockListener;
+import Interfaces.ShowLifecycleListener;
+import Utilities.EventLog;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seat lock provider whose holds live in a memory-mapped file, so several JVM processes on one
+ * host share a single seat state. Every process must build the same catalog (same show and seat IDs).
+ *
+ * The file is a fixed-size open-addressing table of 40-byte slots, one per (show, seat) pair:
+ *   key | lease | owner | deadline | max deadline
+ * The lease word is the only thing ever CASed. It holds the ID of the process that last wrote the
+ * hold and a small write stamp, so a lease written again never looks unchanged to a competing CAS.
+ * The owner word identifies the user: a hash of name and email, the same in every process, so a
+ * hold placed by one process can be validated, renewed or released by another (users are matched
+ * by name and email, as replication does). While a process updates a slot it sets the CLAIMING bit,
+ * which makes the slot off-limits to everybody else; owner and deadlines only change under it. A
+ * free slot keeps its stamp and has no process ID.
+ *
+ * Keys are added, and removed again when a show is retired, under a lock word in the file header;
+ * lookups don't take it. A removed key leaves a tombstone that lookups probe past and new keys
+ * reuse. A key only changes while its slot is claimed, and whoever claims a slot checks the key
+ * again, so nobody holds a slot that was handed to another seat meanwhile.
+ *
+ * Nothing is stuck after a crash: a hold is up for grabs once its deadline passes, or straight away
+ * when the process that wrote it is no longer alive (a renewal from another process takes the hold
+ * over). Nobody waits on a CLAIMING bit for more than a few milliseconds either; one left behind by
+ * a dead process is cleared, and a live owner that stalls mid-update just makes the waiter give up
+ * (validation and renewal fail, a release is retried by the sweep). Lock events only reach
+ * listeners of the process that placed, released or swept the hold.
+ */
+public class MappedSeatLockProvider implements ISeatLockProvider, ShowLifecycleListener {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long MAGIC = 0x5345_4154_4c43_4b32L; // "SEATLCK2"
+    private static final int HEADER_BYTES = 64; // magic, slot count, key lock, rest reserved
+    private static final int KEY_LOCK = 16; // Header word: process ID bits of the process adding or removing keys, 0 if none
+    private static final int SLOT_BYTES = 40;
+    private static final int KEY = 0, LEASE = 8, OWNER = 16, DEADLINE = 24, MAX_DEADLINE = 32; // Offsets inside a slot
+    private static final long EMPTY = 0, TOMBSTONE = -1; // Keys of a never used and of a removed slot
+
+    // Lease word layout: [63] claiming | [40..62] process ID | [0..15] write stamp
+    private static final long CLAIMING = 1L << 63;
+    private static final long PID_MASK = (1L << 23) - 1;
+    private static final long HOLDER_MASK = PID_MASK << 40;
+    private static final long PROCESS_CHECK_MILLIS = 1000; // How long a liveness answer for another process is reused
+    private static final long CLAIM_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10); // Longest wait for a slot mid-update
+
+    // What tryAcquire found
+    private static final int ACQUIRED = 0, TAKEN = 1, MOVED = 2; // MOVED: the slot no longer belongs to the seat
+
+    private final MappedByteBuffer region;
+    private final int slotMask; // Slot count - 1 (the slot count is a power of two)
+    private final long pid = ProcessHandle.current().pid() & PID_MASK;
+    private final long holder = pid << 40; // This process in a lease word
+    private final HoldTimeoutPolicy holdTimeoutPolicy;
+    private final int maxLeaseSeconds;
+    private final Map<Long, Long> processChecks = new ConcurrentHashMap<>(); // pid -> checked until (negative = dead)
+    // Holds placed by this process, so the sweeper can report their expiry (key = show)
+    private final Map<Show, Map<Seat, User>> localHolds = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final List<SeatLockListener> listeners = new CopyOnWriteArrayList<>();
+
+    public MappedSeatLockProvider(final Path file, final int slotCount, final Integer lockTimeout) throws IOException {
+        this(file, slotCount, show -> lockTimeout, lockTimeout * 4);
+    }
+
+    public MappedSeatLockProvider(final Path file, final int slotCount, final HoldTimeoutPolicy holdTimeoutPolicy,
+                                  final int maxLeaseSeconds) throws IOException {
+        if (slotCount <= 0 || Integer.bitCount(slotCount) != 1 || slotCount > (1 << 25)) {
+            throw new IllegalArgumentException("Slot count must be a power of two up to 2^25, was " + slotCount);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.region = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) slotCount * SLOT_BYTES);
+        }
+        // First process to open the file stamps the header; the others must agree on its size
+        LONGS.compareAndSet(region, 8, 0L, (long) slotCount);
+        LONGS.compareAndSet(region, 0, 0L, MAGIC);
+        if ((long) LONGS.getVolatile(region, 0) != MAGIC || (long) LONGS.getVolatile(region, 8) != slotCount) {
+            throw new IllegalStateException(file + " is not a seat lock region of " + slotCount + " slots");
+        }
+        this.slotMask = slotCount - 1;
+        this.holdTimeoutPolicy = holdTimeoutPolicy;
+        this.maxLeaseSeconds = maxLeaseSeconds;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @Override
+    public void addSeatLockListener(final SeatLockListener listener) {
+        listeners.add(listener);
+    }
+
+    public void startLockCleanup() {
+        scheduler.scheduleAtFixedRate(this::cleanupExpiredLocks, 5, 5, TimeUnit.SECONDS);
+        EventLog.record(LogEvent.LOCK_CLEANUP_STARTED, 5);
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        EventLog.record(LogEvent.LOCK_CLEANUP_STOPPED);
+    }
+
+    /**
+     * Releases this process's remaining holds on the retired show, stops sweeping it and removes the
+     * show's keys from the file, so their slots can be reused. Slots still held by another process
+     * keep their key until that process retires the show as well.
+     */
+    @Override
+    public void onShowRetired(final Show show) {
+        final Map<Seat, User> holds = localHolds.remove(show);
+        if (holds != null) {
+            synchronized (holds) {
+                for (Map.Entry<Seat, User> hold : holds.entrySet()) {
+                    final long key = keyOf(show, hold.getKey());
+                    final int slot = findSlot(key);
+                    if (slot >= 0) {
+                        release(slotOffset(slot), key, ownerOf(hold.getValue()));
+                    }
+                }
+                holds.clear();
+            }
+        }
+        lockKeys();
+        try {
+            for (Seat seat : show.getScreen().getSeats()) {
+                final long key = keyOf(show, seat);
+                final int slot = findSlot(key);
+                if (slot >= 0) {
+                    removeKey(slotOffset(slot), key);
+                }
+            }
+        } finally {
+            unlockKeys();
+        }
+    }
+
+    @Override
+    public void lockSeats(final Show show, final List<Seat> seats, final User user) throws Exception {
+        lockSeats(show, seats, user, holdTimeoutPolicy.getHoldSeconds(show));
+    }
+
+    @Override
+    public void lockSeats(final Show show, final List<Seat> seats, final User user, final int holdSeconds) throws Exception {
+        final long owner = ownerOf(user);
+        final long now = System.currentTimeMillis();
+        final long deadline = now + holdSeconds * 1000L;
+        final long maxDeadline = now + Math.max(holdSeconds, maxLeaseSeconds) * 1000L;
+        final Map<Seat, User> holds = localHolds.computeIfAbsent(show, s -> new ConcurrentHashMap<>());
+
+        synchronized (holds) { // Keeps this process's events ordered per show
+            final List<Integer> acquired = new ArrayList<>(seats.size());
+            for (Seat seat : seats) {
+                final long key = keyOf(show, seat);
+                int result;
+                int slot;
+                do {
+                    slot = claimSlot(key);
+                    result = tryAcquire(slotOffset(slot), key, owner, deadline, maxDeadline, now);
+                } while (result == MOVED);
+                if (result == TAKEN) {
+                    for (int i = 0; i < acquired.size(); i++) { // All or nothing, like the on-heap provider
+                        release(slotOffset(acquired.get(i)), keyOf(show, seats.get(i)), owner);
+                    }
+                    throw new Exception("Seat " + seat.getSeatId() + " is already locked.");
+                }
+                acquired.add(slot);
+            }
+            for (Seat seat : seats) {
+                holds.put(seat, user);
+            }
+            SeatLockEvents.locked(listeners, show, seats, user);
+        }
+    }
+
+    @Override
+    public void unlockSeats(final Show show, final List<Seat> seats, final User user) {
+        final Map<Seat, User> local = localHolds.get(show);
+        final Map<Seat, User> holds = local != null ? local : new HashMap<>(); // The hold may come from another process
+
+        synchronized (holds) {
+            final long owner = ownerOf(user);
+            final List<Seat> released = new ArrayList<>(seats.size());
+            for (Seat seat : seats) {
+                final long key = keyOf(show, seat);
+                final int slot = findSlot(key);
+                if (slot >= 0 && release(slotOffset(slot), key, owner)) {
+                    holds.remove(seat);
+                    released.add(seat);
+                }
+            }
+            if (!released.isEmpty()) {
+                SeatLockEvents.unlocked(listeners, show, released, user);
+            }
+        }
+    }
+
+    @Override
+    public boolean validateLock(final Show show, final Seat seat, final User user) {
+        final long key = keyOf(show, seat);
+        final int slot = findSlot(key);
+        if (slot < 0) return false;
+        final int offset = slotOffset(slot);
+        final long owner = ownerOf(user);
+        while (true) {
+            long lease = lease(offset);
+            if ((lease & CLAIMING) != 0) {
+                if ((long) LONGS.getVolatile(region, offset + OWNER) != owner) {
+                    return false; // Someone else's, or being taken over: not ours to wait for
+                }
+                lease = settledLease(offset);
+                if ((lease & CLAIMING) != 0) {
+                    return false; // Our own update stalled, the hold cannot be vouched for
+                }
+            }
+            if ((lease & HOLDER_MASK) == 0) {
+                return false;
+            }
+            final boolean ours = isOwnedBy(offset, key, owner);
+            final long deadline = (long) LONGS.getVolatile(region, offset + DEADLINE);
+            if (lease(offset) == lease) { // Key, owner and deadline belong to this lease
+                return ours && deadline >= System.currentTimeMillis();
+            }
+        }
+    }
+
+    @Override
+    public boolean renewLocks(final Show show, final List<Seat> seats, final User user) {
+        final long owner = ownerOf(user);
+        final long requestedDeadline = System.currentTimeMillis() + holdTimeoutPolicy.getHoldSeconds(show) * 1000L;
+        boolean renewedAll = true;
+        for (Seat seat : seats) {
+            final long key = keyOf(show, seat);
+            final int slot = findSlot(key);
+            renewedAll &= slot >= 0 && renew(slotOffset(slot), key, owner, requestedDeadline);
+        }
+        return renewedAll;
+    }
+
+    @Override
+    public List<Seat> getLockedSeats(final Show show) {
+        final long now = System.currentTimeMillis();
+        final List<Seat> lockedSeats = new ArrayList<>();
+        for (Seat seat : show.getScreen().getSeats()) {
+            final int slot = findSlot(keyOf(show, seat));
+            if (slot >= 0) {
+                final int offset = slotOffset(slot);
+                final long lease = lease(offset);
+                if ((lease & HOLDER_MASK) != 0 && !isReclaimable(offset, lease, now)) {
+                    lockedSeats.add(seat);
+                }
+            }
+        }
+        return lockedSeats;
+    }
+
+    // Sweeps this process's own holds: expired ones are cleared, and all lost ones are reported as expired
+    private void cleanupExpiredLocks() {
+        final long now = System.currentTimeMillis();
+        for (Map.Entry<Show, Map<Seat, User>> entry : localHolds.entrySet()) {
+            final Map<Seat, User> holds = entry.getValue();
+            synchronized (holds) {
+                Map<User, List<Seat>> expiredByUser = null;
+                final Iterator<Map.Entry<Seat, User>> iterator = holds.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    final Map.Entry<Seat, User> hold = iterator.next();
+                    final long key = keyOf(entry.getKey(), hold.getKey());
+                    final long owner = ownerOf(hold.getValue());
+                    final int slot = findSlot(key);
+                    if (slot >= 0) {
+                        final int offset = slotOffset(slot);
+                        final long lease = lease(offset);
+                        final boolean stillOurs = (lease & HOLDER_MASK) != 0 && isOwnedBy(offset, key, owner);
+                        if (stillOurs && (lease & CLAIMING) == 0
+                                && (long) LONGS.getVolatile(region, offset + DEADLINE) >= now) {
+                            continue; // Live hold
+                        }
+                        if (stillOurs) {
+                            release(offset, key, owner);
+                        }
+                    }
+                    iterator.remove();
+                    if (expiredByUser == null) expiredByUser = new HashMap<>();
+                    expiredByUser.computeIfAbsent(hold.getValue(), u -> new ArrayList<>()).add(hold.getKey());
+                }
+                if (expiredByUser != null) {
+                    for (Map.Entry<User, List<Seat>> expired : expiredByUser.entrySet()) {
+                        SeatLockEvents.expired(listeners, entry.getKey(), expired.getValue(), expired.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    private int tryAcquire(final int offset, final long key, final long owner, final long deadline,
+                           final long maxDeadline, final long now) {
+        while (true) {
+            if ((long) LONGS.getVolatile(region, offset + KEY) != key) {
+                return MOVED;
+            }
+            final long lease = lease(offset);
+            if ((lease & HOLDER_MASK) != 0 && !isReclaimable(offset, lease, now)) {
+                return TAKEN;
+            }
+            if (LONGS.compareAndSet(region, offset + LEASE, lease, holder | CLAIMING | nextStamp(lease))) {
+                if ((long) LONGS.getVolatile(region, offset + KEY) != key) { // Removed before the claim
+                    LONGS.setVolatile(region, offset + LEASE, nextStamp(lease));
+                    return MOVED;
+                }
+                LONGS.setVolatile(region, offset + OWNER, owner);
+                LONGS.setVolatile(region, offset + DEADLINE, deadline);
+                LONGS.setVolatile(region, offset + MAX_DEADLINE, maxDeadline);
+                LONGS.setVolatile(region, offset + LEASE, holder | nextStamp(lease));
+                return ACQUIRED;
+            }
+        }
+    }
+
+    private boolean release(final int offset, final long key, final long owner) {
+        while (true) {
+            final long lease = settledLease(offset); // Another thread may be renewing it
+            if ((lease & CLAIMING) != 0) {
+                return false; // Stalled mid-update; the sweep releases it later
+            }
+            if ((lease & HOLDER_MASK) == 0 || !isOwnedBy(offset, key, owner)) {
+                return false; // Not ours (any more)
+            }
+            if (LONGS.compareAndSet(region, offset + LEASE, lease, nextStamp(lease))) {
+                return true; // Owner and key were read under this very lease
+            }
+        }
+    }
+
+    private boolean renew(final int offset, final long key, final long owner, final long requestedDeadline) {
+        while (true) {
+            final long lease = settledLease(offset);
+            if ((lease & CLAIMING) != 0) {
+                return false; // Stalled mid-update, treat the renewal as failed
+            }
+            if ((lease & HOLDER_MASK) == 0 || !isOwnedBy(offset, key, owner)) {
+                return false;
+            }
+            if (!LONGS.compareAndSet(region, offset + LEASE, lease, lease | CLAIMING)) {
+                continue;
+            }
+            final long deadline = (long) LONGS.getVolatile(region, offset + DEADLINE);
+            final boolean alive = deadline >= System.currentTimeMillis();
+            if (alive) {
+                final long capped = Math.min(requestedDeadline, (long) LONGS.getVolatile(region, offset + MAX_DEADLINE));
+                LONGS.setVolatile(region, offset + DEADLINE, Math.max(deadline, capped));
+            }
+            // New stamp, competing CASes fail; the hold now lives as long as this process does
+            LONGS.setVolatile(region, offset + LEASE, holder | nextStamp(lease));
+            return alive;
+        }
+    }
+
+    private boolean isOwnedBy(final int offset, final long key, final long owner) {
+        return (long) LONGS.getVolatile(region, offset + KEY) == key && (long) LONGS.getVolatile(region, offset + OWNER) == owner;
+    }
+
+    /**
+     * The slot's lease once no update is in progress, waiting at most CLAIM_WAIT_NANOS. A claim still
+     * held after that by a process that is gone is cleared, freeing the slot; one held by a live
+     * process is returned as is, CLAIMING bit set, and the caller gives up.
+     */
+    private long settledLease(final int offset) {
+        long lease = lease(offset);
+        final long giveUpAt = System.nanoTime() + CLAIM_WAIT_NANOS;
+        while ((lease & CLAIMING) != 0) {
+            if (System.nanoTime() - giveUpAt > 0) {
+                final long leasePid = lease >>> 40 & PID_MASK;
+                if (leasePid != pid && !isProcessAlive(leasePid, System.currentTimeMillis())
+                        && LONGS.compareAndSet(region, offset + LEASE, lease, nextStamp(lease))) {
+                    return nextStamp(lease); // The claimant crashed mid-update
+                }
+                return lease(offset);
+            }
+            Thread.onSpinWait(); // An owner is mid-update, the slot settles within a few stores
+            lease = lease(offset);
+        }
+        return lease;
+    }
+
+    // A lease can be taken over once its deadline passed (unless it is being updated), or when its process died
+    private boolean isReclaimable(final int offset, final long lease, final long now) {
+        final long leasePid = lease >>> 40 & PID_MASK;
+        if (leasePid != pid && !isProcessAlive(leasePid, now)) {
+            return true;
+        }
+        return (lease & CLAIMING) == 0 && (long) LONGS.getVolatile(region, offset + DEADLINE) < now;
+    }
+
+    private boolean isProcessAlive(final long processId, final long now) {
+        final Long checkedUntil = processChecks.get(processId);
+        if (checkedUntil != null && Math.abs(checkedUntil) > now) {
+            return checkedUntil > 0;
+        }
+        final boolean alive = ProcessHandle.of(processId).map(ProcessHandle::isAlive).orElse(false);
+        processChecks.put(processId, alive ? now + PROCESS_CHECK_MILLIS : -(now + PROCESS_CHECK_MILLIS));
+        return alive;
+    }
+
+    // Finds the key's slot by linear probing, past tombstones; -1 if absent. Takes no lock
+    private int findSlot(final long key) {
+        int slot = (int) mix(key) & slotMask;
+        for (int probes = 0; probes <= slotMask; probes++) {
+            final long current = (long) LONGS.getVolatile(region, slotOffset(slot) + KEY);
+            if (current == key) {
+                return slot;
+            }
+            if (current == EMPTY) {
+                return -1;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return -1;
+    }
+
+    // The key's slot, adding the key first if it has none: into a tombstone on its probe path, else the empty slot ending it
+    private int claimSlot(final long key) {
+        final int existing = findSlot(key);
+        if (existing >= 0) return existing;
+
+        lockKeys();
+        try {
+            final int home = (int) mix(key) & slotMask;
+            int slot = home;
+            int pathLength = 0; // Slots before the empty one, or all of them if there is none
+            for (; pathLength <= slotMask; pathLength++) {
+                final long current = (long) LONGS.getVolatile(region, slotOffset(slot) + KEY);
+                if (current == key) {
+                    return slot; // Added by another thread meanwhile
+                }
+                if (current == EMPTY) break;
+                slot = (slot + 1) & slotMask;
+            }
+            for (int i = 0; i < pathLength; i++) {
+                final int offset = slotOffset((home + i) & slotMask);
+                if ((long) LONGS.getVolatile(region, offset + KEY) == TOMBSTONE && replaceKey(offset, TOMBSTONE, key)) {
+                    return (home + i) & slotMask; // Fails only while a straggler holds the tombstone's claim
+                }
+            }
+            if (pathLength <= slotMask) {
+                LONGS.setVolatile(region, slotOffset(slot) + KEY, key); // Nobody acts on an empty slot, no claim needed
+                return slot;
+            }
+        } finally {
+            unlockKeys();
+        }
+        throw new IllegalStateException("Seat lock region is full");
+    }
+
+    // Turns a retired seat's slot into a tombstone, unless a hold that is still live keeps it; called under the key lock
+    private void removeKey(final int offset, final long key) {
+        settledLease(offset); // Lets an update in progress finish first
+        replaceKey(offset, key, TOMBSTONE);
+    }
+
+    // Changes a slot's key while holding its claim, so nobody acting on the old key keeps the slot; false if it is held
+    private boolean replaceKey(final int offset, final long expectedKey, final long newKey) {
+        final long lease = lease(offset);
+        if ((lease & CLAIMING) != 0 || ((lease & HOLDER_MASK) != 0 && !isReclaimable(offset, lease, System.currentTimeMillis()))) {
+            return false;
+        }
+        if (!LONGS.compareAndSet(region, offset + LEASE, lease, holder | CLAIMING | nextStamp(lease))) {
+            return false;
+        }
+        final boolean replaced = LONGS.compareAndSet(region, offset + KEY, expectedKey, newKey);
+        LONGS.setVolatile(region, offset + LEASE, nextStamp(lease)); // Free, whatever hold was there had lapsed
+        return replaced;
+    }
+
+    // Serializes adding and removing keys across processes; a lock left by a dead process is taken over
+    private void lockKeys() {
+        while (true) {
+            final long locker = (long) LONGS.getVolatile(region, KEY_LOCK);
+            final long lockerPid = locker >>> 40 & PID_MASK;
+            if (locker == 0 || (lockerPid != pid && !isProcessAlive(lockerPid, System.currentTimeMillis()))) {
+                if (LONGS.compareAndSet(region, KEY_LOCK, locker, holder)) {
+                    return;
+                }
+                continue;
+            }
+            Thread.onSpinWait(); // Held for one probe sequence at most
+        }
+    }
+
+    private void unlockKeys() {
+        LONGS.setVolatile(region, KEY_LOCK, 0L);
+    }
+
+    private static long keyOf(final Show show, final Seat seat) {
+        return (long) show.getId() << 32 | (seat.getSeatId() & 0xFFFFFFFFL);
+    }
+
+    // Same user, same owner in every process: a hash of name and email
+    private static long ownerOf(final User user) {
+        long hash = 0xcbf29ce484222325L; // FNV-1a
+        final String identity = user.getUserName() + '\n' + user.getUserEmail();
+        for (int i = 0; i < identity.length(); i++) {
+            hash = (hash ^ identity.charAt(i)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private long lease(final int offset) {
+        return (long) LONGS.getVolatile(region, offset + LEASE);
+    }
+
+    private static long nextStamp(final long lease) {
+        return (lease + 1) & 0xFFFFL;
+    }
+
+    private static int slotOffset(final int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,94 @@
+package ConcreteLockProviders;
+
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.ISeatLockProvider;
+import Interfaces.SeatLockListener;
+import Interfaces.ShowLifecycleListener;
+import Utilities.TheatrePartitioner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Seat locks split into one SeatLockProvider shard per theatre partition, so each partition has its
+ * own lock tables and cleanup thread and a premiere in one partition never contends with the others.
+ * A show is routed by its theatre, so all of a show's holds live in the same shard.
+ */
+public class PartitionedSeatLockProvider implements ISeatLockProvider, ShowLifecycleListener {
+
+    private final TheatrePartitioner partitioner;
+    private final List<SeatLockProvider> shards; // Indexed by partition
+
+    public PartitionedSeatLockProvider(final TheatrePartitioner partitioner, final List<SeatLockProvider> shards) {
+        if (shards.size() != partitioner.getPartitionCount()) {
+            throw new IllegalArgumentException("Expected " + partitioner.getPartitionCount() + " shards, got " + shards.size());
+        }
+        this.partitioner = partitioner;
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    }
+
+    public SeatLockProvider getShard(final Show show) {
+        return shards.get(partitioner.partitionOf(show.getScreen().getTheatre().getTheatreId()));
+    }
+
+    public List<SeatLockProvider> getShards() {
+        return shards;
+    }
+
+    public void startLockCleanup() {
+        for (SeatLockProvider shard : shards) {
+            shard.startLockCleanup();
+        }
+    }
+
+    public void shutdown() {
+        for (SeatLockProvider shard : shards) {
+            shard.shutdown();
+        }
+    }
+
+    @Override
+    public void onShowRetired(final Show show) {
+        getShard(show).onShowRetired(show);
+    }
+
+    @Override
+    public void lockSeats(final Show show, final List<Seat> seats, final User user) throws Exception {
+        getShard(show).lockSeats(show, seats, user);
+    }
+
+    @Override
+    public void lockSeats(final Show show, final List<Seat> seats, final User user, final int holdSeconds) throws Exception {
+        getShard(show).lockSeats(show, seats, user, holdSeconds);
+    }
+
+    @Override
+    public void unlockSeats(final Show show, final List<Seat> seats, final User user) {
+        getShard(show).unlockSeats(show, seats, user);
+    }
+
+    @Override
+    public boolean validateLock(final Show show, final Seat seat, final User user) {
+        return getShard(show).validateLock(show, seat, user);
+    }
+
+    @Override
+    public boolean renewLocks(final Show show, final List<Seat> seats, final User user) {
+        return getShard(show).renewLocks(show, seats, user);
+    }
+
+    @Override
+    public List<Seat> getLockedSeats(final Show show) {
+        return getShard(show).getLockedSeats(show);
+    }
+
+    @Override
+    public void addSeatLockListener(final SeatLockListener listener) {
+        for (SeatLockProvider shard : shards) {
+            shard.addSeatLockListener(listener);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ConcreteLockProviders;
+
+import CommonEnum.LogEvent;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.SeatLockListener;
+import Utilities.EventLog;
+
+import java.util.List;
+
+/**
+ * Delivers seat lock events to listeners for the lock providers. The lock table change has already
+ * happened when listeners run, so one that throws is logged and skipped: the others still hear
+ * about the change, and the caller's hold or release stands instead of failing half-applied.
+ */
+final class SeatLockEvents {
+
+    private SeatLockEvents() {
+    }
+
+    static void locked(final List<SeatLockListener> listeners, final Show show, final List<Seat> seats, final User user) {
+        for (SeatLockListener listener : listeners) {
+            try {
+                listener.onSeatsLocked(show, seats, user);
+            } catch (RuntimeException e) {
+                failed(listener, show);
+            }
+        }
+    }
+
+    static void unlocked(final List<SeatLockListener> listeners, final Show show, final List<Seat> seats, final User user) {
+        for (SeatLockListener listener : listeners) {
+            try {
+                listener.onSeatsUnlocked(show, seats, user);
+            } catch (RuntimeException e) {
+                failed(listener, show);
+            }
+        }
+    }
+
+    static void expired(final List<SeatLockListener> listeners, final Show show, final List<Seat> seats, final User user) {
+        for (SeatLockListener listener : listeners) {
+            try {
+                listener.onSeatsExpired(show, seats, user);
+            } catch (RuntimeException e) {
+                failed(listener, show);
+            }
+        }
+    }
+
+    private static void failed(final SeatLockListener listener, final Show show) {
+        EventLog.record(LogEvent.SEAT_LOCK_LISTENER_FAILED, listener.getClass().getSimpleName(), show.getId());
+    }
+}
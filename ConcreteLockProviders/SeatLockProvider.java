@@ -1,47 +1,113 @@
 package ConcreteLockProviders;
 
+import CommonEnum.LockingMode;
+import CommonEnum.LogEvent;
 import CoreClasses.Seat;
 import CoreClasses.SeatLock;
 import CoreClasses.Show;
 import CoreClasses.User;
+import Interfaces.HoldTimeoutPolicy;
 import Interfaces.ISeatLockProvider;
+import Interfaces.SeatLockListener;
+import Interfaces.ShowLifecycleListener;
+import Utilities.EventLog;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
-public class SeatLockProvider implements ISeatLockProvider {
+public class SeatLockProvider implements ISeatLockProvider, ShowLifecycleListener {
 
-    private final Integer lockTimeout;
+    private final HoldTimeoutPolicy holdTimeoutPolicy; // Length of a new hold, and of each renewal
+    private final int maxLeaseSeconds; // Renewals never keep a seat held longer than this in total
+    private final LockingMode lockingMode; // Which lock each show's manager uses
     // Stores a dedicated manager object for each show, which contains both the seats and the lock.
     private final Map<Show, ShowLockManager> locks;
     private final ScheduledExecutorService scheduler;
+    private final List<SeatLockListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
-     * Helper inner class to hold both the seat locks and the ReadWriteLock for a single show.
+     * Helper inner class to hold both the seat locks and the lock guarding them for a single show.
+     * In OPTIMISTIC mode the StampedLock's stamp acts as the version of the seat-lock table:
+     * readers read the table, then check that no writer bumped the version in between.
      */
     private static class ShowLockManager {
-        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ReadWriteLock lock; // Used in READ_WRITE mode, null otherwise
+        private final StampedLock stampedLock; // Used in OPTIMISTIC mode, null otherwise
         private final Map<Seat, SeatLock> seatLocks = new ConcurrentHashMap<>();
+
+        private ShowLockManager(final LockingMode lockingMode) {
+            this.lock = lockingMode == LockingMode.READ_WRITE ? new ReentrantReadWriteLock() : null;
+            this.stampedLock = lockingMode == LockingMode.OPTIMISTIC ? new StampedLock() : null;
+        }
+
+        private long acquireWrite() {
+            if (stampedLock != null) return stampedLock.writeLock();
+            lock.writeLock().lock();
+            return 0L;
+        }
+
+        private void releaseWrite(final long stamp) {
+            if (stampedLock != null) stampedLock.unlockWrite(stamp);
+            else lock.writeLock().unlock();
+        }
+
+        private long acquireRead() {
+            if (stampedLock != null) return stampedLock.readLock();
+            lock.readLock().lock();
+            return 0L;
+        }
+
+        private void releaseRead(final long stamp) {
+            if (stampedLock != null) stampedLock.unlockRead(stamp);
+            else lock.readLock().unlock();
+        }
+
+        // Zero when there is no optimistic path (READ_WRITE mode) or a writer currently holds the lock
+        private long tryOptimisticRead() {
+            return stampedLock == null ? 0L : stampedLock.tryOptimisticRead();
+        }
+
+        // Pure read of the lock state, never writes shared memory
+        private boolean validate(final long stamp) {
+            return stampedLock.validate(stamp);
+        }
     }
 
     public SeatLockProvider(Integer lockTimeout) {
+        this(show -> lockTimeout, lockTimeout * 4); // Fixed hold, renewable up to four times its length
+    }
+
+    public SeatLockProvider(HoldTimeoutPolicy holdTimeoutPolicy, int maxLeaseSeconds) {
+        this(holdTimeoutPolicy, maxLeaseSeconds, LockingMode.READ_WRITE);
+    }
+
+    public SeatLockProvider(HoldTimeoutPolicy holdTimeoutPolicy, int maxLeaseSeconds, LockingMode lockingMode) {
         this.locks = new ConcurrentHashMap<>();
-        this.lockTimeout = lockTimeout;
+        this.holdTimeoutPolicy = holdTimeoutPolicy;
+        this.maxLeaseSeconds = maxLeaseSeconds;
+        this.lockingMode = lockingMode;
         this.scheduler = Executors.newSingleThreadScheduledExecutor();
     }
 
+    @Override
+    public void addSeatLockListener(final SeatLockListener listener) {
+        listeners.add(listener);
+    }
+
     /**
      * Starts the background task to periodically clean up expired locks.
      */
     public void startLockCleanup() {
         // Schedule the cleanup task to run every 5 seconds, after a 5-second delay.
         scheduler.scheduleAtFixedRate(this::cleanupExpiredLocks, 5, 5, TimeUnit.SECONDS);
-        System.out.println("Background seat lock cleanup started (checks every 5s).");
+        EventLog.record(LogEvent.LOCK_CLEANUP_STARTED, 5);
     }
 
     /**
@@ -49,28 +115,65 @@ public class SeatLockProvider implements ISeatLockProvider {
      */
     public void shutdown() {
         scheduler.shutdown();
-        System.out.println("Background seat lock cleanup stopped.");
+        EventLog.record(LogEvent.LOCK_CLEANUP_STOPPED);
+    }
+
+    /**
+     * Drops the retired show's manager, so the cleanup sweep stops visiting it. Holds still on it are
+     * discarded without events; everything that would listen to them has forgotten the show as well.
+     */
+    @Override
+    public void onShowRetired(final Show show) {
+        final ShowLockManager manager = locks.remove(show);
+        if (manager == null) return;
+
+        final long stamp = manager.acquireWrite(); // Waits out any operation still running on the show
+        try {
+            manager.seatLocks.clear();
+        } finally {
+            manager.releaseWrite(stamp);
+        }
     }
 
     /**
      * The core logic for the background task. This is a WRITE operation.
      */
     private void cleanupExpiredLocks() {
-        for (ShowLockManager manager : locks.values()) {
-            manager.lock.writeLock().lock(); // Get the exclusive write lock
+        for (Map.Entry<Show, ShowLockManager> entry : locks.entrySet()) {
+            final ShowLockManager manager = entry.getValue();
+            final long stamp = manager.acquireWrite(); // Get the exclusive write lock
             try {
-                manager.seatLocks.entrySet().removeIf(lockEntry -> lockEntry.getValue().isLockExpired());
+                Map<User, List<Seat>> expiredByUser = null;
+                final Iterator<SeatLock> iterator = manager.seatLocks.values().iterator();
+                while (iterator.hasNext()) {
+                    final SeatLock seatLock = iterator.next();
+                    if (seatLock.tryExpire()) { // Fails if a renewal got in first
+                        iterator.remove();
+                        if (expiredByUser == null) expiredByUser = new HashMap<>();
+                        expiredByUser.computeIfAbsent(seatLock.getLockedBy(), u -> new ArrayList<>()).add(seatLock.getSeat());
+                    }
+                }
+                if (expiredByUser != null) {
+                    for (Map.Entry<User, List<Seat>> expired : expiredByUser.entrySet()) {
+                        SeatLockEvents.expired(listeners, entry.getKey(), expired.getValue(), expired.getKey());
+                    }
+                }
             } finally {
-                manager.lock.writeLock().unlock(); // Always release the lock
+                manager.releaseWrite(stamp); // Always release the lock
             }
         }
     }
 
     @Override
     public void lockSeats(final Show show, final List<Seat> seats, final User user) throws Exception {
-        ShowLockManager manager = locks.computeIfAbsent(show, s -> new ShowLockManager());
+        lockSeats(show, seats, user, holdTimeoutPolicy.getHoldSeconds(show));
+    }
 
-        manager.lock.writeLock().lock(); // Get the exclusive WRITE lock since we are modifying the map
+    @Override
+    public void lockSeats(final Show show, final List<Seat> seats, final User user, final int holdSeconds) throws Exception {
+        ShowLockManager manager = locks.computeIfAbsent(show, s -> new ShowLockManager(lockingMode));
+
+        final long stamp = manager.acquireWrite(); // Get the exclusive WRITE lock since we are modifying the map
         try {
             for (Seat seat : seats) {
                 if (manager.seatLocks.containsKey(seat)) {
@@ -79,11 +182,12 @@ public class SeatLockProvider implements ISeatLockProvider {
             }
             Date now = new Date();
             for (Seat seat : seats) {
-                SeatLock lock = new SeatLock(seat, show, lockTimeout, now, user);
+                SeatLock lock = new SeatLock(seat, show, holdSeconds, now, user, maxLeaseSeconds);
                 manager.seatLocks.put(seat, lock);
             }
+            SeatLockEvents.locked(listeners, show, seats, user); // Still under the write lock, so events stay ordered per show
         } finally {
-            manager.lock.writeLock().unlock(); // ALWAYS release the lock in a finally block
+            manager.releaseWrite(stamp); // ALWAYS release the lock in a finally block
         }
     }
 
@@ -92,16 +196,22 @@ public class SeatLockProvider implements ISeatLockProvider {
         ShowLockManager manager = locks.get(show);
         if (manager == null) return;
 
-        manager.lock.writeLock().lock(); // Get the exclusive WRITE lock
+        final long stamp = manager.acquireWrite(); // Get the exclusive WRITE lock
         try {
+            final List<Seat> released = new ArrayList<>(seats.size());
             for (Seat seat : seats) {
                 SeatLock lock = manager.seatLocks.get(seat);
                 if (lock != null && lock.getLockedBy().equals(user)) {
                     manager.seatLocks.remove(seat);
+                    lock.release();
+                    released.add(seat);
                 }
             }
+            if (!released.isEmpty()) {
+                SeatLockEvents.unlocked(listeners, show, released, user);
+            }
         } finally {
-            manager.lock.writeLock().unlock();
+            manager.releaseWrite(stamp);
         }
     }
 
@@ -110,15 +220,46 @@ public class SeatLockProvider implements ISeatLockProvider {
         ShowLockManager manager = locks.get(show);
         if (manager == null) return false;
 
-        manager.lock.readLock().lock(); // Get a shared READ lock, as we are not modifying data
+        final long optimisticStamp = manager.tryOptimisticRead();
+        if (optimisticStamp != 0L) {
+            final boolean held = isHeldBy(manager.seatLocks.get(seat), user);
+            if (manager.validate(optimisticStamp)) {
+                return held; // No writer ran in between, the answer is consistent
+            }
+        }
+        final long stamp = manager.acquireRead(); // Get a shared READ lock, as we are not modifying data
         try {
-            SeatLock lock = manager.seatLocks.get(seat);
-            return lock != null && !lock.isLockExpired() && lock.getLockedBy().equals(user);
+            return isHeldBy(manager.seatLocks.get(seat), user);
         } finally {
-            manager.lock.readLock().unlock();
+            manager.releaseRead(stamp);
         }
     }
 
+    private static boolean isHeldBy(final SeatLock lock, final User user) {
+        return lock != null && !lock.isLockExpired() && lock.getLockedBy().equals(user);
+    }
+
+    /**
+     * Extends the user's holds by another hold period. No show lock is taken: the lock table is a
+     * ConcurrentHashMap and the deadline is bumped with a CAS, so heartbeats never block bookings.
+     * Locks leaving the table are marked released (the sweep does it with a CAS of its own), so a
+     * renewal racing with their removal fails instead of reporting a hold that is gone.
+     */
+    @Override
+    public boolean renewLocks(final Show show, final List<Seat> seats, final User user) {
+        ShowLockManager manager = locks.get(show);
+        if (manager == null) return false;
+
+        final long requestedExpiresAt = System.currentTimeMillis() + holdTimeoutPolicy.getHoldSeconds(show) * 1000L;
+        boolean renewedAll = true;
+        for (Seat seat : seats) {
+            SeatLock lock = manager.seatLocks.get(seat);
+            renewedAll &= lock != null && lock.getLockedBy().equals(user) && lock.renew(requestedExpiresAt)
+                    && manager.seatLocks.get(seat) == lock; // Not replaced by a new lock since it was read
+        }
+        return renewedAll;
+    }
+
     @Override
     public List<Seat> getLockedSeats(final Show show) {
         ShowLockManager manager = locks.get(show);
@@ -126,12 +267,19 @@ public class SeatLockProvider implements ISeatLockProvider {
             return Collections.emptyList();
         }
 
-        manager.lock.readLock().lock(); // Get a shared READ lock
+        final long optimisticStamp = manager.tryOptimisticRead();
+        if (optimisticStamp != 0L) {
+            final List<Seat> lockedSeats = new ArrayList<>(manager.seatLocks.keySet());
+            if (manager.validate(optimisticStamp)) {
+                return lockedSeats;
+            }
+        }
+        final long stamp = manager.acquireRead(); // Get a shared READ lock
         try {
             // Return a new list to ensure thread safety outside this method
             return new ArrayList<>(manager.seatLocks.keySet());
         } finally {
-            manager.lock.readLock().unlock();
+            manager.releaseRead(stamp);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package ConcretePaymentStrategies;
+
+import CommonEnum.LogEvent;
+import CommonEnum.PaymentStatus;
+import Interfaces.PaymentStrategy;
+import Utilities.EventLog;
+
+public class CreditCardStrategy implements PaymentStrategy {
+    @Override
+    public PaymentStatus processPayment() {
+        EventLog.record(LogEvent.CREDIT_CARD_PAYMENT);
+        // Simulate a successful payment
+        return PaymentStatus.SUCCESS;
+    }
+
+    @Override
+    public PaymentStatus refund(final int amount) {
+        EventLog.record(LogEvent.CREDIT_CARD_REFUND, amount);
+        // Simulate a successful refund
+        return PaymentStatus.SUCCESS;
+    }
+}
@@ -1,14 +1,23 @@
 // Modify file: src/ConcretePaymentStrategies/DebitCardStrategy.java
 package ConcretePaymentStrategies;
 
+import CommonEnum.LogEvent;
 import CommonEnum.PaymentStatus;
 import Interfaces.PaymentStrategy;
+import Utilities.EventLog;
 
 public class DebitCardStrategy implements PaymentStrategy {
     @Override
     public PaymentStatus processPayment() {
-        System.out.println("Processing Debit Card payment... Success!");
+        EventLog.record(LogEvent.DEBIT_CARD_PAYMENT);
         // Simulate a successful payment
         return PaymentStatus.SUCCESS;
     }
+
+    @Override
+    public PaymentStatus refund(final int amount) {
+        EventLog.record(LogEvent.DEBIT_CARD_REFUND, amount);
+        // Simulate a successful refund
+        return PaymentStatus.SUCCESS;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package ConcretePaymentStrategies;
+
+import CommonEnum.PaymentStatus;
+import Interfaces.PaymentStrategy;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in for a remote payment gateway, for local runs and load tests of the payment router. Every
+ * call sleeps for the configured latency, with a share of calls taking the slow tail instead, and
+ * can fail with a bank error (the gateway's fault) or a decline (the card's). All settings can be
+ * changed while running, to make a gateway slow down, break and recover mid-test. Thread-safe.
+ */
+public class SimulatedPaymentGateway implements PaymentStrategy {
+
+    private final String name;
+    private final LongAdder charges = new LongAdder(); // Calls answered with SUCCESS
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder refunds = new LongAdder();
+    private final LongAdder refundedAmount = new LongAdder();
+
+    // Behaviour, all adjustable while running
+    private volatile long latencyMillis;
+    private volatile double slowRate; // Share of calls that take slowLatencyMillis instead
+    private volatile long slowLatencyMillis;
+    private volatile double errorRate; // Share of calls answered with FAILURE_BANK_ERROR
+    private volatile double declineRate; // Share of calls answered with FAILURE_INSUFFICIENT_FUNDS
+
+    public SimulatedPaymentGateway(final String name, final long latencyMillis) {
+        this(name, latencyMillis, 0, 0, 0, 0);
+    }
+
+    public SimulatedPaymentGateway(final String name, final long latencyMillis, final double slowRate,
+                                   final long slowLatencyMillis, final double errorRate, final double declineRate) {
+        this.name = name;
+        this.latencyMillis = latencyMillis;
+        this.slowRate = slowRate;
+        this.slowLatencyMillis = slowLatencyMillis;
+        this.errorRate = errorRate;
+        this.declineRate = declineRate;
+    }
+
+    @Override
+    public PaymentStatus processPayment() {
+        calls.increment();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (!pause(random.nextDouble() < slowRate ? slowLatencyMillis : latencyMillis)) {
+            return PaymentStatus.FAILURE_BANK_ERROR;
+        }
+        final double roll = random.nextDouble();
+        if (roll < errorRate) {
+            return PaymentStatus.FAILURE_BANK_ERROR;
+        }
+        if (roll < errorRate + declineRate) {
+            return PaymentStatus.FAILURE_INSUFFICIENT_FUNDS;
+        }
+        charges.increment();
+        return PaymentStatus.SUCCESS;
+    }
+
+    @Override
+    public PaymentStatus refund(final int amount) {
+        if (!pause(latencyMillis)) {
+            return PaymentStatus.FAILURE_BANK_ERROR;
+        }
+        refunds.increment();
+        refundedAmount.add(amount);
+        return PaymentStatus.SUCCESS;
+    }
+
+    private static boolean pause(final long millis) {
+        if (millis <= 0) return true;
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Setters Section Start
+    public void setLatencyMillis(final long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+    public void setSlowTail(final double slowRate, final long slowLatencyMillis) {
+        this.slowRate = slowRate;
+        this.slowLatencyMillis = slowLatencyMillis;
+    }
+    public void setErrorRate(final double errorRate) {
+        this.errorRate = errorRate;
+    }
+    public void setDeclineRate(final double declineRate) {
+        this.declineRate = declineRate;
+    }
+    // Setters Section End
+
+    // Getters Section Start
+    public String getName() {
+        return name;
+    }
+    public long getCallCount() {
+        return calls.sum();
+    }
+    public long getChargeCount() {
+        return charges.sum();
+    }
+    public long getRefundCount() {
+        return refunds.sum();
+    }
+    public long getRefundedAmount() {
+        return refundedAmount.sum();
+    }
+    // Getters Section End
+}
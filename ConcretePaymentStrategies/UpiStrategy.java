@@ -1,14 +1,23 @@
 // Modify file: src/ConcretePaymentStrategies/UpiStrategy.java
 package ConcretePaymentStrategies;
 
+import CommonEnum.LogEvent;
 import CommonEnum.PaymentStatus;
 import Interfaces.PaymentStrategy;
+import Utilities.EventLog;
 
 public class UpiStrategy implements PaymentStrategy {
     @Override
     public PaymentStatus processPayment() {
-        System.out.println("Processing UPI payment... Bank error!");
+        EventLog.record(LogEvent.UPI_PAYMENT);
         // Simulate a failed payment
         return PaymentStatus.FAILURE_BANK_ERROR;
     }
+
+    @Override
+    public PaymentStatus refund(final int amount) {
+        EventLog.record(LogEvent.UPI_REFUND, amount);
+        // Simulate a successful refund
+        return PaymentStatus.SUCCESS;
+    }
 }
\ No newline at end of file
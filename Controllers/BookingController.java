@@ -1,13 +1,25 @@
 package Controllers;
+import CommonEnum.PaymentStatus;
+import CommonEnum.RequestPriority;
+import CommonEnum.SeatCategory;
+import CoreClasses.CancellationReport;
 import CoreClasses.Seat;
 import CoreClasses.Show;
 import CoreClasses.User;
 import Services.BookingService;
+import Services.CancellationService;
+import Services.CartService;
 import Services.ShowService;
+import Services.TheatreBulkheads;
 import Services.TheatreService;
+import Services.WaitlistService;
+import Utilities.AdaptiveConcurrencyLimiter;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 
@@ -16,16 +28,51 @@ public class BookingController {
     private final ShowService showService;
     private final BookingService bookingService;
     private final TheatreService theatreService;
+    private final AdaptiveConcurrencyLimiter limiter; // Sheds new holds before checkouts under overload
+    // Optional services, wired in through their setters before the controller serves requests
+    private CartService cartService; // Multi-show carts, null when not enabled
+    private TheatreBulkheads bulkheads; // Runs holds on the show's theatre partition, null to run inline
+    private CancellationService cancellationService; // Cancellations and refunds, null when not enabled
+    private WaitlistService waitlistService; // Waitlists for sold-out shows, null when not enabled
 
     public BookingController(final ShowService showService, final BookingService bookingService,
                              final TheatreService theatreService){
+        this(showService, bookingService, theatreService, AdaptiveConcurrencyLimiter.unlimited());
+    }
+
+    public BookingController(final ShowService showService, final BookingService bookingService,
+                             final TheatreService theatreService, final AdaptiveConcurrencyLimiter limiter){
         this.showService = showService;
         this.bookingService = bookingService;
         this.theatreService = theatreService;
+        this.limiter = limiter;
     }
 
+    // Setters Section Start
+    public void setCartService(final CartService cartService) {
+        this.cartService = cartService;
+    }
+    public void setBulkheads(final TheatreBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+    public void setCancellationService(final CancellationService cancellationService) {
+        this.cancellationService = cancellationService;
+    }
+    public void setWaitlistService(final WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+    // Setters Section End
+
     public String createBooking(final User user, final int showId, final List<Integer> seatsIds) throws Exception{
+        return limiter.call(RequestPriority.HOLD, () -> doCreateBooking(user, showId, seatsIds));
+    }
+
+    private String doCreateBooking(final User user, final int showId, final List<Integer> seatsIds) throws Exception{
         final Show show = showService.getShow(showId); // Retrieve the show object
+        return inPartition(show, RequestPriority.HOLD, () -> holdSeats(user, show, seatsIds));
+    }
+
+    private String holdSeats(final User user, final Show show, final List<Integer> seatsIds) throws Exception{
         // Convert seat IDs to Seat objects
         final List<Seat> seats = new ArrayList<>();
         for (Integer seatsId : seatsIds) {
@@ -34,4 +81,73 @@ public class BookingController {
         }
         return bookingService.createBooking(user, show, seats).getId(); // Create and return booking ID
     }
+
+    // Called periodically by the client during checkout to keep its seats held
+    public boolean renewBooking(final String bookingId, final User user) throws Exception {
+        return limiter.call(RequestPriority.CHECKOUT,
+                () -> bookingService.renewHold(bookingService.getBooking(bookingId), user));
+    }
+
+    // Price fixed on the booking when its seats were put on hold
+    public int getBookingAmount(final String bookingId) throws Exception {
+        return limiter.call(RequestPriority.CHECKOUT, () -> bookingService.getBooking(bookingId).getAmount());
+    }
+
+    // Cancels a confirmed booking, puts its seats back on sale and refunds it; returns the refund outcome
+    public PaymentStatus cancelBooking(final String bookingId, final User user) throws Exception {
+        if (cancellationService == null) {
+            throw new Exception("Cancellations are not enabled.");
+        }
+        return limiter.call(RequestPriority.CHECKOUT, () -> cancellationService.cancelBooking(bookingId, user));
+    }
+
+    // Queues the user for seats in a sold-out show (seatCategory null for any); returns the waitlist entry ID
+    public long joinWaitlist(final User user, final int showId, final int partySize, final SeatCategory seatCategory)
+            throws Exception {
+        if (waitlistService == null) {
+            throw new Exception("Waitlists are not enabled.");
+        }
+        return limiter.call(RequestPriority.HOLD,
+                () -> waitlistService.join(user, showService.getShow(showId), partySize, seatCategory).getId());
+    }
+
+    public void leaveWaitlist(final long entryId, final User user) throws Exception {
+        if (waitlistService == null) {
+            throw new Exception("Waitlists are not enabled.");
+        }
+        waitlistService.leave(entryId, user);
+    }
+
+    // Admin: cancels the show and every booking for it, refunding them in parallel batches
+    public CancellationReport cancelShow(final int showId) throws Exception {
+        if (cancellationService == null) {
+            throw new Exception("Cancellations are not enabled.");
+        }
+        return cancellationService.cancelShow(showService.getShow(showId));
+    }
+
+    // Holds seats in several shows at once (key = show ID); either every show is held or none is.
+    // Runs on the caller's thread: a cart may span several theatre partitions.
+    public String createCart(final User user, final Map<Integer, List<Integer>> seatIdsByShow) throws Exception {
+        if (cartService == null) {
+            throw new Exception("Carts are not enabled.");
+        }
+        return limiter.call(RequestPriority.HOLD, () -> doCreateCart(user, seatIdsByShow));
+    }
+
+    private String doCreateCart(final User user, final Map<Integer, List<Integer>> seatIdsByShow) throws Exception {
+        final Map<Show, List<Seat>> seatsByShow = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : seatIdsByShow.entrySet()) {
+            final List<Seat> seats = new ArrayList<>();
+            for (Integer seatId : entry.getValue()) {
+                seats.add(theatreService.getSeat(seatId));
+            }
+            seatsByShow.put(showService.getShow(entry.getKey()), seats);
+        }
+        return cartService.holdCart(user, seatsByShow).getId();
+    }
+
+    private <T> T inPartition(final Show show, final RequestPriority priority, final Callable<T> work) throws Exception {
+        return bulkheads == null ? work.call() : bulkheads.call(show, priority, work);
+    }
 }
@@ -27,4 +27,8 @@ public class MovieController {
     public List<Movie> getAllMovies() {
         return movieService.getAllMovies();
     }
+
+    public List<Movie> searchMovies(final String query, final int limit) {
+        return movieService.searchMovies(query, limit);
+    }
 }
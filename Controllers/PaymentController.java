@@ -1,20 +1,39 @@
 package Controllers;
 
+import CommonEnum.RequestPriority;
 import CoreClasses.User;
 import Interfaces.PaymentStrategy; // <-- Make sure this is imported
 import Services.PaymentService;
+import Utilities.AdaptiveConcurrencyLimiter;
 
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final AdaptiveConcurrencyLimiter limiter; // Payments run at CHECKOUT priority, shed last
 
     public PaymentController(PaymentService paymentService) {
+        this(paymentService, AdaptiveConcurrencyLimiter.unlimited());
+    }
+
+    public PaymentController(PaymentService paymentService, AdaptiveConcurrencyLimiter limiter) {
         this.paymentService = paymentService;
+        this.limiter = limiter;
     }
 
     // MODIFIED METHOD: Add the PaymentStrategy parameter here
     public void processPayment(final String bookingId, final User user, final PaymentStrategy paymentStrategy) throws Exception {
         // Now, pass the strategy along to the service
-        paymentService.processPayment(bookingId, user, paymentStrategy);
+        limiter.call(RequestPriority.CHECKOUT, () -> {
+            paymentService.processPayment(bookingId, user, paymentStrategy);
+            return null;
+        });
+    }
+
+    // Pays for every show in a cart at once
+    public void processCartPayment(final String cartId, final User user, final PaymentStrategy paymentStrategy) throws Exception {
+        limiter.call(RequestPriority.CHECKOUT, () -> {
+            paymentService.processCartPayment(cartId, user, paymentStrategy);
+            return null;
+        });
     }
 }
\ No newline at end of file
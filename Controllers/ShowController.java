@@ -1,16 +1,27 @@
 package Controllers;
 
+import CommonEnum.RequestPriority;
+import CommonEnum.SeatCategory;
 import CoreClasses.Movie;
+import CoreClasses.NearbyShow;
 import CoreClasses.Screen;
 import CoreClasses.Seat;
 import CoreClasses.Show;
+import CoreClasses.ShowtimeListingPage;
 import Services.MovieService;
+import Services.PricingService;
 import Services.SeatAvailabilityService;
+import Services.ShowSearchService;
 import Services.ShowService;
+import Services.TheatreBulkheads;
 import Services.TheatreService;
+import Utilities.AdaptiveConcurrencyLimiter;
 
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 
 public class ShowController {
@@ -19,18 +30,41 @@ public class ShowController {
     private final ShowService showService;
     private final TheatreService theatreService;
     private final MovieService movieService;
+    private final AdaptiveConcurrencyLimiter limiter; // Browsing reads are the first to be shed under overload
+    // Optional services, wired in through their setters before the controller serves requests
+    private PricingService pricingService; // Dynamic prices, null when not enabled
+    private ShowSearchService showSearchService; // Nearby-show search, null when not enabled
+    private TheatreBulkheads bulkheads; // Runs per-show reads on the theatre's partition, null to run inline
 
     public ShowController(SeatAvailabilityService seatAvailabilityService, ShowService showService,
                           TheatreService theatreService, MovieService movieService) {
+        this(seatAvailabilityService, showService, theatreService, movieService, AdaptiveConcurrencyLimiter.unlimited());
+    }
+
+    public ShowController(SeatAvailabilityService seatAvailabilityService, ShowService showService,
+                          TheatreService theatreService, MovieService movieService, AdaptiveConcurrencyLimiter limiter) {
         this.seatAvailabilityService = seatAvailabilityService;
         this.showService = showService;
         this.theatreService = theatreService;
         this.movieService = movieService;
+        this.limiter = limiter;
     }
 
+    // Setters Section Start
+    public void setPricingService(PricingService pricingService) {
+        this.pricingService = pricingService;
+    }
+    public void setShowSearchService(ShowSearchService showSearchService) {
+        this.showSearchService = showSearchService;
+    }
+    public void setBulkheads(TheatreBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+    // Setters Section End
+
     // NEW METHOD: Add this to your file
     public Show getShow(final int showId) throws Exception {
-        return showService.getShow(showId);
+        return limiter.call(RequestPriority.BROWSE, () -> showService.getShow(showId));
     }
 
     public int createShow(final int movieId, final int screenId, final Date startTime,
@@ -41,12 +75,73 @@ public class ShowController {
     }
 
     public List<Integer> getAvailableSeats(final int showId) throws Exception{
-        final Show show = showService.getShow(showId);
-        final List<Seat> availableSeats = seatAvailabilityService.getAvailableSeats(show);
-        return availableSeats.stream().map(Seat::getSeatId).collect(Collectors.toList());
+        return limiter.call(RequestPriority.BROWSE, () -> {
+            final Show show = showService.getShow(showId);
+            return inPartition(show, RequestPriority.BROWSE, () -> seatAvailabilityService.getAvailableSeats(show)
+                    .stream().map(Seat::getSeatId).collect(Collectors.toList()));
+        });
+    }
+
+    // Seat map in layout order as an encoded SeatBitmap; decode with SeatBitmap.decode
+    public byte[] getSeatMap(final int showId) throws Exception {
+        return limiter.call(RequestPriority.BROWSE, () -> {
+            final Show show = showService.getShow(showId);
+            return inPartition(show, RequestPriority.BROWSE, () -> seatAvailabilityService.getSeatBitmap(show).encode());
+        });
+    }
+
+    // Changes since the client's seat map version (or a full seat map); apply with SeatBitmap.apply
+    public byte[] getSeatMapUpdate(final int showId, final long sinceVersion) throws Exception {
+        return limiter.call(RequestPriority.BROWSE, () -> {
+            final Show show = showService.getShow(showId);
+            return inPartition(show, RequestPriority.BROWSE,
+                    () -> seatAvailabilityService.getSeatBitmapUpdate(show, sinceVersion));
+        });
+    }
+
+    // Current price per seat category for the show
+    public Map<SeatCategory, Integer> getSeatPrices(final int showId) throws Exception {
+        if (pricingService == null) {
+            throw new Exception("Pricing is not enabled.");
+        }
+        return limiter.call(RequestPriority.BROWSE, () -> {
+            final Show show = showService.getShow(showId);
+            return inPartition(show, RequestPriority.BROWSE, () -> pricingService.getPrices(show));
+        });
+    }
+
+    public List<Show> getShowsByMovie(Movie movie) throws Exception {
+        return limiter.call(RequestPriority.BROWSE, () -> showService.getShowsByMovie(movie));
+    }
+
+    // Showtimes of the movie on the date grouped by theatre; pass the page's cursor back for the next page
+    public ShowtimeListingPage getShowtimeListing(final int movieId, final LocalDate date, final Integer afterTheatreId,
+                                                  final int limit) throws Exception {
+        return limiter.call(RequestPriority.BROWSE,
+                () -> showService.getShowtimeListing(movieService.getMovie(movieId), date, afterTheatreId, limit));
+    }
+
+    // Shows of the movie starting within [from, to] at theatres within radiusKm, nearest first
+    public List<NearbyShow> getShowsNearMe(final int movieId, final double latitude, final double longitude,
+                                           final double radiusKm, final Date from, final Date to) throws Exception {
+        if (showSearchService == null) {
+            throw new Exception("Nearby show search is not enabled.");
+        }
+        return limiter.call(RequestPriority.BROWSE, () -> showSearchService.findShowsWithin(
+                movieService.getMovie(movieId), latitude, longitude, radiusKm, from, to));
+    }
+
+    // Shows of the movie starting within [from, to] at the k nearest theatres screening it
+    public List<NearbyShow> getNearestShows(final int movieId, final double latitude, final double longitude,
+                                            final int k, final Date from, final Date to) throws Exception {
+        if (showSearchService == null) {
+            throw new Exception("Nearby show search is not enabled.");
+        }
+        return limiter.call(RequestPriority.BROWSE, () -> showSearchService.findNearestShows(
+                movieService.getMovie(movieId), latitude, longitude, k, from, to));
     }
 
-    public List<Show> getShowsByMovie(Movie movie) {
-        return showService.getShowsByMovie(movie);
+    private <T> T inPartition(final Show show, final RequestPriority priority, final Callable<T> work) throws Exception {
+        return bulkheads == null ? work.call() : bulkheads.call(show, priority, work);
     }
-}
\ No newline at end of file
+}
@@ -1,22 +1,42 @@
 package Controllers;
 
 import CommonEnum.SeatCategory;
+import CoreClasses.ImportReport;
 import CoreClasses.Screen;
+import CoreClasses.Seat;
+import CoreClasses.SeatLayout;
 import CoreClasses.Theatre;
+import Interfaces.ImportProgressListener;
+import Services.CatalogImportService;
 import Services.TheatreService;
 
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
 public class TheatreController {
     private final TheatreService theatreService;
+    private final CatalogImportService catalogImportService;
 
     // Constructor to inject TheatreService
     public TheatreController(final TheatreService theatreService) {
+        this(theatreService, null);
+    }
+
+    // Constructor to inject TheatreService and the bulk importer used for onboarding whole chains
+    public TheatreController(final TheatreService theatreService, final CatalogImportService catalogImportService) {
         this.theatreService = theatreService;
+        this.catalogImportService = catalogImportService;
     }
 
     public int createTheatre(final String theatreName) {
         return theatreService.createTheatre(theatreName).getTheatreId();
     }
 
+    public int createTheatre(final String theatreName, final double latitude, final double longitude) {
+        return theatreService.createTheatre(theatreName, latitude, longitude).getTheatreId();
+    }
+
     public int createScreenInTheatre(final String screenName, final int theatreId) throws Exception {
         final Theatre theatre = theatreService.getTheatre(theatreId);
         return theatreService.createScreenInTheatre(screenName, theatre).getScreenId();
@@ -26,4 +46,32 @@ public class TheatreController {
         final Screen screen = theatreService.getScreen(screenId);
         return theatreService.createSeatInScreen(rowNo, seatCategory, screen).getSeatId();
     }
+
+    // Adds seatCount seats, seatsPerRow to a row, in one catalog update; returns their IDs
+    public List<Integer> createSeatsInScreen(final int seatCount, final int seatsPerRow, final SeatCategory seatCategory,
+                                             final int screenId) throws Exception {
+        final Screen screen = theatreService.getScreen(screenId);
+        final List<Integer> seatIds = new ArrayList<>(seatCount);
+        for (Seat seat : theatreService.createSeatsInScreen(seatCount, seatsPerRow, seatCategory, screen)) {
+            seatIds.add(seat.getSeatId());
+        }
+        return seatIds;
+    }
+
+    public String registerSeatLayout(final SeatLayout seatLayout) {
+        return theatreService.registerSeatLayout(seatLayout).getName();
+    }
+
+    public int createScreenWithLayout(final String screenName, final int theatreId, final String layoutName) throws Exception {
+        final Theatre theatre = theatreService.getTheatre(theatreId);
+        final SeatLayout layout = theatreService.getSeatLayout(layoutName);
+        return theatreService.createScreenWithLayout(screenName, theatre, layout).getScreenId();
+    }
+
+    public ImportReport importCatalog(final String filePath, final ImportProgressListener listener) throws Exception {
+        if (catalogImportService == null) {
+            throw new Exception("Bulk catalog import is not enabled.");
+        }
+        return catalogImportService.importFile(Paths.get(filePath), listener);
+    }
 }
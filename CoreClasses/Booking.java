@@ -1,6 +1,8 @@
 package CoreClasses;
 
 import CommonEnum.BookingStatus;
+import CommonEnum.PaymentStatus;
+import Interfaces.PaymentStrategy;
 
 import java.util.List;
 
@@ -10,13 +12,23 @@ public class Booking {
     private final Show show; // The specific show for which the booking is made.
     private final List<Seat> seatsBooked; // The list of seats that are part of this booking.
     private final User user; // The user who made this booking.
-    private BookingStatus bookingStatus; // The current status of the booking (e.g., Created, Confirmed, Expired).
+    private final int amount; // Total price fixed when the seats were put on hold.
+    private final long createdAt; // Epoch millis when the booking (and its hold) was created.
+    private volatile BookingStatus bookingStatus; // The current status of the booking (e.g., Created, Confirmed, Expired).
+    private volatile PaymentStrategy paymentStrategy; // How the booking was paid; refunds go back the same way
+    private volatile PaymentStatus refundStatus; // Outcome of the last refund attempt, null if none was made
 
     public Booking(final String id, final Show show, final User user, final List<Seat> seatsBooked) {
+        this(id, show, user, seatsBooked, 0);
+    }
+
+    public Booking(final String id, final Show show, final User user, final List<Seat> seatsBooked, final int amount) {
         this.id = id;
         this.show = show;
         this.seatsBooked = seatsBooked;
         this.user = user;
+        this.amount = amount;
+        this.createdAt = System.currentTimeMillis();
         this.bookingStatus = BookingStatus.CREATED; // Initial booking status is set to Created.
     }
 
@@ -24,20 +36,36 @@ public class Booking {
         return this.bookingStatus == BookingStatus.CONFIRMED;
     }
 
-    public void confirmBooking() throws Exception {
+    public synchronized void confirmBooking() throws Exception {
         if (this.bookingStatus != BookingStatus.CREATED) {
             throw new Exception("Cannot confirm a booking that is not in the Created state.");
         }
         this.bookingStatus = BookingStatus.CONFIRMED; // Update the booking status to Confirmed.
     }
 
-    public void expireBooking() throws Exception {
+    public synchronized void expireBooking() throws Exception {
         if (this.bookingStatus != BookingStatus.CREATED) {
             throw new Exception("Cannot expire a booking that is not in the Created state.");
         }
         this.bookingStatus = BookingStatus.EXPIRED; // Update the booking status to expire.
     }
 
+    // Only one caller can cancel a booking, so it is never refunded twice
+    public synchronized void cancelBooking() throws Exception {
+        if (this.bookingStatus != BookingStatus.CONFIRMED) {
+            throw new Exception("Cannot cancel a booking that is not in the Confirmed state.");
+        }
+        this.bookingStatus = BookingStatus.CANCELLED;
+    }
+
+    public void recordPayment(final PaymentStrategy paymentStrategy) {
+        this.paymentStrategy = paymentStrategy;
+    }
+
+    public void recordRefund(final PaymentStatus refundStatus) {
+        this.refundStatus = refundStatus;
+    }
+
     // Getters Section Start
     public String getId() {
         return id;
@@ -55,8 +83,24 @@ public class Booking {
         return user;
     }
 
+    public int getAmount() {
+        return amount;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
     public BookingStatus getBookingStatus() {
         return bookingStatus;
     }
+
+    public PaymentStrategy getPaymentStrategy() {
+        return paymentStrategy;
+    }
+
+    public PaymentStatus getRefundStatus() {
+        return refundStatus;
+    }
     // Getters Section End
 }
@@ -0,0 +1,55 @@
+package CoreClasses;
+
+// Outcome of cancelling a whole show: what was cancelled and how the refunds went
+public class CancellationReport {
+
+    private final int showId;
+    private final int bookingsCancelled; // Confirmed bookings cancelled (and refunded, or queued for a refund retry)
+    private final int holdsReleased; // Bookings still in checkout whose holds were dropped
+    private final int refundsIssued;
+    private final int refundsFailed; // Left in the failed-refund queue for retryFailedRefunds()
+    private final long amountRefunded;
+    private final long elapsedMillis;
+
+    public CancellationReport(final int showId, final int bookingsCancelled, final int holdsReleased,
+                              final int refundsIssued, final int refundsFailed, final long amountRefunded,
+                              final long elapsedMillis) {
+        this.showId = showId;
+        this.bookingsCancelled = bookingsCancelled;
+        this.holdsReleased = holdsReleased;
+        this.refundsIssued = refundsIssued;
+        this.refundsFailed = refundsFailed;
+        this.amountRefunded = amountRefunded;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters Section Start
+    public int getShowId() {
+        return showId;
+    }
+    public int getBookingsCancelled() {
+        return bookingsCancelled;
+    }
+    public int getHoldsReleased() {
+        return holdsReleased;
+    }
+    public int getRefundsIssued() {
+        return refundsIssued;
+    }
+    public int getRefundsFailed() {
+        return refundsFailed;
+    }
+    public long getAmountRefunded() {
+        return amountRefunded;
+    }
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    // Getters Section End
+
+    @Override
+    public String toString() {
+        return String.format("Show %d: %d bookings cancelled, %d holds released, %d refunds issued (₹%d), %d failed, %d ms",
+                showId, bookingsCancelled, holdsReleased, refundsIssued, amountRefunded, refundsFailed, elapsedMillis);
+    }
+}
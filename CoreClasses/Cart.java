@@ -0,0 +1,73 @@
+package CoreClasses;
+
+import CommonEnum.BookingStatus;
+
+import java.util.List;
+
+/**
+ * A group of bookings across several shows that is held, confirmed or released as one unit.
+ * Bookings are kept in show ID order, the same order their seats were locked in.
+ */
+public class Cart {
+
+    private final String id; // Unique identifier for this cart
+    private final User user; // The user holding the cart
+    private final List<Booking> bookings; // One booking per show, ordered by show ID
+    private volatile long expiresAt; // Shared deadline (epoch millis) for every hold in the cart
+    private BookingStatus status; // Created while held, then Confirmed or Expired as a whole
+
+    public Cart(final String id, final User user, final List<Booking> bookings, final long expiresAt) {
+        this.id = id;
+        this.user = user;
+        this.bookings = bookings;
+        this.expiresAt = expiresAt;
+        this.status = BookingStatus.CREATED;
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= expiresAt;
+    }
+
+    public int getTotalAmount() {
+        int total = 0;
+        for (Booking booking : bookings) {
+            total += booking.getAmount();
+        }
+        return total;
+    }
+
+    public synchronized void markConfirmed() throws Exception {
+        if (status != BookingStatus.CREATED) {
+            throw new Exception("Cannot confirm a cart that is not in the Created state.");
+        }
+        status = BookingStatus.CONFIRMED;
+    }
+
+    public synchronized void markExpired() throws Exception {
+        if (status != BookingStatus.CREATED) {
+            throw new Exception("Cannot expire a cart that is not in the Created state.");
+        }
+        status = BookingStatus.EXPIRED;
+    }
+
+    // Getters Section Start
+    public String getId() {
+        return id;
+    }
+    public User getUser() {
+        return user;
+    }
+    public List<Booking> getBookings() {
+        return bookings;
+    }
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+    public void setExpiresAt(final long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    public synchronized BookingStatus getStatus() {
+        return status;
+    }
+    // Getters Section End
+}
@@ -0,0 +1,176 @@
+package CoreClasses;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Versioned, immutable view of the theatre catalog: theatres, screens and seats by ID, plus each
+ * theatre's screen list and each screen's seat list as of that version. Readers grab the current
+ * snapshot and work on it without any locking; admin edits go through a {@link Builder} and publish
+ * a brand-new snapshot with the next version.
+ *
+ * Theatre and Screen objects are shared by every version; their own getScreen() and getSeats()
+ * return the latest published lists. A reader that needs the layout to stay put, such as a booking
+ * in flight, asks the snapshot it started from: getTheatreScreens() and getScreenSeats() never change.
+ */
+public final class CatalogSnapshot {
+
+    private static final int SEAT_CHUNK_BITS = 10; // Seat lookup is split into chunks of 1024 IDs
+
+    public static final CatalogSnapshot EMPTY = new CatalogSnapshot(0L,
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), Collections.emptyNavigableMap(),
+            Collections.emptyMap(), Collections.emptyMap());
+
+    private final long version; // Monotonically increasing catalog version
+    private final Map<Integer, Theatre> theatres; // Frozen theatre lookup (key = theatre ID)
+    private final Map<Integer, Screen> screens; // Frozen screen lookup (key = screen ID)
+    // Frozen lookup of individually created seats: seat ID >> SEAT_CHUNK_BITS -> seat ID -> seat
+    private final Map<Integer, Map<Integer, Seat>> seatChunks;
+    private final NavigableMap<Integer, Screen> layoutScreens; // Layout-backed screens keyed by their first seat ID
+    private final Map<Integer, List<Screen>> theatreScreens; // Each theatre's screens as of this version
+    private final Map<Integer, List<Seat>> screenSeats; // Seats of each screen without a layout, as of this version
+
+    private CatalogSnapshot(final long version, final Map<Integer, Theatre> theatres,
+                            final Map<Integer, Screen> screens, final Map<Integer, Map<Integer, Seat>> seatChunks,
+                            final NavigableMap<Integer, Screen> layoutScreens,
+                            final Map<Integer, List<Screen>> theatreScreens, final Map<Integer, List<Seat>> screenSeats) {
+        this.version = version;
+        this.theatres = theatres;
+        this.screens = screens;
+        this.seatChunks = seatChunks;
+        this.layoutScreens = layoutScreens;
+        this.theatreScreens = theatreScreens;
+        this.screenSeats = screenSeats;
+    }
+
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    // Getters Section Start
+    public long getVersion() {
+        return version;
+    }
+    public Theatre getTheatre(final int theatreId) {
+        return theatres.get(theatreId);
+    }
+    public Screen getScreen(final int screenId) {
+        return screens.get(screenId);
+    }
+    public Seat getSeat(final int seatId) {
+        final Map<Integer, Seat> chunk = seatChunks.get(seatId >> SEAT_CHUNK_BITS);
+        final Seat seat = chunk == null ? null : chunk.get(seatId);
+        if (seat != null) {
+            return seat;
+        }
+        // Not an individual seat, so it can only belong to the layout screen whose ID range starts at or below it
+        final Map.Entry<Integer, Screen> owner = layoutScreens.floorEntry(seatId);
+        return owner == null ? null : owner.getValue().getLayoutSeat(seatId);
+    }
+    // The theatre's screens in this version, empty for an unknown theatre
+    public List<Screen> getTheatreScreens(final int theatreId) {
+        return theatreScreens.getOrDefault(theatreId, Collections.emptyList());
+    }
+    // The screen's seats in this version (a layout screen's never change), empty for an unknown screen
+    public List<Seat> getScreenSeats(final int screenId) {
+        final List<Seat> seats = screenSeats.get(screenId);
+        if (seats != null) {
+            return seats;
+        }
+        final Screen screen = screens.get(screenId);
+        return screen != null && screen.hasLayout() ? screen.getSeats() : Collections.emptyList();
+    }
+    public Map<Integer, Theatre> getTheatres() {
+        return theatres;
+    }
+    public Map<Integer, Screen> getScreens() {
+        return screens;
+    }
+    // Getters Section End
+
+    /**
+     * Collects a batch of admin edits against a base snapshot. Maps are only copied the first time
+     * they are touched, so a seat-only edit never copies the theatre map; seats are copied a chunk at
+     * a time, so adding one seat costs the same however large the catalog is.
+     */
+    public static final class Builder {
+        private final CatalogSnapshot base;
+        private Map<Integer, Theatre> theatres;
+        private Map<Integer, Screen> screens;
+        private Map<Integer, Map<Integer, Seat>> seatChunks;
+        private final Set<Integer> copiedChunks = new HashSet<>(); // Chunks of seatChunks already private to this builder
+        private NavigableMap<Integer, Screen> layoutScreens;
+        private Map<Integer, List<Screen>> theatreScreens;
+        private Map<Integer, List<Seat>> screenSeats;
+
+        private Builder(final CatalogSnapshot base) {
+            this.base = base;
+        }
+
+        public Builder putTheatre(final Theatre theatre) {
+            if (theatres == null) theatres = new HashMap<>(base.theatres);
+            theatres.put(theatre.getTheatreId(), theatre);
+            return this;
+        }
+
+        public Builder putScreen(final Screen screen) {
+            if (screens == null) screens = new HashMap<>(base.screens);
+            screens.put(screen.getScreenId(), screen);
+            if (screen.hasLayout()) {
+                if (layoutScreens == null) layoutScreens = new TreeMap<>(base.layoutScreens);
+                layoutScreens.put(screen.getSeatIdOffset(), screen);
+            }
+            return this;
+        }
+
+        public Builder putSeat(final Seat seat) {
+            if (seatChunks == null) seatChunks = new HashMap<>(base.seatChunks);
+            final int chunkId = seat.getSeatId() >> SEAT_CHUNK_BITS;
+            if (copiedChunks.add(chunkId)) {
+                final Map<Integer, Seat> chunk = seatChunks.get(chunkId);
+                seatChunks.put(chunkId, chunk == null ? new HashMap<>() : new HashMap<>(chunk));
+            }
+            seatChunks.get(chunkId).put(seat.getSeatId(), seat);
+            return this;
+        }
+
+        // The theatre's full, frozen screen list in the new version
+        public Builder putTheatreScreens(final int theatreId, final List<Screen> screenList) {
+            if (theatreScreens == null) theatreScreens = new HashMap<>(base.theatreScreens);
+            theatreScreens.put(theatreId, screenList);
+            return this;
+        }
+
+        // The screen's full, frozen seat list in the new version
+        public Builder putScreenSeats(final int screenId, final List<Seat> seatList) {
+            if (screenSeats == null) screenSeats = new HashMap<>(base.screenSeats);
+            screenSeats.put(screenId, seatList);
+            return this;
+        }
+
+        public long getBaseVersion() {
+            return base.version;
+        }
+
+        public CatalogSnapshot build() {
+            if (seatChunks != null) {
+                for (int chunkId : copiedChunks) {
+                    seatChunks.put(chunkId, Collections.unmodifiableMap(seatChunks.get(chunkId)));
+                }
+            }
+            return new CatalogSnapshot(base.version + 1,
+                    theatres == null ? base.theatres : Collections.unmodifiableMap(theatres),
+                    screens == null ? base.screens : Collections.unmodifiableMap(screens),
+                    seatChunks == null ? base.seatChunks : Collections.unmodifiableMap(seatChunks),
+                    layoutScreens == null ? base.layoutScreens : Collections.unmodifiableNavigableMap(layoutScreens),
+                    theatreScreens == null ? base.theatreScreens : Collections.unmodifiableMap(theatreScreens),
+                    screenSeats == null ? base.screenSeats : Collections.unmodifiableMap(screenSeats));
+        }
+    }
+}
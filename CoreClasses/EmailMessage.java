@@ -0,0 +1,55 @@
+package CoreClasses;
+
+/**
+ * A confirmation email moving through the notification pipeline. It is queued with just the booking;
+ * recipient, subject and body are filled in by a dispatcher thread, off the booking path.
+ */
+public class EmailMessage {
+
+    private final Booking booking; // Booking the email confirms
+    private String to; // Recipient address, set when rendered
+    private String subject;
+    private String body;
+    private int attempts; // Delivery attempts so far
+    private String lastError; // Reply or exception of the last failed attempt
+
+    public EmailMessage(final Booking booking) {
+        this.booking = booking;
+    }
+
+    public boolean isRendered() {
+        return body != null;
+    }
+
+    public void render(final String to, final String subject, final String body) {
+        this.to = to;
+        this.subject = subject;
+        this.body = body;
+    }
+
+    public void recordFailure(final String error) {
+        this.attempts++;
+        this.lastError = error;
+    }
+
+    // Getters Section Start
+    public Booking getBooking() {
+        return booking;
+    }
+    public String getTo() {
+        return to;
+    }
+    public String getSubject() {
+        return subject;
+    }
+    public String getBody() {
+        return body;
+    }
+    public int getAttempts() {
+        return attempts;
+    }
+    public String getLastError() {
+        return lastError;
+    }
+    // Getters Section End
+}
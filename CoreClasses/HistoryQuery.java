@@ -0,0 +1,92 @@
+package CoreClasses;
+
+import CommonEnum.HistoryDimension;
+import CommonEnum.SeatCategory;
+
+/**
+ * Filters and grouping for a booking history report, e.g. revenue by theatre per week:
+ * new HistoryQuery().between(from, to).groupBy(HistoryDimension.THEATRE, HistoryDimension.WEEK).
+ * Filters are pushed down to the store, which skips whole segments whose value ranges cannot match.
+ */
+public class HistoryQuery {
+
+    public static final int ANY = -1; // Filter value meaning "no filter"
+    public static final int MAX_GROUP_BY = 2;
+
+    private long fromMillis = Long.MIN_VALUE; // Inclusive lower bound on booking time
+    private long toMillis = Long.MAX_VALUE; // Exclusive upper bound on booking time
+    private int movieId = ANY;
+    private int theatreId = ANY;
+    private int showId = ANY;
+    private SeatCategory seatCategory; // Null means every category
+    private HistoryDimension[] groupBy = new HistoryDimension[0];
+
+    public HistoryQuery between(final long fromMillis, final long toMillis) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+        return this;
+    }
+
+    public HistoryQuery forMovie(final int movieId) {
+        this.movieId = movieId;
+        return this;
+    }
+
+    public HistoryQuery forTheatre(final int theatreId) {
+        this.theatreId = theatreId;
+        return this;
+    }
+
+    public HistoryQuery forShow(final int showId) {
+        this.showId = showId;
+        return this;
+    }
+
+    public HistoryQuery forCategory(final SeatCategory seatCategory) {
+        this.seatCategory = seatCategory;
+        return this;
+    }
+
+    public HistoryQuery groupBy(final HistoryDimension... dimensions) {
+        if (dimensions.length > MAX_GROUP_BY) {
+            throw new IllegalArgumentException("At most " + MAX_GROUP_BY + " group-by dimensions are supported");
+        }
+        this.groupBy = dimensions.clone();
+        return this;
+    }
+
+    public boolean hasTimeFilter() {
+        return fromMillis != Long.MIN_VALUE || toMillis != Long.MAX_VALUE;
+    }
+
+    public boolean groupsBy(final HistoryDimension dimension) {
+        for (HistoryDimension groupDimension : groupBy) {
+            if (groupDimension == dimension) return true;
+        }
+        return false;
+    }
+
+    // Getters Section Start
+    public long getFromMillis() {
+        return fromMillis;
+    }
+    public long getToMillis() {
+        return toMillis;
+    }
+    public int getMovieId() {
+        return movieId;
+    }
+    public int getTheatreId() {
+        return theatreId;
+    }
+    public int getShowId() {
+        return showId;
+    }
+    public SeatCategory getSeatCategory() {
+        return seatCategory;
+    }
+    public HistoryDimension[] getGroupBy() {
+        return groupBy.clone();
+    }
+    // Getters Section End
+}
@@ -0,0 +1,65 @@
+package CoreClasses;
+
+import CommonEnum.HistoryDimension;
+import CommonEnum.SeatCategory;
+
+import java.time.LocalDate;
+
+// One group of a booking history report with its aggregates
+public class HistoryResultRow {
+
+    private final HistoryDimension[] dimensions; // What the group values refer to
+    private final int[] groupValues; // IDs, SeatCategory ordinal, or epoch day (DAY/WEEK start)
+    private final long bookings; // Distinct bookings in the group
+    private final long seats; // Seats sold in the group
+    private final long revenue; // Amount paid for those seats
+
+    public HistoryResultRow(final HistoryDimension[] dimensions, final int[] groupValues,
+                            final long bookings, final long seats, final long revenue) {
+        this.dimensions = dimensions;
+        this.groupValues = groupValues;
+        this.bookings = bookings;
+        this.seats = seats;
+        this.revenue = revenue;
+    }
+
+    public double getAveragePartySize() {
+        return bookings == 0 ? 0 : (double) seats / bookings;
+    }
+
+    public int getGroupValue(final HistoryDimension dimension) {
+        for (int i = 0; i < dimensions.length; i++) {
+            if (dimensions[i] == dimension) return groupValues[i];
+        }
+        throw new IllegalArgumentException("Result is not grouped by " + dimension);
+    }
+
+    // Getters Section Start
+    public long getBookings() {
+        return bookings;
+    }
+    public long getSeats() {
+        return seats;
+    }
+    public long getRevenue() {
+        return revenue;
+    }
+    // Getters Section End
+
+    @Override
+    public String toString() {
+        final StringBuilder group = new StringBuilder();
+        for (int i = 0; i < dimensions.length; i++) {
+            if (i > 0) group.append(", ");
+            group.append(dimensions[i]).append('=');
+            switch (dimensions[i]) {
+                case CATEGORY: group.append(SeatCategory.values()[groupValues[i]]); break;
+                case DAY:
+                case WEEK: group.append(LocalDate.ofEpochDay(groupValues[i])); break;
+                default: group.append(groupValues[i]);
+            }
+        }
+        return String.format("[%s] bookings=%d seats=%d revenue=%d avgParty=%.2f",
+                group, bookings, seats, revenue, getAveragePartySize());
+    }
+}
@@ -0,0 +1,58 @@
+package CoreClasses;
+
+import java.util.List;
+
+/**
+ * Point-in-time progress of a bulk catalog import. A new report is produced after every chunk,
+ * and the final one is returned once the whole file has been streamed.
+ */
+public class ImportReport {
+
+    private final long rowsRead; // Data rows read from the file so far
+    private final long rowsImported; // Rows that were applied to the catalog
+    private final long errorCount; // Rows that were rejected
+    private final List<String> errors; // Row-level error messages (capped, see getErrorCount for the total)
+    private final long elapsedMillis; // Wall-clock time since the import started
+    private final boolean finished; // True once the whole file has been processed
+
+    public ImportReport(final long rowsRead, final long rowsImported, final long errorCount,
+                        final List<String> errors, final long elapsedMillis, final boolean finished) {
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.errorCount = errorCount;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+        this.finished = finished;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    // Getters Section Start
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    public long getRowsImported() {
+        return rowsImported;
+    }
+    public long getErrorCount() {
+        return errorCount;
+    }
+    public List<String> getErrors() {
+        return errors;
+    }
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+    public boolean isFinished() {
+        return finished;
+    }
+    // Getters Section End
+
+    @Override
+    public String toString() {
+        return String.format("%d rows read, %d imported, %d errors in %d ms (%.0f rows/s)%s",
+                rowsRead, rowsImported, errorCount, elapsedMillis, getRowsPerSecond(), finished ? "" : " ...");
+    }
+}
@@ -0,0 +1,36 @@
+package CoreClasses;
+
+// One result of a "shows near me" query: a show, how far its theatre is and how many seats are left
+public class NearbyShow {
+
+    private final Show show;
+    private final double distanceKm; // Great-circle distance from the query point to the theatre
+    private final int availableSeats; // Seats neither held nor sold when the query ran
+
+    public NearbyShow(final Show show, final double distanceKm, final int availableSeats) {
+        this.show = show;
+        this.distanceKm = distanceKm;
+        this.availableSeats = availableSeats;
+    }
+
+    // Getters Section Start
+    public Show getShow() {
+        return show;
+    }
+    public Theatre getTheatre() {
+        return show.getScreen().getTheatre();
+    }
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+    public int getAvailableSeats() {
+        return availableSeats;
+    }
+    // Getters Section End
+
+    @Override
+    public String toString() {
+        return String.format("Show %d at %s (%.1f km), %s, %d seats left", show.getId(), getTheatre().getTheatreName(),
+                distanceKm, show.getStartTime(), availableSeats);
+    }
+}
@@ -0,0 +1,41 @@
+package CoreClasses;
+
+// One row of a sales analytics query: seats sold for a movie, theatre, show or category over a window
+public class SalesStat {
+
+    private final int id; // ID of the movie, theatre or show (or the SeatCategory ordinal)
+    private final String name; // Display name
+    private final long seatsSold; // Seats sold within the window
+    private final int windowMinutes; // Window length the numbers refer to
+
+    public SalesStat(final int id, final String name, final long seatsSold, final int windowMinutes) {
+        this.id = id;
+        this.name = name;
+        this.seatsSold = seatsSold;
+        this.windowMinutes = windowMinutes;
+    }
+
+    public double getSeatsPerMinute() {
+        return (double) seatsSold / windowMinutes;
+    }
+
+    // Getters Section Start
+    public int getId() {
+        return id;
+    }
+    public String getName() {
+        return name;
+    }
+    public long getSeatsSold() {
+        return seatsSold;
+    }
+    public int getWindowMinutes() {
+        return windowMinutes;
+    }
+    // Getters Section End
+
+    @Override
+    public String toString() {
+        return String.format("%s (#%d): %d seats in %d min (%.1f/min)", name, id, seatsSold, windowMinutes, getSeatsPerMinute());
+    }
+}
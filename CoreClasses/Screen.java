@@ -1,22 +1,87 @@
 package CoreClasses;
 
-import java.util.ArrayList;
+import Utilities.AppendOnlyList;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 public class Screen {
     private final int id; // Unique identifier for the screen
     private final String name;  // Name of the screen
     private final Theatre theatre;  // The theater to which this screen belongs
-    private final List<Seat> seats;   // List of seats available in this screen
+    private final AppendOnlyList<Seat> seatStore; // Backs every published seat list; null for a layout screen
+    // Frozen list of seats in this screen; edits publish a new list so readers never see a partial layout
+    private volatile List<Seat> seats;
+    private final SeatLayout layout; // Shared layout template, or null when seats were added one by one
+    private final int seatIdOffset; // Seat ID of the layout's first seat on this screen
 
     public Screen(final int id, final String name, final Theatre theatre) {
         this.id = id;
         this.name = name;
         this.theatre = theatre;
-        this.seats = new ArrayList<>();
+        this.seatStore = new AppendOnlyList<>();
+        this.seats = Collections.emptyList();
+        this.layout = null;
+        this.seatIdOffset = 0;
     }
+
+    // Creates a screen backed by a shared layout; its seats get IDs seatIdOffset .. seatIdOffset + layout.size() - 1
+    public Screen(final int id, final String name, final Theatre theatre, final SeatLayout layout, final int seatIdOffset) {
+        this.id = id;
+        this.name = name;
+        this.theatre = theatre;
+        this.seatStore = null;
+        this.seats = new LayoutSeatList(layout, seatIdOffset);
+        this.layout = layout;
+        this.seatIdOffset = seatIdOffset;
+    }
+
+    // Materializes a seat of this screen's layout by ID, or returns null when the ID is not part of it
+    public Seat getLayoutSeat(final int seatId) {
+        if (layout == null || seatId < seatIdOffset || seatId >= seatIdOffset + layout.size()) {
+            return null;
+        }
+        return layout.seatAt(seatId - seatIdOffset, seatIdOffset);
+    }
+
+    // Whether the seat is one of this screen's seats (seats are equal by ID)
+    public boolean hasSeat(final Seat seat) {
+        return layout != null ? getLayoutSeat(seat.getSeatId()) != null : seats.contains(seat);
+    }
+
+    public boolean hasLayout() {
+        return layout != null;
+    }
+
     public void addSeat(final Seat seat) {
-        this.seats.add(seat);
+        addSeats(Collections.singletonList(seat));
+    }
+
+    /**
+     * Appends and publishes the seats. Writers are serialized on this screen; readers keep
+     * iterating whichever frozen list they already fetched.
+     */
+    public synchronized void addSeats(final Collection<Seat> newSeats) {
+        showSeats(appendSeats(newSeats));
+    }
+
+    /**
+     * Appends the seats and returns the frozen list including them without publishing it, so the
+     * catalog can freeze it in a new version first; showSeats() then makes it the current list.
+     * Appending never copies the seats already there.
+     */
+    public synchronized List<Seat> appendSeats(final Collection<Seat> newSeats) {
+        if (layout != null) {
+            throw new IllegalStateException("Screen " + id + " uses the shared layout " + layout.getName());
+        }
+        return seatStore.append(newSeats);
+    }
+
+    public void showSeats(final List<Seat> publishedSeats) {
+        this.seats = publishedSeats;
     }
 
     public String getScreenName() {
@@ -33,5 +98,32 @@ public class Screen {
     public Theatre getTheatre() {
         return theatre;
     }
+    public SeatLayout getLayout() {
+        return layout;
+    }
+    public int getSeatIdOffset() {
+        return seatIdOffset;
+    }
     // Getters and Setters Section End
+
+    // Read-only seat list over a shared layout; each get() builds a small Seat view instead of keeping one per seat
+    private static final class LayoutSeatList extends AbstractList<Seat> implements RandomAccess {
+        private final SeatLayout layout;
+        private final int seatIdOffset;
+
+        private LayoutSeatList(final SeatLayout layout, final int seatIdOffset) {
+            this.layout = layout;
+            this.seatIdOffset = seatIdOffset;
+        }
+
+        @Override
+        public Seat get(final int index) {
+            return layout.seatAt(index, seatIdOffset);
+        }
+
+        @Override
+        public int size() {
+            return layout.size();
+        }
+    }
 }
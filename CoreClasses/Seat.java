@@ -5,14 +5,31 @@ import CommonEnum.SeatCategory;
 public class Seat {
     private final int seatId; // Unique identifier for the seat
     private final int row; // Row number where the seat is located
+    private final int position; // Position of the seat within its row (0 when not known)
     private final SeatCategory seatCategory; // Category of the seat (e.g., Silver, Gold, Platinum)
 
     public Seat(final int seatId,final int row, final SeatCategory seatCategory) {
+        this(seatId, row, 0, seatCategory);
+    }
+
+    public Seat(final int seatId, final int row, final int position, final SeatCategory seatCategory) {
         this.seatId = seatId;
         this.row = row;
+        this.position = position;
         this.seatCategory = seatCategory;
     }
 
+    // Seats from shared layouts are materialized on demand, so two instances with the same ID are the same seat
+    @Override
+    public boolean equals(final Object other) {
+        return this == other || (other instanceof Seat && ((Seat) other).seatId == seatId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(seatId);
+    }
+
     // Getters and Setters Section Start
     public int getSeatId() {
         return seatId;
@@ -20,6 +37,9 @@ public class Seat {
     public int getRow() {
         return row;
     }
+    public int getPosition() {
+        return position;
+    }
     public SeatCategory getSeatCategory() {
         return seatCategory;
     }
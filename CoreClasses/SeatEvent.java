@@ -0,0 +1,47 @@
+package CoreClasses;
+
+import CommonEnum.SeatEventType;
+
+/**
+ * One entry of a SeatEventLog as handed to projections. Logs fill a single instance per
+ * replay instead of allocating one per event, so projections must copy whatever they keep.
+ */
+public final class SeatEvent {
+    private Show show; // Show the log belongs to
+    private long sequence; // Position of the event in the show's log, starting at 0
+    private long timestamp; // Epoch millis the event was recorded
+    private SeatEventType type;
+    private Seat seat;
+    private User user; // User holding or buying the seat
+
+    void set(final Show show, final long sequence, final long timestamp, final SeatEventType type,
+             final Seat seat, final User user) {
+        this.show = show;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.type = type;
+        this.seat = seat;
+        this.user = user;
+    }
+
+    // Getters Section Start
+    public Show getShow() {
+        return show;
+    }
+    public long getSequence() {
+        return sequence;
+    }
+    public long getTimestamp() {
+        return timestamp;
+    }
+    public SeatEventType getType() {
+        return type;
+    }
+    public Seat getSeat() {
+        return seat;
+    }
+    public User getUser() {
+        return user;
+    }
+    // Getters Section End
+}
@@ -0,0 +1,72 @@
+package CoreClasses;
+
+import CommonEnum.SeatEventType;
+import Interfaces.SeatStateProjection;
+
+import java.util.Arrays;
+
+/**
+ * Append-only, ordered log of seat events for one show. Events are stored column-wise in
+ * parallel arrays (no object per event), so replaying the log is a tight loop over arrays.
+ * All access synchronizes on the log, which also keeps appends of a show strictly ordered.
+ */
+public class SeatEventLog {
+
+    private static final SeatEventType[] TYPES = SeatEventType.values();
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final Show show;
+    private long[] timestamps = new long[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY]; // SeatEventType ordinals
+    private Seat[] seats = new Seat[INITIAL_CAPACITY];
+    private User[] users = new User[INITIAL_CAPACITY];
+    private int size;
+
+    public SeatEventLog(final Show show) {
+        this.show = show;
+    }
+
+    // Appends one event and returns its sequence number
+    public synchronized long append(final SeatEventType type, final Seat seat, final User user, final long timestamp) {
+        if (size == types.length) {
+            final int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            types = Arrays.copyOf(types, capacity);
+            seats = Arrays.copyOf(seats, capacity);
+            users = Arrays.copyOf(users, capacity);
+        }
+        timestamps[size] = timestamp;
+        types[size] = (byte) type.ordinal();
+        seats[size] = seat;
+        users[size] = user;
+        return size++;
+    }
+
+    // Loads the event at the given sequence into the caller's instance
+    public synchronized void read(final long sequence, final SeatEvent into) {
+        if (sequence < 0 || sequence >= size) {
+            throw new IndexOutOfBoundsException("No event " + sequence + " in the log of show " + show.getId());
+        }
+        final int index = (int) sequence;
+        into.set(show, index, timestamps[index], TYPES[types[index]], seats[index], users[index]);
+    }
+
+    // Feeds every event from the given sequence onwards to the projection, in log order; returns the count
+    public synchronized long replay(final long fromSequence, final SeatStateProjection projection) {
+        final SeatEvent event = new SeatEvent();
+        for (int index = (int) Math.max(0, fromSequence); index < size; index++) {
+            event.set(show, index, timestamps[index], TYPES[types[index]], seats[index], users[index]);
+            projection.apply(event);
+        }
+        return Math.max(0, size - Math.max(0, fromSequence));
+    }
+
+    // Getters Section Start
+    public Show getShow() {
+        return show;
+    }
+    public synchronized long size() {
+        return size;
+    }
+    // Getters Section End
+}
@@ -0,0 +1,93 @@
+package CoreClasses;
+
+import CommonEnum.SeatCategory;
+
+import java.util.Arrays;
+
+/**
+ * A reusable seat layout template (flyweight). Row, position and category of every seat are
+ * stored once in primitive arrays, and any number of screens can share the same layout by
+ * pairing it with their own seat ID offset. Seats are only materialized when someone asks for one.
+ */
+public final class SeatLayout {
+
+    private static final SeatCategory[] CATEGORIES = SeatCategory.values();
+
+    private final String name; // Template name, e.g. "IMAX-300"
+    private final int[] rows; // Row number of each seat, in layout order
+    private final int[] positions; // Position of each seat within its row (1-based)
+    private final byte[] categories; // SeatCategory ordinal of each seat
+
+    private SeatLayout(final String name, final int[] rows, final int[] positions, final byte[] categories) {
+        this.name = name;
+        this.rows = rows;
+        this.positions = positions;
+        this.categories = categories;
+    }
+
+    // Materializes the seat at the given layout index for a screen whose seat IDs start at seatIdOffset
+    public Seat seatAt(final int index, final int seatIdOffset) {
+        return new Seat(seatIdOffset + index, rows[index], positions[index], CATEGORIES[categories[index]]);
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    // Getters Section Start
+    public String getName() {
+        return name;
+    }
+    public int getRow(final int index) {
+        return rows[index];
+    }
+    public int getPosition(final int index) {
+        return positions[index];
+    }
+    public SeatCategory getSeatCategory(final int index) {
+        return CATEGORIES[categories[index]];
+    }
+    // Getters Section End
+
+    public static Builder builder(final String name) {
+        return new Builder(name);
+    }
+
+    public static final class Builder {
+        private final String name;
+        private int[] rows = new int[64];
+        private int[] positions = new int[64];
+        private byte[] categories = new byte[64];
+        private int size;
+
+        private Builder(final String name) {
+            this.name = name;
+        }
+
+        // Appends a full row of seats, numbered 1..seatCount
+        public Builder addRow(final int rowNo, final int seatCount, final SeatCategory seatCategory) {
+            for (int position = 1; position <= seatCount; position++) {
+                addSeat(rowNo, position, seatCategory);
+            }
+            return this;
+        }
+
+        public Builder addSeat(final int rowNo, final int position, final SeatCategory seatCategory) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                positions = Arrays.copyOf(positions, size * 2);
+                categories = Arrays.copyOf(categories, size * 2);
+            }
+            rows[size] = rowNo;
+            positions[size] = position;
+            categories[size] = (byte) seatCategory.ordinal();
+            size++;
+            return this;
+        }
+
+        public SeatLayout build() {
+            return new SeatLayout(name, Arrays.copyOf(rows, size), Arrays.copyOf(positions, size),
+                    Arrays.copyOf(categories, size));
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package CoreClasses;
 
 
-import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 
 public class SeatLock {
 
@@ -11,19 +11,72 @@ public class SeatLock {
     private Integer timeoutInSeconds; // The duration for which the lock is valid, in seconds.
     private Date lockTime; // The timestamp when the lock was acquired.
     private User lockedBy; // Identifier of the user or process that holds the lock.
+    private volatile long expiresAt; // Current lease deadline (epoch millis), pushed forward by renew().
+    private volatile long maxExpiresAt; // Renewals never extend the lease past this point.
+
+    private static final long RELEASED = Long.MIN_VALUE; // Deadline of a lock that left its table, never renewable
+
+    private static final AtomicLongFieldUpdater<SeatLock> EXPIRES_AT =
+            AtomicLongFieldUpdater.newUpdater(SeatLock.class, "expiresAt");
 
     public SeatLock(Seat seat, Show show, Integer timeoutInSeconds, Date date, User user) {
+        this(seat, show, timeoutInSeconds, date, user, timeoutInSeconds);
+    }
+
+    public SeatLock(Seat seat, Show show, Integer timeoutInSeconds, Date date, User user, int maxLeaseSeconds) {
         this.seat = seat;
         this.show = show;
         this.timeoutInSeconds = timeoutInSeconds;
         this.lockTime = date;
         this.lockedBy = user;
+        this.expiresAt = date.getTime() + timeoutInSeconds * 1000L;
+        this.maxExpiresAt = date.getTime() + Math.max(timeoutInSeconds, maxLeaseSeconds) * 1000L;
     }
 
     public boolean isLockExpired() {
-        final Instant lockInstant = lockTime.toInstant().plusSeconds(timeoutInSeconds);
-        final Instant currentInstant = new Date().toInstant();
-        return lockInstant.isBefore(currentInstant);
+        return System.currentTimeMillis() > expiresAt;
+    }
+
+    /**
+     * Heartbeat from the checkout: moves the deadline forward to requestedExpiresAt (capped at the
+     * maximum lease). Lock-free, a CAS on the deadline only. Returns false if the lease already ran out.
+     */
+    public boolean renew(final long requestedExpiresAt) {
+        final long target = Math.min(requestedExpiresAt, maxExpiresAt);
+        while (true) {
+            final long current = expiresAt;
+            if (System.currentTimeMillis() > current) {
+                return false; // Too late, the hold is gone (or about to be swept)
+            }
+            if (target <= current || EXPIRES_AT.compareAndSet(this, current, target)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Used by the expiry sweep: retires the lock if its lease has run out. Both this and renew() CAS
+     * the deadline, so a renewal either lands first (and the lock is kept) or fails afterwards.
+     */
+    public boolean tryExpire() {
+        while (true) {
+            final long current = expiresAt;
+            if (System.currentTimeMillis() <= current) {
+                return false; // Renewed in the meantime
+            }
+            if (EXPIRES_AT.compareAndSet(this, current, RELEASED)) {
+                return true;
+            }
+        }
+    }
+
+    // Called once the lock is removed from its table, so a late renew() cannot report it as held
+    public void release() {
+        expiresAt = RELEASED;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
     }
 
     public Seat getSeat() {
@@ -45,6 +98,8 @@ public class SeatLock {
 
     public void setTimeoutInSeconds(Integer timeoutInSeconds) {
         this.timeoutInSeconds = timeoutInSeconds;
+        this.expiresAt = lockTime.getTime() + timeoutInSeconds * 1000L;
+        this.maxExpiresAt = Math.max(maxExpiresAt, expiresAt);
     }
 
     public Date getLockTime() {
@@ -52,7 +107,9 @@ public class SeatLock {
     }
 
     public void setLockTime(Date lockTime) {
+        this.maxExpiresAt += lockTime.getTime() - this.lockTime.getTime();
         this.lockTime = lockTime;
+        this.expiresAt = lockTime.getTime() + timeoutInSeconds * 1000L;
     }
 
     public User getLockedBy() {
@@ -0,0 +1,165 @@
+package CoreClasses;
+
+import CommonEnum.SeatCategory;
+
+import java.lang.invoke.VarHandle;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Live per-category occupancy of one show, maintained incrementally from hold, release and
+ * booking events. A seat moves FREE -> HELD -> SOLD (or back to FREE); a hold that expires after
+ * its booking was confirmed is ignored, so confirmed seats are never counted twice.
+ *
+ * Writers synchronize on the instance. Readers go lock-free, seqlock style: a writer makes the
+ * volatile version odd before touching the counters and even again after, and every reader that
+ * combines several counters re-reads the version afterwards and retries if a write overlapped.
+ * The version also tells caches whether they are stale.
+ */
+public class ShowOccupancy {
+
+    private static final int CATEGORY_COUNT = SeatCategory.values().length;
+
+    private final int[] capacity = new int[CATEGORY_COUNT]; // Seats per category, taken once from the layout
+    private final int[] held = new int[CATEGORY_COUNT]; // Seats currently on hold (not yet sold)
+    private final int[] sold = new int[CATEGORY_COUNT]; // Seats in confirmed bookings
+    private final Set<Integer> heldSeatIds = new HashSet<>();
+    private final Set<Integer> soldSeatIds = new HashSet<>();
+    private volatile long version; // Odd while a write is in progress, bumped twice per change
+
+    public ShowOccupancy(final Show show) {
+        for (Seat seat : show.getScreen().getSeats()) {
+            capacity[seat.getSeatCategory().ordinal()]++;
+        }
+    }
+
+    public synchronized void hold(final List<Seat> seats) {
+        beginWrite();
+        try {
+            for (Seat seat : seats) {
+                if (heldSeatIds.add(seat.getSeatId()) && !soldSeatIds.contains(seat.getSeatId())) {
+                    held[seat.getSeatCategory().ordinal()]++;
+                }
+            }
+        } finally {
+            version++; // Even again: the change is complete
+        }
+    }
+
+    public synchronized void release(final List<Seat> seats) {
+        beginWrite();
+        try {
+            for (Seat seat : seats) {
+                if (heldSeatIds.remove(seat.getSeatId()) && !soldSeatIds.contains(seat.getSeatId())) {
+                    held[seat.getSeatCategory().ordinal()]--;
+                }
+            }
+        } finally {
+            version++; // Even again: the change is complete
+        }
+    }
+
+    // Seats of a cancelled booking go from SOLD back to FREE (or HELD, if a hold is still on them)
+    public synchronized void unsell(final List<Seat> seats) {
+        beginWrite();
+        try {
+            for (Seat seat : seats) {
+                if (soldSeatIds.remove(seat.getSeatId())) {
+                    final int category = seat.getSeatCategory().ordinal();
+                    sold[category]--;
+                    if (heldSeatIds.contains(seat.getSeatId())) {
+                        held[category]++;
+                    }
+                }
+            }
+        } finally {
+            version++; // Even again: the change is complete
+        }
+    }
+
+    public synchronized void sell(final List<Seat> seats) {
+        beginWrite();
+        try {
+            for (Seat seat : seats) {
+                if (soldSeatIds.add(seat.getSeatId())) {
+                    final int category = seat.getSeatCategory().ordinal();
+                    sold[category]++;
+                    if (heldSeatIds.contains(seat.getSeatId())) {
+                        held[category]--; // The hold now counts as a sale
+                    }
+                }
+            }
+        } finally {
+            version++; // Even again: the change is complete
+        }
+    }
+
+    // Fraction of the category's seats that are held or sold, 0 when the show has none of that category
+    public double getOccupancy(final SeatCategory seatCategory) {
+        final int category = seatCategory.ordinal();
+        if (capacity[category] == 0) return 0;
+        while (true) {
+            final long before = beginRead();
+            final int taken = held[category] + sold[category];
+            if (endRead(before)) return (double) taken / capacity[category];
+        }
+    }
+
+    // Fraction of all the show's seats that are still free, 1 for a show without seats
+    public double getRemainingFraction() {
+        while (true) {
+            final long before = beginRead();
+            int totalCapacity = 0, totalRemaining = 0;
+            for (int category = 0; category < CATEGORY_COUNT; category++) {
+                totalCapacity += capacity[category];
+                totalRemaining += capacity[category] - held[category] - sold[category];
+            }
+            if (endRead(before)) return totalCapacity == 0 ? 1 : (double) totalRemaining / totalCapacity;
+        }
+    }
+
+    // Makes the version odd before any counter changes; called under the instance lock
+    private void beginWrite() {
+        version++;
+        VarHandle.storeStoreFence(); // Keep the counter writes behind the odd version
+    }
+
+    // Waits out a write in progress and returns the (even) version the read starts from
+    private long beginRead() {
+        long before;
+        while (((before = version) & 1) != 0) {
+            Thread.onSpinWait();
+        }
+        return before;
+    }
+
+    // Whether no write overlapped the counters read since beginRead()
+    private boolean endRead(final long before) {
+        VarHandle.loadLoadFence(); // Keep the counter reads ahead of the version re-check
+        return version == before;
+    }
+
+    // Getters Section Start
+    public long getVersion() {
+        return version;
+    }
+    public int getCapacity(final SeatCategory seatCategory) {
+        return capacity[seatCategory.ordinal()];
+    }
+    public int getHeld(final SeatCategory seatCategory) {
+        return held[seatCategory.ordinal()];
+    }
+    public int getSold(final SeatCategory seatCategory) {
+        return sold[seatCategory.ordinal()];
+    }
+    public int getRemaining(final SeatCategory seatCategory) {
+        final int category = seatCategory.ordinal();
+        while (true) {
+            final long before = beginRead();
+            final int remaining = capacity[category] - held[category] - sold[category];
+            if (endRead(before)) return remaining;
+        }
+    }
+    // Getters Section End
+}
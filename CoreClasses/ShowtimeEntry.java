@@ -0,0 +1,33 @@
+package CoreClasses;
+
+import CommonEnum.SeatCategory;
+
+// One show on a listing page, with the seats left per category when the page was read
+public class ShowtimeEntry {
+
+    private final Show show;
+    private final int[] remaining; // Indexed by SeatCategory ordinal
+
+    public ShowtimeEntry(final Show show, final int[] remaining) {
+        this.show = show;
+        this.remaining = remaining;
+    }
+
+    public int getRemaining(final SeatCategory seatCategory) {
+        return remaining[seatCategory.ordinal()];
+    }
+
+    public int getTotalRemaining() {
+        int total = 0;
+        for (int seats : remaining) {
+            total += seats;
+        }
+        return total;
+    }
+
+    // Getters Section Start
+    public Show getShow() {
+        return show;
+    }
+    // Getters Section End
+}
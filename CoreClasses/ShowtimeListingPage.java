@@ -0,0 +1,43 @@
+package CoreClasses;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * One page of "all showtimes for a movie on a day", grouped by theatre in theatre ID order.
+ * Pass getNextAfterTheatreId() back to fetch the following page; it is null on the last page.
+ */
+public class ShowtimeListingPage {
+
+    private final Movie movie;
+    private final LocalDate date;
+    private final List<TheatreShowtimes> theatres;
+    private final Integer nextAfterTheatreId; // Cursor for the next page, null when there is none
+
+    public ShowtimeListingPage(final Movie movie, final LocalDate date, final List<TheatreShowtimes> theatres,
+                               final Integer nextAfterTheatreId) {
+        this.movie = movie;
+        this.date = date;
+        this.theatres = theatres;
+        this.nextAfterTheatreId = nextAfterTheatreId;
+    }
+
+    public boolean hasNextPage() {
+        return nextAfterTheatreId != null;
+    }
+
+    // Getters Section Start
+    public Movie getMovie() {
+        return movie;
+    }
+    public LocalDate getDate() {
+        return date;
+    }
+    public List<TheatreShowtimes> getTheatres() {
+        return theatres;
+    }
+    public Integer getNextAfterTheatreId() {
+        return nextAfterTheatreId;
+    }
+    // Getters Section End
+}
@@ -1,22 +1,48 @@
 package CoreClasses;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Theatre {
 
     private final int id;  // Unique identifier for the theatre
     private final String name; // Name of the theatre
-    private final List<Screen> screens; // List of screens available in the theatre
+    private final double latitude; // Degrees, NaN when the location is unknown
+    private final double longitude; // Degrees, NaN when the location is unknown
+    private volatile List<Screen> screens; // Frozen list of screens, replaced wholesale on every edit
 
     public Theatre(final int id,final String name) {
+        this(id, name, Double.NaN, Double.NaN);
+    }
+
+    public Theatre(final int id, final String name, final double latitude, final double longitude) {
         this.id = id;
         this.name = name;
-        this.screens = new ArrayList<>();
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.screens = Collections.emptyList();
+    }
+
+    public boolean hasLocation() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    // Copy-on-write append so readers iterating getScreen() never see a concurrent modification
+    public synchronized void addScreen(final  Screen screen) {
+        showScreens(withScreen(screen));
+    }
+
+    // The frozen screen list with the screen appended, not yet published; the catalog freezes it first
+    public synchronized List<Screen> withScreen(final Screen screen) {
+        final List<Screen> updated = new ArrayList<>(screens.size() + 1);
+        updated.addAll(screens);
+        updated.add(screen);
+        return Collections.unmodifiableList(updated);
     }
 
-    public void addScreen(final  Screen screen) {
-        screens.add(screen);
+    public void showScreens(final List<Screen> publishedScreens) {
+        this.screens = publishedScreens;
     }
 
     // Getters Section Start
@@ -29,5 +55,11 @@ public class Theatre {
     public String getTheatreName() {
         return name;
     }
+    public double getLatitude() {
+        return latitude;
+    }
+    public double getLongitude() {
+        return longitude;
+    }
     // Getters Section End
 }
@@ -0,0 +1,24 @@
+package CoreClasses;
+
+import java.util.List;
+
+// The showtimes of one movie at one theatre on one day, earliest first
+public class TheatreShowtimes {
+
+    private final Theatre theatre;
+    private final List<ShowtimeEntry> showtimes;
+
+    public TheatreShowtimes(final Theatre theatre, final List<ShowtimeEntry> showtimes) {
+        this.theatre = theatre;
+        this.showtimes = showtimes;
+    }
+
+    // Getters Section Start
+    public Theatre getTheatre() {
+        return theatre;
+    }
+    public List<ShowtimeEntry> getShowtimes() {
+        return showtimes;
+    }
+    // Getters Section End
+}
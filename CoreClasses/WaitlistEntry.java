@@ -0,0 +1,62 @@
+package CoreClasses;
+
+import CommonEnum.SeatCategory;
+import CommonEnum.WaitlistStatus;
+
+// A user waiting for seats in a sold-out show
+public class WaitlistEntry {
+
+    private final long id; // Also the queue position: lower IDs joined earlier and are served first
+    private final User user;
+    private final Show show;
+    private final int partySize; // Seats wanted, all offered together
+    private final SeatCategory seatCategory; // Preferred category, null for any
+    private volatile WaitlistStatus status = WaitlistStatus.WAITING;
+    private volatile Booking offer; // Booking holding the offered seats, set once OFFERED
+
+    public WaitlistEntry(final long id, final User user, final Show show, final int partySize,
+                         final SeatCategory seatCategory) {
+        this.id = id;
+        this.user = user;
+        this.show = show;
+        this.partySize = partySize;
+        this.seatCategory = seatCategory;
+    }
+
+    public synchronized void markOffered(final Booking offer) {
+        this.offer = offer;
+        this.status = WaitlistStatus.OFFERED;
+    }
+
+    public synchronized void markLeft() {
+        this.status = WaitlistStatus.LEFT;
+    }
+
+    public synchronized void markClosed() {
+        this.status = WaitlistStatus.CLOSED;
+    }
+
+    // Getters Section Start
+    public long getId() {
+        return id;
+    }
+    public User getUser() {
+        return user;
+    }
+    public Show getShow() {
+        return show;
+    }
+    public int getPartySize() {
+        return partySize;
+    }
+    public SeatCategory getSeatCategory() {
+        return seatCategory;
+    }
+    public WaitlistStatus getStatus() {
+        return status;
+    }
+    public Booking getOffer() {
+        return offer;
+    }
+    // Getters Section End
+}
@@ -2,25 +2,31 @@
 package Factories;
 
 import CommonEnum.PaymentMethod;
+import ConcretePaymentStrategies.CreditCardStrategy;
 import ConcretePaymentStrategies.DebitCardStrategy;
 import ConcretePaymentStrategies.UpiStrategy;
 import Interfaces.PaymentStrategy;
 
 public class PaymentStrategyFactory {
 
+    // The strategies keep no per-payment state, so one shared instance per method serves every caller
+    private static final PaymentStrategy DEBIT_CARD = new DebitCardStrategy();
+    private static final PaymentStrategy UPI = new UpiStrategy();
+    private static final PaymentStrategy CREDIT_CARD = new CreditCardStrategy();
+
     public static PaymentStrategy getPaymentStrategy(PaymentMethod method) {
         if (method == null) {
             return null;
         }
         switch (method) {
             case DEBIT_CARD:
-                return new DebitCardStrategy();
+                return DEBIT_CARD;
             case UPI:
-                return new UpiStrategy();
-            // case CREDIT_CARD:
-            //     return new CreditCardStrategy(); // Add this when you create the class
+                return UPI;
+            case CREDIT_CARD:
+                return CREDIT_CARD;
             default:
                 throw new IllegalArgumentException("Unknown Payment Method: " + method);
         }
     }
-}
\ No newline at end of file
+}
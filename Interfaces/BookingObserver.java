@@ -5,4 +5,16 @@ import CoreClasses.Booking;
 
 public interface BookingObserver {
     void onBookingConfirmed(Booking booking);
+
+    // Called after a confirmed booking was cancelled and its seats released; most observers don't care
+    default void onBookingCancelled(Booking booking) {
+    }
+
+    // Called once a booking's seats are held and it awaits payment
+    default void onBookingCreated(Booking booking) {
+    }
+
+    // Called after an unconfirmed booking was given up and its seats unlocked
+    default void onBookingExpired(Booking booking) {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package Interfaces;
+
+import CoreClasses.Booking;
+
+/**
+ * Asked by BookingService right before a booking is confirmed; throwing refuses the confirmation.
+ * It runs under the booking's lock with the booking still CREATED, so once every guard passed the
+ * confirmation goes through. Guards run in the order they were added: one with outside effects
+ * (replication) should come last, as a later guard refusing would not undo them.
+ */
+public interface ConfirmationGuard {
+    void beforeBookingConfirmed(Booking booking) throws Exception;
+}
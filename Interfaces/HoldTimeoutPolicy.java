@@ -0,0 +1,8 @@
+package Interfaces;
+
+import CoreClasses.Show;
+
+// Decides how long a new seat hold (and each renewal of it) lasts for a show
+public interface HoldTimeoutPolicy {
+    int getHoldSeconds(Show show);
+}
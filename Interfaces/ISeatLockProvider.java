@@ -8,8 +8,11 @@ import java.util.List;
 
 public interface ISeatLockProvider {
     void lockSeats(Show show, List<Seat> seat, User user) throws Exception;
+    void lockSeats(Show show, List<Seat> seats, User user, int holdSeconds) throws Exception; // Hold length set by the caller, not the policy
     void unlockSeats(Show show, List<Seat> seat, User user);
     boolean validateLock(Show show, Seat seat, User user);
+    boolean renewLocks(Show show, List<Seat> seats, User user); // Lease heartbeat, true if every hold was extended
     List<Seat> getLockedSeats(Show show);
+    void addSeatLockListener(SeatLockListener listener);
 
-}
\ No newline at end of file
+}
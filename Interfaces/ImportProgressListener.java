@@ -0,0 +1,7 @@
+package Interfaces;
+
+import CoreClasses.ImportReport;
+
+public interface ImportProgressListener {
+    void onProgress(ImportReport progress); // Called once per processed chunk, and once more when finished
+}
@@ -5,4 +5,5 @@ import CommonEnum.PaymentStatus;
 
 public interface PaymentStrategy {
     PaymentStatus processPayment(); // Changed to return PaymentStatus
+    PaymentStatus refund(int amount); // Pays the amount back through the same method
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package Interfaces;
+
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+
+import java.util.List;
+
+// Receives seat hold events from an ISeatLockProvider. Called on the locking thread, so keep it cheap.
+public interface SeatLockListener {
+    void onSeatsLocked(Show show, List<Seat> seats, User user); // New hold placed
+    void onSeatsUnlocked(Show show, List<Seat> seats, User user); // Hold released explicitly (e.g. payment failed)
+    void onSeatsExpired(Show show, List<Seat> seats, User user); // Hold timed out and was swept
+}
@@ -0,0 +1,8 @@
+package Interfaces;
+
+import CoreClasses.SeatEvent;
+
+// A read model folded from the seat event logs. Events of one show arrive in log order, on the appending thread.
+public interface SeatStateProjection {
+    void apply(SeatEvent event); // The event instance is reused, copy anything kept past this call
+}
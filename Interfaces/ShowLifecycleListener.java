@@ -0,0 +1,15 @@
+package Interfaces;
+
+import CoreClasses.Show;
+
+// Receives show lifecycle steps from ShowLifecycleService, on its background thread
+public interface ShowLifecycleListener {
+    default void onShowStarted(Show show) {
+    }
+
+    default void onShowFinished(Show show) {
+    }
+
+    // The show is over for good: drop everything kept for it
+    void onShowRetired(Show show);
+}
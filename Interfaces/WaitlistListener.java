@@ -0,0 +1,8 @@
+package Interfaces;
+
+import CoreClasses.WaitlistEntry;
+
+// Told when seats were held for a waitlisted user; entry.getOffer() is the booking to pay for
+public interface WaitlistListener {
+    void onSeatsOffered(WaitlistEntry entry);
+}
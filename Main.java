@@ -1,6 +1,9 @@
 import CommonEnum.PaymentMethod;
+import CommonEnum.PaymentStatus;
 import CommonEnum.SeatCategory;
+import ConcreteLockProviders.PartitionedSeatLockProvider;
 import ConcreteLockProviders.SeatLockProvider;
+import ConcretePaymentStrategies.SimulatedPaymentGateway;
 import Controllers.*;
 import CoreClasses.*;
 import Factories.PaymentStrategyFactory;
@@ -9,7 +12,14 @@ import Interfaces.PaymentStrategy;
 import Observers.AnalyticsUpdateObserver;
 import Observers.EmailNotificationObserver;
 import Services.*;
-
+import Utilities.AdaptiveConcurrencyLimiter;
+import Utilities.EventLog;
+import Utilities.FakeSmtpServer;
+import Utilities.SeatBitmap;
+import Utilities.TheatrePartitioner;
+
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -23,10 +33,18 @@ public class Main {
     private static ShowController showController;
     private static BookingController bookingController;
     private static PaymentController paymentController;
+    private static FakeSmtpServer smtpServer; // Local stand-in for the mail relay
+    private static NotificationService notificationService;
+    private static TheatreBulkheads theatreBulkheads; // One bounded executor per theatre partition
+    private static ShowLifecycleService showLifecycle; // Starts, finishes and retires shows by the clock
+    private static PaymentRouter paymentRouter; // Picks, hedges and fails over between payment gateways
+    private static CatalogImportService catalogImportService; // Parser pool for bulk catalog imports
+    private static CancellationService cancellationService; // Refund workers and retry queue
+    private static WaitlistService waitlistService; // Offer expiry timer
     private static Scanner scanner = new Scanner(System.in);
 
     public static void main(String[] args) {
-        SeatLockProvider seatLockProvider = null;
+        PartitionedSeatLockProvider seatLockProvider = null;
         try {
             seatLockProvider = initializeSystem();
             setupInitialData(); // Create a richer set of sample data
@@ -50,6 +68,12 @@ public class Main {
                         case 4:
                             handleAbandonedLockTest();
                             break;
+                        case 5:
+                            handleSearchMovies();
+                            break;
+                        case 6:
+                            handleCancelBooking(currentUser);
+                            break;
                         case 0:
                             running = false;
                             break;
@@ -69,33 +93,120 @@ public class Main {
             if (seatLockProvider != null) {
                 System.out.println("\nApplication is closing. Shutting down background services...");
                 seatLockProvider.shutdown();
+                theatreBulkheads.shutdown();
+                showLifecycle.shutdown();
+                paymentRouter.shutdown();
+                catalogImportService.shutdown();
+                cancellationService.shutdown();
+                waitlistService.shutdown();
             }
+            if (notificationService != null) {
+                notificationService.shutdown();
+                smtpServer.stop();
+            }
+            EventLog.stop(); // Last, so the shutdown events above still reach the file
             scanner.close();
         }
     }
 
     // Wires up all the application components
-    private static SeatLockProvider initializeSystem() {
+    private static PartitionedSeatLockProvider initializeSystem() throws IOException {
+        // Binary event log (read back with Utilities.EventLogReader), echoed to the console for the demo
+        EventLog.start(Paths.get("logs", "events"), 1 << 16, 16L << 20, 8, true);
+
         // Services
         MovieService movieService = new MovieService();
         TheatreService theatreService = new TheatreService();
-        ShowService showService = new ShowService();
-        SeatLockProvider seatLockProvider = new SeatLockProvider(15); // 15-second lock for easier testing
+        OccupancyTracker occupancyTracker = new OccupancyTracker();
+        // Shows are retired an hour after they end, freeing everything kept for them
+        showLifecycle = new ShowLifecycleService(60);
+        ShowService showService = new ShowService(new ShowtimeListingView(occupancyTracker), showLifecycle);
+        // Seat event log is the source of truth; occupancy and availability are projections of it
+        SeatStateStore seatStateStore = new SeatStateStore();
+        AvailabilityProjection availabilityProjection = new AvailabilityProjection();
+        seatStateStore.addProjection(occupancyTracker);
+        seatStateStore.addProjection(availabilityProjection);
+        UserHoldsProjection userHoldsProjection = new UserHoldsProjection();
+        seatStateStore.addProjection(userHoldsProjection);
+        // Each theatre partition gets its own seat-lock shard and bulkhead, so one premiere can't starve the rest
+        TheatrePartitioner theatrePartitioner = new TheatrePartitioner(4);
+        List<SeatLockProvider> lockShards = new ArrayList<>();
+        for (int i = 0; i < theatrePartitioner.getPartitionCount(); i++) {
+            // 15-second hold for easier testing, shrinking to 5s once fewer than 20% of a show's seats are left
+            lockShards.add(new SeatLockProvider(new AdaptiveHoldTimeoutPolicy(occupancyTracker, 15, 5, 0.2), 60));
+        }
+        PartitionedSeatLockProvider seatLockProvider = new PartitionedSeatLockProvider(theatrePartitioner, lockShards);
+        theatreBulkheads = new TheatreBulkheads(theatrePartitioner, 4, 200, 1_000); // A fifth of the shortest (5 s) hold
         seatLockProvider.startLockCleanup();
-        BookingService bookingService = new BookingService(seatLockProvider);
+        seatLockProvider.addSeatLockListener(seatStateStore);
+        PricingService pricingService = new PricingService(occupancyTracker,
+                Map.of(SeatCategory.SILVER, 150, SeatCategory.GOLD, 250, SeatCategory.PLATINUM, 400));
+        BookingService bookingService = new BookingService(seatLockProvider, pricingService);
+        CartService cartService = new CartService(bookingService, 15); // Same window as the seat locks
+        seatLockProvider.addSeatLockListener(cartService); // Forgets carts whose holds lapsed
         PaymentService paymentService = new PaymentService(bookingService);
-        SeatAvailabilityService seatAvailabilityService = new SeatAvailabilityService(bookingService, seatLockProvider);
+        paymentService.setCartService(cartService);
+        // Every method's own gateway, plus a simulated backup for cards; payments give up after 5s, well inside the hold
+        paymentRouter = new PaymentRouter(5_000);
+        for (PaymentMethod method : PaymentMethod.values()) {
+            paymentRouter.addGateway(method, method.name(), PaymentStrategyFactory.getPaymentStrategy(method));
+        }
+        paymentRouter.addGateway(PaymentMethod.DEBIT_CARD, "DEBIT_CARD_BACKUP", new SimulatedPaymentGateway("DEBIT_CARD_BACKUP", 50));
+        paymentRouter.addGateway(PaymentMethod.CREDIT_CARD, "CREDIT_CARD_BACKUP", new SimulatedPaymentGateway("CREDIT_CARD_BACKUP", 50));
+        SeatAvailabilityService seatAvailabilityService = new SeatAvailabilityService(bookingService, seatLockProvider,
+                availabilityProjection);
+        catalogImportService = new CatalogImportService(theatreService, movieService, showService,
+                Runtime.getRuntime().availableProcessors(), 10_000);
+
+        // Confirmation emails go through the batched dispatcher to the embedded SMTP server
+        smtpServer = new FakeSmtpServer();
+        smtpServer.start();
+        notificationService = new NotificationService(smtpServer.getHost(), smtpServer.getPort(), 2, 50, 10_000, 5);
 
         // Observers
-        bookingService.addObserver(new EmailNotificationObserver());
-        bookingService.addObserver(new AnalyticsUpdateObserver());
-
-        // Controllers
+        bookingService.addObserver(new EmailNotificationObserver(notificationService));
+        SalesAnalyticsService salesAnalyticsService = new SalesAnalyticsService();
+        bookingService.addObserver(new AnalyticsUpdateObserver(salesAnalyticsService));
+        bookingService.addObserver(seatStateStore);
+        bookingService.addObserver(movieService.getSearchIndex()); // Popularity for search ranking
+
+        // Waitlist: registered after the seat state store, so availability already reflects a release
+        waitlistService = new WaitlistService(bookingService, availabilityProjection, 60); // Offers outlast the 5-15s holds
+        seatLockProvider.addSeatLockListener(waitlistService);
+        bookingService.addObserver(waitlistService);
+        waitlistService.addListener(entry -> System.out.println("--> [WAITLIST]: " + entry.getUser().getUserName()
+                + ", seats are held for you! Pay for Booking ID " + entry.getOffer().getId() + " to confirm."));
+
+        // Controllers, sharing one concurrency limit so browsing is shed before checkouts under overload
+        AdaptiveConcurrencyLimiter requestLimiter = new AdaptiveConcurrencyLimiter(64, 8, 1024);
         movieController = new MovieController(movieService);
-        theatreController = new TheatreController(theatreService);
-        showController = new ShowController(seatAvailabilityService, showService, theatreService, movieService);
-        bookingController = new BookingController(showService, bookingService, theatreService);
-        paymentController = new PaymentController(paymentService);
+        theatreController = new TheatreController(theatreService, catalogImportService);
+        ShowSearchService showSearchService = new ShowSearchService(theatreService, showService, occupancyTracker);
+        showController = new ShowController(seatAvailabilityService, showService, theatreService, movieService,
+                requestLimiter);
+        showController.setPricingService(pricingService);
+        showController.setShowSearchService(showSearchService);
+        showController.setBulkheads(theatreBulkheads);
+        cancellationService = new CancellationService(bookingService, 4, 100, 8);
+        bookingController = new BookingController(showService, bookingService, theatreService, requestLimiter);
+        bookingController.setCartService(cartService);
+        bookingController.setBulkheads(theatreBulkheads);
+        bookingController.setCancellationService(cancellationService);
+        bookingController.setWaitlistService(waitlistService);
+        paymentController = new PaymentController(paymentService, requestLimiter);
+
+        // Lifecycle: sales close first, the show itself is forgotten last
+        showLifecycle.addListener(bookingService);
+        showLifecycle.addListener(waitlistService);
+        showLifecycle.addListener(seatLockProvider);
+        showLifecycle.addListener(seatStateStore);
+        showLifecycle.addListener(occupancyTracker);
+        showLifecycle.addListener(availabilityProjection);
+        showLifecycle.addListener(userHoldsProjection);
+        showLifecycle.addListener(pricingService);
+        showLifecycle.addListener(salesAnalyticsService);
+        showLifecycle.addListener(showService);
+        showLifecycle.start(10);
 
         return seatLockProvider;
     }
@@ -103,26 +214,23 @@ public class Main {
     // Sets up a realistic dataset of movies, theatres, and shows
     private static void setupInitialData() throws Exception {
         System.out.println("--- Setting up sample movies and shows for today ---");
+        Date showTime = new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(2)); // Still on sale for a while
         // Create movies
         int movie1Id = movieController.createMovie("Inception", 150);
         int movie2Id = movieController.createMovie("The Dark Knight", 152);
 
         // Create Theatre 1: Gemini Multiplex
-        int theatre1Id = theatreController.createTheatre("Gemini Multiplex");
+        int theatre1Id = theatreController.createTheatre("Gemini Multiplex", 13.0604, 80.2496);
         int screen1Id = theatreController.createScreenInTheatre("Screen 1", theatre1Id);
-        for (int i = 1; i <= 30; i++) { // 30 seats
-            theatreController.createSeatInScreen((i-1)/10 + 1, SeatCategory.GOLD, screen1Id);
-        }
-        showController.createShow(movie1Id, screen1Id, new Date(), 150); // Inception in Screen 1
+        theatreController.createSeatsInScreen(30, 10, SeatCategory.GOLD, screen1Id); // 30 seats, 10 per row
+        showController.createShow(movie1Id, screen1Id, showTime, 150); // Inception in Screen 1
 
         // Create Theatre 2: Anna Cinemas
-        int theatre2Id = theatreController.createTheatre("Anna Cinemas");
+        int theatre2Id = theatreController.createTheatre("Anna Cinemas", 13.0627, 80.2707);
         int screen2Id = theatreController.createScreenInTheatre("IMAX", theatre2Id);
-        for (int i = 1; i <= 50; i++) { // 50 seats
-            theatreController.createSeatInScreen((i-1)/10 + 1, SeatCategory.PLATINUM, screen2Id);
-        }
-        showController.createShow(movie1Id, screen2Id, new Date(), 150); // Inception in IMAX
-        showController.createShow(movie2Id, screen2Id, new Date(), 152); // Dark Knight in IMAX
+        theatreController.createSeatsInScreen(50, 10, SeatCategory.PLATINUM, screen2Id); // 50 seats, 10 per row
+        showController.createShow(movie1Id, screen2Id, showTime, 150); // Inception in IMAX
+        showController.createShow(movie2Id, screen2Id, showTime, 152); // Dark Knight in IMAX
     }
 
     private static void showMainMenu() {
@@ -131,6 +239,8 @@ public class Main {
         System.out.println("2. Book a Ticket");
         System.out.println("3. Simulate Race Condition");
         System.out.println("4. Simulate Abandoned Lock");
+        System.out.println("5. Search Movies");
+        System.out.println("6. Cancel a Booking");
         System.out.println("0. Exit");
         System.out.print("Enter your choice: ");
     }
@@ -146,6 +256,33 @@ public class Main {
         }
     }
 
+    private static void handleSearchMovies() {
+        System.out.print("Search for: ");
+        List<Movie> movies = movieController.searchMovies(scanner.nextLine(), 10);
+        if (movies.isEmpty()) {
+            System.out.println("No matching movies.");
+        }
+        for (Movie movie : movies) {
+            System.out.println("ID: " + movie.getMovieId() + ", Title: " + movie.getMovieName());
+        }
+    }
+
+    // Sold out: instead of refreshing, the user queues and gets seats held automatically
+    private static void handleJoinWaitlist(User user, Show show) throws Exception {
+        System.out.print("This show is sold out. Join the waitlist? Enter party size (0 to skip): ");
+        int partySize = Integer.parseInt(scanner.nextLine().trim());
+        if (partySize <= 0) return;
+        long entryId = bookingController.joinWaitlist(user, show.getId(), partySize, null);
+        System.out.println("You are on the waitlist (entry " + entryId + "). We'll hold seats for you as soon as they free up.");
+    }
+
+    private static void handleCancelBooking(User user) throws Exception {
+        System.out.print("Enter the Booking ID to cancel: ");
+        String bookingId = scanner.nextLine().trim();
+        PaymentStatus refundStatus = bookingController.cancelBooking(bookingId, user);
+        System.out.println("Booking " + bookingId + " cancelled, its seats are available again. Refund: " + refundStatus);
+    }
+
     // Orchestrates the entire multi-step booking flow
     private static void handleBookingProcess(User user) throws Exception {
         // Step 1: Select a Movie
@@ -158,7 +295,11 @@ public class Main {
 
         // Step 3: Select Seats
         System.out.println("\n--- Booking tickets for '" + selectedMovie.getMovieName() + "' at " + selectedShow.getScreen().getTheatre().getTheatreName() + " ---");
-        displaySeats(selectedShow);
+        SeatBitmap seatMap = displaySeats(selectedShow);
+        if (seatMap.countAvailable() == 0) {
+            handleJoinWaitlist(user, selectedShow);
+            return;
+        }
         System.out.print("Enter the seat numbers you want to book (e.g., 5,6,7): ");
         String seatsInput = scanner.nextLine();
         List<Integer> seatIdsToBook = Arrays.stream(seatsInput.split(","))
@@ -170,16 +311,19 @@ public class Main {
 
         // Step 4: Create Booking and Process Payment
         String bookingId = bookingController.createBooking(user, selectedShow.getId(), seatIdsToBook);
-        System.out.println("Seats temporarily locked. Booking ID: " + bookingId + ". Please complete payment.");
+        System.out.println("Seats temporarily locked. Booking ID: " + bookingId + ", Amount: ₹"
+                + bookingController.getBookingAmount(bookingId) + ". Please complete payment.");
 
         System.out.println("\n--- Choose Payment Method ---");
         System.out.println("1. Debit Card (Simulates Success)");
         System.out.println("2. UPI (Simulates Failure)");
+        System.out.println("3. Credit Card (Simulates Success)");
         System.out.print("Enter payment choice: ");
         int paymentChoice = Integer.parseInt(scanner.nextLine());
 
-        PaymentMethod method = (paymentChoice == 1) ? PaymentMethod.DEBIT_CARD : PaymentMethod.UPI;
-        PaymentStrategy strategy = PaymentStrategyFactory.getPaymentStrategy(method);
+        PaymentMethod method = (paymentChoice == 1) ? PaymentMethod.DEBIT_CARD
+                : (paymentChoice == 3) ? PaymentMethod.CREDIT_CARD : PaymentMethod.UPI;
+        PaymentStrategy strategy = paymentRouter.route(method, bookingController.getBookingAmount(bookingId));
         paymentController.processPayment(bookingId, user, strategy);
     }
 
@@ -208,16 +352,16 @@ public class Main {
     }
 
     // Displays a rich seat layout with categories and prices
-    private static void displaySeats(Show show) throws Exception {
-        List<Integer> availableSeatIds = showController.getAvailableSeats(show.getId());
+    private static SeatBitmap displaySeats(Show show) throws Exception {
+        SeatBitmap seatMap = SeatBitmap.decode(showController.getSeatMap(show.getId())); // Bit i = seat i of the layout
         List<Seat> allSeats = show.getScreen().getSeats();
-        Map<SeatCategory, Integer> prices = Map.of(SeatCategory.SILVER, 150, SeatCategory.GOLD, 250, SeatCategory.PLATINUM, 400);
+        Map<SeatCategory, Integer> prices = showController.getSeatPrices(show.getId());
 
         System.out.println("\n--- Screen Layout (Price per seat) ---");
         for (int i = 0; i < allSeats.size(); i++) {
             Seat seat = allSeats.get(i);
             String seatDisplay;
-            if (availableSeatIds.contains(seat.getSeatId())) {
+            if (seatMap.isAvailable(i)) {
                 seatDisplay = String.format("[%c:%2d ₹%d]", seat.getSeatCategory().toString().charAt(0), seat.getSeatId(), prices.get(seat.getSeatCategory()));
             } else {
                 seatDisplay = " [---XX---] ";
@@ -228,6 +372,7 @@ public class Main {
             }
         }
         System.out.println("\n-----------------------------------------------------");
+        return seatMap;
     }
 
     // Interactive concurrency test
@@ -1,14 +1,30 @@
 // Create new file: src/Observers/AnalyticsUpdateObserver.java
 package Observers;
 
+import CommonEnum.LogEvent;
 import CoreClasses.Booking;
 import Interfaces.BookingObserver;
+import Services.SalesAnalyticsService;
+import Utilities.EventLog;
 
 public class AnalyticsUpdateObserver implements BookingObserver {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public AnalyticsUpdateObserver(final SalesAnalyticsService salesAnalyticsService) {
+        this.salesAnalyticsService = salesAnalyticsService;
+    }
+
     @Override
     public void onBookingConfirmed(Booking booking) {
-        // In a real system, you'd send this data to an analytics service
-        System.out.println("--> [ANALYTICS OBSERVER]: Updating analytics for Show ID: " +
-                booking.getShow().getId() + ". Seats booked: " + booking.getSeatsBooked().size());
+        // Feed the rolling sales counters used by the revenue dashboards
+        salesAnalyticsService.recordBooking(booking);
+        EventLog.record(LogEvent.ANALYTICS_UPDATED, booking.getShow().getId(), booking.getSeatsBooked().size());
+    }
+
+    @Override
+    public void onBookingCancelled(Booking booking) {
+        // Cancelled seats no longer count as sold, so a called-off show drops out of the top lists
+        salesAnalyticsService.recordCancellation(booking);
     }
-}
\ No newline at end of file
+}
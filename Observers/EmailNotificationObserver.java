@@ -1,14 +1,33 @@
 // Create new file: src/Observers/EmailNotificationObserver.java
 package Observers;
 
+import CommonEnum.LogEvent;
 import CoreClasses.Booking;
 import Interfaces.BookingObserver;
+import Services.NotificationService;
+import Utilities.EventLog;
 
 public class EmailNotificationObserver implements BookingObserver {
+
+    private final NotificationService notificationService; // Optional; without it the email is only logged
+
+    public EmailNotificationObserver() {
+        this(null);
+    }
+
+    public EmailNotificationObserver(final NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
     @Override
     public void onBookingConfirmed(Booking booking) {
+        if (notificationService != null) {
+            // Just a queue offer; rendering and SMTP happen on the dispatcher threads
+            notificationService.enqueue(booking);
+            EventLog.record(LogEvent.EMAIL_QUEUED, booking.getId());
+            return;
+        }
         // In a real system, you'd integrate with an email API
-        System.out.println("--> [EMAIL OBSERVER]: Sending confirmation email to " +
-                booking.getUser().getUserEmail() + " for Booking ID: " + booking.getId());
+        EventLog.record(LogEvent.EMAIL_SENT, booking.getId());
     }
-}
\ No newline at end of file
+}
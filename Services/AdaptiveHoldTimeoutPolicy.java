@@ -0,0 +1,34 @@
+package Services;
+
+import CoreClasses.Show;
+import Interfaces.HoldTimeoutPolicy;
+
+/**
+ * Shrinks the hold period for hot shows. While at least lowInventoryFraction of a show's seats
+ * are free, holds last baseSeconds; below that they shrink linearly towards minSeconds as the
+ * last seats go, so abandoned checkouts stop blocking scarce inventory for long.
+ */
+public class AdaptiveHoldTimeoutPolicy implements HoldTimeoutPolicy {
+
+    private final OccupancyTracker occupancyTracker;
+    private final int baseSeconds;
+    private final int minSeconds;
+    private final double lowInventoryFraction;
+
+    public AdaptiveHoldTimeoutPolicy(final OccupancyTracker occupancyTracker, final int baseSeconds,
+                                     final int minSeconds, final double lowInventoryFraction) {
+        this.occupancyTracker = occupancyTracker;
+        this.baseSeconds = baseSeconds;
+        this.minSeconds = minSeconds;
+        this.lowInventoryFraction = lowInventoryFraction;
+    }
+
+    @Override
+    public int getHoldSeconds(final Show show) {
+        final double remaining = occupancyTracker.getOccupancy(show).getRemainingFraction();
+        if (remaining >= lowInventoryFraction) {
+            return baseSeconds;
+        }
+        return (int) Math.round(minSeconds + (baseSeconds - minSeconds) * (remaining / lowInventoryFraction));
+    }
+}
@@ -0,0 +1,155 @@
+package Services;
+
+import CoreClasses.Seat;
+import CoreClasses.SeatEvent;
+import CoreClasses.Show;
+import Interfaces.SeatStateProjection;
+import Interfaces.ShowLifecycleListener;
+import Utilities.SeatBitmap;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seat availability per show, folded from the seat event log. Each show keeps two bitsets
+ * (held, sold) indexed by seat ID relative to the screen's lowest seat ID, so answering
+ * "which seats are free" no longer merges bookings with the lock table.
+ *
+ * Events for seats outside the screen's ID range are ignored and such seats are never reported
+ * free; the projection runs inside seat lock listeners, so it must not throw.
+ *
+ * Every change bumps the show's version. Seat maps for clients are served as a SeatBitmap, built at
+ * most once per version; the last few bitmaps handed out are kept so a client that still has one
+ * can be sent just the seats that changed since.
+ */
+public class AvailabilityProjection implements SeatStateProjection, ShowLifecycleListener {
+
+    private static final int RETAINED_BITMAPS = 16; // Served versions per show that clients can diff against
+
+    private final Map<Integer, SeatStates> statesByShow = new ConcurrentHashMap<>(); // key = show ID
+
+    @Override
+    public void apply(final SeatEvent event) {
+        final SeatStates states = statesFor(event.getShow());
+        final int bit = event.getSeat().getSeatId() - states.baseSeatId;
+        if (bit < 0) return; // Not a seat of this show's screen
+        synchronized (states) {
+            final boolean wasFree = !states.held.get(bit) && !states.sold.get(bit);
+            switch (event.getType()) {
+                case HOLD:
+                    if (!states.sold.get(bit)) states.held.set(bit);
+                    break;
+                case RELEASE:
+                case EXPIRE:
+                    states.held.clear(bit); // A sold seat stays sold
+                    break;
+                case BOOK:
+                    states.held.clear(bit);
+                    states.sold.set(bit);
+                    break;
+                case CANCEL:
+                    states.sold.clear(bit);
+                    break;
+            }
+            if (wasFree == (states.held.get(bit) || states.sold.get(bit))) {
+                states.version++; // Availability flipped
+            }
+        }
+    }
+
+    // The show's seat map in layout order; the same instance is returned until availability changes
+    public SeatBitmap getSeatBitmap(final Show show) {
+        final SeatStates states = statesFor(show);
+        final List<Seat> seats = show.getScreen().getSeats();
+        synchronized (states) {
+            final SeatBitmap latest = states.served.peekLast();
+            if (latest != null && latest.getVersion() == states.version && latest.getSize() == seats.size()) {
+                return latest;
+            }
+            final long[] words = SeatBitmap.newWords(seats.size());
+            for (int i = 0; i < seats.size(); i++) {
+                if (isFree(states, seats.get(i))) {
+                    SeatBitmap.set(words, i);
+                }
+            }
+            final SeatBitmap bitmap = new SeatBitmap(seats.size(), words, states.version);
+            states.served.addLast(bitmap);
+            if (states.served.size() > RETAINED_BITMAPS) {
+                states.served.removeFirst();
+            }
+            return bitmap;
+        }
+    }
+
+    /**
+     * Encoded update for a client holding the seat map of sinceVersion: a diff when that version is
+     * still retained, otherwise the full encoded bitmap (the first byte tells which).
+     */
+    public byte[] getSeatBitmapUpdate(final Show show, final long sinceVersion) {
+        final SeatBitmap current = getSeatBitmap(show);
+        final SeatStates states = statesFor(show);
+        synchronized (states) {
+            for (SeatBitmap old : states.served) {
+                if (old.getVersion() == sinceVersion && old.getSize() == current.getSize()) {
+                    return current.encodeDiff(old);
+                }
+            }
+        }
+        return current.encode();
+    }
+
+    public List<Seat> getAvailableSeats(final Show show) {
+        final SeatStates states = statesFor(show);
+        final List<Seat> available = new ArrayList<>();
+        synchronized (states) {
+            for (Seat seat : show.getScreen().getSeats()) {
+                if (isFree(states, seat)) {
+                    available.add(seat);
+                }
+            }
+        }
+        return available;
+    }
+
+    public boolean isAvailable(final Show show, final Seat seat) {
+        final SeatStates states = statesFor(show);
+        synchronized (states) {
+            return isFree(states, seat);
+        }
+    }
+
+    @Override
+    public void onShowRetired(final Show show) {
+        statesByShow.remove(show.getId());
+    }
+
+    private static boolean isFree(final SeatStates states, final Seat seat) {
+        final int bit = seat.getSeatId() - states.baseSeatId;
+        return bit >= 0 && !states.held.get(bit) && !states.sold.get(bit);
+    }
+
+    private SeatStates statesFor(final Show show) {
+        return statesByShow.computeIfAbsent(show.getId(), id -> new SeatStates(show));
+    }
+
+    private static final class SeatStates {
+        private final int baseSeatId; // Lowest seat ID of the screen; seats added later only get higher IDs
+        private final BitSet held = new BitSet();
+        private final BitSet sold = new BitSet();
+        private long version; // Bumped whenever a seat becomes free or taken
+        private final Deque<SeatBitmap> served = new ArrayDeque<>(); // Recently served seat maps, oldest first
+
+        private SeatStates(final Show show) {
+            int base = Integer.MAX_VALUE;
+            for (Seat seat : show.getScreen().getSeats()) {
+                base = Math.min(base, seat.getSeatId());
+            }
+            this.baseSeatId = base == Integer.MAX_VALUE ? 0 : base;
+        }
+    }
+}
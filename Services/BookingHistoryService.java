@@ -0,0 +1,414 @@
+package Services;
+
+import CommonEnum.HistoryDimension;
+import CommonEnum.SeatCategory;
+import CoreClasses.Booking;
+import CoreClasses.HistoryQuery;
+import CoreClasses.HistoryResultRow;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import Utilities.ColumnCodec;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Columnar on-disk store for confirmed booking history, plus a small parallel query engine.
+ *
+ * Each export writes one immutable segment file holding one row per (booking, seat category) with
+ * primitive columns for show, movie, theatre, seat count, category, timestamp, amount and a
+ * new-booking flag. Columns are compressed independently (see ColumnCodec) and every segment
+ * carries min/max ranges, so a query only opens segments that can match and only decodes the
+ * columns it needs. Row ranges are then scanned in parallel and group-by results merged.
+ */
+public class BookingHistoryService {
+
+    private static final int MAGIC = 0x424B4831; // "BKH1"
+    private static final String SEGMENT_SUFFIX = ".bkh";
+    private static final int SCAN_CHUNK_ROWS = 65_536; // Rows per parallel scan task
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // Column IDs, also their position in a segment's column directory
+    private static final int COL_SHOW = 0, COL_MOVIE = 1, COL_THEATRE = 2, COL_SEATS = 3,
+            COL_CATEGORY = 4, COL_TIMESTAMP = 5, COL_AMOUNT = 6, COL_NEW_BOOKING = 7, COLUMN_COUNT = 8;
+
+    private final Path directory;
+    private final List<SegmentHeader> segments; // Headers of every segment on disk, oldest first
+    private final AtomicInteger segmentCounter;
+
+    public BookingHistoryService(final Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.segments = new CopyOnWriteArrayList<>();
+        int highest = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(SEGMENT_SUFFIX)).sorted().collect(Collectors.toList())) {
+                segments.add(SegmentHeader.read(file));
+                final String fileName = file.getFileName().toString();
+                highest = Math.max(highest, Integer.parseInt(fileName.substring("segment-".length(), fileName.length() - SEGMENT_SUFFIX.length())));
+            }
+        }
+        this.segmentCounter = new AtomicInteger(highest);
+    }
+
+    /**
+     * Writes the confirmed bookings among the given ones into a new segment and returns its path.
+     * Callers decide what goes into a segment, e.g. yesterday's bookings from a nightly job.
+     */
+    public Path exportBookings(final Collection<Booking> bookings) throws Exception {
+        final ColumnBuilder columns = new ColumnBuilder();
+        for (Booking booking : bookings) {
+            if (booking.isConfirmed()) {
+                columns.addBooking(booking);
+            }
+        }
+        if (columns.size == 0) {
+            throw new Exception("No confirmed bookings to export.");
+        }
+        final Path file = directory.resolve(String.format("segment-%08d%s", segmentCounter.incrementAndGet(), SEGMENT_SUFFIX));
+        columns.write(file);
+        segments.add(SegmentHeader.read(file));
+        return file;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public List<HistoryResultRow> query(final HistoryQuery query) {
+        final boolean[] needed = neededColumns(query);
+        // Predicate pushdown, step 1: drop whole segments using their min/max ranges
+        final List<SegmentHeader> candidates = segments.stream()
+                .filter(segment -> segment.mightMatch(query))
+                .collect(Collectors.toList());
+        // Decode only the needed columns of the remaining segments, in parallel
+        final List<SegmentColumns> loaded = candidates.parallelStream()
+                .map(segment -> segment.load(needed))
+                .collect(Collectors.toList());
+        // Split into row ranges and scan them in parallel, each task filling its own group table
+        final List<int[]> tasks = new ArrayList<>(); // {segment index, from row, to row}
+        for (int i = 0; i < loaded.size(); i++) {
+            for (int from = 0; from < loaded.get(i).rowCount; from += SCAN_CHUNK_ROWS) {
+                tasks.add(new int[]{i, from, Math.min(from + SCAN_CHUNK_ROWS, loaded.get(i).rowCount)});
+            }
+        }
+        final HistoryDimension[] groupBy = query.getGroupBy();
+        final GroupTable result = tasks.parallelStream()
+                .map(task -> scan(loaded.get(task[0]), task[1], task[2], query, groupBy))
+                .reduce(GroupTable::merge)
+                .orElseGet(GroupTable::new);
+        return result.toRows(groupBy);
+    }
+
+    private static GroupTable scan(final SegmentColumns columns, final int from, final int to,
+                                   final HistoryQuery query, final HistoryDimension[] groupBy) {
+        final GroupTable table = new GroupTable();
+        final int category = query.getSeatCategory() == null ? HistoryQuery.ANY : query.getSeatCategory().ordinal();
+        final boolean timeFilter = query.hasTimeFilter();
+        // Once rows are split by category, a booking spanning two categories counts once in each of them
+        final boolean perCategory = category != HistoryQuery.ANY || query.groupsBy(HistoryDimension.CATEGORY);
+        for (int row = from; row < to; row++) {
+            if (query.getShowId() != HistoryQuery.ANY && columns.shows[row] != query.getShowId()) continue;
+            if (query.getMovieId() != HistoryQuery.ANY && columns.movies[row] != query.getMovieId()) continue;
+            if (query.getTheatreId() != HistoryQuery.ANY && columns.theatres[row] != query.getTheatreId()) continue;
+            if (category != HistoryQuery.ANY && columns.categories[row] != category) continue;
+            if (timeFilter && (columns.timestamps[row] < query.getFromMillis() || columns.timestamps[row] >= query.getToMillis())) continue;
+            long key = 0;
+            for (int d = 0; d < groupBy.length; d++) {
+                key |= (dimensionValue(columns, row, groupBy[d]) & 0xFFFFFFFFL) << (d == 0 ? 32 : 0);
+            }
+            table.add(key, perCategory ? 1 : columns.newBookings[row], columns.seats[row], columns.amounts[row]);
+        }
+        return table;
+    }
+
+    private static int dimensionValue(final SegmentColumns columns, final int row, final HistoryDimension dimension) {
+        switch (dimension) {
+            case SHOW: return columns.shows[row];
+            case MOVIE: return columns.movies[row];
+            case THEATRE: return columns.theatres[row];
+            case CATEGORY: return columns.categories[row];
+            case DAY: return (int) Math.floorDiv(columns.timestamps[row], MILLIS_PER_DAY);
+            case WEEK:
+                final long epochDay = Math.floorDiv(columns.timestamps[row], MILLIS_PER_DAY);
+                return (int) (epochDay - Math.floorMod(epochDay + 3, 7)); // 1970-01-01 was a Thursday
+            default: throw new IllegalArgumentException("Unknown dimension " + dimension);
+        }
+    }
+
+    private static boolean[] neededColumns(final HistoryQuery query) {
+        final boolean[] needed = new boolean[COLUMN_COUNT];
+        needed[COL_SEATS] = needed[COL_AMOUNT] = needed[COL_NEW_BOOKING] = true; // Aggregates
+        needed[COL_SHOW] = query.getShowId() != HistoryQuery.ANY || query.groupsBy(HistoryDimension.SHOW);
+        needed[COL_MOVIE] = query.getMovieId() != HistoryQuery.ANY || query.groupsBy(HistoryDimension.MOVIE);
+        needed[COL_THEATRE] = query.getTheatreId() != HistoryQuery.ANY || query.groupsBy(HistoryDimension.THEATRE);
+        needed[COL_CATEGORY] = query.getSeatCategory() != null || query.groupsBy(HistoryDimension.CATEGORY);
+        needed[COL_TIMESTAMP] = query.hasTimeFilter() || query.groupsBy(HistoryDimension.DAY) || query.groupsBy(HistoryDimension.WEEK);
+        return needed;
+    }
+
+    // Accumulates rows in primitive arrays before they are encoded into a segment
+    private static final class ColumnBuilder {
+        private int[] shows = new int[1024], movies = new int[1024], theatres = new int[1024],
+                seats = new int[1024], categories = new int[1024], amounts = new int[1024], newBookings = new int[1024];
+        private long[] timestamps = new long[1024];
+        private int size;
+
+        private void addBooking(final Booking booking) {
+            final int[] seatsPerCategory = new int[SeatCategory.values().length];
+            for (Seat seat : booking.getSeatsBooked()) {
+                seatsPerCategory[seat.getSeatCategory().ordinal()]++;
+            }
+            final Show show = booking.getShow();
+            final int totalSeats = booking.getSeatsBooked().size();
+            int amountLeft = booking.getAmount();
+            int seatsLeft = totalSeats;
+            boolean first = true;
+            for (int category = 0; category < seatsPerCategory.length; category++) {
+                final int count = seatsPerCategory[category];
+                if (count == 0) continue;
+                seatsLeft -= count;
+                // Split the booking amount by seat share; the last group takes the rounding remainder
+                final int amount = seatsLeft == 0 ? amountLeft : (int) ((long) booking.getAmount() * count / totalSeats);
+                amountLeft -= amount;
+                ensureCapacity();
+                shows[size] = show.getId();
+                movies[size] = show.getMovie().getMovieId();
+                theatres[size] = show.getScreen().getTheatre().getTheatreId();
+                seats[size] = count;
+                categories[size] = category;
+                timestamps[size] = booking.getCreatedAt();
+                amounts[size] = amount;
+                newBookings[size] = first ? 1 : 0;
+                first = false;
+                size++;
+            }
+        }
+
+        private void ensureCapacity() {
+            if (size < shows.length) return;
+            final int capacity = size * 2;
+            shows = Arrays.copyOf(shows, capacity);
+            movies = Arrays.copyOf(movies, capacity);
+            theatres = Arrays.copyOf(theatres, capacity);
+            seats = Arrays.copyOf(seats, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            newBookings = Arrays.copyOf(newBookings, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+        }
+
+        // Layout: magic, row count, zone map (min/max per filterable column), column directory, column data
+        private void write(final Path file) throws IOException {
+            final byte[][] encoded = new byte[COLUMN_COUNT][];
+            encoded[COL_SHOW] = ColumnCodec.encodeInts(Arrays.copyOf(shows, size));
+            encoded[COL_MOVIE] = ColumnCodec.encodeInts(Arrays.copyOf(movies, size));
+            encoded[COL_THEATRE] = ColumnCodec.encodeInts(Arrays.copyOf(theatres, size));
+            encoded[COL_SEATS] = ColumnCodec.encodeInts(Arrays.copyOf(seats, size));
+            encoded[COL_CATEGORY] = ColumnCodec.encodeInts(Arrays.copyOf(categories, size));
+            encoded[COL_TIMESTAMP] = ColumnCodec.encodeLongs(Arrays.copyOf(timestamps, size));
+            encoded[COL_AMOUNT] = ColumnCodec.encodeInts(Arrays.copyOf(amounts, size));
+            encoded[COL_NEW_BOOKING] = ColumnCodec.encodeInts(Arrays.copyOf(newBookings, size));
+
+            final Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(size);
+                final long[] timeRange = range(Arrays.copyOf(timestamps, size));
+                out.writeLong(timeRange[0]);
+                out.writeLong(timeRange[1]);
+                for (int[] column : new int[][]{shows, movies, theatres, categories}) {
+                    final long[] valueRange = range(Arrays.stream(column, 0, size).asLongStream().toArray());
+                    out.writeInt((int) valueRange[0]);
+                    out.writeInt((int) valueRange[1]);
+                }
+                out.writeInt(COLUMN_COUNT);
+                for (byte[] column : encoded) {
+                    out.writeInt(column.length);
+                }
+                for (byte[] column : encoded) {
+                    out.write(column);
+                }
+            }
+            Files.move(temp, file); // Segments appear atomically, readers never see a half-written file
+        }
+
+        private static long[] range(final long[] values) {
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+            for (long value : values) {
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            return new long[]{min, max};
+        }
+    }
+
+    // Zone map and column directory of one segment, kept in memory so pruning never touches the disk
+    private static final class SegmentHeader {
+        private final Path file;
+        private final int rowCount;
+        private final long minTimestamp, maxTimestamp;
+        private final int minShow, maxShow, minMovie, maxMovie, minTheatre, maxTheatre, minCategory, maxCategory;
+        private final long[] columnOffsets = new long[COLUMN_COUNT];
+        private final int[] columnLengths = new int[COLUMN_COUNT];
+
+        private SegmentHeader(final Path file, final DataInputStream in) throws IOException {
+            this.file = file;
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a booking history segment");
+            }
+            rowCount = in.readInt();
+            minTimestamp = in.readLong();
+            maxTimestamp = in.readLong();
+            minShow = in.readInt();
+            maxShow = in.readInt();
+            minMovie = in.readInt();
+            maxMovie = in.readInt();
+            minTheatre = in.readInt();
+            maxTheatre = in.readInt();
+            minCategory = in.readInt();
+            maxCategory = in.readInt();
+            final int columnCount = in.readInt();
+            long offset = 4 + 4 + 16 + 32 + 4 + 4L * columnCount; // Header size
+            for (int column = 0; column < columnCount; column++) {
+                columnLengths[column] = in.readInt();
+                columnOffsets[column] = offset;
+                offset += columnLengths[column];
+            }
+        }
+
+        private static SegmentHeader read(final Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 256))) {
+                return new SegmentHeader(file, in);
+            }
+        }
+
+        private boolean mightMatch(final HistoryQuery query) {
+            if (query.getToMillis() <= minTimestamp || query.getFromMillis() > maxTimestamp) return false;
+            if (!inRange(query.getShowId(), minShow, maxShow)) return false;
+            if (!inRange(query.getMovieId(), minMovie, maxMovie)) return false;
+            if (!inRange(query.getTheatreId(), minTheatre, maxTheatre)) return false;
+            return query.getSeatCategory() == null || inRange(query.getSeatCategory().ordinal(), minCategory, maxCategory);
+        }
+
+        private static boolean inRange(final int filter, final int min, final int max) {
+            return filter == HistoryQuery.ANY || (filter >= min && filter <= max);
+        }
+
+        private SegmentColumns load(final boolean[] needed) {
+            try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+                final SegmentColumns columns = new SegmentColumns(rowCount);
+                if (needed[COL_SHOW]) columns.shows = ColumnCodec.decodeInts(readColumn(in, COL_SHOW), rowCount);
+                if (needed[COL_MOVIE]) columns.movies = ColumnCodec.decodeInts(readColumn(in, COL_MOVIE), rowCount);
+                if (needed[COL_THEATRE]) columns.theatres = ColumnCodec.decodeInts(readColumn(in, COL_THEATRE), rowCount);
+                if (needed[COL_SEATS]) columns.seats = ColumnCodec.decodeInts(readColumn(in, COL_SEATS), rowCount);
+                if (needed[COL_CATEGORY]) columns.categories = ColumnCodec.decodeInts(readColumn(in, COL_CATEGORY), rowCount);
+                if (needed[COL_TIMESTAMP]) columns.timestamps = ColumnCodec.decodeLongs(readColumn(in, COL_TIMESTAMP), rowCount);
+                if (needed[COL_AMOUNT]) columns.amounts = ColumnCodec.decodeInts(readColumn(in, COL_AMOUNT), rowCount);
+                if (needed[COL_NEW_BOOKING]) columns.newBookings = ColumnCodec.decodeInts(readColumn(in, COL_NEW_BOOKING), rowCount);
+                return columns;
+            } catch (Exception e) {
+                throw new UncheckedIOException(new IOException("Failed to read segment " + file, e));
+            }
+        }
+
+        private byte[] readColumn(final RandomAccessFile in, final int column) throws IOException {
+            final byte[] bytes = new byte[columnLengths[column]];
+            in.seek(columnOffsets[column]);
+            in.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    // Decoded columns of one segment; columns a query does not need stay null
+    private static final class SegmentColumns {
+        private final int rowCount;
+        private int[] shows, movies, theatres, seats, categories, amounts, newBookings;
+        private long[] timestamps;
+
+        private SegmentColumns(final int rowCount) {
+            this.rowCount = rowCount;
+        }
+    }
+
+    // Open-addressing map from packed group key to aggregates, so scanning rows never boxes
+    private static final class GroupTable {
+        private long[] keys = new long[16];
+        private boolean[] used = new boolean[16];
+        private long[] bookings = new long[16], seats = new long[16], revenue = new long[16];
+        private int size;
+
+        private void add(final long key, final long bookingCount, final long seatCount, final long amount) {
+            int slot = slotFor(key);
+            if (!used[slot]) {
+                if ((size + 1) * 2 > keys.length) {
+                    resize();
+                    slot = slotFor(key);
+                }
+                used[slot] = true;
+                keys[slot] = key;
+                size++;
+            }
+            bookings[slot] += bookingCount;
+            seats[slot] += seatCount;
+            revenue[slot] += amount;
+        }
+
+        private int slotFor(final long key) {
+            final int mask = keys.length - 1;
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 33) & mask;
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void resize() {
+            final long[] oldKeys = keys, oldBookings = bookings, oldSeats = seats, oldRevenue = revenue;
+            final boolean[] oldUsed = used;
+            final int capacity = keys.length * 2;
+            keys = new long[capacity];
+            used = new boolean[capacity];
+            bookings = new long[capacity];
+            seats = new long[capacity];
+            revenue = new long[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) add(oldKeys[i], oldBookings[i], oldSeats[i], oldRevenue[i]);
+            }
+        }
+
+        private GroupTable merge(final GroupTable other) {
+            final GroupTable bigger = size >= other.size ? this : other;
+            final GroupTable smaller = bigger == this ? other : this;
+            for (int i = 0; i < smaller.keys.length; i++) {
+                if (smaller.used[i]) bigger.add(smaller.keys[i], smaller.bookings[i], smaller.seats[i], smaller.revenue[i]);
+            }
+            return bigger;
+        }
+
+        private List<HistoryResultRow> toRows(final HistoryDimension[] groupBy) {
+            final List<HistoryResultRow> rows = new ArrayList<>(size);
+            final List<Long> sortedKeys = new ArrayList<>(size);
+            for (int i = 0; i < keys.length; i++) {
+                if (used[i]) sortedKeys.add(keys[i]);
+            }
+            Collections.sort(sortedKeys);
+            for (long key : sortedKeys) {
+                final int slot = slotFor(key);
+                final int[] values = new int[groupBy.length];
+                for (int d = 0; d < groupBy.length; d++) {
+                    values[d] = (int) (d == 0 ? key >>> 32 : key);
+                }
+                rows.add(new HistoryResultRow(groupBy, values, bookings[slot], seats[slot], revenue[slot]));
+            }
+            return rows;
+        }
+    }
+}
@@ -1,32 +1,48 @@
 package Services;
 
+import CommonEnum.BookingStatus;
+import CommonEnum.LogEvent;
 import CoreClasses.Booking;
 import CoreClasses.Seat;
 import CoreClasses.Show;
 import CoreClasses.User;
 import Interfaces.BookingObserver;
+import Interfaces.ConfirmationGuard;
 import Interfaces.ISeatLockProvider;
+import Interfaces.ShowLifecycleListener;
+import Utilities.EventLog;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
-public class BookingService {
+public class BookingService implements ShowLifecycleListener {
 
     // Stores all bookings made across shows (key = booking ID)
     private final Map<String, Booking> showBookings;
     private final ISeatLockProvider seatLockProvider;
+    private final PricingService pricingService; // Optional; when null bookings carry no amount
     private final AtomicInteger bookingIdCounter = new AtomicInteger(1);
+    private final Set<Integer> cancelledShowIds = ConcurrentHashMap.newKeySet(); // Shows no longer on sale
+    private final Set<Integer> startedShowIds = ConcurrentHashMap.newKeySet(); // Running or over, not yet retired
 
     // NEW: List to hold all registered observers
     private final List<BookingObserver> observers = new ArrayList<>();
+    private final List<ConfirmationGuard> confirmationGuards = new ArrayList<>(); // Can veto a confirmation, e.g. replication
 
     public BookingService(ISeatLockProvider seatLockProvider) {
+        this(seatLockProvider, null);
+    }
+
+    public BookingService(ISeatLockProvider seatLockProvider, PricingService pricingService) {
         this.seatLockProvider = seatLockProvider;
+        this.pricingService = pricingService;
         this.showBookings = new ConcurrentHashMap<>();
     }
 
@@ -39,12 +55,34 @@ public class BookingService {
         observers.remove(observer);
     }
 
+    public void addConfirmationGuard(ConfirmationGuard guard) {
+        confirmationGuards.add(guard);
+    }
+
     private void notifyObservers(Booking booking) {
         for (BookingObserver observer : observers) {
             observer.onBookingConfirmed(booking);
         }
     }
 
+    private void notifyCancelled(Booking booking) {
+        for (BookingObserver observer : observers) {
+            observer.onBookingCancelled(booking);
+        }
+    }
+
+    private void notifyCreated(Booking booking) {
+        for (BookingObserver observer : observers) {
+            observer.onBookingCreated(booking);
+        }
+    }
+
+    private void notifyExpired(Booking booking) {
+        for (BookingObserver observer : observers) {
+            observer.onBookingExpired(booking);
+        }
+    }
+
     public Booking getBooking(final String bookingId) throws Exception {
         if (!showBookings.containsKey(bookingId)) {
             throw new Exception("No Booking exists for the ID : " + bookingId);
@@ -52,6 +90,11 @@ public class BookingService {
         return showBookings.get(bookingId);
     }
 
+    // Read-only view of every booking, meant for offline jobs such as history exports
+    public Collection<Booking> getAllBookings() {
+        return Collections.unmodifiableCollection(showBookings.values());
+    }
+
     public List<Booking> getAllBookings(final Show show) {
         List<Booking> response = new ArrayList<>();
         for (Booking booking : showBookings.values()) {
@@ -63,16 +106,58 @@ public class BookingService {
     }
 
     public Booking createBooking(final User user, final Show show, final List<Seat> seats) throws Exception {
+        return createBooking(user, show, seats, 0);
+    }
+
+    // holdSeconds > 0 fixes the length of the booking's hold (e.g. waitlist offers); 0 leaves it to the lock provider's policy
+    public Booking createBooking(final User user, final Show show, final List<Seat> seats, final int holdSeconds)
+            throws Exception {
+        if (cancelledShowIds.contains(show.getId())) {
+            throw new Exception("Show " + show.getId() + " has been cancelled.");
+        }
+        if (startedShowIds.contains(show.getId())) {
+            throw new Exception("Show " + show.getId() + " has already started.");
+        }
+        for (Seat seat : seats) {
+            if (!show.getScreen().hasSeat(seat)) {
+                throw new Exception("Seat " + seat.getSeatId() + " is not in the screen of show " + show.getId() + ".");
+            }
+        }
         if (isAnySeatAlreadyBooked(show, seats)) {
             throw new Exception("Seat Already Booked");
         }
-        seatLockProvider.lockSeats(show, seats, user);
+        // Quote before the hold so this cart's own seats don't push its price up
+        final int amount = pricingService == null ? 0 : pricingService.quote(show, seats);
+        if (holdSeconds > 0) {
+            seatLockProvider.lockSeats(show, seats, user, holdSeconds);
+        } else {
+            seatLockProvider.lockSeats(show, seats, user);
+        }
         final String bookingId = String.valueOf(bookingIdCounter.getAndIncrement());
-        final Booking newBooking = new Booking(bookingId, show, user, seats);
+        final Booking newBooking = new Booking(bookingId, show, user, seats, amount);
         showBookings.put(bookingId, newBooking);
+        notifyCreated(newBooking);
         return newBooking;
     }
 
+    /**
+     * Standby replication: recreates a booking the primary made, under the primary's ID. Its hold is
+     * replicated on its own, so nothing is locked here. New IDs continue past it after a promotion.
+     */
+    public Booking restoreBooking(final String bookingId, final User user, final Show show, final List<Seat> seats,
+                                  final int amount) {
+        final Booking booking = new Booking(bookingId, show, user, seats, amount);
+        showBookings.put(bookingId, booking);
+        bookingIdCounter.accumulateAndGet(Integer.parseInt(bookingId) + 1, Math::max);
+        return booking;
+    }
+
+    // Standby replication: the primary already checked the holds, so the booking is confirmed as it is
+    public void restoreConfirmation(final Booking booking) throws Exception {
+        booking.confirmBooking();
+        notifyObservers(booking);
+    }
+
     public List<Seat> getBookedSeats(final Show show) {
         return getAllBookings(show).stream()
                 .filter(Booking::isConfirmed)
@@ -85,22 +170,104 @@ public class BookingService {
         if (!booking.getUser().equals(user)) {
             throw new Exception("Cannot confirm a booking made by another user");
         }
-        for (Seat seat : booking.getSeatsBooked()) {
-            if (!seatLockProvider.validateLock(booking.getShow(), seat, user)) {
-                throw new Exception("Acquired Lock is either invalid or has Expired");
+        if (cancelledShowIds.contains(booking.getShow().getId())) {
+            throw new Exception("Show " + booking.getShow().getId() + " has been cancelled.");
+        }
+        if (!hasValidLocks(booking)) {
+            throw new Exception("Acquired Lock is either invalid or has Expired");
+        }
+        synchronized (booking) { // Expiry and concurrent confirms wait, so what the guards passed is what gets confirmed
+            if (booking.getBookingStatus() != BookingStatus.CREATED) {
+                throw new Exception("Booking ID " + booking.getId() + " is " + booking.getBookingStatus() + ", cannot be confirmed.");
             }
+            for (ConfirmationGuard guard : confirmationGuards) {
+                guard.beforeBookingConfirmed(booking); // Throws to refuse, before anything changed
+            }
+            booking.confirmBooking();
         }
-        booking.confirmBooking();
 
         // NEW: Notify all observers that the booking is confirmed!
-        System.out.println("Booking " + booking.getId() + " confirmed. Notifying observers...");
+        EventLog.record(LogEvent.BOOKING_CONFIRMED, booking.getId());
         notifyObservers(booking);
     }
 
+    // True while every seat of the booking is still held by the booking's user
+    public boolean hasValidLocks(final Booking booking) {
+        for (Seat seat : booking.getSeatsBooked()) {
+            if (!seatLockProvider.validateLock(booking.getShow(), seat, booking.getUser())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Checkout heartbeat: extends the booking's holds, false once any of them has already lapsed
+    public boolean renewHold(final Booking booking, final User user) throws Exception {
+        if (!booking.getUser().equals(user)) {
+            throw new Exception("Cannot renew a booking made by another user");
+        }
+        return seatLockProvider.renewLocks(booking.getShow(), booking.getSeatsBooked(), user);
+    }
+
+    // Gives up an unconfirmed booking: its seats are unlocked and it moves to Expired
+    public void abandonBooking(final Booking booking) throws Exception {
+        seatLockProvider.unlockSeats(booking.getShow(), booking.getSeatsBooked(), booking.getUser());
+        booking.expireBooking();
+        notifyExpired(booking);
+    }
+
+    /**
+     * Cancels a confirmed booking and puts its seats straight back on sale: any hold still on them is
+     * released and observers (occupancy, availability, ...) are told the seats are no longer sold.
+     * Refused once the show has started, unless the show itself was cancelled. Refunding is up to the caller.
+     */
+    public void cancelBooking(final Booking booking) throws Exception {
+        final Show show = booking.getShow();
+        if (!isShowCancelled(show)
+                && (hasShowStarted(show) || show.getStartTime().getTime() <= System.currentTimeMillis())) {
+            throw new Exception("Show " + show.getId() + " has already started, its bookings can no longer be cancelled.");
+        }
+        revokeBooking(booking);
+    }
+
+    // Cancels without the start check: a cart undoing its own confirmation, or a cancellation the primary already accepted
+    public void revokeBooking(final Booking booking) throws Exception {
+        booking.cancelBooking();
+        seatLockProvider.unlockSeats(booking.getShow(), booking.getSeatsBooked(), booking.getUser());
+        EventLog.record(LogEvent.BOOKING_CANCELLED, booking.getId(), booking.getSeatsBooked().size());
+        notifyCancelled(booking);
+    }
+
+    // Takes the show off sale: no new bookings, and bookings still in checkout can no longer be confirmed
+    public void stopSales(final Show show) {
+        cancelledShowIds.add(show.getId());
+    }
+
+    public boolean isShowCancelled(final Show show) {
+        return cancelledShowIds.contains(show.getId());
+    }
+
+    public boolean hasShowStarted(final Show show) {
+        return startedShowIds.contains(show.getId());
+    }
+
+    // Checkouts already under way may still confirm; only new bookings are refused
+    @Override
+    public void onShowStarted(final Show show) {
+        startedShowIds.add(show.getId());
+    }
+
+    // The show's bookings stay, they are the sales record
+    @Override
+    public void onShowRetired(final Show show) {
+        startedShowIds.remove(show.getId());
+        cancelledShowIds.remove(show.getId());
+    }
+
     // NEW: Method to release locks if payment fails.
     public void releaseSeatLocks(Booking booking) {
         seatLockProvider.unlockSeats(booking.getShow(), booking.getSeatsBooked(), booking.getUser());
-        System.out.println("Seats for failed Booking ID " + booking.getId() + " have been unlocked.");
+        EventLog.record(LogEvent.BOOKING_LOCKS_RELEASED, booking.getId());
     }
 
     private boolean isAnySeatAlreadyBooked(final Show show, final List<Seat> seats) {
@@ -0,0 +1,182 @@
+package Services;
+
+import CommonEnum.BookingStatus;
+import CommonEnum.LogEvent;
+import CommonEnum.PaymentStatus;
+import CoreClasses.Booking;
+import CoreClasses.CancellationReport;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.PaymentStrategy;
+import Utilities.EventLog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels bookings and refunds them through the PaymentStrategy they were paid with. The seats go
+ * back on sale the moment a booking is cancelled; the refund follows. Refunds that fail are kept
+ * in a queue for retryFailedRefunds() instead of blocking the cancellation.
+ *
+ * Cancelling a whole show splits its bookings into batches that run in parallel on a small worker
+ * pool, while a semaphore caps how many refund calls are in flight against the payment gateways.
+ */
+public class CancellationService {
+
+    private final BookingService bookingService;
+    private final int batchSize; // Bookings per bulk-cancel task
+    private final Semaphore gatewayPermits; // Refund calls allowed in flight at once
+    private final ExecutorService workers;
+    private final Queue<Booking> failedRefunds = new ConcurrentLinkedQueue<>();
+
+    public CancellationService(final BookingService bookingService, final int workerThreads, final int batchSize,
+                               final int maxConcurrentRefunds) {
+        this.bookingService = bookingService;
+        this.batchSize = batchSize;
+        this.gatewayPermits = new Semaphore(maxConcurrentRefunds);
+        final AtomicInteger threadNo = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, runnable -> {
+            final Thread thread = new Thread(runnable, "cancellation-worker-" + threadNo.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Cancels the user's confirmed booking and refunds it; returns the refund outcome
+    public PaymentStatus cancelBooking(final String bookingId, final User user) throws Exception {
+        final Booking booking = bookingService.getBooking(bookingId);
+        if (!booking.getUser().equals(user)) {
+            throw new Exception("Cannot cancel a booking made by another user");
+        }
+        bookingService.cancelBooking(booking);
+        return refund(booking);
+    }
+
+    /**
+     * Takes the show off sale, cancels and refunds every confirmed booking and drops the holds of
+     * bookings still in checkout. Sweeps again until no live booking is left, so bookings that were
+     * confirmed or created while a sweep ran are not missed.
+     */
+    public CancellationReport cancelShow(final Show show) throws Exception {
+        final long start = System.currentTimeMillis();
+        bookingService.stopSales(show);
+        final AtomicInteger cancelled = new AtomicInteger();
+        final AtomicInteger released = new AtomicInteger();
+        final AtomicInteger refunded = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicLong amountRefunded = new AtomicLong();
+
+        List<Booking> live = liveBookings(show);
+        while (!live.isEmpty()) {
+            final List<Future<?>> batches = new ArrayList<>();
+            for (int from = 0; from < live.size(); from += batchSize) {
+                final List<Booking> batch = live.subList(from, Math.min(live.size(), from + batchSize));
+                batches.add(workers.submit(() -> {
+                    for (Booking booking : batch) {
+                        if (booking.getBookingStatus() == BookingStatus.CREATED) {
+                            try {
+                                bookingService.abandonBooking(booking);
+                                released.incrementAndGet();
+                            } catch (Exception e) {
+                                // Confirmed in the meantime, the next sweep cancels it
+                            }
+                            continue;
+                        }
+                        try {
+                            bookingService.cancelBooking(booking);
+                        } catch (Exception e) {
+                            continue; // Cancelled concurrently by its owner, who also got the refund
+                        }
+                        cancelled.incrementAndGet();
+                        if (refund(booking) == PaymentStatus.SUCCESS) {
+                            refunded.incrementAndGet();
+                            amountRefunded.addAndGet(booking.getAmount());
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> batch : batches) {
+                try {
+                    batch.get();
+                } catch (ExecutionException e) {
+                    throw new Exception("Cancelling show " + show.getId() + " failed: " + e.getCause(), e.getCause());
+                }
+            }
+            live = liveBookings(show);
+        }
+        EventLog.record(LogEvent.SHOW_CANCELLED, null, show.getId(), cancelled.get(), failed.get());
+        return new CancellationReport(show.getId(), cancelled.get(), released.get(), refunded.get(), failed.get(),
+                amountRefunded.get(), System.currentTimeMillis() - start);
+    }
+
+    // Tries every failed refund once more; returns how many went through
+    public int retryFailedRefunds() {
+        int succeeded = 0;
+        for (int i = failedRefunds.size(); i > 0; i--) {
+            final Booking booking = failedRefunds.poll();
+            if (booking == null) break;
+            if (refund(booking) == PaymentStatus.SUCCESS) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // Bookings of the show that still hold or own seats
+    private List<Booking> liveBookings(final Show show) {
+        final List<Booking> live = new ArrayList<>();
+        for (Booking booking : bookingService.getAllBookings(show)) {
+            final BookingStatus status = booking.getBookingStatus();
+            if (status == BookingStatus.CREATED || status == BookingStatus.CONFIRMED) {
+                live.add(booking);
+            }
+        }
+        return live;
+    }
+
+    private PaymentStatus refund(final Booking booking) {
+        final PaymentStrategy strategy = booking.getPaymentStrategy();
+        PaymentStatus status;
+        if (booking.getAmount() == 0) {
+            status = PaymentStatus.SUCCESS; // Nothing was charged
+        } else if (strategy == null) {
+            status = PaymentStatus.PENDING; // Payment method unknown, needs a manual refund
+        } else {
+            gatewayPermits.acquireUninterruptibly();
+            try {
+                status = strategy.refund(booking.getAmount());
+            } catch (RuntimeException e) {
+                status = PaymentStatus.FAILURE_BANK_ERROR;
+            } finally {
+                gatewayPermits.release();
+            }
+        }
+        booking.recordRefund(status);
+        if (status != PaymentStatus.SUCCESS) {
+            EventLog.record(LogEvent.REFUND_FAILED, booking.getId(), status.ordinal());
+            failedRefunds.add(booking);
+        }
+        return status;
+    }
+
+    // Getters Section Start
+    public List<Booking> getFailedRefunds() {
+        return new ArrayList<>(failedRefunds);
+    }
+    // Getters Section End
+}
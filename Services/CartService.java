@@ -0,0 +1,198 @@
+package Services;
+
+import CommonEnum.BookingStatus;
+import CommonEnum.LogEvent;
+import CoreClasses.Booking;
+import CoreClasses.Cart;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.SeatLockListener;
+import Utilities.EventLog;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Holds seats across several shows as one all-or-nothing cart.
+ *
+ * Holds are always taken in one global order, show ID first and then seat ID, so two carts that
+ * overlap always contend on the same first seat instead of each grabbing half of what the other
+ * needs. If any show cannot be held, every hold already taken is rolled back before returning.
+ *
+ * Only open carts are kept: a cart is forgotten once it is confirmed or released, or as soon as one
+ * of its holds expires (register the service as a seat lock listener). The cart's other holds then
+ * lapse on their own, and paying for it fails before anything is charged.
+ */
+public class CartService implements SeatLockListener {
+
+    private final BookingService bookingService;
+    private final int cartHoldSeconds; // Shared cart expiry; keep it within the seat lock provider's timeout
+    private final Map<String, Cart> carts; // Open carts, key = cart ID
+    private final Map<User, Set<Cart>> cartsByUser = new ConcurrentHashMap<>(); // Open carts per user, for hold expiries
+    private final AtomicInteger cartIdCounter = new AtomicInteger(1);
+
+    public CartService(final BookingService bookingService, final int cartHoldSeconds) {
+        this.bookingService = bookingService;
+        this.cartHoldSeconds = cartHoldSeconds;
+        this.carts = new ConcurrentHashMap<>();
+    }
+
+    public Cart getCart(final String cartId) throws Exception {
+        final Cart cart = carts.get(cartId);
+        if (cart == null) {
+            throw new Exception("No Cart exists for the ID : " + cartId);
+        }
+        return cart;
+    }
+
+    public Cart holdCart(final User user, final Map<Show, List<Seat>> seatsByShow) throws Exception {
+        if (seatsByShow.isEmpty()) {
+            throw new Exception("Cart is empty");
+        }
+        // Global lock order: show ID, then seat ID within each show
+        final List<Show> orderedShows = new ArrayList<>(seatsByShow.keySet());
+        orderedShows.sort(Comparator.comparingInt(Show::getId));
+
+        final long expiresAt = System.currentTimeMillis() + cartHoldSeconds * 1000L;
+        final List<Booking> held = new ArrayList<>(orderedShows.size());
+        for (Show show : orderedShows) {
+            final List<Seat> orderedSeats = new ArrayList<>(seatsByShow.get(show));
+            orderedSeats.sort(Comparator.comparingInt(Seat::getSeatId));
+            try {
+                held.add(bookingService.createBooking(user, show, orderedSeats));
+            } catch (Exception e) {
+                rollback(held); // Never leave a partial cart behind
+                throw new Exception("Could not hold seats for show " + show.getId() + ": " + e.getMessage());
+            }
+        }
+        final Cart cart = new Cart("C" + cartIdCounter.getAndIncrement(), user, held, expiresAt);
+        carts.put(cart.getId(), cart);
+        cartsByUser.compute(user, (u, open) -> { // Added inside compute, so forget() can't drop the set meanwhile
+            final Set<Cart> userCarts = open != null ? open : ConcurrentHashMap.newKeySet();
+            userCarts.add(cart);
+            return userCarts;
+        });
+        return cart;
+    }
+
+    /**
+     * Confirms every booking of the cart. Every hold is renewed before the first confirmation, so none
+     * can lapse or be swept while the cart confirms; a hold that cannot be renewed fails the whole cart
+     * and releases the rest. If a confirmation still fails (e.g. the show was cancelled meanwhile), the
+     * bookings already confirmed are cancelled again and the rest released. The cart is only marked
+     * confirmed once every booking is; refunding a failed cart is up to the caller.
+     */
+    public void confirmCart(final Cart cart, final User user) throws Exception {
+        if (!cart.getUser().equals(user)) {
+            throw new Exception("Cannot confirm a cart made by another user");
+        }
+        synchronized (cart) { // One confirmation per cart at a time
+            if (cart.getStatus() != BookingStatus.CREATED) {
+                throw new Exception("Cart " + cart.getId() + " is " + cart.getStatus());
+            }
+            boolean valid = !cart.isExpired();
+            for (Booking booking : cart.getBookings()) {
+                valid = valid && bookingService.renewHold(booking, user); // Pins the hold for the confirm loop
+            }
+            if (!valid) {
+                releaseCart(cart);
+                throw new Exception("Cart " + cart.getId() + " has expired, all of its seats were released");
+            }
+            final List<Booking> confirmed = new ArrayList<>(cart.getBookings().size());
+            for (Booking booking : cart.getBookings()) {
+                try {
+                    bookingService.confirmBooking(booking, user);
+                } catch (Exception e) {
+                    undoConfirmations(confirmed);
+                    cart.markExpired();
+                    rollback(cart.getBookings().subList(confirmed.size(), cart.getBookings().size()));
+                    forget(cart);
+                    throw new Exception("Cart " + cart.getId() + " could not be confirmed, all of its seats were released: "
+                            + e.getMessage());
+                }
+                confirmed.add(booking);
+            }
+            cart.markConfirmed();
+            forget(cart);
+        }
+    }
+
+    // Heartbeat for the whole cart; the shared expiry only moves if every show's hold was renewed
+    public boolean renewCart(final Cart cart, final User user) throws Exception {
+        if (cart.getStatus() != BookingStatus.CREATED || cart.isExpired()) {
+            return false;
+        }
+        boolean renewedAll = true;
+        for (Booking booking : cart.getBookings()) {
+            renewedAll &= bookingService.renewHold(booking, user);
+        }
+        if (renewedAll) {
+            cart.setExpiresAt(System.currentTimeMillis() + cartHoldSeconds * 1000L);
+        }
+        return renewedAll;
+    }
+
+    // Releases every hold of an unconfirmed cart, e.g. after a failed payment
+    public void releaseCart(final Cart cart) throws Exception {
+        cart.markExpired();
+        rollback(cart.getBookings());
+        forget(cart);
+    }
+
+    @Override
+    public void onSeatsLocked(final Show show, final List<Seat> seats, final User user) {
+    }
+
+    @Override
+    public void onSeatsUnlocked(final Show show, final List<Seat> seats, final User user) {
+    }
+
+    /**
+     * A lapsed hold means the cart can no longer be confirmed, so it is forgotten. Runs under the lock
+     * provider's show lock: the cart is not locked or rolled back here, its other holds expire on their own.
+     */
+    @Override
+    public void onSeatsExpired(final Show show, final List<Seat> seats, final User user) {
+        final Set<Cart> open = cartsByUser.get(user);
+        if (open == null) return;
+        for (Cart cart : open) {
+            for (Booking booking : cart.getBookings()) {
+                if (booking.getShow().equals(show) && !Collections.disjoint(booking.getSeatsBooked(), seats)) {
+                    forget(cart);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void forget(final Cart cart) {
+        carts.remove(cart.getId(), cart);
+        cartsByUser.computeIfPresent(cart.getUser(), (user, open) -> {
+            open.remove(cart);
+            return open.isEmpty() ? null : open;
+        });
+    }
+
+    // Cancels the bookings a failed cart had already confirmed, which also puts their seats back on sale
+    private void undoConfirmations(final List<Booking> confirmed) {
+        for (Booking booking : confirmed) {
+            try {
+                bookingService.revokeBooking(booking);
+            } catch (Exception e) {
+                EventLog.record(LogEvent.BOOKING_ROLLBACK_FAILED, booking.getId());
+            }
+        }
+    }
+
+    private void rollback(final List<Booking> bookings) {
+        for (Booking booking : bookings) {
+            try {
+                bookingService.abandonBooking(booking);
+            } catch (Exception e) {
+                EventLog.record(LogEvent.BOOKING_ROLLBACK_FAILED, booking.getId());
+            }
+        }
+    }
+}
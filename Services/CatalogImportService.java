@@ -0,0 +1,394 @@
+package Services;
+
+import CommonEnum.SeatCategory;
+import CoreClasses.ImportReport;
+import CoreClasses.Movie;
+import CoreClasses.Screen;
+import CoreClasses.Seat;
+import CoreClasses.Theatre;
+import Interfaces.ImportProgressListener;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Streams a catalog file (theatres, screens, seat rows, movies and show schedules) into the
+ * services chunk by chunk, so a whole theatre chain can be onboarded without one call per seat.
+ *
+ * Every line is one record. CSV lines start with the record type:
+ * <pre>
+ * THEATRE,&lt;key&gt;,&lt;name&gt;[,&lt;latitude&gt;,&lt;longitude&gt;]
+ * SCREEN,&lt;key&gt;,&lt;theatreKey&gt;,&lt;name&gt;
+ * SEATS,&lt;screenKey&gt;,&lt;rowNo&gt;,&lt;seatCount&gt;,&lt;category&gt;
+ * MOVIE,&lt;key&gt;,&lt;name&gt;,&lt;durationInMinutes&gt;
+ * SHOW,&lt;movieKey&gt;,&lt;screenKey&gt;,&lt;start (epoch millis or ISO-8601)&gt;,&lt;durationInMinutes&gt;
+ * </pre>
+ * JSON files are read as JSON Lines, one flat object per line using the same field names,
+ * e.g. {"type":"SEATS","screen":"s1","row":3,"count":20,"category":"GOLD"}.
+ * Keys only live for the duration of one import and are used to link records together.
+ */
+public class CatalogImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000; // Keep the report small on badly broken files
+
+    // Positional CSV columns per record type (after the type column)
+    private static final Map<String, String[]> CSV_COLUMNS = Map.of(
+            "THEATRE", new String[]{"key", "name", "lat", "lon"},
+            "SCREEN", new String[]{"key", "theatre", "name"},
+            "SEATS", new String[]{"screen", "row", "count", "category"},
+            "MOVIE", new String[]{"key", "name", "duration"},
+            "SHOW", new String[]{"movie", "screen", "start", "duration"});
+    // Trailing CSV columns a record may leave out (e.g. theatres without a location)
+    private static final Map<String, Integer> OPTIONAL_CSV_COLUMNS = Map.of("THEATRE", 2);
+
+    private final TheatreService theatreService;
+    private final MovieService movieService;
+    private final ShowService showService;
+    private final ForkJoinPool pool; // Builds the seat layouts of a chunk's screens in parallel
+    private final int chunkSize; // Number of records processed (and reported) at a time
+
+    public CatalogImportService(final TheatreService theatreService, final MovieService movieService,
+                                final ShowService showService, final int parallelism, final int chunkSize) {
+        this.theatreService = theatreService;
+        this.movieService = movieService;
+        this.showService = showService;
+        this.pool = new ForkJoinPool(parallelism);
+        this.chunkSize = chunkSize;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // Picks the format from the file extension (.json/.jsonl/.ndjson = JSON Lines, anything else = CSV)
+    public ImportReport importFile(final Path file, final ImportProgressListener listener) throws Exception {
+        final String fileName = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        final boolean json = fileName.endsWith(".json") || fileName.endsWith(".jsonl") || fileName.endsWith(".ndjson");
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importRecords(reader, json, listener);
+        }
+    }
+
+    public ImportReport importRecords(final BufferedReader reader, final boolean json,
+                                      final ImportProgressListener listener) throws Exception {
+        final ImportRun run = new ImportRun();
+        final List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue; // Skip blanks and comments
+            run.rowsRead++;
+            try {
+                chunk.add(json ? parseJsonLine(line, lineNo) : parseCsvLine(line, lineNo));
+            } catch (Exception e) {
+                run.reject(lineNo, e.getMessage());
+            }
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, run);
+                chunk.clear();
+                if (listener != null) listener.onProgress(run.report(false));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, run);
+        }
+        final ImportReport report = run.report(true);
+        if (listener != null) listener.onProgress(report);
+        return report;
+    }
+
+    private void processChunk(final List<ImportRow> chunk, final ImportRun run) throws Exception {
+        final Map<Screen, List<SeatRowSpec>> seatRowsByScreen = new LinkedHashMap<>();
+        final List<ImportRow> showRows = new ArrayList<>();
+
+        // Pass 1: apply the cheap structural records in file order and validate seat rows
+        for (ImportRow row : chunk) {
+            try {
+                switch (row.type) {
+                    case "THEATRE":
+                        run.theatres.put(row.require("key"), row.has("lat") || row.has("lon")
+                                ? theatreService.createTheatre(row.require("name"), row.requireDouble("lat"), row.requireDouble("lon"))
+                                : theatreService.createTheatre(row.require("name")));
+                        run.rowsImported++;
+                        break;
+                    case "SCREEN":
+                        final Theatre theatre = run.resolve(run.theatres, row.require("theatre"), "Theatre");
+                        run.screens.put(row.require("key"), theatreService.createScreenInTheatre(row.require("name"), theatre));
+                        run.rowsImported++;
+                        break;
+                    case "MOVIE":
+                        run.movies.put(row.require("key"),
+                                movieService.createMovie(row.require("name"), row.requireInt("duration")));
+                        run.rowsImported++;
+                        break;
+                    case "SEATS":
+                        final Screen screen = run.resolve(run.screens, row.require("screen"), "Screen");
+                        final int count = row.requireInt("count");
+                        if (count <= 0) throw new Exception("Seat count must be positive");
+                        final SeatCategory category = SeatCategory.valueOf(row.require("category").toUpperCase(Locale.ROOT));
+                        seatRowsByScreen.computeIfAbsent(screen, s -> new ArrayList<>())
+                                .add(new SeatRowSpec(row.requireInt("row"), count, category));
+                        break;
+                    case "SHOW":
+                        showRows.add(row); // Shows go last so they see the screens of this chunk
+                        break;
+                    default:
+                        throw new Exception("Unknown record type '" + row.type + "'");
+                }
+            } catch (Exception e) {
+                run.reject(row.lineNo, e.getMessage());
+            }
+        }
+
+        // Pass 2: build every touched screen's seats in parallel, then publish them in one catalog version
+        if (!seatRowsByScreen.isEmpty()) {
+            final Map<Screen, List<Seat>> builtSeats = pool.submit(() -> seatRowsByScreen.entrySet().parallelStream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> buildSeats(entry.getValue())))).get();
+            theatreService.publishSeats(builtSeats);
+            for (List<SeatRowSpec> specs : seatRowsByScreen.values()) {
+                run.rowsImported += specs.size();
+            }
+        }
+
+        // Pass 3: schedule shows
+        for (ImportRow row : showRows) {
+            try {
+                final Movie movie = run.resolve(run.movies, row.require("movie"), "Movie");
+                final Screen screen = run.resolve(run.screens, row.require("screen"), "Screen");
+                showService.createShow(movie, screen, parseStart(row.require("start")), row.requireInt("duration"));
+                run.rowsImported++;
+            } catch (Exception e) {
+                run.reject(row.lineNo, e.getMessage());
+            }
+        }
+    }
+
+    // Materializes one screen's seat rows; IDs come from a single reserved block so workers never contend
+    private List<Seat> buildSeats(final List<SeatRowSpec> specs) {
+        int total = 0;
+        for (SeatRowSpec spec : specs) {
+            total += spec.count;
+        }
+        int nextSeatId = theatreService.reserveSeatIds(total);
+        final List<Seat> seats = new ArrayList<>(total);
+        for (SeatRowSpec spec : specs) {
+            for (int i = 0; i < spec.count; i++) {
+                seats.add(new Seat(nextSeatId++, spec.rowNo, spec.category));
+            }
+        }
+        return seats;
+    }
+
+    private static Date parseStart(final String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return new Date(Long.parseLong(value));
+        }
+        return Date.from(Instant.parse(value));
+    }
+
+    private static ImportRow parseCsvLine(final String line, final long lineNo) throws Exception {
+        final List<String> values = splitCsv(line);
+        final String type = values.get(0).toUpperCase(Locale.ROOT);
+        final String[] columns = CSV_COLUMNS.get(type);
+        if (columns == null) {
+            throw new Exception("Unknown record type '" + values.get(0) + "'");
+        }
+        final int required = columns.length - OPTIONAL_CSV_COLUMNS.getOrDefault(type, 0);
+        if (values.size() - 1 < required || values.size() - 1 > columns.length) {
+            throw new Exception(type + " expects " + (required == columns.length ? String.valueOf(required)
+                    : required + " to " + columns.length) + " values but found " + (values.size() - 1));
+        }
+        final Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size() - 1; i++) {
+            fields.put(columns[i], values.get(i + 1));
+        }
+        return new ImportRow(lineNo, type, fields);
+    }
+
+    // Splits one CSV line, honouring double-quoted values with "" escapes
+    private static List<String> splitCsv(final String line) {
+        final List<String> values = new ArrayList<>();
+        final StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    // Parses one flat JSON object with string, number or boolean values
+    private static ImportRow parseJsonLine(final String line, final long lineNo) throws Exception {
+        final Map<String, String> fields = new HashMap<>();
+        int i = skipSpaces(line, 0);
+        if (i >= line.length() || line.charAt(i) != '{') throw new Exception("Expected a JSON object");
+        i = skipSpaces(line, i + 1);
+        while (i < line.length() && line.charAt(i) != '}') {
+            final StringBuilder key = new StringBuilder();
+            i = readJsonString(line, i, key);
+            i = skipSpaces(line, i);
+            if (i >= line.length() || line.charAt(i) != ':') throw new Exception("Expected ':' after \"" + key + "\"");
+            i = skipSpaces(line, i + 1);
+            final StringBuilder value = new StringBuilder();
+            if (i < line.length() && line.charAt(i) == '"') {
+                i = readJsonString(line, i, value);
+            } else {
+                while (i < line.length() && line.charAt(i) != ',' && line.charAt(i) != '}') {
+                    value.append(line.charAt(i++));
+                }
+            }
+            fields.put(key.toString(), value.toString().trim());
+            i = skipSpaces(line, i);
+            if (i < line.length() && line.charAt(i) == ',') i = skipSpaces(line, i + 1);
+        }
+        if (i >= line.length()) throw new Exception("Unterminated JSON object");
+        final String type = fields.remove("type");
+        if (type == null) throw new Exception("Missing \"type\" field");
+        return new ImportRow(lineNo, type.toUpperCase(Locale.ROOT), fields);
+    }
+
+    private static int readJsonString(final String line, int i, final StringBuilder out) throws Exception {
+        if (i >= line.length() || line.charAt(i) != '"') throw new Exception("Expected a JSON string at column " + (i + 1));
+        i++;
+        while (i < line.length()) {
+            final char c = line.charAt(i++);
+            if (c == '"') return i;
+            if (c != '\\') {
+                out.append(c);
+                continue;
+            }
+            if (i >= line.length()) break;
+            final char escaped = line.charAt(i++);
+            switch (escaped) {
+                case 'n': out.append('\n'); break;
+                case 't': out.append('\t'); break;
+                case 'r': out.append('\r'); break;
+                case 'u':
+                    if (i + 4 > line.length()) throw new Exception("Bad unicode escape");
+                    out.append((char) Integer.parseInt(line.substring(i, i + 4), 16));
+                    i += 4;
+                    break;
+                default: out.append(escaped); // Covers \" \\ and \/
+            }
+        }
+        throw new Exception("Unterminated JSON string");
+    }
+
+    private static int skipSpaces(final String line, int i) {
+        while (i < line.length() && Character.isWhitespace(line.charAt(i))) i++;
+        return i;
+    }
+
+    // One parsed record, with its source line kept for error reporting
+    private static final class ImportRow {
+        private final long lineNo;
+        private final String type;
+        private final Map<String, String> fields;
+
+        private ImportRow(final long lineNo, final String type, final Map<String, String> fields) {
+            this.lineNo = lineNo;
+            this.type = type;
+            this.fields = fields;
+        }
+
+        private String require(final String field) throws Exception {
+            final String value = fields.get(field);
+            if (value == null || value.isEmpty()) {
+                throw new Exception("Missing value for '" + field + "'");
+            }
+            return value;
+        }
+
+        private boolean has(final String field) {
+            final String value = fields.get(field);
+            return value != null && !value.isEmpty();
+        }
+
+        private double requireDouble(final String field) throws Exception {
+            final String value = require(field);
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                throw new Exception("'" + field + "' is not a number: " + value);
+            }
+        }
+
+        private int requireInt(final String field) throws Exception {
+            final String value = require(field);
+            try {
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new Exception("'" + field + "' is not a number: " + value);
+            }
+        }
+    }
+
+    private static final class SeatRowSpec {
+        private final int rowNo;
+        private final int count;
+        private final SeatCategory category;
+
+        private SeatRowSpec(final int rowNo, final int count, final SeatCategory category) {
+            this.rowNo = rowNo;
+            this.count = count;
+            this.category = category;
+        }
+    }
+
+    // Mutable state of a single import: key lookups and counters. Only touched by the importing thread.
+    private static final class ImportRun {
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Theatre> theatres = new HashMap<>();
+        private final Map<String, Screen> screens = new HashMap<>();
+        private final Map<String, Movie> movies = new HashMap<>();
+        private final List<String> errors = new ArrayList<>();
+        private long rowsRead;
+        private long rowsImported;
+        private long errorCount;
+
+        private <T> T resolve(final Map<String, T> byKey, final String key, final String kind) throws Exception {
+            final T value = byKey.get(key);
+            if (value == null) {
+                throw new Exception(kind + " '" + key + "' has not been defined earlier in the file");
+            }
+            return value;
+        }
+
+        private void reject(final long lineNo, final String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("Line " + lineNo + ": " + message);
+            }
+        }
+
+        private ImportReport report(final boolean finished) {
+            final long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+            return new ImportReport(rowsRead, rowsImported, errorCount, List.copyOf(errors), elapsedMillis, finished);
+        }
+    }
+}
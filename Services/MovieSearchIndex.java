@@ -0,0 +1,460 @@
+package Services;
+
+import CoreClasses.Booking;
+import CoreClasses.Movie;
+import Interfaces.BookingObserver;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typeahead search over movie titles. Title words go into a character trie; every trie node keeps
+ * the TOP_K most popular movies that have a word starting with that node's prefix, so a prefix
+ * query is a walk down the trie plus one small array read. Typos are handled by walking the trie
+ * with a Levenshtein row per node and pruning branches that are already too far off.
+ *
+ * Popularity is the number of seats booked per movie, fed in as a BookingObserver. Writes (new
+ * movies, bookings) are serialized on the index; searches never lock, since nodes only ever
+ * publish freshly built immutable arrays.
+ */
+public class MovieSearchIndex implements BookingObserver {
+
+    private static final int TOP_K = 10; // Movies remembered per trie node
+    private static final int MAX_SCAN = 10_000; // Largest subtree a multi-word query collects in full
+    private static final int MAX_FUZZY_SCAN = 1_000; // Same for typo matches, which need an edit distance per title
+    private static final int[] NO_MOVIES = new int[0];
+
+    private final Node root = new Node();
+    private volatile Movie[] movies = new Movie[1024]; // Indexed by movie ID
+    private volatile String[][] movieWords = new String[1024][]; // Normalized distinct title words per movie ID
+    private volatile long[] popularity = new long[1024]; // Seats booked per movie ID
+
+    public synchronized void addMovie(final Movie movie) {
+        final int id = movie.getMovieId();
+        ensureCapacity(id);
+        final String[] words = tokenize(movie.getMovieName());
+        movies[id] = movie;
+        movieWords[id] = words;
+        for (String word : words) {
+            Node node = root;
+            node.subtreeSize++;
+            offerTop(node, id);
+            for (int i = 0; i < word.length(); i++) {
+                node = node.childOrCreate(word.charAt(i));
+                node.subtreeSize++;
+                offerTop(node, id);
+            }
+            node.postings = append(node.postings, id);
+        }
+    }
+
+    @Override
+    public void onBookingConfirmed(final Booking booking) {
+        recordBookings(booking.getShow().getMovie().getMovieId(), booking.getSeatsBooked().size());
+    }
+
+    @Override
+    public void onBookingCancelled(final Booking booking) {
+        withdrawBookings(booking.getShow().getMovie().getMovieId(), booking.getSeatsBooked().size());
+    }
+
+    // Raises the movie's popularity and moves it up in the top lists of all its prefixes
+    public synchronized void recordBookings(final int movieId, final long seats) {
+        if (movieId >= movies.length || movies[movieId] == null) return;
+        popularity[movieId] += seats;
+        for (String word : movieWords[movieId]) {
+            Node node = root;
+            offerTop(node, movieId);
+            for (int i = 0; i < word.length() && node != null; i++) {
+                node = node.child(word.charAt(i));
+                if (node != null) offerTop(node, movieId);
+            }
+        }
+    }
+
+    /**
+     * Lowers the movie's popularity after cancellations. Its prefixes' top lists are re-sorted; a full
+     * list is rebuilt from the prefix's subtree instead, since a movie left off it may now rank higher.
+     * Cancellations are rare, so the rebuild's cost is fine.
+     */
+    public synchronized void withdrawBookings(final int movieId, final long seats) {
+        if (movieId >= movies.length || movies[movieId] == null) return;
+        popularity[movieId] = Math.max(0, popularity[movieId] - seats);
+        for (String word : movieWords[movieId]) {
+            Node node = root;
+            demoteTop(node, movieId);
+            for (int i = 0; i < word.length() && node != null; i++) {
+                node = node.child(word.charAt(i));
+                if (node != null) demoteTop(node, movieId);
+            }
+        }
+    }
+
+    /**
+     * Movies whose title words start with every word of the query, most booked first. When that
+     * gives fewer than limit results, titles within a small edit distance are appended
+     * (1 typo for words of 3-5 characters, 2 for longer ones).
+     */
+    public List<Movie> search(final String query, final int limit) {
+        final String[] queryWords = tokenize(query);
+        if (queryWords.length == 0 || limit <= 0) {
+            return Collections.emptyList();
+        }
+        final Map<Integer, Integer> hits = new LinkedHashMap<>(); // movie ID -> edit distance, in rank order
+        exactSearch(queryWords, limit, hits);
+        if (hits.size() < limit) {
+            fuzzySearch(queryWords, limit, hits);
+        }
+        final Movie[] movieTable = movies;
+        final List<Movie> result = new ArrayList<>(hits.size());
+        for (int id : hits.keySet()) {
+            result.add(movieTable[id]);
+        }
+        return result;
+    }
+
+    private void exactSearch(final String[] queryWords, final int limit, final Map<Integer, Integer> hits) {
+        Node narrowest = null;
+        for (String word : queryWords) {
+            final Node node = find(word);
+            if (node == null) return;
+            if (narrowest == null || node.subtreeSize < narrowest.subtreeSize) narrowest = node;
+        }
+        final int[] candidates;
+        if (queryWords.length == 1 && limit <= TOP_K) {
+            candidates = narrowest.top; // The common typeahead case: already ranked
+        } else if (narrowest.subtreeSize <= MAX_SCAN) {
+            candidates = collect(narrowest);
+        } else {
+            candidates = narrowest.top; // Too broad to scan, the best-known movies will do
+        }
+        addRanked(candidates, queryWords, 0, limit, hits);
+    }
+
+    // Tries one typo per word first and only allows a second (for long words) if that was not enough
+    private void fuzzySearch(final String[] queryWords, final int limit, final Map<Integer, Integer> hits) {
+        for (int typos = 1; typos <= 2 && hits.size() < limit; typos++) {
+            fuzzySearch(queryWords, limit, typos, hits);
+        }
+    }
+
+    private void fuzzySearch(final String[] queryWords, final int limit, final int typos, final Map<Integer, Integer> hits) {
+        // Candidates come from the query word with the fewest fuzzy matches; the others are checked per title
+        List<Node> best = null;
+        int bestSize = Integer.MAX_VALUE;
+        for (String word : queryWords) {
+            final int maxDistance = Math.min(maxDistance(word), typos);
+            if (maxDistance == 0) continue;
+            final List<Node> matches = new ArrayList<>();
+            final int[] firstRow = new int[word.length() + 1];
+            for (int i = 0; i < firstRow.length; i++) firstRow[i] = i;
+            fuzzyWalk(root, (char) 0, word, firstRow, firstRow, maxDistance, matches, 0);
+            int size = 0;
+            for (Node node : matches) size += node.subtreeSize;
+            if (size < bestSize) {
+                best = matches;
+                bestSize = size;
+            }
+        }
+        if (best == null) return;
+        final int[] candidates = bestSize <= MAX_FUZZY_SCAN ? collectAll(best) : topsOf(best);
+        final Map<Integer, Integer> fuzzyHits = new LinkedHashMap<>();
+        addRanked(candidates, queryWords, typos, Integer.MAX_VALUE, fuzzyHits);
+        fuzzyHits.entrySet().stream()
+                .filter(entry -> !hits.containsKey(entry.getKey()))
+                .sorted((a, b) -> a.getValue().equals(b.getValue())
+                        ? Long.compare(popularity[b.getKey()], popularity[a.getKey()])
+                        : Integer.compare(a.getValue(), b.getValue()))
+                .limit(limit - hits.size())
+                .forEach(entry -> hits.put(entry.getKey(), entry.getValue()));
+    }
+
+    // Checks each candidate against every query word (allowing up to typos edits each) and adds the matches, most popular first
+    private void addRanked(final int[] candidates, final String[] queryWords, final int typos, final int limit,
+                           final Map<Integer, Integer> hits) {
+        final String[][] wordsTable = movieWords;
+        final long[] scores = popularity;
+        final List<int[]> matches = new ArrayList<>(); // {movie ID, total distance}
+        for (int id : candidates) {
+            int total = 0;
+            for (String queryWord : queryWords) {
+                final int distance = bestPrefixDistance(queryWord, wordsTable[id], Math.min(maxDistance(queryWord), typos));
+                if (distance < 0) {
+                    total = -1;
+                    break;
+                }
+                total += distance;
+            }
+            if (total >= 0) matches.add(new int[]{id, total});
+        }
+        matches.sort((a, b) -> scores[b[0]] != scores[a[0]] ? Long.compare(scores[b[0]], scores[a[0]]) : Integer.compare(a[0], b[0]));
+        for (int[] match : matches) {
+            if (hits.size() >= limit) break;
+            hits.putIfAbsent(match[0], match[1]);
+        }
+    }
+
+    // Smallest edit distance between the query word and a prefix of any title word, -1 if above maxDistance
+    private static int bestPrefixDistance(final String queryWord, final String[] titleWords, final int maxDistance) {
+        int best = -1;
+        for (String titleWord : titleWords) {
+            if (titleWord.startsWith(queryWord)) return 0;
+            if (maxDistance == 0) continue;
+            final int distance = prefixDistance(queryWord, titleWord);
+            if (distance <= maxDistance && (best < 0 || distance < best)) best = distance;
+        }
+        return best;
+    }
+
+    // Edit distance (with adjacent swaps counting as one edit) between the query and the closest prefix of the word
+    private static int prefixDistance(final String query, final String word) {
+        final int length = query.length();
+        int[] beforePrevious = new int[length + 1];
+        int[] previous = new int[length + 1];
+        int[] current = new int[length + 1];
+        for (int i = 0; i <= length; i++) previous[i] = i;
+        int best = previous[length];
+        for (int j = 1; j <= word.length(); j++) {
+            fillRow(query, word.charAt(j - 1), j >= 2 ? word.charAt(j - 2) : 0, beforePrevious, previous, current, j >= 2);
+            best = Math.min(best, current[length]);
+            final int[] recycled = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+        return best;
+    }
+
+    /**
+     * One row of the edit distance table for trie character key: row[i] is the distance between the
+     * first i query characters and the prefix ending in key. Returns the smallest value in the row.
+     */
+    private static int fillRow(final String query, final char key, final char previousKey, final int[] beforePrevious,
+                               final int[] previous, final int[] row, final boolean canSwap) {
+        row[0] = previous[0] + 1;
+        int rowMin = row[0];
+        for (int i = 1; i < row.length; i++) {
+            final char queryChar = query.charAt(i - 1);
+            int distance = Math.min(previous[i - 1] + (queryChar == key ? 0 : 1), Math.min(previous[i] + 1, row[i - 1] + 1));
+            if (canSwap && i >= 2 && queryChar == previousKey && query.charAt(i - 2) == key) {
+                distance = Math.min(distance, beforePrevious[i - 2] + 1); // "drak" vs "dark"
+            }
+            row[i] = distance;
+            rowMin = Math.min(rowMin, distance);
+        }
+        return rowMin;
+    }
+
+    // Edit distance over the trie: collects the shallowest nodes whose prefix is within maxDistance of the word
+    private static void fuzzyWalk(final Node node, final char key, final String word, final int[] beforePrevious,
+                                  final int[] previousRow, final int maxDistance, final List<Node> matches,
+                                  final int depth) {
+        final Children children = node.children;
+        for (int c = 0; c < children.keys.length; c++) {
+            final int[] row = new int[previousRow.length];
+            final int rowMin = fillRow(word, children.keys[c], key, beforePrevious, previousRow, row, depth >= 1);
+            if (row[row.length - 1] <= maxDistance) {
+                matches.add(children.nodes[c]); // Whole subtree matches, no need to go deeper
+            } else if (rowMin <= maxDistance) {
+                fuzzyWalk(children.nodes[c], children.keys[c], word, previousRow, row, maxDistance, matches, depth + 1);
+            }
+        }
+    }
+
+    private static int maxDistance(final String word) {
+        return word.length() <= 2 ? 0 : word.length() <= 5 ? 1 : 2;
+    }
+
+    private Node find(final String prefix) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(prefix.charAt(i));
+        }
+        return node;
+    }
+
+    // Every movie with a word under the node (may repeat a movie that has several such words)
+    private static int[] collect(final Node node) {
+        final List<int[]> parts = new ArrayList<>();
+        gather(node, parts);
+        return concat(parts);
+    }
+
+    private static int[] collectAll(final List<Node> nodes) {
+        final List<int[]> parts = new ArrayList<>();
+        for (Node node : nodes) gather(node, parts);
+        return concat(parts);
+    }
+
+    private static int[] topsOf(final List<Node> nodes) {
+        final List<int[]> parts = new ArrayList<>();
+        for (Node node : nodes) parts.add(node.top);
+        return concat(parts);
+    }
+
+    private static void gather(final Node node, final List<int[]> parts) {
+        if (node.postings.length > 0) parts.add(node.postings);
+        for (Node child : node.children.nodes) gather(child, parts);
+    }
+
+    private static int[] concat(final List<int[]> parts) {
+        int size = 0;
+        for (int[] part : parts) size += part.length;
+        final int[] all = new int[size];
+        int at = 0;
+        for (int[] part : parts) {
+            System.arraycopy(part, 0, all, at, part.length);
+            at += part.length;
+        }
+        return Arrays.stream(all).distinct().toArray();
+    }
+
+    // Writer only: keeps node.top as the TOP_K most popular movie IDs, published as a fresh array
+    private void offerTop(final Node node, final int movieId) {
+        final int[] next = ranked(node.top, movieId);
+        if (next != node.top) {
+            node.top = next;
+        }
+    }
+
+    // Writer only: re-ranks node.top after the movie lost popularity
+    private void demoteTop(final Node node, final int movieId) {
+        final int[] top = node.top;
+        boolean listed = false;
+        for (int id : top) {
+            if (id == movieId) listed = true;
+        }
+        if (!listed) return;
+        if (top.length < TOP_K) {
+            node.top = ranked(top, movieId); // Every movie under the prefix is listed, re-sorting is enough
+            return;
+        }
+        int[] rebuilt = NO_MOVIES;
+        for (int id : collect(node)) {
+            rebuilt = ranked(rebuilt, id);
+        }
+        node.top = rebuilt;
+    }
+
+    // The top list with the movie offered to it, sorted most popular first; the same array if it does not make the cut
+    private int[] ranked(final int[] top, final int movieId) {
+        int[] next;
+        int existing = -1;
+        for (int i = 0; i < top.length; i++) {
+            if (top[i] == movieId) existing = i;
+        }
+        if (existing >= 0) {
+            next = top.clone();
+        } else if (top.length < TOP_K) {
+            next = Arrays.copyOf(top, top.length + 1);
+            next[top.length] = movieId;
+        } else if (popularity[movieId] > popularity[top[top.length - 1]]) {
+            next = top.clone();
+            next[next.length - 1] = movieId;
+        } else {
+            return top;
+        }
+        // Insertion sort, the array is tiny and nearly sorted
+        for (int i = 1; i < next.length; i++) {
+            final int id = next[i];
+            int j = i - 1;
+            while (j >= 0 && popularity[next[j]] < popularity[id]) {
+                next[j + 1] = next[j];
+                j--;
+            }
+            next[j + 1] = id;
+        }
+        return next;
+    }
+
+    private void ensureCapacity(final int id) {
+        if (id < movies.length) return;
+        final int capacity = Math.max(id + 1, movies.length * 2);
+        popularity = Arrays.copyOf(popularity, capacity);
+        movieWords = Arrays.copyOf(movieWords, capacity);
+        movies = Arrays.copyOf(movies, capacity); // Last, readers index by IDs they found in the trie
+    }
+
+    private static int[] append(final int[] array, final int value) {
+        final int[] grown = Arrays.copyOf(array, array.length + 1);
+        grown[array.length] = value;
+        return grown;
+    }
+
+    /**
+     * Lower-cases, drops Latin accents (so "Amélie" matches "amelie") and splits on anything that is not
+     * a letter, digit or combining mark, which keeps the vowel signs of Indic scripts inside their words.
+     */
+    static String[] tokenize(final String text) {
+        final String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("[\\u0300-\\u036f]", "")
+                .toLowerCase(Locale.ROOT);
+        final List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            final boolean wordChar = i < folded.length() && isWordChar(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                final String word = folded.substring(start, i);
+                if (!words.contains(word)) words.add(word);
+                start = -1;
+            }
+        }
+        return words.toArray(new String[0]);
+    }
+
+    private static boolean isWordChar(final char c) {
+        final int type = Character.getType(c);
+        return Character.isLetterOrDigit(c) || type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static final class Children {
+        private static final Children EMPTY = new Children(new char[0], new Node[0]);
+        private final char[] keys; // Sorted
+        private final Node[] nodes;
+
+        private Children(final char[] keys, final Node[] nodes) {
+            this.keys = keys;
+            this.nodes = nodes;
+        }
+    }
+
+    private static final class Node {
+        private volatile Children children = Children.EMPTY;
+        private volatile int[] top = NO_MOVIES; // Most popular movies under this prefix, best first
+        private volatile int[] postings = NO_MOVIES; // Movies having exactly this word
+        private volatile int subtreeSize; // Number of (movie, word) entries under this prefix
+
+        private Node child(final char key) {
+            final Children current = children;
+            final int index = Arrays.binarySearch(current.keys, key);
+            return index >= 0 ? current.nodes[index] : null;
+        }
+
+        private Node childOrCreate(final char key) {
+            final Children current = children;
+            int index = Arrays.binarySearch(current.keys, key);
+            if (index >= 0) {
+                return current.nodes[index];
+            }
+            index = -index - 1;
+            final char[] keys = new char[current.keys.length + 1];
+            final Node[] nodes = new Node[keys.length];
+            System.arraycopy(current.keys, 0, keys, 0, index);
+            System.arraycopy(current.nodes, 0, nodes, 0, index);
+            keys[index] = key;
+            nodes[index] = new Node();
+            System.arraycopy(current.keys, index, keys, index + 1, current.keys.length - index);
+            System.arraycopy(current.nodes, index, nodes, index + 1, current.nodes.length - index);
+            children = new Children(keys, nodes);
+            return nodes[index];
+        }
+    }
+}
@@ -5,17 +5,23 @@ import CoreClasses.Movie;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class MovieService {
 
     private final Map<Integer, Movie> movies;
     private final AtomicInteger movieCounter; // Private counter for generating movie IDs
+    private final MovieSearchIndex searchIndex; // Title index for typeahead, updated on every createMovie
 
     public MovieService() {
-        this.movies = new HashMap<>();
+        this(new MovieSearchIndex());
+    }
+
+    public MovieService(final MovieSearchIndex searchIndex) {
+        this.movies = new ConcurrentHashMap<>();
         this.movieCounter = new AtomicInteger(0); // Initialize the counter to 0
+        this.searchIndex = searchIndex;
     }
 
     public Movie getMovie(final int movieId) throws Exception {
@@ -29,9 +35,19 @@ public class MovieService {
         int movieId = movieCounter.incrementAndGet(); // Increment the counter and get the new value.
         Movie movie = new Movie(movieId, movieName, durationInMinutes);
         movies.put(movieId, movie);
+        searchIndex.addMovie(movie);
         return movie;
     }
 
+    // Typeahead: titles with words starting with the query words (typos tolerated), most booked first
+    public List<Movie> searchMovies(final String query, final int limit) {
+        return searchIndex.search(query, limit);
+    }
+
+    public MovieSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
     public List<Movie> getAllMovies() {
         return new ArrayList<>(movies.values());
     }
@@ -0,0 +1,287 @@
+package Services;
+
+import CommonEnum.LogEvent;
+import CoreClasses.Booking;
+import CoreClasses.EmailMessage;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import Utilities.EmailTemplate;
+import Utilities.EventLog;
+import Utilities.SmtpConnection;
+import Utilities.SmtpConnectionPool;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends booking confirmation emails without slowing down checkout. enqueue() only puts the booking
+ * on a bounded queue; dispatcher threads take batches off it, render the template and send the whole
+ * batch over one pooled SMTP session. Temporary failures (4xx replies, broken connections) are retried
+ * with exponential backoff; permanent ones (5xx) and messages out of attempts go to the dead-letter queue.
+ * A message that cannot be rendered, or a batch that fails in an unexpected way, is dead-lettered as
+ * well, so the dispatcher threads never die and the queue keeps draining.
+ */
+public class NotificationService {
+
+    private static final String FROM = "tickets@bookmyticket.example";
+    private static final long BORROW_TIMEOUT_MILLIS = 1000;
+    private static final long BASE_BACKOFF_MILLIS = 200; // Doubles with each attempt
+
+    private static final EmailTemplate SUBJECT = new EmailTemplate("Your tickets for {{movie}} (booking {{bookingId}})");
+    private static final EmailTemplate BODY = new EmailTemplate(
+            "Hi {{name}},\n\n"
+            + "Your booking {{bookingId}} is confirmed.\n"
+            + "Movie: {{movie}}\n"
+            + "Theatre: {{theatre}}, {{screen}}\n"
+            + "Show time: {{startTime}}\n"
+            + "Seats: {{seats}}\n"
+            + "Amount paid: {{amount}}\n\n"
+            + "Enjoy the show!\n");
+
+    private final SmtpConnectionPool connectionPool;
+    private final int batchSize; // Messages sent per borrowed connection
+    private final int maxAttempts; // Delivery attempts before a message is dead-lettered
+    private final BlockingQueue<EmailMessage> queue;
+    private final Queue<EmailMessage> deadLetters = new ConcurrentLinkedQueue<>();
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "notification-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger pending = new AtomicInteger(); // Accepted messages not yet sent or dead-lettered
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder rejectedFull = new LongAdder(); // enqueue() calls refused because the queue was full
+    private volatile boolean running = true;
+
+    public NotificationService(final String smtpHost, final int smtpPort, final int dispatcherThreads,
+                               final int batchSize, final int queueCapacity, final int maxAttempts) {
+        this.connectionPool = new SmtpConnectionPool(smtpHost, smtpPort, dispatcherThreads);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < dispatcherThreads; i++) {
+            final Thread dispatcher = new Thread(this::dispatchLoop, "notification-dispatcher-" + i);
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+            dispatchers.add(dispatcher);
+        }
+    }
+
+    /**
+     * Queues the confirmation for the booking. Never blocks: when the queue is full the message goes
+     * straight to the dead-letter queue, so a mail outage can't back up into checkout.
+     */
+    public boolean enqueue(final Booking booking) {
+        final EmailMessage message = new EmailMessage(booking);
+        pending.incrementAndGet();
+        if (running && queue.offer(message)) {
+            return true;
+        }
+        rejectedFull.increment();
+        message.recordFailure("Notification queue full");
+        deadLetter(message);
+        return false;
+    }
+
+    // Puts every dead-lettered message back on the queue with a fresh attempt budget; returns how many
+    public int retryDeadLetters() {
+        int requeued = 0;
+        EmailMessage message;
+        while ((message = deadLetters.poll()) != null) {
+            final EmailMessage fresh = new EmailMessage(message.getBooking());
+            pending.incrementAndGet();
+            if (queue.offer(fresh)) {
+                requeued++;
+            } else {
+                fresh.recordFailure("Notification queue full");
+                deadLetter(fresh);
+                break; // Still full, leave the rest where they are
+            }
+        }
+        return requeued;
+    }
+
+    // Waits until every accepted message was sent or dead-lettered; false on timeout
+    public boolean awaitIdle(final long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (pending.get() > 0) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Thread dispatcher : dispatchers) {
+            dispatcher.interrupt();
+        }
+        retryScheduler.shutdownNow();
+        connectionPool.close();
+        EventLog.record(LogEvent.NOTIFICATION_DISPATCHER_STOPPED, sent.sum(), deadLetters.size());
+    }
+
+    private void dispatchLoop() {
+        final List<EmailMessage> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                final Iterator<EmailMessage> iterator = batch.iterator();
+                while (iterator.hasNext()) {
+                    final EmailMessage message = iterator.next();
+                    if (message.isRendered()) continue;
+                    try {
+                        render(message);
+                    } catch (RuntimeException e) {
+                        iterator.remove();
+                        message.recordFailure("Render failed: " + e);
+                        deadLetter(message);
+                        EventLog.record(LogEvent.NOTIFICATION_BATCH_FAILED, e.getClass().getSimpleName(), 1);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    sendBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(final List<EmailMessage> batch) throws InterruptedException {
+        final SmtpConnection connection;
+        try {
+            connection = connectionPool.borrow(BORROW_TIMEOUT_MILLIS);
+        } catch (RuntimeException e) {
+            deadLetterRest(batch, 0, e);
+            return;
+        } catch (IOException e) {
+            for (EmailMessage message : batch) {
+                scheduleRetry(message, "Connect failed: " + e.getMessage());
+            }
+            return;
+        }
+        if (connection == null) {
+            for (EmailMessage message : batch) {
+                scheduleRetry(message, "No SMTP connection available");
+            }
+            return;
+        }
+        int index = 0;
+        try {
+            for (; index < batch.size(); index++) {
+                final EmailMessage message = batch.get(index);
+                final int reply = connection.send(FROM, message.getTo(), message.getSubject(), message.getBody());
+                if (reply / 100 == 2) {
+                    sent.increment();
+                    pending.decrementAndGet();
+                } else if (reply / 100 == 4) {
+                    scheduleRetry(message, "SMTP " + reply);
+                } else {
+                    message.recordFailure("SMTP " + reply);
+                    deadLetter(message); // Permanent rejection, retrying won't help
+                }
+            }
+            connectionPool.giveBack(connection);
+        } catch (IOException e) {
+            connectionPool.invalidate(connection);
+            for (; index < batch.size(); index++) { // The failed message and everything after it
+                scheduleRetry(batch.get(index), "Connection lost: " + e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            connectionPool.invalidate(connection); // Session state unknown, don't hand it out again
+            deadLetterRest(batch, index, e);
+        }
+    }
+
+    // Unexpected failure: the message being sent and everything after it are dead-lettered
+    private void deadLetterRest(final List<EmailMessage> batch, final int from, final RuntimeException e) {
+        for (int index = from; index < batch.size(); index++) {
+            batch.get(index).recordFailure("Dispatch failed: " + e);
+            deadLetter(batch.get(index));
+        }
+        EventLog.record(LogEvent.NOTIFICATION_BATCH_FAILED, e.getClass().getSimpleName(), batch.size() - from);
+    }
+
+    private void scheduleRetry(final EmailMessage message, final String error) {
+        message.recordFailure(error);
+        if (message.getAttempts() >= maxAttempts || !running) {
+            deadLetter(message);
+            return;
+        }
+        retried.increment();
+        final long backoff = BASE_BACKOFF_MILLIS << Math.min(message.getAttempts() - 1, 10);
+        retryScheduler.schedule(() -> {
+            if (!queue.offer(message)) {
+                message.recordFailure("Notification queue full");
+                deadLetter(message);
+            }
+        }, backoff, TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(final EmailMessage message) {
+        deadLetters.add(message);
+        pending.decrementAndGet();
+    }
+
+    private static void render(final EmailMessage message) {
+        final Booking booking = message.getBooking();
+        final Show show = booking.getShow();
+        final StringBuilder seats = new StringBuilder();
+        for (Seat seat : booking.getSeatsBooked()) {
+            if (seats.length() > 0) seats.append(", ");
+            seats.append(seat.getSeatId()).append(" (").append(seat.getSeatCategory()).append(')');
+        }
+        final Map<String, String> values = new HashMap<>();
+        values.put("name", booking.getUser().getUserName());
+        values.put("bookingId", booking.getId());
+        values.put("movie", show.getMovie().getMovieName());
+        values.put("theatre", show.getScreen().getTheatre().getTheatreName());
+        values.put("screen", show.getScreen().getScreenName());
+        values.put("startTime", String.valueOf(show.getStartTime()));
+        values.put("seats", seats.toString());
+        values.put("amount", "₹" + booking.getAmount());
+        message.render(booking.getUser().getUserEmail(), SUBJECT.render(values), BODY.render(values));
+    }
+
+    // Getters Section Start
+    public long getSentCount() {
+        return sent.sum();
+    }
+    public long getRetryCount() {
+        return retried.sum();
+    }
+    public long getRejectedCount() {
+        return rejectedFull.sum();
+    }
+    public int getQueueDepth() {
+        return queue.size();
+    }
+    public int getPendingCount() {
+        return pending.get();
+    }
+    public List<EmailMessage> getDeadLetters() {
+        return new ArrayList<>(deadLetters);
+    }
+    // Getters Section End
+}
@@ -0,0 +1,81 @@
+package Services;
+
+import CoreClasses.Booking;
+import CoreClasses.Seat;
+import CoreClasses.SeatEvent;
+import CoreClasses.Show;
+import CoreClasses.ShowOccupancy;
+import CoreClasses.User;
+import Interfaces.BookingObserver;
+import Interfaces.SeatLockListener;
+import Interfaces.SeatStateProjection;
+import Interfaces.ShowLifecycleListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a ShowOccupancy per show up to date from seat lock and booking events,
+ * so nobody has to recount seats to know how full a show is. It can be fed either directly
+ * (as a lock listener and booking observer) or as a projection of a SeatStateStore.
+ */
+public class OccupancyTracker implements SeatLockListener, BookingObserver, SeatStateProjection, ShowLifecycleListener {
+
+    private final Map<Integer, ShowOccupancy> occupancyByShow = new ConcurrentHashMap<>(); // key = show ID
+
+    public ShowOccupancy getOccupancy(final Show show) {
+        return occupancyByShow.computeIfAbsent(show.getId(), id -> new ShowOccupancy(show));
+    }
+
+    @Override
+    public void onShowRetired(final Show show) {
+        occupancyByShow.remove(show.getId());
+    }
+
+    @Override
+    public void onSeatsLocked(final Show show, final List<Seat> seats, final User user) {
+        getOccupancy(show).hold(seats);
+    }
+
+    @Override
+    public void onSeatsUnlocked(final Show show, final List<Seat> seats, final User user) {
+        getOccupancy(show).release(seats);
+    }
+
+    @Override
+    public void onSeatsExpired(final Show show, final List<Seat> seats, final User user) {
+        getOccupancy(show).release(seats);
+    }
+
+    @Override
+    public void onBookingConfirmed(final Booking booking) {
+        getOccupancy(booking.getShow()).sell(booking.getSeatsBooked());
+    }
+
+    @Override
+    public void onBookingCancelled(final Booking booking) {
+        getOccupancy(booking.getShow()).unsell(booking.getSeatsBooked());
+    }
+
+    @Override
+    public void apply(final SeatEvent event) {
+        final List<Seat> seats = Collections.singletonList(event.getSeat());
+        switch (event.getType()) {
+            case HOLD:
+                getOccupancy(event.getShow()).hold(seats);
+                break;
+            case RELEASE:
+            case EXPIRE:
+                getOccupancy(event.getShow()).release(seats);
+                break;
+            case BOOK:
+                getOccupancy(event.getShow()).sell(seats);
+                break;
+            case CANCEL:
+                getOccupancy(event.getShow()).unsell(seats);
+                break;
+        }
+    }
+}
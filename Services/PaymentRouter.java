@@ -0,0 +1,383 @@
+package Services;
+
+import CommonEnum.LogEvent;
+import CommonEnum.PaymentMethod;
+import CommonEnum.PaymentStatus;
+import Interfaces.PaymentStrategy;
+import Utilities.CircuitBreaker;
+import Utilities.EventLog;
+import Utilities.LatencyWindow;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends each payment to one of several gateways registered for its method. Gateways are shared,
+ * thread-safe PaymentStrategy instances; the router keeps a rolling latency window and a circuit
+ * breaker for each. A payment goes to the gateway with the best recent latency and error rate
+ * among those whose circuit admits it:
+ * - if no answer came by that best gateway's hedgeQuantile latency, the payment is also sent to
+ *   the next gateway (hedging) and the first definite answer wins;
+ * - a bank error moves it on to the next gateway at once (failover);
+ * - at most maxAttempts gateways are tried, and after timeoutMillis the payment fails, so a slow
+ *   gateway can't use up the seat hold.
+ *
+ * A success or a decline is a definite answer; bank errors and exceptions count against the
+ * gateway's circuit. A hedged payment can be captured twice: any success that arrives after the
+ * payment was decided (or timed out) is refunded on the gateway that took it right away; if that
+ * refund fails, the capture waits in a queue for retryFailedVoids().
+ *
+ * Both windows only move when a gateway gets calls, so every EXPLORE_EVERY-th payment starts on a
+ * gateway other than the best, in turn. Without that, a gateway that was slow or failing for a while
+ * would keep its old numbers and never get traffic back. The hedge delay still follows the best
+ * gateway, so such a payment waits no longer than usual.
+ *
+ * route() hands out a small single-use PaymentStrategy per payment. It remembers which gateway
+ * captured the money, so a later refund goes back through the same gateway.
+ */
+public class PaymentRouter {
+
+    private static final long MIN_HEDGE_DELAY_NANOS = 1_000_000L; // Never hedge sooner than 1 ms
+    private static final int EXPLORE_EVERY = 32; // Every 32nd payment leads with another gateway, keeping its numbers fresh
+
+    private final long timeoutNanos;
+    private final double hedgeQuantile;
+    private final int maxAttempts; // Gateways tried per payment, hedges and failovers included
+    private final int breakerWindow;
+    private final int breakerMinCalls;
+    private final double breakerFailureRate;
+    private final long breakerOpenMillis;
+    private final Map<PaymentMethod, List<Gateway>> gateways = new EnumMap<>(PaymentMethod.class);
+    private final Map<String, Gateway> gatewaysByName = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor executor;
+    private final LongAdder hedged = new LongAdder(); // Backup calls started because the first was slow
+    private final LongAdder failovers = new LongAdder(); // Backup calls started after a bank error
+    private final LongAdder voided = new LongAdder(); // Extra captures refunded
+    private final Queue<PendingVoid> failedVoids = new ConcurrentLinkedQueue<>(); // Extra captures whose refund failed
+    private final LongAdder timedOut = new LongAdder(); // Payments with no answer within timeoutMillis
+    private final LongAdder unrouted = new LongAdder(); // Payments refused because every circuit was open
+    private final AtomicLong routed = new AtomicLong();
+
+    public PaymentRouter(final long timeoutMillis) {
+        this(timeoutMillis, 0.95, 3, 50, 10, 0.5, 5_000, 256);
+    }
+
+    public PaymentRouter(final long timeoutMillis, final double hedgeQuantile, final int maxAttempts,
+                         final int breakerWindow, final int breakerMinCalls, final double breakerFailureRate,
+                         final long breakerOpenMillis, final int maxConcurrentCalls) {
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.hedgeQuantile = hedgeQuantile;
+        this.maxAttempts = maxAttempts;
+        this.breakerWindow = breakerWindow;
+        this.breakerMinCalls = breakerMinCalls;
+        this.breakerFailureRate = breakerFailureRate;
+        this.breakerOpenMillis = breakerOpenMillis;
+        for (PaymentMethod method : PaymentMethod.values()) {
+            gateways.put(method, new CopyOnWriteArrayList<>());
+        }
+        final AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxConcurrentCalls, 30, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "payment-gateway-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Registers a gateway; among equally healthy ones, those added first are preferred
+    public void addGateway(final PaymentMethod method, final String name, final PaymentStrategy strategy) {
+        final Gateway gateway = new Gateway(name, strategy,
+                new CircuitBreaker(name, breakerWindow, breakerMinCalls, breakerFailureRate, breakerOpenMillis),
+                new LatencyWindow(breakerWindow));
+        if (gatewaysByName.putIfAbsent(name, gateway) != null) {
+            throw new IllegalArgumentException("Payment gateway " + name + " is already registered");
+        }
+        gateways.get(method).add(gateway);
+    }
+
+    // A strategy that pays the amount through this router; use it for one payment
+    public PaymentStrategy route(final PaymentMethod method, final int amount) {
+        return new RoutedPayment(method, amount);
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Gateways whose circuit admits calls, best first: median latency, inflated by the recent error rate
+    private List<Gateway> rank(final PaymentMethod method) {
+        final long now = System.currentTimeMillis();
+        final Gateway[] registered = gateways.get(method).toArray(new Gateway[0]); // Snapshot, gateways may be added meanwhile
+        final List<Gateway> candidates = new ArrayList<>(registered.length);
+        final double[] scores = new double[registered.length];
+        for (Gateway gateway : registered) {
+            if (!gateway.breaker.isAvailable(now)) continue;
+            final double score = Math.max(0, gateway.latency.percentile(0.5)) * (1 + 4 * gateway.breaker.getFailureRate());
+            int at = candidates.size();
+            while (at > 0 && scores[at - 1] > score) { // Insertion sort: a handful of gateways, ties keep registration order
+                scores[at] = scores[at - 1];
+                at--;
+            }
+            scores[at] = score;
+            candidates.add(at, gateway);
+        }
+        return candidates;
+    }
+
+    // Starts the call on the next gateway whose circuit admits it; null when none is left
+    private Gateway launchNext(final Iterator<Gateway> cursor, final RoutedPayment payment,
+                               final BlockingQueue<Attempt> results) {
+        while (cursor.hasNext()) {
+            final Gateway gateway = cursor.next();
+            if (!gateway.breaker.tryAcquire(System.currentTimeMillis())) continue;
+            try {
+                executor.execute(() -> call(gateway, payment, results));
+                return gateway;
+            } catch (RejectedExecutionException e) {
+                gateway.breaker.cancel(); // Never called; all gateway threads are busy
+                return null;
+            }
+        }
+        return null;
+    }
+
+    // Runs on a gateway thread. The first definite answer claims the payment; a success that can't is refunded
+    private void call(final Gateway gateway, final RoutedPayment payment, final BlockingQueue<Attempt> results) {
+        final long start = System.nanoTime();
+        PaymentStatus status;
+        try {
+            status = gateway.strategy.processPayment();
+        } catch (RuntimeException e) {
+            status = PaymentStatus.FAILURE_BANK_ERROR;
+        }
+        gateway.latency.record(System.nanoTime() - start);
+        final boolean definite = status == PaymentStatus.SUCCESS || status == PaymentStatus.FAILURE_INSUFFICIENT_FUNDS;
+        gateway.breaker.record(!definite, System.currentTimeMillis());
+        final boolean won = definite && payment.decided.compareAndSet(false, true);
+        if (won && status == PaymentStatus.SUCCESS) {
+            payment.capturedBy = gateway;
+        } else if (!won && status == PaymentStatus.SUCCESS) {
+            voidCapture(new PendingVoid(gateway, payment.amount));
+        }
+        results.offer(new Attempt(status, won));
+    }
+
+    /**
+     * Retries the refunds of extra captures that failed so far. Captures failing again stay queued.
+     * Returns how many were refunded this time.
+     */
+    public int retryFailedVoids() {
+        int succeeded = 0;
+        for (int i = failedVoids.size(); i > 0; i--) {
+            final PendingVoid pending = failedVoids.poll();
+            if (pending == null) break;
+            if (voidCapture(pending) == PaymentStatus.SUCCESS) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    // Refunds a capture nobody asked for; a failed refund is queued for retryFailedVoids()
+    private PaymentStatus voidCapture(final PendingVoid pending) {
+        PaymentStatus refund;
+        try {
+            refund = pending.gateway.strategy.refund(pending.amount);
+        } catch (RuntimeException e) {
+            refund = PaymentStatus.FAILURE_BANK_ERROR;
+        }
+        if (refund == PaymentStatus.SUCCESS) {
+            voided.increment();
+        } else {
+            failedVoids.add(pending);
+        }
+        EventLog.record(LogEvent.GATEWAY_CAPTURE_VOIDED, pending.gateway.name, refund.ordinal(), pending.amount, 0);
+        return refund;
+    }
+
+    private long hedgeDelayNanos(final Gateway gateway) {
+        final long observed = gateway.latency.percentile(hedgeQuantile);
+        return observed < 0 ? timeoutNanos / 4 : Math.max(MIN_HEDGE_DELAY_NANOS, observed); // No history yet: wait a quarter
+    }
+
+    // Getters Section Start
+    public CircuitBreaker getCircuitBreaker(final String gatewayName) {
+        return gatewaysByName.get(gatewayName).breaker;
+    }
+    public double getLatencyMillis(final String gatewayName, final double quantile) {
+        return gatewaysByName.get(gatewayName).latency.percentile(quantile) / 1e6;
+    }
+    public long getHedgedCount() {
+        return hedged.sum();
+    }
+    public long getFailoverCount() {
+        return failovers.sum();
+    }
+    public long getVoidedCount() {
+        return voided.sum();
+    }
+    // Extra captures still waiting for their refund
+    public int getFailedVoidCount() {
+        return failedVoids.size();
+    }
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+    public long getUnroutedCount() {
+        return unrouted.sum();
+    }
+    // Getters Section End
+
+    private static final class Gateway {
+        private final String name;
+        private final PaymentStrategy strategy;
+        private final CircuitBreaker breaker;
+        private final LatencyWindow latency;
+
+        private Gateway(final String name, final PaymentStrategy strategy, final CircuitBreaker breaker,
+                        final LatencyWindow latency) {
+            this.name = name;
+            this.strategy = strategy;
+            this.breaker = breaker;
+            this.latency = latency;
+        }
+    }
+
+    private static final class PendingVoid {
+        private final Gateway gateway; // The gateway that captured the money, and has to give it back
+        private final int amount;
+
+        private PendingVoid(final Gateway gateway, final int amount) {
+            this.gateway = gateway;
+            this.amount = amount;
+        }
+    }
+
+    private static final class Attempt {
+        private final PaymentStatus status;
+        private final boolean won; // This answer decided the payment
+
+        private Attempt(final PaymentStatus status, final boolean won) {
+            this.status = status;
+            this.won = won;
+        }
+    }
+
+    private final class RoutedPayment implements PaymentStrategy {
+        private final PaymentMethod method;
+        private final int amount;
+        private final AtomicBoolean decided = new AtomicBoolean(); // Claimed by the winning answer, or by a timeout
+        private final AtomicBoolean used = new AtomicBoolean();
+        private volatile Gateway capturedBy; // Gateway holding the money, null unless the payment succeeded
+
+        private RoutedPayment(final PaymentMethod method, final int amount) {
+            this.method = method;
+            this.amount = amount;
+        }
+
+        @Override
+        public PaymentStatus processPayment() {
+            if (!used.compareAndSet(false, true)) {
+                throw new IllegalStateException("A routed payment can only be processed once");
+            }
+            final long deadline = System.nanoTime() + timeoutNanos;
+            final List<Gateway> candidates = rank(method);
+            final long hedgeDelay = candidates.isEmpty() ? 0 : hedgeDelayNanos(candidates.get(0));
+            final long sequence = routed.incrementAndGet();
+            if (sequence % EXPLORE_EVERY == 0 && candidates.size() > 1) {
+                final int lead = 1 + (int) ((sequence / EXPLORE_EVERY) % (candidates.size() - 1));
+                candidates.add(0, candidates.remove(lead));
+            }
+            final Iterator<Gateway> cursor = candidates.iterator();
+            final BlockingQueue<Attempt> results = new ArrayBlockingQueue<>(maxAttempts);
+            if (launchNext(cursor, this, results) == null) {
+                unrouted.increment();
+                EventLog.record(LogEvent.NO_PAYMENT_GATEWAY, method.ordinal());
+                return PaymentStatus.FAILURE_BANK_ERROR;
+            }
+            int attempts = 1;
+            int pending = 1;
+            long hedgeAt = System.nanoTime() + hedgeDelay;
+            PaymentStatus lastError = PaymentStatus.FAILURE_BANK_ERROR;
+            try {
+                while (pending > 0) {
+                    final long now = System.nanoTime();
+                    if (now >= deadline) break;
+                    final boolean mayHedge = attempts < maxAttempts && cursor.hasNext();
+                    final Attempt attempt = results.poll((mayHedge ? Math.min(hedgeAt, deadline) : deadline) - now,
+                            TimeUnit.NANOSECONDS);
+                    if (attempt == null) {
+                        if (mayHedge && System.nanoTime() >= hedgeAt) {
+                            if (launchNext(cursor, this, results) != null) {
+                                attempts++;
+                                pending++;
+                                hedged.increment();
+                            }
+                            hedgeAt = System.nanoTime() + hedgeDelay;
+                        }
+                        continue;
+                    }
+                    pending--;
+                    if (attempt.won) {
+                        return attempt.status;
+                    }
+                    lastError = attempt.status;
+                    if (attempts < maxAttempts) {
+                        if (launchNext(cursor, this, results) != null) { // Bank error: try the next gateway now
+                            attempts++;
+                            pending++;
+                            failovers.increment();
+                            hedgeAt = System.nanoTime() + hedgeDelay;
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (decided.compareAndSet(false, true)) {
+                if (pending > 0) timedOut.increment(); // Calls still running refund themselves if they succeed
+                return lastError;
+            }
+            // An answer claimed the payment after the last look at the queue; it is about to arrive
+            boolean interrupted = false;
+            try {
+                while (true) {
+                    try {
+                        final Attempt attempt = results.take();
+                        if (attempt.won) return attempt.status;
+                    } catch (InterruptedException e) {
+                        interrupted = true; // Keep waiting, the payment is already decided
+                    }
+                }
+            } finally {
+                if (interrupted) Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public PaymentStatus refund(final int refundAmount) {
+            final Gateway gateway = capturedBy;
+            if (gateway == null) {
+                return PaymentStatus.FAILURE_BANK_ERROR; // Nothing was captured
+            }
+            return gateway.strategy.refund(refundAmount);
+        }
+    }
+}
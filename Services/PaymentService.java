@@ -1,9 +1,13 @@
 package Services;
 
+import CommonEnum.BookingStatus;
+import CommonEnum.LogEvent;
 import CommonEnum.PaymentStatus;
 import CoreClasses.Booking;
+import CoreClasses.Cart;
 import CoreClasses.User;
 import Interfaces.PaymentStrategy;
+import Utilities.EventLog;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -12,30 +16,109 @@ public class PaymentService {
 
     private final Map<Booking, Integer> bookingFailures;
     private final BookingService bookingService;
+    private CartService cartService; // Optional; needed for multi-show cart payments
 
     public PaymentService(BookingService bookingService) {
         this.bookingFailures = new ConcurrentHashMap<>();
         this.bookingService = bookingService;
     }
 
+    public void setCartService(CartService cartService) {
+        this.cartService = cartService;
+    }
+
+    /**
+     * Charges the booking and confirms it. Only the owner can pay, and only while the booking awaits
+     * payment; the payment is recorded for refunds once the booking is confirmed. If it can no longer
+     * be confirmed once the money was taken (the show was cancelled, or the hold lapsed, while the
+     * payment ran), the charge is refunded and, unless someone else got it confirmed meanwhile, the
+     * booking is released like any other failed payment.
+     */
     public void processPayment(final String bookingId, final User user, PaymentStrategy paymentStrategy) throws Exception {
+        final Booking booking = bookingService.getBooking(bookingId); // Unknown IDs fail before anything is charged
+        checkPayable(booking, user);
         PaymentStatus status = paymentStrategy.processPayment();
 
         if (status == PaymentStatus.SUCCESS) {
-            bookingService.confirmBooking(bookingService.getBooking(bookingId), user);
+            try {
+                bookingService.confirmBooking(booking, user);
+            } catch (Exception e) {
+                final PaymentStatus refundStatus = refund(paymentStrategy, booking.getAmount());
+                EventLog.record(LogEvent.BOOKING_CONFIRM_FAILED, bookingId, refundStatus.ordinal());
+                if (booking.getBookingStatus() == BookingStatus.CREATED) { // Not confirmed by a concurrent payment
+                    booking.recordRefund(refundStatus);
+                    releaseFailedBooking(booking);
+                }
+                throw e;
+            }
+            booking.recordPayment(paymentStrategy); // Remembered for refunds
         } else {
             processPaymentFailed(bookingId, user, status);
         }
     }
 
+    /**
+     * One payment for the whole cart: success confirms every show, failure releases every hold. If the
+     * cart cannot be confirmed after the money was taken, it is rolled back and the charge refunded.
+     */
+    public void processCartPayment(final String cartId, final User user, PaymentStrategy paymentStrategy) throws Exception {
+        if (cartService == null) {
+            throw new Exception("Cart payments are not enabled.");
+        }
+        final Cart cart = cartService.getCart(cartId);
+        PaymentStatus status = paymentStrategy.processPayment();
+
+        if (status == PaymentStatus.SUCCESS) {
+            int amount = 0;
+            for (Booking booking : cart.getBookings()) {
+                amount += booking.getAmount();
+            }
+            try {
+                cartService.confirmCart(cart, user);
+            } catch (Exception e) {
+                final PaymentStatus refundStatus = refund(paymentStrategy, amount);
+                EventLog.record(LogEvent.CART_CONFIRM_FAILED, cart.getId(), refundStatus.ordinal());
+                throw e;
+            }
+            for (Booking booking : cart.getBookings()) {
+                booking.recordPayment(paymentStrategy); // Each show is refunded separately if cancelled
+            }
+        } else {
+            EventLog.record(LogEvent.CART_PAYMENT_FAILED, cart.getId(), status.ordinal());
+            cartService.releaseCart(cart);
+        }
+    }
+
+    // Pays back a charge whose booking could not be confirmed
+    private static PaymentStatus refund(final PaymentStrategy paymentStrategy, final int amount) {
+        if (amount == 0) return PaymentStatus.SUCCESS; // Nothing was charged
+        try {
+            return paymentStrategy.refund(amount);
+        } catch (RuntimeException e) {
+            return PaymentStatus.FAILURE_BANK_ERROR;
+        }
+    }
+
     public void processPaymentFailed(final String bookingId, final User user, PaymentStatus status) throws Exception {
         Booking booking = bookingService.getBooking(bookingId);
+        checkPayable(booking, user);
+
+        EventLog.record(LogEvent.PAYMENT_FAILED, bookingId, status.ordinal());
+        releaseFailedBooking(booking);
+    }
+
+    // Someone else's booking, or one already confirmed or given up, must not be charged or released
+    private static void checkPayable(final Booking booking, final User user) throws Exception {
         if (!booking.getUser().equals(user)) {
-            throw new Exception("Only the booking owner can report payment failure.");
+            throw new Exception("Only the booking owner can pay for Booking ID " + booking.getId() + ".");
         }
+        if (booking.getBookingStatus() != BookingStatus.CREATED) {
+            throw new Exception("Booking ID " + booking.getId() + " is " + booking.getBookingStatus() + ", not awaiting payment.");
+        }
+    }
 
-        bookingFailures.put(booking, bookingFailures.getOrDefault(booking, 0) + 1);
-        System.out.println("Payment failed for Booking ID: " + bookingId + " with status: " + status);
+    private void releaseFailedBooking(final Booking booking) {
+        bookingFailures.merge(booking, 1, Integer::sum);
 
         // Important: Unlock the seats since the payment failed!
         bookingService.releaseSeatLocks(booking);
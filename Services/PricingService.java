@@ -0,0 +1,114 @@
+package Services;
+
+import CommonEnum.SeatCategory;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.ShowOccupancy;
+import Interfaces.ShowLifecycleListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes per-show, per-category seat prices from base fares, time to show and live occupancy.
+ * Prices are cached per show as a small vector indexed by SeatCategory ordinal and only recomputed
+ * when the show's occupancy or time band changes, so a quote is a few array reads.
+ */
+public class PricingService implements ShowLifecycleListener {
+
+    private static final SeatCategory[] CATEGORIES = SeatCategory.values();
+    // Time bands: 0 = 3+ days out (early bird), 1 = 1-3 days, 2 = same day, 3 = last 3 hours or started
+    private static final double[] TIME_FACTORS = {0.9, 1.0, 1.1, 1.2};
+
+    private final OccupancyTracker occupancyTracker;
+    private final int[] baseFares; // Base fare per SeatCategory ordinal
+    private final Map<Integer, PriceVector> priceVectors; // Cached prices per show (key = show ID)
+
+    public PricingService(final OccupancyTracker occupancyTracker, final Map<SeatCategory, Integer> baseFares) {
+        this.occupancyTracker = occupancyTracker;
+        this.baseFares = new int[CATEGORIES.length];
+        for (SeatCategory category : CATEGORIES) {
+            if (!baseFares.containsKey(category)) {
+                throw new IllegalArgumentException("Missing base fare for " + category);
+            }
+            this.baseFares[category.ordinal()] = baseFares.get(category);
+        }
+        this.priceVectors = new ConcurrentHashMap<>();
+    }
+
+    // Total price of the given seats for the show, as of now
+    public int quote(final Show show, final List<Seat> seats) {
+        final int[] prices = getPriceVector(show);
+        int total = 0;
+        for (Seat seat : seats) {
+            total += prices[seat.getSeatCategory().ordinal()];
+        }
+        return total;
+    }
+
+    public int getPrice(final Show show, final SeatCategory seatCategory) {
+        return getPriceVector(show)[seatCategory.ordinal()];
+    }
+
+    public Map<SeatCategory, Integer> getPrices(final Show show) {
+        final int[] prices = getPriceVector(show);
+        final Map<SeatCategory, Integer> response = new EnumMap<>(SeatCategory.class);
+        for (SeatCategory category : CATEGORIES) {
+            response.put(category, prices[category.ordinal()]);
+        }
+        return response;
+    }
+
+    @Override
+    public void onShowRetired(final Show show) {
+        priceVectors.remove(show.getId());
+    }
+
+    // Returns the cached vector, recomputing it only when occupancy moved or the show entered another time band
+    private int[] getPriceVector(final Show show) {
+        final ShowOccupancy occupancy = occupancyTracker.getOccupancy(show);
+        final long occupancyVersion = occupancy.getVersion(); // Read first, see ShowOccupancy
+        final int timeBand = timeBand(show);
+        final PriceVector cached = priceVectors.get(show.getId());
+        if (cached != null && cached.occupancyVersion == occupancyVersion && cached.timeBand == timeBand) {
+            return cached.prices;
+        }
+        final int[] prices = new int[CATEGORIES.length];
+        for (SeatCategory category : CATEGORIES) {
+            final double price = baseFares[category.ordinal()] * TIME_FACTORS[timeBand]
+                    * demandFactor(occupancy.getOccupancy(category));
+            prices[category.ordinal()] = (int) (Math.round(price / 10.0) * 10); // Round to the nearest 10
+        }
+        priceVectors.put(show.getId(), new PriceVector(prices, occupancyVersion, timeBand));
+        return prices;
+    }
+
+    private static int timeBand(final Show show) {
+        final long hoursToShow = TimeUnit.MILLISECONDS.toHours(show.getStartTime().getTime() - System.currentTimeMillis());
+        if (hoursToShow >= 72) return 0;
+        if (hoursToShow >= 24) return 1;
+        if (hoursToShow >= 3) return 2;
+        return 3;
+    }
+
+    // No surge below half full, then up to +50% as the category sells out (in 5% occupancy steps)
+    private static double demandFactor(final double occupancy) {
+        final double stepped = Math.floor(occupancy * 20) / 20;
+        return 1.0 + Math.max(0, stepped - 0.5);
+    }
+
+    private static final class PriceVector {
+        private final int[] prices;
+        private final long occupancyVersion;
+        private final int timeBand;
+
+        private PriceVector(final int[] prices, final long occupancyVersion, final int timeBand) {
+            this.prices = prices;
+            this.occupancyVersion = occupancyVersion;
+            this.timeBand = timeBand;
+        }
+    }
+}
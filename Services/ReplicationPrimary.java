@@ -0,0 +1,350 @@
+package Services;
+
+import CommonEnum.LogEvent;
+import CommonEnum.ReplicationMode;
+import CommonEnum.ReplicationRecordType;
+import CoreClasses.Booking;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.BookingObserver;
+import Interfaces.ConfirmationGuard;
+import Interfaces.SeatLockListener;
+import Utilities.EventLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Primary side of hot-standby replication. Registered as a seat lock listener and booking observer,
+ * it turns every hold, release, expiry and booking change into a record of an ordered change log
+ * and streams it over a local socket to a ReplicationStandby, which applies it to its own services.
+ *
+ * Records are encoded on the calling thread and only queued there (lock listeners run under the
+ * show lock); one sender thread writes them out, with a heartbeat whenever the log is idle. If the
+ * connection is lost or the queue overflows, replication stops and the standby is out of date; it
+ * has to be rebuilt. Holds are replicated without their renewals.
+ *
+ * In SYNC mode it must also be added as a confirmation guard: the confirmation is then replicated
+ * before the booking is confirmed here, and confirmBooking fails unless the standby acknowledged it
+ * within syncTimeoutMillis. A timeout counts as losing the standby, and once it is lost (or has
+ * promoted itself, which disconnects it) every confirmation is refused, so a primary that was only
+ * stalled can't sell seats the promoted standby sells too. ASYNC mode gives no such fence: only
+ * promote its standby after the primary is known to be dead.
+ *
+ * Frame: int length | long sequence | long primary timestamp | byte record type | payload.
+ * Acknowledgements coming back are: long sequence | long primary timestamp of that record.
+ */
+public class ReplicationPrimary implements SeatLockListener, BookingObserver, ConfirmationGuard {
+
+    private final int port;
+    private final ReplicationMode mode;
+    private final long syncTimeoutMillis;
+    private final long heartbeatMillis;
+    private final BlockingQueue<byte[]> outbox;
+    private final Object sequenceLock = new Object(); // Sequence numbers are handed out in queue order
+    private final Object ackMonitor = new Object();
+    private long lastSequence; // Guarded by sequenceLock
+    private volatile long ackedSequence;
+    private volatile long lastAckLagMillis; // Record creation to acknowledgement, for the latest ack
+    private volatile long maxAckLagMillis;
+    private final LongAdder syncTimeouts = new LongAdder(); // Confirmations the standby did not acknowledge in time
+    private final LongAdder refused = new LongAdder(); // Confirmations refused in SYNC mode
+    private final LongAdder dropped = new LongAdder(); // Records not sent because replication had stopped
+    private volatile boolean streaming;
+    private Socket socket;
+    private Thread sender;
+    private Thread ackReader;
+
+    public ReplicationPrimary(final int port, final ReplicationMode mode) {
+        this(port, mode, 500, 100, 100_000);
+    }
+
+    public ReplicationPrimary(final int port, final ReplicationMode mode, final long syncTimeoutMillis,
+                              final long heartbeatMillis, final int queueCapacity) {
+        this.port = port;
+        this.mode = mode;
+        this.syncTimeoutMillis = syncTimeoutMillis;
+        this.heartbeatMillis = heartbeatMillis;
+        this.outbox = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    // Connects to the standby; it should be attached before sales start, earlier state is not sent
+    public void start() throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        streaming = true;
+        sender = new Thread(this::sendLoop, "replication-sender");
+        sender.setDaemon(true);
+        sender.start();
+        ackReader = new Thread(this::ackLoop, "replication-acks");
+        ackReader.setDaemon(true);
+        ackReader.start();
+        EventLog.record(LogEvent.REPLICATION_CONNECTED, mode.name(), port);
+    }
+
+    // Stops at once; records still queued are not sent (to the standby this looks like a crash)
+    public void shutdown() {
+        stop();
+        if (sender != null) {
+            sender.interrupt();
+        }
+    }
+
+    @Override
+    public void onSeatsLocked(final Show show, final List<Seat> seats, final User user) {
+        append(ReplicationRecordType.SEATS_HELD, seatsPayload(show, seats, user));
+    }
+
+    @Override
+    public void onSeatsUnlocked(final Show show, final List<Seat> seats, final User user) {
+        append(ReplicationRecordType.SEATS_RELEASED, seatsPayload(show, seats, user));
+    }
+
+    @Override
+    public void onSeatsExpired(final Show show, final List<Seat> seats, final User user) {
+        append(ReplicationRecordType.SEATS_EXPIRED, seatsPayload(show, seats, user));
+    }
+
+    @Override
+    public void onBookingCreated(final Booking booking) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeUTF(booking.getId());
+            out.writeInt(booking.getAmount());
+            writeSeats(out, booking.getShow(), booking.getSeatsBooked(), booking.getUser());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In-memory stream, cannot happen
+        }
+        append(ReplicationRecordType.BOOKING_CREATED, bytes.toByteArray());
+    }
+
+    // SYNC mode: replicates the confirmation and refuses it unless the standby acknowledged it. Runs under the
+    // booking's lock with the booking CREATED, so a confirmation sent here is always made locally as well
+    @Override
+    public void beforeBookingConfirmed(final Booking booking) throws Exception {
+        if (mode != ReplicationMode.SYNC) return;
+        final long sequence = append(ReplicationRecordType.BOOKING_CONFIRMED, idPayload(booking));
+        if (sequence == 0) {
+            refused.increment();
+            throw new Exception("Standby lost, Booking ID " + booking.getId() + " cannot be confirmed.");
+        }
+        if (!awaitAck(sequence)) {
+            stop(); // Its copy may or may not have the confirmation now, it can't be trusted any more
+            refused.increment();
+            throw new Exception("Standby did not acknowledge Booking ID " + booking.getId() + ", confirmation refused.");
+        }
+    }
+
+    @Override
+    public void onBookingConfirmed(final Booking booking) {
+        if (mode == ReplicationMode.ASYNC) { // SYNC mode sent it from beforeBookingConfirmed
+            append(ReplicationRecordType.BOOKING_CONFIRMED, idPayload(booking));
+        }
+    }
+
+    @Override
+    public void onBookingExpired(final Booking booking) {
+        append(ReplicationRecordType.BOOKING_EXPIRED, idPayload(booking));
+    }
+
+    @Override
+    public void onBookingCancelled(final Booking booking) {
+        append(ReplicationRecordType.BOOKING_CANCELLED, idPayload(booking));
+    }
+
+    // Queues the record; returns its sequence number, or 0 when replication has stopped
+    private long append(final ReplicationRecordType type, final byte[] payload) {
+        if (!streaming) {
+            dropped.increment();
+            return 0;
+        }
+        final byte[] frame = new byte[8 + 8 + 1 + payload.length];
+        final long now = System.currentTimeMillis();
+        System.arraycopy(payload, 0, frame, 17, payload.length);
+        frame[16] = (byte) type.ordinal();
+        putLong(frame, 8, now);
+        synchronized (sequenceLock) {
+            final long sequence = lastSequence + 1;
+            putLong(frame, 0, sequence);
+            if (!outbox.offer(frame)) {
+                stop(); // The standby can't keep up; a gap in the log would silently corrupt it
+                dropped.increment();
+                return 0;
+            }
+            lastSequence = sequence;
+            return sequence;
+        }
+    }
+
+    // Whether the standby acknowledged the record in time; false as well when replication stopped meanwhile
+    private boolean awaitAck(final long sequence) {
+        final long deadline = System.currentTimeMillis() + syncTimeoutMillis;
+        synchronized (ackMonitor) {
+            while (ackedSequence < sequence) {
+                if (!streaming) return false;
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    syncTimeouts.increment();
+                    return false;
+                }
+                try {
+                    ackMonitor.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private void sendLoop() {
+        try {
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+            final byte[] heartbeat = new byte[17];
+            heartbeat[16] = (byte) ReplicationRecordType.HEARTBEAT.ordinal();
+            while (streaming) {
+                byte[] frame = outbox.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                if (frame == null) {
+                    putLong(heartbeat, 8, System.currentTimeMillis()); // Sequence 0: not a log record
+                    out.writeInt(heartbeat.length);
+                    out.write(heartbeat);
+                } else {
+                    do {
+                        out.writeInt(frame.length);
+                        out.write(frame);
+                    } while ((frame = outbox.poll()) != null);
+                }
+                out.flush();
+            }
+        } catch (IOException | InterruptedException e) {
+            stop();
+        }
+    }
+
+    private void ackLoop() {
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            while (true) {
+                final long sequence = in.readLong();
+                final long recordedAt = in.readLong();
+                final long lag = System.currentTimeMillis() - recordedAt;
+                lastAckLagMillis = lag;
+                if (lag > maxAckLagMillis) {
+                    maxAckLagMillis = lag;
+                }
+                synchronized (ackMonitor) {
+                    ackedSequence = sequence;
+                    ackMonitor.notifyAll();
+                }
+            }
+        } catch (IOException e) {
+            stop();
+        }
+    }
+
+    private void stop() {
+        synchronized (ackMonitor) {
+            if (!streaming) return;
+            streaming = false;
+            ackMonitor.notifyAll(); // Waiting confirmations are refused
+        }
+        outbox.clear();
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+        EventLog.record(LogEvent.REPLICATION_STOPPED, getLastSequence(), ackedSequence);
+    }
+
+    private static byte[] seatsPayload(final Show show, final List<Seat> seats, final User user) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 4 * seats.size());
+        try {
+            writeSeats(new DataOutputStream(bytes), show, seats, user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // show ID | user name | user email | seat count | seat IDs
+    private static void writeSeats(final DataOutputStream out, final Show show, final List<Seat> seats, final User user)
+            throws IOException {
+        out.writeInt(show.getId());
+        out.writeUTF(user.getUserName());
+        out.writeUTF(user.getUserEmail());
+        out.writeInt(seats.size());
+        for (Seat seat : seats) {
+            out.writeInt(seat.getSeatId());
+        }
+    }
+
+    private static byte[] idPayload(final Booking booking) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try {
+            new DataOutputStream(bytes).writeUTF(booking.getId());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void putLong(final byte[] bytes, final int offset, final long value) {
+        for (int i = 0; i < 8; i++) {
+            bytes[offset + i] = (byte) (value >>> (56 - 8 * i)); // Big-endian, as DataInputStream reads it
+        }
+    }
+
+    // Getters Section Start
+    public ReplicationMode getMode() {
+        return mode;
+    }
+    public boolean isStreaming() {
+        return streaming;
+    }
+    public long getLastSequence() {
+        synchronized (sequenceLock) {
+            return lastSequence;
+        }
+    }
+    public long getAckedSequence() {
+        return ackedSequence;
+    }
+    // Records the standby has not acknowledged yet
+    public long getLagRecords() {
+        return getLastSequence() - ackedSequence;
+    }
+    public long getLastAckLagMillis() {
+        return lastAckLagMillis;
+    }
+    public long getMaxAckLagMillis() {
+        return maxAckLagMillis;
+    }
+    public long getSyncTimeoutCount() {
+        return syncTimeouts.sum();
+    }
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+    public long getRefusedCount() {
+        return refused.sum();
+    }
+    // Getters Section End
+}
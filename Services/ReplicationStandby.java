@@ -0,0 +1,280 @@
+package Services;
+
+import CommonEnum.BookingStatus;
+import CommonEnum.LogEvent;
+import CommonEnum.ReplicationRecordType;
+import CoreClasses.Booking;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.ISeatLockProvider;
+import Interfaces.ShowLifecycleListener;
+import Utilities.EventLog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Standby side of hot-standby replication. Listens on a local port for a ReplicationPrimary and
+ * applies its change log, in order, to this process's own BookingService and seat lock provider.
+ * Both processes must build the same catalog (same show and seat IDs). Users are matched by name
+ * and email; resolveUser() hands out the standby's instance, which its holds belong to.
+ *
+ * The standby's lock cleanup must not run while it follows a primary: expiries arrive in the log.
+ * Booking observers of the standby see replicated confirmations and cancellations like local ones,
+ * so leave out the ones with outside effects, such as confirmation emails.
+ *
+ * When the primary goes quiet for primaryTimeoutMillis (it sends heartbeats while idle) or its
+ * connection drops, the standby promotes itself if autoPromote is set; promote() can also be called
+ * directly. Promotion waits for the record being applied, disconnects and runs onPromotion (e.g. to
+ * start the lock cleanup). Failover time is measured from the last moment the primary was heard.
+ *
+ * A quiet primary may only be stalled (a long GC pause), so auto-promotion is off by default. It is
+ * safe with a SYNC primary: that one can't confirm without this standby's acknowledgement, and the
+ * disconnect on promotion means it never gets one again. An ASYNC primary keeps selling; promote
+ * its standby only once the primary is known to be dead.
+ */
+public class ReplicationStandby implements ShowLifecycleListener {
+
+    private static final int ACK_BATCH = 256;
+
+    private final ShowService showService;
+    private final BookingService bookingService;
+    private final ISeatLockProvider seatLockProvider;
+    private final long primaryTimeoutMillis;
+    private final boolean autoPromote;
+    private final Runnable onPromotion; // Null when nothing extra has to start
+    private final ServerSocket serverSocket;
+    private final Map<String, User> users = new ConcurrentHashMap<>(); // key = name + '\n' + email
+    private final Map<Integer, Map<Integer, Seat>> seatsByShow = new ConcurrentHashMap<>(); // show ID -> seat ID -> seat
+    private final LongAdder applyErrors = new LongAdder(); // Records that did not match this process's state
+    private volatile Socket socket;
+    private volatile boolean promoted;
+    private volatile long appliedSequence;
+    private volatile long lastHeardAt; // Last frame (record or heartbeat) from the primary
+    private volatile long lastApplyLagMillis; // Record creation on the primary to applied here
+    private volatile long maxApplyLagMillis;
+    private volatile long failoverMillis = -1; // Primary last heard to promotion done, -1 until promoted
+    private volatile long promotionMillis = -1; // Time promote() itself took
+
+    public ReplicationStandby(final int port, final ShowService showService, final BookingService bookingService,
+                              final ISeatLockProvider seatLockProvider) throws IOException {
+        this(port, showService, bookingService, seatLockProvider, 1000, false, null);
+    }
+
+    public ReplicationStandby(final int port, final ShowService showService, final BookingService bookingService,
+                              final ISeatLockProvider seatLockProvider, final long primaryTimeoutMillis,
+                              final boolean autoPromote, final Runnable onPromotion) throws IOException {
+        this.showService = showService;
+        this.bookingService = bookingService;
+        this.seatLockProvider = seatLockProvider;
+        this.primaryTimeoutMillis = primaryTimeoutMillis;
+        this.autoPromote = autoPromote;
+        this.onPromotion = onPromotion;
+        this.serverSocket = new ServerSocket(port, 1, InetAddress.getLoopbackAddress()); // 0 = any free port
+    }
+
+    // Waits for the primary in the background and follows it
+    public void start() {
+        final Thread follower = new Thread(this::followLoop, "replication-standby");
+        follower.setDaemon(true);
+        follower.start();
+    }
+
+    /**
+     * Makes this process the primary: stops following, lets the record being applied finish and runs
+     * onPromotion. Unconfirmed bookings and their holds carry over and can be paid for here.
+     */
+    public synchronized void promote() {
+        if (promoted) return;
+        final long start = System.currentTimeMillis();
+        promoted = true;
+        closeQuietly();
+        if (onPromotion != null) {
+            onPromotion.run();
+        }
+        final long end = System.currentTimeMillis();
+        promotionMillis = end - start;
+        failoverMillis = end - (lastHeardAt == 0 ? start : lastHeardAt);
+        EventLog.record(LogEvent.STANDBY_PROMOTED, null, appliedSequence, failoverMillis, promotionMillis);
+    }
+
+    // The standby's own user for a name and email, the one replicated holds and bookings belong to
+    public User resolveUser(final String name, final String email) {
+        return users.computeIfAbsent(name + '\n' + email, key -> new User(name, email));
+    }
+
+    @Override
+    public void onShowRetired(final Show show) {
+        seatsByShow.remove(show.getId());
+    }
+
+    private void followLoop() {
+        try (Socket primary = serverSocket.accept()) {
+            socket = primary;
+            primary.setTcpNoDelay(true);
+            primary.setSoTimeout((int) primaryTimeoutMillis); // A read this quiet means the primary is gone
+            lastHeardAt = System.currentTimeMillis();
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(primary.getInputStream(), 64 * 1024));
+            final DataOutputStream acks = new DataOutputStream(new BufferedOutputStream(primary.getOutputStream()));
+            long unackedRecordedAt = -1; // Timestamp of the last applied record not yet acknowledged
+            int unacked = 0;
+            while (!promoted) {
+                final byte[] frame = new byte[in.readInt()];
+                in.readFully(frame);
+                lastHeardAt = System.currentTimeMillis();
+                final DataInputStream record = new DataInputStream(new ByteArrayInputStream(frame));
+                final long sequence = record.readLong();
+                final long recordedAt = record.readLong();
+                final ReplicationRecordType type = ReplicationRecordType.values()[record.readByte()];
+                if (type != ReplicationRecordType.HEARTBEAT) {
+                    apply(sequence, recordedAt, type, record);
+                    unackedRecordedAt = recordedAt;
+                    unacked++;
+                }
+                // Acknowledge everything so far once caught up, or every ACK_BATCH records under a steady stream
+                if (unacked > 0 && (in.available() == 0 || unacked >= ACK_BATCH)) {
+                    acks.writeLong(appliedSequence);
+                    acks.writeLong(unackedRecordedAt);
+                    acks.flush();
+                    unacked = 0;
+                }
+            }
+        } catch (IOException e) {
+            // Timed out, disconnected, or closed by promote()
+        } finally {
+            closeQuietly();
+        }
+        if (autoPromote) {
+            promote();
+        }
+    }
+
+    // Applied under the instance lock, so promote() never interleaves with half a record
+    private synchronized void apply(final long sequence, final long recordedAt, final ReplicationRecordType type,
+                                    final DataInputStream record) throws IOException {
+        if (promoted) return;
+        try {
+            switch (type) {
+                case SEATS_HELD: {
+                    final Show show = showService.getShow(record.readInt());
+                    final User user = resolveUser(record.readUTF(), record.readUTF());
+                    seatLockProvider.lockSeats(show, readSeats(show, record), user);
+                    break;
+                }
+                case SEATS_RELEASED:
+                case SEATS_EXPIRED: {
+                    final Show show = showService.getShow(record.readInt());
+                    final User user = resolveUser(record.readUTF(), record.readUTF());
+                    seatLockProvider.unlockSeats(show, readSeats(show, record), user);
+                    break;
+                }
+                case BOOKING_CREATED: {
+                    final String bookingId = record.readUTF();
+                    final int amount = record.readInt();
+                    final Show show = showService.getShow(record.readInt());
+                    final User user = resolveUser(record.readUTF(), record.readUTF());
+                    bookingService.restoreBooking(bookingId, user, show, readSeats(show, record), amount);
+                    break;
+                }
+                case BOOKING_CONFIRMED:
+                    bookingService.restoreConfirmation(bookingService.getBooking(record.readUTF()));
+                    break;
+                case BOOKING_EXPIRED: {
+                    final Booking booking = bookingService.getBooking(record.readUTF());
+                    if (booking.getBookingStatus() == BookingStatus.CREATED) {
+                        bookingService.abandonBooking(booking);
+                    }
+                    break;
+                }
+                case BOOKING_CANCELLED:
+                    bookingService.revokeBooking(bookingService.getBooking(record.readUTF()));
+                    break;
+                default:
+                    break;
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            applyErrors.increment(); // Diverged from the primary on this record; keep following
+        }
+        appliedSequence = sequence;
+        final long lag = System.currentTimeMillis() - recordedAt;
+        lastApplyLagMillis = lag;
+        if (lag > maxApplyLagMillis) {
+            maxApplyLagMillis = lag;
+        }
+    }
+
+    private List<Seat> readSeats(final Show show, final DataInputStream record) throws Exception {
+        final Map<Integer, Seat> seats = seatsByShow.computeIfAbsent(show.getId(), id -> {
+            final Map<Integer, Seat> byId = new HashMap<>();
+            for (Seat seat : show.getScreen().getSeats()) {
+                byId.put(seat.getSeatId(), seat);
+            }
+            return byId;
+        });
+        final int count = record.readInt();
+        final List<Seat> response = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int seatId = record.readInt();
+            final Seat seat = seats.get(seatId);
+            if (seat == null) {
+                throw new Exception("Seat " + seatId + " is not part of show " + show.getId());
+            }
+            response.add(seat);
+        }
+        return response;
+    }
+
+    private void closeQuietly() {
+        try {
+            serverSocket.close();
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException ignored) {
+            // Already closed
+        }
+    }
+
+    // Getters Section Start
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    public boolean isPromoted() {
+        return promoted;
+    }
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+    public long getLastApplyLagMillis() {
+        return lastApplyLagMillis;
+    }
+    public long getMaxApplyLagMillis() {
+        return maxApplyLagMillis;
+    }
+    public long getFailoverMillis() {
+        return failoverMillis;
+    }
+    public long getPromotionMillis() {
+        return promotionMillis;
+    }
+    public long getApplyErrorCount() {
+        return applyErrors.sum();
+    }
+    // Getters Section End
+}
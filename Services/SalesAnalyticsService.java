@@ -0,0 +1,176 @@
+package Services;
+
+import CommonEnum.SeatCategory;
+import CoreClasses.Booking;
+import CoreClasses.SalesStat;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import Interfaces.ShowLifecycleListener;
+import Utilities.SlidingWindowCounter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process sales aggregator fed by confirmed bookings. Keeps rolling (last 60 minutes) and
+ * cumulative seats-sold counters per movie, theatre, show and seat category, so dashboard
+ * queries only touch these counters and never scan BookingService's bookings.
+ */
+public class SalesAnalyticsService implements ShowLifecycleListener {
+
+    private static final SeatCategory[] CATEGORIES = SeatCategory.values();
+
+    private final Map<Integer, TrackedCounter> movieCounters = new ConcurrentHashMap<>(); // key = movie ID
+    private final Map<Integer, TrackedCounter> theatreCounters = new ConcurrentHashMap<>(); // key = theatre ID
+    private final Map<Integer, TrackedCounter> showCounters = new ConcurrentHashMap<>(); // key = show ID
+    private final SlidingWindowCounter[] categoryCounters = new SlidingWindowCounter[CATEGORIES.length];
+
+    public SalesAnalyticsService() {
+        for (int i = 0; i < categoryCounters.length; i++) {
+            categoryCounters[i] = new SlidingWindowCounter();
+        }
+    }
+
+    public void recordBooking(final Booking booking) {
+        recordBooking(booking, System.currentTimeMillis());
+    }
+
+    public void recordBooking(final Booking booking, final long nowMillis) {
+        final Show show = booking.getShow();
+        final List<Seat> seats = booking.getSeatsBooked();
+        final long seatCount = seats.size();
+        // Counters are only created the first time a movie/theatre/show sells, after that updates don't allocate
+        counterFor(movieCounters, show.getMovie().getMovieId(), show.getMovie().getMovieName(), 0)
+                .counter.add(seatCount, nowMillis);
+        counterFor(theatreCounters, show.getScreen().getTheatre().getTheatreId(),
+                show.getScreen().getTheatre().getTheatreName(), 0).counter.add(seatCount, nowMillis);
+        showCounterFor(show).counter.add(seatCount, nowMillis);
+        for (Seat seat : seats) {
+            categoryCounters[seat.getSeatCategory().ordinal()].add(1, nowMillis);
+        }
+    }
+
+    /**
+     * Takes a cancelled booking's seats back out of every counter it was added to. Windowed sums lose
+     * them in the minute the booking was made (it was sold within its hold, so at most about a minute
+     * off); a booking older than the window only leaves the cumulative totals.
+     */
+    public void recordCancellation(final Booking booking) {
+        recordCancellation(booking, System.currentTimeMillis());
+    }
+
+    public void recordCancellation(final Booking booking, final long nowMillis) {
+        final Show show = booking.getShow();
+        final List<Seat> seats = booking.getSeatsBooked();
+        final long seatCount = seats.size();
+        final long soldAtMillis = booking.getCreatedAt();
+        subtract(movieCounters.get(show.getMovie().getMovieId()), seatCount, soldAtMillis, nowMillis);
+        subtract(theatreCounters.get(show.getScreen().getTheatre().getTheatreId()), seatCount, soldAtMillis, nowMillis);
+        subtract(showCounters.get(show.getId()), seatCount, soldAtMillis, nowMillis); // Gone if the show was retired
+        for (Seat seat : seats) {
+            categoryCounters[seat.getSeatCategory().ordinal()].subtract(1, soldAtMillis, nowMillis);
+        }
+    }
+
+    private static void subtract(final TrackedCounter tracked, final long amount, final long soldAtMillis,
+                                 final long nowMillis) {
+        if (tracked != null) {
+            tracked.counter.subtract(amount, soldAtMillis, nowMillis);
+        }
+    }
+
+    public List<SalesStat> getTopMovies(final int n, final int windowMinutes) {
+        return topN(movieCounters, n, windowMinutes);
+    }
+
+    public List<SalesStat> getTopTheatres(final int n, final int windowMinutes) {
+        return topN(theatreCounters, n, windowMinutes);
+    }
+
+    public SalesStat getShowSales(final int showId, final int windowMinutes) {
+        checkWindow(windowMinutes);
+        final TrackedCounter tracked = showCounters.get(showId);
+        if (tracked == null) {
+            return new SalesStat(showId, "Show " + showId, 0, windowMinutes);
+        }
+        return new SalesStat(showId, tracked.name, tracked.counter.sum(windowMinutes, System.currentTimeMillis()), windowMinutes);
+    }
+
+    // Movie and theatre totals keep the show's sales; only its own counter goes
+    @Override
+    public void onShowRetired(final Show show) {
+        showCounters.remove(show.getId());
+    }
+
+    public Map<SeatCategory, SalesStat> getSalesByCategory(final int windowMinutes) {
+        checkWindow(windowMinutes);
+        final long now = System.currentTimeMillis();
+        final Map<SeatCategory, SalesStat> response = new EnumMap<>(SeatCategory.class);
+        for (SeatCategory category : CATEGORIES) {
+            response.put(category, new SalesStat(category.ordinal(), category.name(),
+                    categoryCounters[category.ordinal()].sum(windowMinutes, now), windowMinutes));
+        }
+        return response;
+    }
+
+    // Share of the show's seats sold so far (cumulative), 0 when nothing has sold yet
+    public double getFillRate(final int showId) {
+        final TrackedCounter tracked = showCounters.get(showId);
+        if (tracked == null || tracked.capacity == 0) {
+            return 0;
+        }
+        return (double) tracked.counter.getTotal() / tracked.capacity;
+    }
+
+    public long getTotalSeatsSold(final int movieId) {
+        final TrackedCounter tracked = movieCounters.get(movieId);
+        return tracked == null ? 0 : tracked.counter.getTotal();
+    }
+
+    private List<SalesStat> topN(final Map<Integer, TrackedCounter> counters, final int n, final int windowMinutes) {
+        checkWindow(windowMinutes);
+        final long now = System.currentTimeMillis();
+        // Min-heap of the best n so far, so the scan is over counters (one per key), never over bookings
+        final PriorityQueue<SalesStat> best = new PriorityQueue<>(n + 1, Comparator.comparingLong(SalesStat::getSeatsSold));
+        for (Map.Entry<Integer, TrackedCounter> entry : counters.entrySet()) {
+            final long sold = entry.getValue().counter.sum(windowMinutes, now);
+            if (sold == 0 || (best.size() == n && sold <= best.peek().getSeatsSold())) continue;
+            best.add(new SalesStat(entry.getKey(), entry.getValue().name, sold, windowMinutes));
+            if (best.size() > n) best.poll();
+        }
+        final List<SalesStat> response = new ArrayList<>(best);
+        response.sort(Comparator.comparingLong(SalesStat::getSeatsSold).reversed());
+        return response;
+    }
+
+    private static TrackedCounter counterFor(final Map<Integer, TrackedCounter> counters, final int id,
+                                             final String name, final int capacity) {
+        final TrackedCounter existing = counters.get(id);
+        return existing != null ? existing : counters.computeIfAbsent(id, key -> new TrackedCounter(name, capacity));
+    }
+
+    // The "movie @ start time" label is only built when the show's counter is first created
+    private TrackedCounter showCounterFor(final Show show) {
+        final TrackedCounter existing = showCounters.get(show.getId());
+        return existing != null ? existing : showCounters.computeIfAbsent(show.getId(), key -> new TrackedCounter(
+                show.getMovie().getMovieName() + " @ " + show.getStartTime(), show.getScreen().getSeats().size()));
+    }
+
+    private static void checkWindow(final int windowMinutes) {
+        if (windowMinutes < 1 || windowMinutes > SlidingWindowCounter.MAX_WINDOW_MINUTES) {
+            throw new IllegalArgumentException("Window must be between 1 and "
+                    + SlidingWindowCounter.MAX_WINDOW_MINUTES + " minutes, got " + windowMinutes);
+        }
+    }
+
+    private static final class TrackedCounter {
+        private final String name;
+        private final int capacity; // Seats in the show, only used for show counters
+        private final SlidingWindowCounter counter = new SlidingWindowCounter();
+
+        private TrackedCounter(final String name, final int capacity) {
+            this.name = name;
+            this.capacity = capacity;
+        }
+    }
+}
@@ -4,8 +4,11 @@ import CoreClasses.Seat;
 import CoreClasses.Show;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import Interfaces.ISeatLockProvider;
+import Utilities.SeatBitmap;
 
 public class SeatAvailabilityService {
 
@@ -15,14 +18,26 @@ public class SeatAvailabilityService {
     // Dependency for checking currently locked (but not yet booked) seats
     private final ISeatLockProvider seatLockProvider;
 
+    // Optional event-sourced view; when set it answers directly instead of merging bookings and locks
+    private final AvailabilityProjection availabilityProjection;
+
     // Constructor to initialize dependencies
     public SeatAvailabilityService(final BookingService bookingService, final ISeatLockProvider seatLockProvider) {
+        this(bookingService, seatLockProvider, null);
+    }
+
+    public SeatAvailabilityService(final BookingService bookingService, final ISeatLockProvider seatLockProvider,
+                                   final AvailabilityProjection availabilityProjection) {
         this.bookingService = bookingService;
         this.seatLockProvider = seatLockProvider;
+        this.availabilityProjection = availabilityProjection;
     }
 
     public List<Seat> getAvailableSeats(final Show show) {
-        // Fetch all seats for the show’s screen
+        if (availabilityProjection != null) {
+            return availabilityProjection.getAvailableSeats(show);
+        }
+        // Fetch all seats for the show’s screen (a frozen list, so the layout cannot change under us)
         final List<Seat> allSeats = show.getScreen().getSeats();
 
         // Get the list of currently unavailable seats (booked or locked)
@@ -34,6 +49,30 @@ public class SeatAvailabilityService {
         return availableSeats;
     }
 
+    // Seat map in layout order, one bit per seat
+    public SeatBitmap getSeatBitmap(final Show show) {
+        if (availabilityProjection != null) {
+            return availabilityProjection.getSeatBitmap(show);
+        }
+        final List<Seat> allSeats = show.getScreen().getSeats();
+        final Set<Seat> unavailable = new HashSet<>(getUnavailableSeats(show));
+        final long[] words = SeatBitmap.newWords(allSeats.size());
+        for (int i = 0; i < allSeats.size(); i++) {
+            if (!unavailable.contains(allSeats.get(i))) {
+                SeatBitmap.set(words, i);
+            }
+        }
+        return new SeatBitmap(allSeats.size(), words, 0); // Unversioned: updates are always full bitmaps
+    }
+
+    // Encoded seat map update for a client holding sinceVersion: a diff if possible, else the full bitmap
+    public byte[] getSeatBitmapUpdate(final Show show, final long sinceVersion) {
+        if (availabilityProjection != null) {
+            return availabilityProjection.getSeatBitmapUpdate(show, sinceVersion);
+        }
+        return getSeatBitmap(show).encode();
+    }
+
     private List<Seat> getUnavailableSeats(final Show show) {
         // Seats that are already booked
         final List<Seat> unavailableSeats = bookingService.getBookedSeats(show);
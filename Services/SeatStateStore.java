@@ -0,0 +1,113 @@
+package Services;
+
+import CommonEnum.SeatEventType;
+import CoreClasses.Booking;
+import CoreClasses.Seat;
+import CoreClasses.SeatEvent;
+import CoreClasses.SeatEventLog;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.BookingObserver;
+import Interfaces.SeatLockListener;
+import Interfaces.SeatStateProjection;
+import Interfaces.ShowLifecycleListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Event-sourced seat state. Every hold, release, expiry, sale and cancellation is appended to the show's
+ * SeatEventLog, which is the source of truth, and then applied to the registered projections
+ * (availability, occupancy, per-user holds, ...). A projection added later first catches up by
+ * replaying the existing logs, and any projection can be rebuilt from scratch with replay().
+ */
+public class SeatStateStore implements SeatLockListener, BookingObserver, ShowLifecycleListener {
+
+    private final Map<Integer, SeatEventLog> logs = new ConcurrentHashMap<>(); // key = show ID
+    private final List<SeatStateProjection> projections = new CopyOnWriteArrayList<>();
+    // Appends share this lock; adding a projection takes it exclusively so its catch-up replay misses nothing
+    private final ReadWriteLock registrationLock = new ReentrantReadWriteLock();
+
+    public void addProjection(final SeatStateProjection projection) {
+        registrationLock.writeLock().lock();
+        try {
+            replay(projection);
+            projections.add(projection);
+        } finally {
+            registrationLock.writeLock().unlock();
+        }
+    }
+
+    // Feeds every recorded event of every show to the projection; returns the number of events replayed
+    public long replay(final SeatStateProjection projection) {
+        long replayed = 0;
+        for (SeatEventLog log : logs.values()) {
+            replayed += log.replay(0, projection);
+        }
+        return replayed;
+    }
+
+    public long replay(final Show show, final SeatStateProjection projection) {
+        final SeatEventLog log = logs.get(show.getId());
+        return log == null ? 0 : log.replay(0, projection);
+    }
+
+    // The show's log, or null when nothing has happened to its seats yet
+    public SeatEventLog getLog(final Show show) {
+        return logs.get(show.getId());
+    }
+
+    // A retired show's log is dropped; projections forget the show themselves
+    @Override
+    public void onShowRetired(final Show show) {
+        logs.remove(show.getId());
+    }
+
+    @Override
+    public void onSeatsLocked(final Show show, final List<Seat> seats, final User user) {
+        record(show, SeatEventType.HOLD, seats, user);
+    }
+
+    @Override
+    public void onSeatsUnlocked(final Show show, final List<Seat> seats, final User user) {
+        record(show, SeatEventType.RELEASE, seats, user);
+    }
+
+    @Override
+    public void onSeatsExpired(final Show show, final List<Seat> seats, final User user) {
+        record(show, SeatEventType.EXPIRE, seats, user);
+    }
+
+    @Override
+    public void onBookingConfirmed(final Booking booking) {
+        record(booking.getShow(), SeatEventType.BOOK, booking.getSeatsBooked(), booking.getUser());
+    }
+
+    @Override
+    public void onBookingCancelled(final Booking booking) {
+        record(booking.getShow(), SeatEventType.CANCEL, booking.getSeatsBooked(), booking.getUser());
+    }
+
+    private void record(final Show show, final SeatEventType type, final List<Seat> seats, final User user) {
+        registrationLock.readLock().lock();
+        try {
+            final SeatEventLog log = logs.computeIfAbsent(show.getId(), id -> new SeatEventLog(show));
+            final long now = System.currentTimeMillis();
+            final SeatEvent event = new SeatEvent();
+            synchronized (log) { // Append and apply together, so projections see the show's events in log order
+                for (Seat seat : seats) {
+                    log.read(log.append(type, seat, user, now), event);
+                    for (SeatStateProjection projection : projections) {
+                        projection.apply(event);
+                    }
+                }
+            }
+        } finally {
+            registrationLock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package Services;
+
+import CommonEnum.LogEvent;
+import CommonEnum.ShowState;
+import CoreClasses.Show;
+import Interfaces.ShowLifecycleListener;
+import Utilities.EventLog;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves every registered show through ON_SALE, STARTED, FINISHED and RETIRED by the clock: it starts
+ * at its start time, finishes once its duration has run, and is retired retentionMinutes later.
+ * Listeners hear about each step. At retirement they drop what they keep for the show (lock tables,
+ * seat event logs, projections, listings, indexes), so memory and the lock sweeps only cover live
+ * shows. Bookings are not touched; they are the sales record.
+ *
+ * Pending steps sit in one queue ordered by due time and each tick only pops the due ones, so shows
+ * with nothing to do cost a tick nothing.
+ */
+public class ShowLifecycleService {
+
+    private static final Comparator<Transition> BY_DUE_TIME = Comparator.comparingLong(transition -> transition.dueAt);
+
+    private final long retentionMillis; // Time between a show finishing and being retired
+    private final Map<Integer, ShowState> states = new ConcurrentHashMap<>(); // Registered, not yet retired (key = show ID)
+    private final PriorityBlockingQueue<Transition> pending = new PriorityBlockingQueue<>(64, BY_DUE_TIME);
+    private final List<ShowLifecycleListener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "show-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ShowLifecycleService(final int retentionMinutes) {
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(retentionMinutes);
+    }
+
+    // Listeners are told in registration order, so register whatever others look shows up in last
+    public void addListener(final ShowLifecycleListener listener) {
+        listeners.add(listener);
+    }
+
+    // Puts a new show on sale; a show whose start time already passed moves on at the next tick
+    public void register(final Show show) {
+        if (states.putIfAbsent(show.getId(), ShowState.ON_SALE) == null) {
+            pending.add(new Transition(show, ShowState.STARTED, show.getStartTime().getTime()));
+        }
+    }
+
+    // Where the show stands, or null once it was retired (or if it was never registered)
+    public ShowState getState(final Show show) {
+        return states.get(show.getId());
+    }
+
+    public int getLiveShowCount() {
+        return states.size();
+    }
+
+    // Starts the background task that applies due steps every tickSeconds
+    public void start(final int tickSeconds) {
+        scheduler.scheduleAtFixedRate(() -> advance(System.currentTimeMillis()), 0, tickSeconds, TimeUnit.SECONDS);
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Applies every step due by nowMillis, a show possibly taking several at once; returns how many.
+     * Synchronized so the steps of a show always reach listeners in order.
+     */
+    public synchronized int advance(final long nowMillis) {
+        int applied = 0;
+        Transition transition;
+        while ((transition = pollDue(nowMillis)) != null) {
+            final Show show = transition.show;
+            final ShowState state = transition.state;
+            if (state == ShowState.RETIRED) {
+                states.remove(show.getId());
+            } else {
+                states.put(show.getId(), state);
+            }
+            EventLog.record(LogEvent.SHOW_STATE_CHANGED, state.ordinal(), show.getId());
+            for (ShowLifecycleListener listener : listeners) {
+                try {
+                    notify(listener, show, state);
+                } catch (RuntimeException e) {
+                    EventLog.record(LogEvent.SHOW_LIFECYCLE_LISTENER_FAILED, listener.getClass().getSimpleName(),
+                            state.ordinal(), show.getId(), 0);
+                }
+            }
+            if (state == ShowState.STARTED) {
+                final long finishAt = transition.dueAt + TimeUnit.MINUTES.toMillis(show.getdurationInMinutes());
+                pending.add(new Transition(show, ShowState.FINISHED, finishAt));
+            } else if (state == ShowState.FINISHED) {
+                pending.add(new Transition(show, ShowState.RETIRED, transition.dueAt + retentionMillis));
+            }
+            applied++;
+        }
+        return applied;
+    }
+
+    private Transition pollDue(final long nowMillis) {
+        final Transition next = pending.peek();
+        return next == null || next.dueAt > nowMillis ? null : pending.poll(); // Only this method polls
+    }
+
+    private static void notify(final ShowLifecycleListener listener, final Show show, final ShowState state) {
+        switch (state) {
+            case STARTED:
+                listener.onShowStarted(show);
+                break;
+            case FINISHED:
+                listener.onShowFinished(show);
+                break;
+            case RETIRED:
+                listener.onShowRetired(show);
+                break;
+        }
+    }
+
+    private static final class Transition {
+        private final Show show;
+        private final ShowState state; // State the show moves to
+        private final long dueAt;
+
+        private Transition(final Show show, final ShowState state, final long dueAt) {
+            this.show = show;
+            this.state = state;
+            this.dueAt = dueAt;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package Services;
+
+import CommonEnum.SeatCategory;
+import CoreClasses.Movie;
+import CoreClasses.NearbyShow;
+import CoreClasses.Show;
+import CoreClasses.ShowOccupancy;
+import CoreClasses.Theatre;
+import Utilities.GeoGrid;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Answers "shows near me": screenings of a movie within a time window at theatres around a point,
+ * sorted by distance and then start time. Theatres come from the geohash index in TheatreService,
+ * shows from the per-movie, per-theatre index in ShowService, and seat counts from the OccupancyTracker,
+ * so no query scans all theatres or all shows.
+ */
+public class ShowSearchService {
+
+    private static final Comparator<NearbyShow> BY_DISTANCE_THEN_START = Comparator
+            .comparingDouble(NearbyShow::getDistanceKm)
+            .thenComparing(nearby -> nearby.getShow().getStartTime());
+
+    private final TheatreService theatreService;
+    private final ShowService showService;
+    private final OccupancyTracker occupancyTracker;
+
+    public ShowSearchService(final TheatreService theatreService, final ShowService showService,
+                             final OccupancyTracker occupancyTracker) {
+        this.theatreService = theatreService;
+        this.showService = showService;
+        this.occupancyTracker = occupancyTracker;
+    }
+
+    // Every show of the movie starting within [from, to] at a theatre within radiusKm
+    public List<NearbyShow> findShowsWithin(final Movie movie, final double latitude, final double longitude,
+                                            final double radiusKm, final Date from, final Date to) {
+        final List<NearbyShow> response = new ArrayList<>();
+        for (GeoGrid.Match<Theatre> match : theatreService.getTheatresWithin(latitude, longitude, radiusKm)) {
+            addShows(movie, match, from, to, response);
+        }
+        response.sort(BY_DISTANCE_THEN_START);
+        return response;
+    }
+
+    /**
+     * Shows of the movie starting within [from, to] at the k nearest theatres that have any.
+     * The search radius grows until k such theatres are found, so sparse areas still get answers.
+     */
+    public List<NearbyShow> findNearestShows(final Movie movie, final double latitude, final double longitude,
+                                             final int k, final Date from, final Date to) {
+        final List<NearbyShow> response = new ArrayList<>();
+        for (GeoGrid.Match<Theatre> match : theatreService.getNearestTheatres(latitude, longitude, k,
+                theatre -> !showService.getShowsByMovieInTheatre(movie, theatre.getTheatreId(), from, to).isEmpty())) {
+            addShows(movie, match, from, to, response);
+        }
+        response.sort(BY_DISTANCE_THEN_START);
+        return response;
+    }
+
+    // Adds the theatre's matching shows to the response; returns whether there were any
+    private boolean addShows(final Movie movie, final GeoGrid.Match<Theatre> match, final Date from, final Date to,
+                             final List<NearbyShow> response) {
+        final List<Show> shows = showService.getShowsByMovieInTheatre(movie, match.getValue().getTheatreId(), from, to);
+        for (Show show : shows) {
+            response.add(new NearbyShow(show, match.getDistanceKm(), availableSeats(show)));
+        }
+        return !shows.isEmpty();
+    }
+
+    private int availableSeats(final Show show) {
+        final ShowOccupancy occupancy = occupancyTracker.getOccupancy(show);
+        int available = 0;
+        for (SeatCategory category : SeatCategory.values()) {
+            available += occupancy.getRemaining(category);
+        }
+        return available;
+    }
+}
@@ -3,18 +3,38 @@ package Services;
 import CoreClasses.Screen;
 import CoreClasses.Show;
 import CoreClasses.Movie;
+import CoreClasses.ShowtimeListingPage;
+import Interfaces.ShowLifecycleListener;
 
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
-public class ShowService {
+public class ShowService implements ShowLifecycleListener {
     private final Map<Integer, Show> shows;  // Map to hold all created shows (key = show ID)
     private final AtomicInteger showCounter;  // Counter to generate unique IDs for each show
+    // Shows per movie and theatre, each list sorted by start time (key = movie ID, then theatre ID).
+    // Lists are replaced, never modified, so readers can scan them without locking.
+    private final Map<Integer, Map<Integer, List<Show>>> showsByMovieAndTheatre;
+    private final ShowtimeListingView listingView; // Per-day showtime listings, null when not enabled
+    private final ShowLifecycleService lifecycle; // Puts new shows on its schedule, null when not enabled
 
     // Constructor initializing the shows map and show counter
     public ShowService() {
-        this.shows = new HashMap<>();
+        this(null);
+    }
+
+    public ShowService(final ShowtimeListingView listingView) {
+        this(listingView, null);
+    }
+
+    public ShowService(final ShowtimeListingView listingView, final ShowLifecycleService lifecycle) {
+        this.listingView = listingView;
+        this.lifecycle = lifecycle;
+        this.shows = new ConcurrentHashMap<>();
         this.showCounter = new AtomicInteger(0);
+        this.showsByMovieAndTheatre = new ConcurrentHashMap<>();
     }
 
     // Retrieves a show by ID, throws exception if not found
@@ -31,9 +51,71 @@ public class ShowService {
         // Create and store the new show
         final Show show = new Show(showId, movie, screen, startTime, durationInSeconds);
         this.shows.put(showId, show);
+        showsByMovieAndTheatre.compute(movie.getMovieId(), (movieId, byTheatre) -> {
+            final Map<Integer, List<Show>> theatres = byTheatre == null ? new ConcurrentHashMap<>() : byTheatre;
+            theatres.compute(screen.getTheatre().getTheatreId(), (id, theatreShows) -> {
+                final List<Show> updated = theatreShows == null ? new ArrayList<>(1) : new ArrayList<>(theatreShows);
+                int index = updated.size();
+                while (index > 0 && updated.get(index - 1).getStartTime().after(startTime)) {
+                    index--; // Shows are mostly scheduled in time order, so this rarely moves far
+                }
+                updated.add(index, show);
+                return Collections.unmodifiableList(updated);
+            });
+            return theatres;
+        });
+        if (listingView != null) {
+            listingView.addShow(show);
+        }
+        if (lifecycle != null) {
+            lifecycle.register(show);
+        }
         return show;
     }
 
+    // Forgets the show: it can no longer be looked up, listed or searched
+    @Override
+    public void onShowRetired(final Show show) {
+        shows.remove(show.getId());
+        showsByMovieAndTheatre.computeIfPresent(show.getMovie().getMovieId(), (movieId, byTheatre) -> {
+            byTheatre.computeIfPresent(show.getScreen().getTheatre().getTheatreId(), (id, theatreShows) -> {
+                final List<Show> updated = new ArrayList<>(theatreShows);
+                updated.remove(show);
+                return updated.isEmpty() ? null : Collections.unmodifiableList(updated);
+            });
+            return byTheatre.isEmpty() ? null : byTheatre;
+        });
+        if (listingView != null) {
+            listingView.removeShow(show);
+        }
+    }
+
+    // One page of the movie's showtimes on the date, grouped by theatre, with seats left per category
+    public ShowtimeListingPage getShowtimeListing(final Movie movie, final LocalDate date, final Integer afterTheatreId,
+                                                  final int limit) throws Exception {
+        if (listingView == null) {
+            throw new Exception("Showtime listings are not enabled.");
+        }
+        return listingView.getPage(movie, date, afterTheatreId, limit);
+    }
+
+    // Shows of the movie in the theatre starting within [from, to], earliest first
+    public List<Show> getShowsByMovieInTheatre(final Movie movie, final int theatreId, final Date from, final Date to) {
+        final Map<Integer, List<Show>> byTheatre = showsByMovieAndTheatre.get(movie.getMovieId());
+        final List<Show> theatreShows = byTheatre == null ? null : byTheatre.get(theatreId);
+        if (theatreShows == null) {
+            return Collections.emptyList();
+        }
+        final List<Show> response = new ArrayList<>();
+        for (Show show : theatreShows) {
+            if (show.getStartTime().after(to)) break;
+            if (!show.getStartTime().before(from)) {
+                response.add(show);
+            }
+        }
+        return response;
+    }
+
     private List<Show> getShowsForScreen(final Screen screen) {
         final List<Show> response = new ArrayList<>();
         for (Show show : shows.values()) {
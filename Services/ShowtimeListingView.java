@@ -0,0 +1,144 @@
+package Services;
+
+import CommonEnum.SeatCategory;
+import CoreClasses.Movie;
+import CoreClasses.Show;
+import CoreClasses.ShowOccupancy;
+import CoreClasses.ShowtimeEntry;
+import CoreClasses.ShowtimeListingPage;
+import CoreClasses.Theatre;
+import CoreClasses.TheatreShowtimes;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Materialized "showtimes for a movie on a day, grouped by theatre" listing. Shows are filed under
+ * (movie, local date) and then theatre ID when they are created, already joined with their theatre,
+ * so serving a page is one ordered range read. Seats left per category come from the ShowOccupancy
+ * counters the OccupancyTracker keeps up to date from hold, release and booking events; nothing is
+ * recounted when a page is read.
+ *
+ * Theatre lists are replaced, never modified, so pages are read without locking. Adding and removing
+ * shows go through compute on the (movie, date) entry, so an emptied day can be dropped safely.
+ */
+public class ShowtimeListingView {
+
+    private static final SeatCategory[] CATEGORIES = SeatCategory.values();
+
+    private final OccupancyTracker occupancyTracker;
+    private final ZoneId zone; // Decides which calendar day a show belongs to
+    // key = movie ID and epoch day (see listingKey), then theatre ID
+    private final Map<Long, NavigableMap<Integer, TheatreListing>> listings = new ConcurrentHashMap<>();
+
+    public ShowtimeListingView(final OccupancyTracker occupancyTracker) {
+        this(occupancyTracker, ZoneId.systemDefault());
+    }
+
+    public ShowtimeListingView(final OccupancyTracker occupancyTracker, final ZoneId zone) {
+        this.occupancyTracker = occupancyTracker;
+        this.zone = zone;
+    }
+
+    public void addShow(final Show show) {
+        final LocalDate date = show.getStartTime().toInstant().atZone(zone).toLocalDate();
+        final Theatre theatre = show.getScreen().getTheatre();
+        listings.compute(listingKey(show.getMovie().getMovieId(), date), (key, byTheatre) -> {
+            final NavigableMap<Integer, TheatreListing> updated = byTheatre == null ? new ConcurrentSkipListMap<>() : byTheatre;
+            updated.compute(theatre.getTheatreId(), (id, listing) -> {
+                final List<ListedShow> shows = listing == null ? new ArrayList<>(1) : new ArrayList<>(listing.shows);
+                int index = shows.size();
+                while (index > 0 && shows.get(index - 1).show.getStartTime().after(show.getStartTime())) {
+                    index--;
+                }
+                shows.add(index, new ListedShow(show));
+                return new TheatreListing(theatre, Collections.unmodifiableList(shows));
+            });
+            return updated;
+        });
+    }
+
+    // Takes the show off its day's listing, dropping the theatre and the day once they have no shows left
+    public void removeShow(final Show show) {
+        final LocalDate date = show.getStartTime().toInstant().atZone(zone).toLocalDate();
+        listings.computeIfPresent(listingKey(show.getMovie().getMovieId(), date), (key, byTheatre) -> {
+            byTheatre.computeIfPresent(show.getScreen().getTheatre().getTheatreId(), (id, listing) -> {
+                final List<ListedShow> shows = new ArrayList<>(listing.shows);
+                shows.removeIf(listed -> listed.show.getId() == show.getId());
+                return shows.isEmpty() ? null : new TheatreListing(listing.theatre, Collections.unmodifiableList(shows));
+            });
+            return byTheatre.isEmpty() ? null : byTheatre;
+        });
+    }
+
+    /**
+     * Up to limit theatres screening the movie on the date, in theatre ID order, starting after the
+     * given theatre ID (null for the first page).
+     */
+    public ShowtimeListingPage getPage(final Movie movie, final LocalDate date, final Integer afterTheatreId,
+                                       final int limit) {
+        final NavigableMap<Integer, TheatreListing> byTheatre = listings.get(listingKey(movie.getMovieId(), date));
+        final List<TheatreShowtimes> theatres = new ArrayList<>();
+        Integer nextAfterTheatreId = null;
+        if (byTheatre != null) {
+            final NavigableMap<Integer, TheatreListing> range = afterTheatreId == null
+                    ? byTheatre : byTheatre.tailMap(afterTheatreId, false);
+            for (TheatreListing listing : range.values()) {
+                if (theatres.size() == limit) {
+                    nextAfterTheatreId = theatres.get(limit - 1).getTheatre().getTheatreId();
+                    break;
+                }
+                final List<ShowtimeEntry> showtimes = new ArrayList<>(listing.shows.size());
+                for (ListedShow listed : listing.shows) {
+                    showtimes.add(new ShowtimeEntry(listed.show, remainingSeats(listed)));
+                }
+                theatres.add(new TheatreShowtimes(listing.theatre, showtimes));
+            }
+        }
+        return new ShowtimeListingPage(movie, date, theatres, nextAfterTheatreId);
+    }
+
+    private int[] remainingSeats(final ListedShow listed) {
+        ShowOccupancy occupancy = listed.occupancy;
+        if (occupancy == null) {
+            // Resolved on first read, not in addShow: screens may still be getting seats when a show is scheduled
+            occupancy = occupancyTracker.getOccupancy(listed.show);
+            listed.occupancy = occupancy;
+        }
+        final int[] remaining = new int[CATEGORIES.length];
+        for (SeatCategory category : CATEGORIES) {
+            remaining[category.ordinal()] = occupancy.getRemaining(category);
+        }
+        return remaining;
+    }
+
+    private static long listingKey(final int movieId, final LocalDate date) {
+        return (long) movieId << 32 | (date.toEpochDay() & 0xFFFFFFFFL);
+    }
+
+    private static final class TheatreListing {
+        private final Theatre theatre;
+        private final List<ListedShow> shows; // Earliest first
+
+        private TheatreListing(final Theatre theatre, final List<ListedShow> shows) {
+            this.theatre = theatre;
+            this.shows = shows;
+        }
+    }
+
+    private static final class ListedShow {
+        private final Show show;
+        private volatile ShowOccupancy occupancy; // Cached tracker counters, shared with every other reader
+
+        private ListedShow(final Show show) {
+            this.show = show;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package Services;
+
+import CommonEnum.RequestPriority;
+import CoreClasses.Show;
+import Utilities.Bulkhead;
+import Utilities.TheatrePartitioner;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * One Bulkhead per theatre partition. Controllers run theatre-specific work through call(), so a
+ * theatre (or chain) that is flooded only exhausts its own partition's threads and queue. Uses the
+ * same TheatrePartitioner as the PartitionedSeatLockProvider, so a partition's work and its seat-lock
+ * shard line up.
+ */
+public class TheatreBulkheads {
+
+    private final TheatrePartitioner partitioner;
+    private final List<Bulkhead> bulkheads; // Indexed by partition
+
+    // maxWaitMillis: how long a caller waits for its work to start; keep it well inside the shortest hold
+    public TheatreBulkheads(final TheatrePartitioner partitioner, final int threadsPerPartition,
+                            final int queueLimitPerPartition, final long maxWaitMillis) {
+        this.partitioner = partitioner;
+        final List<Bulkhead> created = new ArrayList<>();
+        for (int partition = 0; partition < partitioner.getPartitionCount(); partition++) {
+            created.add(new Bulkhead("partition-" + partition, threadsPerPartition, queueLimitPerPartition, maxWaitMillis));
+        }
+        this.bulkheads = Collections.unmodifiableList(created);
+    }
+
+    public <T> T call(final Show show, final RequestPriority priority, final Callable<T> work) throws Exception {
+        return forTheatre(show.getScreen().getTheatre().getTheatreId()).call(priority, work);
+    }
+
+    public Bulkhead forTheatre(final int theatreId) {
+        return bulkheads.get(partitioner.partitionOf(theatreId));
+    }
+
+    // Saturation metrics of every partition
+    public List<Bulkhead> getBulkheads() {
+        return bulkheads;
+    }
+
+    public void shutdown() {
+        for (Bulkhead bulkhead : bulkheads) {
+            bulkhead.shutdown();
+        }
+    }
+}
@@ -2,91 +2,247 @@ package Services;
 
 
 import CommonEnum.SeatCategory;
+import CoreClasses.CatalogSnapshot;
 import CoreClasses.Screen;
 import CoreClasses.Seat;
+import CoreClasses.SeatLayout;
 import CoreClasses.Theatre;
+import Utilities.GeoGrid;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 public class TheatreService {
 
-    // Maps to hold all created theatres, screens, and seats
-    private final Map<Integer, Theatre> theatres;
-    private final Map<Integer, Screen> screens;
-    private final Map<Integer, Seat> seats;
+    private static final double FIRST_RADIUS_KM = 5; // About one geohash cell
+    private static final double MAX_DISTANCE_KM = 20_016; // Half the earth's circumference
+
+    // Current published catalog of theatres, screens, and seats. Readers never lock;
+    // admin edits build the next version and swap it in with a single volatile write.
+    // Each version freezes the lookups and every screen and seat list; Theatre and Screen objects
+    // are shared and only show a list once a version containing it was published.
+    private volatile CatalogSnapshot catalog;
+    // Serializes admin edits so no two writers build on the same base version
+    private final ReentrantLock catalogWriteLock;
+    // Reusable seat layout templates shared by many screens (key = layout name)
+    private final Map<String, SeatLayout> seatLayouts;
+    // Theatres with a known location, bucketed by geohash cell for "near me" queries
+    private final GeoGrid<Theatre> theatreLocations;
 
     // Atomic counters for generating unique IDs
     private final AtomicInteger theatreCounter;
     private final AtomicInteger screenCounter;
     private final AtomicInteger seatCounter;
 
-    // Constructor initializing all maps and counters
+    // Constructor initializing the empty catalog and counters
     public TheatreService() {
-        this.theatres = new HashMap<>();
-        this.screens = new HashMap<>();
-        this.seats = new HashMap<>();
+        this.catalog = CatalogSnapshot.EMPTY;
+        this.catalogWriteLock = new ReentrantLock();
+        this.seatLayouts = new ConcurrentHashMap<>();
+        this.theatreLocations = new GeoGrid<>();
         this.theatreCounter = new AtomicInteger(0);
         this.screenCounter = new AtomicInteger(0);
         this.seatCounter = new AtomicInteger(0);
     }
 
+    // Returns the current frozen catalog; callers needing several lookups to agree should use one snapshot
+    public CatalogSnapshot getCatalog() {
+        return catalog;
+    }
+
     // Retrieves a seat by ID, throws exception if not found
     public Seat getSeat(final int seatId) throws Exception {
-        if (!seats.containsKey(seatId)) {
+        final Seat seat = catalog.getSeat(seatId);
+        if (seat == null) {
             throw new Exception("Seat with ID " + seatId + " not found.");
         }
-        return seats.get(seatId);
+        return seat;
     }
 
     // Retrieves a theatre by ID, throws exception if not found
 
     public Theatre getTheatre(final int theatreId) throws Exception{
-        if (!theatres.containsKey(theatreId)) {
+        final Theatre theatre = catalog.getTheatre(theatreId);
+        if (theatre == null) {
             throw new Exception("Theatre with ID " + theatreId + " not found.");
         }
-        return theatres.get(theatreId);
+        return theatre;
     }
 
     // Retrieves a screen by ID, throws exception if not found
     public Screen getScreen(final int screenId) throws Exception  {
-        if (!screens.containsKey(screenId)) {
+        final Screen screen = catalog.getScreen(screenId);
+        if (screen == null) {
             throw new Exception("Screen with ID " + screenId + " not found.");
         }
-        return screens.get(screenId);
+        return screen;
     }
 
 
     // Creates a new theatre with a unique ID and stores it
     public Theatre createTheatre(final String theatreName) {
         int theatreId = theatreCounter.incrementAndGet(); // Generate unique ID
-        Theatre theatre = new Theatre(theatreId, theatreName);
-        theatres.put(theatreId, theatre); // Store theatre in map
+        return publishTheatre(new Theatre(theatreId, theatreName));
+    }
+
+    // Creates a new theatre at the given location and adds it to the spatial index
+    public Theatre createTheatre(final String theatreName, final double latitude, final double longitude) {
+        int theatreId = theatreCounter.incrementAndGet(); // Generate unique ID
+        return publishTheatre(new Theatre(theatreId, theatreName, latitude, longitude));
+    }
+
+    private Theatre publishTheatre(final Theatre theatre) {
+        catalogWriteLock.lock();
+        try {
+            catalog = catalog.toBuilder().putTheatre(theatre).build(); // Publish theatre in a new version
+            if (theatre.hasLocation()) {
+                theatreLocations.add(theatre, theatre.getLatitude(), theatre.getLongitude());
+            }
+        } finally {
+            catalogWriteLock.unlock();
+        }
         return theatre;
     }
 
+    // Theatres within radiusKm of the point, nearest first
+    public List<GeoGrid.Match<Theatre>> getTheatresWithin(final double latitude, final double longitude, final double radiusKm) {
+        final List<GeoGrid.Match<Theatre>> matches = theatreLocations.withinRadius(latitude, longitude, radiusKm);
+        matches.sort(Comparator.comparingDouble(GeoGrid.Match::getDistanceKm));
+        return matches;
+    }
+
+    // The k theatres nearest to the point, nearest first
+    public List<GeoGrid.Match<Theatre>> getNearestTheatres(final double latitude, final double longitude, final int k) {
+        return getNearestTheatres(latitude, longitude, k, theatre -> true);
+    }
+
+    /**
+     * The k theatres nearest to the point that pass the filter, nearest first. The radius starts at one
+     * grid cell and doubles, only counting theatres, until k pass or it covers the whole globe; the
+     * matches are then collected and sorted once, at that radius.
+     */
+    public List<GeoGrid.Match<Theatre>> getNearestTheatres(final double latitude, final double longitude, final int k,
+                                                           final Predicate<Theatre> filter) {
+        double radiusKm = FIRST_RADIUS_KM;
+        while (radiusKm < MAX_DISTANCE_KM && theatreLocations.countWithinRadius(latitude, longitude, radiusKm, filter) < k) {
+            radiusKm = Math.min(2 * radiusKm, MAX_DISTANCE_KM);
+        }
+        final List<GeoGrid.Match<Theatre>> matches = theatreLocations.withinRadius(latitude, longitude, radiusKm, filter);
+        matches.sort(Comparator.comparingDouble(GeoGrid.Match::getDistanceKm));
+        return matches.size() > k ? new ArrayList<>(matches.subList(0, k)) : matches;
+    }
+
     // Creates a new screen in the given theatre and links it
     public Screen createScreenInTheatre(final String screenName, final Theatre theatre) {
-        Screen screen = createScreen(screenName, theatre); // Create screen
-        theatre.addScreen(screen); // Add to theatre
+        int screenId = screenCounter.incrementAndGet(); // Generate unique ID
+        Screen screen = new Screen(screenId, screenName, theatre);
+        publishScreen(screen, theatre);
         return screen;
     }
 
-    // Creates a new seat in the given screen and stores it
-    public Seat createSeatInScreen(final Integer rowNo, SeatCategory seatCategory,  final Screen screen) {
-        int seatId = seatCounter.incrementAndGet(); // Generate unique seat ID
-        Seat seat = new Seat(seatId, rowNo, seatCategory);
-        seats.put(seatId, seat); // Store seat in map
-        screen.addSeat(seat); // Link seat to screen
-        return seat;
+    // Registers a seat layout template so screens can be created from it by name
+    public SeatLayout registerSeatLayout(final SeatLayout layout) {
+        seatLayouts.put(layout.getName(), layout);
+        return layout;
     }
 
-    // Private helper to create a screen with unique ID and store it
-    private Screen createScreen(final String screenName, final Theatre theatre) {
+    // Retrieves a seat layout template by name, throws exception if not found
+    public SeatLayout getSeatLayout(final String layoutName) throws Exception {
+        final SeatLayout layout = seatLayouts.get(layoutName);
+        if (layout == null) {
+            throw new Exception("Seat layout " + layoutName + " not found.");
+        }
+        return layout;
+    }
+
+    /**
+     * Creates a screen that shares the given layout instead of owning one Seat object per seat.
+     * A block of seat IDs is reserved for it, and seats are materialized from the layout on demand.
+     */
+    public Screen createScreenWithLayout(final String screenName, final Theatre theatre, final SeatLayout layout) {
         int screenId = screenCounter.incrementAndGet(); // Generate unique ID
-        Screen screen = new Screen(screenId, screenName, theatre);
-        screens.put(screenId, screen); // Store screen in map
+        Screen screen = new Screen(screenId, screenName, theatre, layout, reserveSeatIds(layout.size()));
+        publishScreen(screen, theatre); // Screen and its whole seat ID range in one version
         return screen;
     }
-}
\ No newline at end of file
+
+    private void publishScreen(final Screen screen, final Theatre theatre) {
+        catalogWriteLock.lock();
+        try {
+            final List<Screen> theatreScreens = theatre.withScreen(screen);
+            catalog = catalog.toBuilder() // Make the screen resolvable and listed first
+                    .putScreen(screen)
+                    .putTheatreScreens(theatre.getTheatreId(), theatreScreens)
+                    .build();
+            theatre.showScreens(theatreScreens); // Then link it so readers only find fully published screens
+        } finally {
+            catalogWriteLock.unlock();
+        }
+    }
+
+    // Creates a new seat in the given screen and stores it in a new catalog version; costs the same however large the catalog is
+    public Seat createSeatInScreen(final Integer rowNo, SeatCategory seatCategory,  final Screen screen) throws Exception {
+        final Seat seat = new Seat(seatCounter.incrementAndGet(), rowNo, seatCategory); // Generate unique seat ID
+        publishSeats(Collections.singletonMap(screen, Collections.singletonList(seat)));
+        return seat;
+    }
+
+    // Creates seatCount seats in one catalog version, seatsPerRow to a row starting at row 1
+    public List<Seat> createSeatsInScreen(final int seatCount, final int seatsPerRow, final SeatCategory seatCategory,
+                                          final Screen screen) throws Exception {
+        final int firstSeatId = reserveSeatIds(seatCount);
+        final List<Seat> seats = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            seats.add(new Seat(firstSeatId + i, i / seatsPerRow + 1, seatCategory));
+        }
+        publishSeats(Collections.singletonMap(screen, seats));
+        return seats;
+    }
+
+    // Reserves a contiguous block of seat IDs for bulk loaders, returns the first ID of the block
+    public int reserveSeatIds(final int count) {
+        return seatCounter.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Publishes seats built off-thread (e.g. by the bulk importer) for any number of screens
+     * in a single catalog version, instead of one version per seat. Neither the seats already
+     * published nor the rest of the catalog are copied, only the chunks of the seat lookup touched.
+     */
+    public void publishSeats(final Map<Screen, List<Seat>> seatsByScreen) throws Exception {
+        if (seatsByScreen.isEmpty()) return;
+        for (Screen screen : seatsByScreen.keySet()) {
+            if (screen.hasLayout()) {
+                throw new Exception("Screen " + screen.getScreenId() + " uses the shared layout "
+                        + screen.getLayout().getName() + " and cannot take individual seats.");
+            }
+        }
+        catalogWriteLock.lock();
+        try {
+            final CatalogSnapshot.Builder builder = catalog.toBuilder();
+            final Map<Screen, List<Seat>> publishedSeats = new HashMap<>();
+            for (Map.Entry<Screen, List<Seat>> entry : seatsByScreen.entrySet()) {
+                for (Seat seat : entry.getValue()) {
+                    builder.putSeat(seat);
+                }
+                final List<Seat> screenSeats = entry.getKey().appendSeats(entry.getValue());
+                builder.putScreenSeats(entry.getKey().getScreenId(), screenSeats);
+                publishedSeats.put(entry.getKey(), screenSeats);
+            }
+            catalog = builder.build(); // Make every seat resolvable by ID and listed first
+            for (Map.Entry<Screen, List<Seat>> entry : publishedSeats.entrySet()) {
+                entry.getKey().showSeats(entry.getValue()); // Then link each batch to its screen
+            }
+        } finally {
+            catalogWriteLock.unlock();
+        }
+    }
+}
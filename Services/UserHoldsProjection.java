@@ -0,0 +1,78 @@
+package Services;
+
+import CoreClasses.Seat;
+import CoreClasses.SeatEvent;
+import CoreClasses.Show;
+import CoreClasses.User;
+import Interfaces.SeatStateProjection;
+import Interfaces.ShowLifecycleListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Seats each user currently holds (locked but not yet bought), per show, folded from the seat event log.
+ */
+public class UserHoldsProjection implements SeatStateProjection, ShowLifecycleListener {
+
+    // user -> show ID -> held seats
+    private final Map<User, Map<Integer, Set<Seat>>> holdsByUser = new ConcurrentHashMap<>();
+
+    @Override
+    public void apply(final SeatEvent event) {
+        switch (event.getType()) {
+            case HOLD:
+                holdsByUser.compute(event.getUser(), (user, shows) -> { // Atomic with the retirement cleanup
+                    final Map<Integer, Set<Seat>> updated = shows == null ? new ConcurrentHashMap<>() : shows;
+                    updated.computeIfAbsent(event.getShow().getId(), id -> ConcurrentHashMap.newKeySet())
+                            .add(event.getSeat());
+                    return updated;
+                });
+                break;
+            case RELEASE:
+            case EXPIRE:
+            case BOOK: // A bought seat is no longer a hold
+                final Map<Integer, Set<Seat>> shows = holdsByUser.get(event.getUser());
+                if (shows != null) {
+                    final Set<Seat> seats = shows.get(event.getShow().getId());
+                    if (seats != null) {
+                        seats.remove(event.getSeat());
+                    }
+                }
+                break;
+        }
+    }
+
+    // Drops the show from every user, and users left with no show at all
+    @Override
+    public void onShowRetired(final Show show) {
+        for (User user : holdsByUser.keySet()) {
+            holdsByUser.computeIfPresent(user, (u, shows) -> {
+                shows.remove(show.getId());
+                return shows.isEmpty() ? null : shows;
+            });
+        }
+    }
+
+    public List<Seat> getHeldSeats(final User user, final Show show) {
+        final Map<Integer, Set<Seat>> shows = holdsByUser.get(user);
+        final Set<Seat> seats = shows == null ? null : shows.get(show.getId());
+        return seats == null ? Collections.emptyList() : new ArrayList<>(seats);
+    }
+
+    public int getHeldSeatCount(final User user) {
+        final Map<Integer, Set<Seat>> shows = holdsByUser.get(user);
+        if (shows == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Set<Seat> seats : shows.values()) {
+            count += seats.size();
+        }
+        return count;
+    }
+}
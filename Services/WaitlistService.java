@@ -0,0 +1,318 @@
+package Services;
+
+import CommonEnum.LogEvent;
+import CommonEnum.SeatCategory;
+import CoreClasses.Booking;
+import CoreClasses.Seat;
+import CoreClasses.Show;
+import CoreClasses.User;
+import CoreClasses.WaitlistEntry;
+import Interfaces.BookingObserver;
+import Interfaces.SeatLockListener;
+import Interfaces.ShowLifecycleListener;
+import Interfaces.WaitlistListener;
+import Utilities.EventLog;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-show waitlists for sold-out shows. Users join with a party size and an optional seat category;
+ * whenever seats come free (a hold expires or is released after a failed payment, or a booking is
+ * cancelled) they are held straight away for the earliest waiting user they fit, as an ordinary
+ * booking the user then pays for. If the offer lapses, its seats go to the next in line.
+ *
+ * Each show keeps one queue per (category or "any", party size), ordered by join time, so finding
+ * the next user that fits n freed seats is a look at the heads of at most MAX_PARTY_SIZE queues:
+ * O(log n) per offer. Release events only enqueue work: listeners run under the seat-lock provider's
+ * show lock, and placing the hold must take that lock again, so offers are made on one background thread.
+ * A show's waitlist is closed when the show starts: entries still waiting are marked CLOSED.
+ *
+ * Offers are held for offerHoldSeconds, not the lock provider's usual hold: a sold-out show gets the
+ * shortest holds, yet the offered user first has to be told and come back to pay.
+ */
+public class WaitlistService implements SeatLockListener, BookingObserver, ShowLifecycleListener {
+
+    public static final int MAX_PARTY_SIZE = 10;
+    private static final int DEFAULT_OFFER_HOLD_SECONDS = 60;
+    private static final Comparator<WaitlistEntry> BY_JOIN_ORDER = Comparator.comparingLong(WaitlistEntry::getId);
+    private static final Comparator<Seat> BY_SEAT_ID = Comparator.comparingInt(Seat::getSeatId);
+
+    private final BookingService bookingService;
+    private final AvailabilityProjection availabilityProjection; // Confirms a released seat is really free
+    private final int offerHoldSeconds; // How long offered seats stay held for the user
+    private final Map<Integer, ShowWaitlist> waitlists = new ConcurrentHashMap<>(); // key = show ID
+    private final Map<Long, WaitlistEntry> entries = new ConcurrentHashMap<>(); // Waiting entries by ID
+    private final List<WaitlistListener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong entryCounter = new AtomicLong();
+    private final ExecutorService offerThread = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "waitlist-offers");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WaitlistService(final BookingService bookingService, final AvailabilityProjection availabilityProjection) {
+        this(bookingService, availabilityProjection, DEFAULT_OFFER_HOLD_SECONDS);
+    }
+
+    public WaitlistService(final BookingService bookingService, final AvailabilityProjection availabilityProjection,
+                           final int offerHoldSeconds) {
+        this.bookingService = bookingService;
+        this.availabilityProjection = availabilityProjection;
+        this.offerHoldSeconds = offerHoldSeconds;
+    }
+
+    public void addListener(final WaitlistListener listener) {
+        listeners.add(listener);
+    }
+
+    // Adds the user to the show's waitlist; seatCategory null means any category will do
+    public WaitlistEntry join(final User user, final Show show, final int partySize, final SeatCategory seatCategory)
+            throws Exception {
+        if (partySize < 1 || partySize > MAX_PARTY_SIZE) {
+            throw new Exception("Party size must be between 1 and " + MAX_PARTY_SIZE + ".");
+        }
+        if (bookingService.isShowCancelled(show)) {
+            throw new Exception("Show " + show.getId() + " has been cancelled.");
+        }
+        if (bookingService.hasShowStarted(show)) {
+            throw new Exception("Show " + show.getId() + " has already started.");
+        }
+        final WaitlistEntry entry = new WaitlistEntry(entryCounter.incrementAndGet(), user, show, partySize, seatCategory);
+        final ShowWaitlist waitlist = waitlists.computeIfAbsent(show.getId(), id -> new ShowWaitlist(show));
+        final boolean first;
+        synchronized (waitlist) {
+            waitlist.queue(seatCategory, partySize).add(entry);
+            first = waitlist.waiting++ == 0;
+        }
+        entries.put(entry.getId(), entry);
+        offerThread.execute(() -> {
+            if (first) { // Releases were ignored while nobody waited; start from what is free right now
+                final List<Seat> free = availabilityProjection.getAvailableSeats(show);
+                synchronized (waitlist) {
+                    for (Seat seat : free) {
+                        waitlist.pool(seat.getSeatCategory()).add(seat);
+                    }
+                }
+            }
+            makeOffers(waitlist);
+        });
+        return entry;
+    }
+
+    public void leave(final long entryId, final User user) throws Exception {
+        final WaitlistEntry entry = getEntry(entryId);
+        if (!entry.getUser().equals(user)) {
+            throw new Exception("Cannot leave a waitlist entry of another user");
+        }
+        final ShowWaitlist waitlist = waitlists.get(entry.getShow().getId());
+        synchronized (waitlist) {
+            if (waitlist.queue(entry.getSeatCategory(), entry.getPartySize()).remove(entry)) {
+                waitlist.waiting--;
+                entry.markLeft();
+            }
+        }
+        entries.remove(entryId);
+    }
+
+    public WaitlistEntry getEntry(final long entryId) throws Exception {
+        final WaitlistEntry entry = entries.get(entryId);
+        if (entry == null) {
+            throw new Exception("No waiting waitlist entry with ID " + entryId);
+        }
+        return entry;
+    }
+
+    public int getWaitingCount(final Show show) {
+        final ShowWaitlist waitlist = waitlists.get(show.getId());
+        return waitlist == null ? 0 : waitlist.waiting;
+    }
+
+    public void shutdown() {
+        offerThread.shutdownNow();
+    }
+
+    @Override
+    public void onShowStarted(final Show show) {
+        closeWaitlist(show);
+    }
+
+    @Override
+    public void onShowRetired(final Show show) {
+        closeWaitlist(show); // Normally already closed at the start
+    }
+
+    private void closeWaitlist(final Show show) {
+        final ShowWaitlist waitlist = waitlists.remove(show.getId());
+        if (waitlist == null) return;
+
+        synchronized (waitlist) { // Offers still queued for it find nobody waiting and no seats
+            for (List<TreeSet<WaitlistEntry>> bySize : waitlist.queues) {
+                for (TreeSet<WaitlistEntry> queue : bySize) {
+                    for (WaitlistEntry entry : queue) {
+                        entry.markClosed();
+                        entries.remove(entry.getId());
+                    }
+                    queue.clear();
+                }
+            }
+            waitlist.freeSeats.clear();
+            waitlist.waiting = 0;
+        }
+    }
+
+    @Override
+    public void onSeatsLocked(final Show show, final List<Seat> seats, final User user) {
+        // A new hold needs no action; seats it took are skipped when an offer is made
+    }
+
+    @Override
+    public void onSeatsUnlocked(final Show show, final List<Seat> seats, final User user) {
+        seatsFreed(show, seats);
+    }
+
+    @Override
+    public void onSeatsExpired(final Show show, final List<Seat> seats, final User user) {
+        seatsFreed(show, seats);
+    }
+
+    @Override
+    public void onBookingConfirmed(final Booking booking) {
+    }
+
+    @Override
+    public void onBookingCancelled(final Booking booking) {
+        seatsFreed(booking.getShow(), booking.getSeatsBooked());
+    }
+
+    // Called on the releasing thread: just hands the seats to the offer thread, and only if anyone waits
+    private void seatsFreed(final Show show, final List<Seat> seats) {
+        final ShowWaitlist waitlist = waitlists.get(show.getId());
+        if (waitlist == null || waitlist.waiting == 0) {
+            return;
+        }
+        final List<Seat> freed = new ArrayList<>(seats);
+        offerThread.execute(() -> {
+            synchronized (waitlist) {
+                for (Seat seat : freed) {
+                    waitlist.pool(seat.getSeatCategory()).add(seat);
+                }
+            }
+            makeOffers(waitlist);
+        });
+    }
+
+    // Offer thread only: holds freed seats for waiting users until no one left fits what is free
+    private void makeOffers(final ShowWaitlist waitlist) {
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            for (SeatCategory category : SeatCategory.values()) {
+                final WaitlistEntry entry;
+                final List<Seat> seats;
+                synchronized (waitlist) {
+                    final TreeSet<Seat> pool = waitlist.pool(category);
+                    if (pool.isEmpty()) continue;
+                    entry = waitlist.firstFitting(category, pool.size());
+                    if (entry == null) continue;
+                    seats = takeFreeSeats(waitlist.show, pool, entry.getPartySize());
+                    if (seats.size() < entry.getPartySize()) {
+                        pool.addAll(seats); // Some pooled seats were taken meanwhile; try again with what is left
+                        progress = true;
+                        continue;
+                    }
+                    waitlist.queue(entry.getSeatCategory(), entry.getPartySize()).remove(entry);
+                    waitlist.waiting--;
+                }
+                progress = true;
+                offer(waitlist, entry, seats);
+            }
+        }
+    }
+
+    private void offer(final ShowWaitlist waitlist, final WaitlistEntry entry, final List<Seat> seats) {
+        final Booking booking;
+        try {
+            booking = bookingService.createBooking(entry.getUser(), waitlist.show, seats, offerHoldSeconds);
+        } catch (Exception e) {
+            synchronized (waitlist) { // Seats were grabbed first; keep the user's place in the queue
+                waitlist.queue(entry.getSeatCategory(), entry.getPartySize()).add(entry);
+                waitlist.waiting++;
+            }
+            return;
+        }
+        entry.markOffered(booking);
+        entries.remove(entry.getId());
+        EventLog.record(LogEvent.WAITLIST_OFFERED, booking.getId(), waitlist.show.getId(), seats.size(), entry.getId());
+        for (WaitlistListener listener : listeners) {
+            listener.onSeatsOffered(entry);
+        }
+    }
+
+    // Removes up to count seats from the pool that are still free, dropping the ones that no longer are
+    private List<Seat> takeFreeSeats(final Show show, final TreeSet<Seat> pool, final int count) {
+        final List<Seat> seats = new ArrayList<>(count);
+        final Iterator<Seat> iterator = pool.iterator();
+        while (seats.size() < count && iterator.hasNext()) {
+            final Seat seat = iterator.next();
+            iterator.remove();
+            if (availabilityProjection.isAvailable(show, seat)) {
+                seats.add(seat);
+            }
+        }
+        return seats;
+    }
+
+    private static final class ShowWaitlist {
+        private final Show show;
+        // [category ordinal, or the last slot for "any"][party size], each ordered by join time
+        private final List<List<TreeSet<WaitlistEntry>>> queues = new ArrayList<>();
+        private final Map<SeatCategory, TreeSet<Seat>> freeSeats = new EnumMap<>(SeatCategory.class); // Freed, not yet offered
+        private volatile int waiting; // Written under the instance lock, read without it on the release path
+
+        private ShowWaitlist(final Show show) {
+            this.show = show;
+            for (int slot = 0; slot <= SeatCategory.values().length; slot++) {
+                final List<TreeSet<WaitlistEntry>> bySize = new ArrayList<>();
+                for (int size = 0; size <= MAX_PARTY_SIZE; size++) {
+                    bySize.add(new TreeSet<>(BY_JOIN_ORDER));
+                }
+                queues.add(bySize);
+            }
+        }
+
+        private TreeSet<WaitlistEntry> queue(final SeatCategory category, final int partySize) {
+            return queues.get(category == null ? SeatCategory.values().length : category.ordinal()).get(partySize);
+        }
+
+        private TreeSet<Seat> pool(final SeatCategory category) {
+            return freeSeats.computeIfAbsent(category, c -> new TreeSet<>(BY_SEAT_ID));
+        }
+
+        // Earliest entry wanting this category (or any) with a party no bigger than the free seats
+        private WaitlistEntry firstFitting(final SeatCategory category, final int freeSeats) {
+            WaitlistEntry first = null;
+            for (int size = 1; size <= Math.min(freeSeats, MAX_PARTY_SIZE); size++) {
+                first = earlier(first, queue(category, size));
+                first = earlier(first, queue(null, size));
+            }
+            return first;
+        }
+
+        private static WaitlistEntry earlier(final WaitlistEntry current, final TreeSet<WaitlistEntry> queue) {
+            if (queue.isEmpty()) return current;
+            final WaitlistEntry head = queue.first();
+            return current == null || head.getId() < current.getId() ? head : current;
+        }
+    }
+}
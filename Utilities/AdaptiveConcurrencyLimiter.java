@@ -0,0 +1,147 @@
+package Utilities;
+
+import CommonEnum.RequestPriority;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps how many requests run at once, with a cap that follows observed latency (gradient limit):
+ * while latency stays close to the best recently seen, the limit grows by about sqrt(limit); once
+ * requests start queueing on a shared resource, latency rises and the limit shrinks in proportion.
+ *
+ * Latency is judged per priority, each against its own minimum: a payment call taking seconds says
+ * nothing about congestion when browse reads take microseconds, so mixing them in one baseline would
+ * read every checkout as overload.
+ *
+ * Each priority may only use a share of the limit (CHECKOUT all of it, HOLD 80%, BROWSE 50%), so
+ * under overload browsing is turned away first and buyers at payment keep getting through. Requests
+ * over their share are rejected at once with a retry-after hint instead of waiting in a queue,
+ * which would only push the ones that are admitted past their seat lock window.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double[] SHARE = {1.0, 0.8, 0.5}; // Fraction of the limit per RequestPriority ordinal
+    private static final double TOLERANCE = 1.5; // Latency up to this multiple of the minimum counts as healthy
+    private static final double SMOOTHING = 0.2; // Weight of each new limit estimate
+    private static final long MIN_RTT_WINDOW_NANOS = 10_000_000_000L; // Minimum latency is re-measured every ~10s
+    private static final long MIN_RETRY_AFTER_MILLIS = 10;
+    private static final long MAX_RETRY_AFTER_MILLIS = 5_000;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final boolean enabled; // false for unlimited(): call() just runs the work
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder[] rejected = new LongAdder[RequestPriority.values().length];
+    private final ReentrantLock sampleLock = new ReentrantLock(); // Guards the estimator state below
+    private volatile double limit;
+    // Latency estimators, one slot per RequestPriority ordinal
+    private final double[] smoothedRttNanos = new double[RequestPriority.values().length];
+    private final long[] minRttNanos = new long[RequestPriority.values().length]; // Over the current and previous window
+    private final long[] windowMinRttNanos = new long[RequestPriority.values().length];
+    private long windowStartNanos = System.nanoTime();
+
+    public AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, true);
+    }
+
+    private AdaptiveConcurrencyLimiter(final int initialLimit, final int minLimit, final int maxLimit, final boolean enabled) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.enabled = enabled;
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+            minRttNanos[i] = Long.MAX_VALUE;
+            windowMinRttNanos[i] = Long.MAX_VALUE;
+        }
+    }
+
+    // A limiter that admits everything, for callers constructed without overload protection
+    public static AdaptiveConcurrencyLimiter unlimited() {
+        return new AdaptiveConcurrencyLimiter(1, 1, 1, false);
+    }
+
+    // Runs the work if the priority's share of the limit has room, otherwise throws RequestRejectedException
+    public <T> T call(final RequestPriority priority, final Callable<T> work) throws Exception {
+        if (!enabled) {
+            return work.call();
+        }
+        final int allowed = Math.max(1, (int) (limit * SHARE[priority.ordinal()]));
+        int running;
+        do {
+            running = inFlight.get();
+            if (running >= allowed) {
+                rejected[priority.ordinal()].increment();
+                throw new RequestRejectedException(priority, retryAfterMillis(priority));
+            }
+        } while (!inFlight.compareAndSet(running, running + 1));
+
+        final long start = System.nanoTime();
+        try {
+            return work.call();
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(priority.ordinal(), System.nanoTime() - start, running + 1);
+        }
+    }
+
+    private void onSample(final int priority, final long rttNanos, final int inFlightAtStart) {
+        if (!sampleLock.tryLock()) {
+            return; // Another thread is updating; one sample more or less doesn't change the estimate
+        }
+        try {
+            final long now = System.nanoTime();
+            if (now - windowStartNanos > MIN_RTT_WINDOW_NANOS) {
+                for (int i = 0; i < minRttNanos.length; i++) {
+                    minRttNanos[i] = windowMinRttNanos[i]; // Forget minimums older than two windows
+                    windowMinRttNanos[i] = Long.MAX_VALUE;
+                }
+                windowStartNanos = now;
+            }
+            windowMinRttNanos[priority] = Math.min(windowMinRttNanos[priority], rttNanos);
+            minRttNanos[priority] = Math.min(minRttNanos[priority], rttNanos);
+            final double smoothed = smoothedRttNanos[priority] == 0 ? rttNanos
+                    : smoothedRttNanos[priority] * 0.9 + rttNanos * 0.1;
+            smoothedRttNanos[priority] = smoothed;
+
+            final double current = limit;
+            if (inFlightAtStart < current / 2) {
+                return; // Demand was well under the limit, latency says nothing about whether it is too high
+            }
+            // Compared within the sample's own priority only
+            final double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * minRttNanos[priority] / smoothed));
+            final double estimate = current * gradient + Math.sqrt(current);
+            limit = Math.max(minLimit, Math.min(maxLimit, current * (1 - SMOOTHING) + estimate * SMOOTHING));
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    // About one request latency of that priority, doubled per priority step so lower priorities back off further
+    private long retryAfterMillis(final RequestPriority priority) {
+        final long base = Math.max(MIN_RETRY_AFTER_MILLIS,
+                (long) Math.ceil(smoothedRttNanos[priority.ordinal()] / 1_000_000)); // Racy read, only a hint
+        return Math.min(MAX_RETRY_AFTER_MILLIS, base << priority.ordinal());
+    }
+
+    // Getters Section Start
+    public int getLimit() {
+        return (int) limit;
+    }
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    public long getRejectedCount(final RequestPriority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+    public double getSmoothedLatencyMillis(final RequestPriority priority) {
+        return smoothedRttNanos[priority.ordinal()] / 1_000_000;
+    }
+    // Getters Section End
+}
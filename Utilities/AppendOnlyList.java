@@ -0,0 +1,58 @@
+package Utilities;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A list that only grows and hands out frozen views: a view covers the elements appended before it
+ * was taken, and later appends never show up in it. Appending copies nothing but the occasional
+ * array growth, so a list built one element at a time stays linear however many views were taken.
+ *
+ * Appends must be serialized by the caller. Views are immutable and can be shared with any thread.
+ */
+public final class AppendOnlyList<T> {
+
+    private Object[] elements = new Object[8];
+    private int size;
+
+    // Appends the items and returns the view including them
+    public List<T> append(final Collection<? extends T> items) {
+        if (size + items.size() > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(2 * elements.length, size + items.size()));
+        }
+        for (T item : items) {
+            elements[size++] = item;
+        }
+        return view();
+    }
+
+    public List<T> view() {
+        return new FrozenPrefix<>(elements, size);
+    }
+
+    private static final class FrozenPrefix<T> extends AbstractList<T> implements RandomAccess {
+        private final Object[] elements; // Shared with the list and later views; slots below size never change
+        private final int size;
+
+        private FrozenPrefix(final Object[] elements, final int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(final int index) {
+            Objects.checkIndex(index, size);
+            return (T) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
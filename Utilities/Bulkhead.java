@@ -0,0 +1,160 @@
+package Utilities;
+
+import CommonEnum.RequestPriority;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed set of worker threads with a bounded queue in front of them. Work for one partition runs
+ * only here, so a partition that is flooded fills its own queue and gets RequestRejectedException,
+ * while every other partition keeps its threads. The caller waits for the result, as with a direct call,
+ * but only up to maxWaitMillis for the work to start: work still queued after that is withdrawn and
+ * the caller gets RequestRejectedException, so a backed-up partition cannot pin the callers' threads
+ * for its whole queue's drain time. Work that has started is always waited for, its effects stand.
+ */
+public class Bulkhead {
+
+    private static final long MIN_RETRY_AFTER_MILLIS = 10;
+    private static final long MAX_RETRY_AFTER_MILLIS = 5_000;
+    private static final long DEFAULT_MAX_WAIT_MILLIS = 1_000;
+
+    private final String name;
+    private final int threads;
+    private final int queueLimit;
+    private final long maxWaitMillis; // Longest a caller waits for its work to start
+    private final ThreadPoolExecutor executor;
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder(); // Withdrawn from the queue after maxWaitMillis
+    private final AtomicInteger peakQueueDepth = new AtomicInteger();
+    private volatile double avgServiceNanos; // Moving average, drives the retry-after hint
+
+    public Bulkhead(final String name, final int threads, final int queueLimit) {
+        this(name, threads, queueLimit, DEFAULT_MAX_WAIT_MILLIS);
+    }
+
+    public Bulkhead(final String name, final int threads, final int queueLimit, final long maxWaitMillis) {
+        this.name = name;
+        this.threads = threads;
+        this.queueLimit = queueLimit;
+        this.maxWaitMillis = maxWaitMillis;
+        final AtomicInteger threadNo = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueLimit), runnable -> {
+                    final Thread thread = new Thread(runnable, "bulkhead-" + name + "-" + threadNo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Runs the work on this bulkhead's threads and waits for it; rejects when the queue is full or the work doesn't start in time
+    public <T> T call(final RequestPriority priority, final Callable<T> work) throws Exception {
+        final AtomicBoolean claimed = new AtomicBoolean(); // Set by whoever gets there first: a worker or a timed-out caller
+        final Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null; // The caller gave up before this started, nobody wants the result
+                }
+                final long start = System.nanoTime();
+                try {
+                    return work.call();
+                } finally {
+                    final long elapsed = System.nanoTime() - start;
+                    avgServiceNanos = avgServiceNanos == 0 ? elapsed : avgServiceNanos * 0.9 + elapsed * 0.1;
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RequestRejectedException(priority, retryAfterMillis());
+        }
+        peakQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+        try {
+            try {
+                return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    timedOut.increment(); // Still queued, it will be skipped when a worker reaches it
+                    throw new RequestRejectedException(priority, retryAfterMillis());
+                }
+                return future.get(); // Already running; its effects stand, so the caller must see the result
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause(); // Same exception the work would have thrown in a direct call
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        }
+    }
+
+    // Time for the threads to work through a full queue
+    private long retryAfterMillis() {
+        final double drainNanos = avgServiceNanos * queueLimit / threads;
+        return Math.min(MAX_RETRY_AFTER_MILLIS, Math.max(MIN_RETRY_AFTER_MILLIS, (long) (drainNanos / 1_000_000)));
+    }
+
+    public void shutdown() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((Future<?>) queued).cancel(false); // Wakes up callers still waiting on work that will never run
+        }
+    }
+
+    // Fraction of threads and queue slots in use, 1.0 means new work is being rejected
+    public double getSaturation() {
+        return (double) (executor.getActiveCount() + executor.getQueue().size()) / (threads + queueLimit);
+    }
+
+    // Getters Section Start
+    public String getName() {
+        return name;
+    }
+    public int getThreadCount() {
+        return threads;
+    }
+    public int getQueueLimit() {
+        return queueLimit;
+    }
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+    public int getPeakQueueDepth() {
+        return peakQueueDepth.get();
+    }
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+    public double getAverageServiceMillis() {
+        return avgServiceNanos / 1_000_000;
+    }
+    // Getters Section End
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d/%d active, queue %d/%d (peak %d), saturation %.0f%%, completed %d, rejected %d, timed out %d, avg %.2fms",
+                name, getActiveCount(), threads, getQueueDepth(), queueLimit, getPeakQueueDepth(), getSaturation() * 100,
+                getCompletedCount(), getRejectedCount(), getTimedOutCount(), getAverageServiceMillis());
+    }
+}
@@ -0,0 +1,133 @@
+package Utilities;
+
+import CommonEnum.CircuitState;
+import CommonEnum.LogEvent;
+
+/**
+ * Failure-rate circuit breaker over the last windowSize calls. Once at least minCalls outcomes are
+ * in the window and the failed share reaches failureRateThreshold, the circuit opens and callers are
+ * refused for openMillis. After that, one probe call is let through (HALF_OPEN): success closes the
+ * circuit with a fresh window, failure opens it for another period.
+ *
+ * Callers check isAvailable() to rank candidates without side effects, then tryAcquire() right
+ * before calling, which is what reserves the single half-open probe. Every acquired call must be
+ * followed by record().
+ */
+public class CircuitBreaker {
+
+    private final String name;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final boolean[] outcomes; // Ring of the latest outcomes, true = failed; guarded by this
+    private int next; // Next slot in outcomes
+    private int count; // Outcomes in the window
+    private int failures; // Failed outcomes in the window
+    private volatile CircuitState state = CircuitState.CLOSED;
+    private volatile long openedAt;
+    private boolean probeInFlight; // Guarded by this
+    private long timesOpened; // Guarded by this
+
+    public CircuitBreaker(final String name, final int windowSize, final int minCalls,
+                          final double failureRateThreshold, final long openMillis) {
+        if (minCalls < 1 || minCalls > windowSize) {
+            throw new IllegalArgumentException("Need 1 <= minCalls <= windowSize");
+        }
+        this.name = name;
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openMillis = openMillis;
+        this.outcomes = new boolean[windowSize];
+    }
+
+    // Whether tryAcquire() would currently admit a call; reserves nothing
+    public boolean isAvailable(final long nowMillis) {
+        final CircuitState current = state;
+        if (current == CircuitState.CLOSED) return true;
+        if (current == CircuitState.OPEN) return nowMillis - openedAt >= openMillis;
+        synchronized (this) {
+            return !probeInFlight;
+        }
+    }
+
+    // Admits a call, or refuses it while open or while the half-open probe is out
+    public boolean tryAcquire(final long nowMillis) {
+        if (state == CircuitState.CLOSED) return true; // Fast path, no lock
+        synchronized (this) {
+            if (state == CircuitState.OPEN) {
+                if (nowMillis - openedAt < openMillis) return false;
+                moveTo(CircuitState.HALF_OPEN);
+            }
+            if (state == CircuitState.CLOSED) return true;
+            if (probeInFlight) return false;
+            probeInFlight = true;
+            return true;
+        }
+    }
+
+    // Gives back an acquired call that was never made, so a reserved probe slot is not lost
+    public synchronized void cancel() {
+        if (state == CircuitState.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized void record(final boolean failed, final long nowMillis) {
+        if (state == CircuitState.HALF_OPEN) {
+            if (!probeInFlight) return; // A call from before the circuit opened; the probe decides
+            probeInFlight = false;
+            if (failed) {
+                open(nowMillis);
+            } else {
+                clearWindow();
+                moveTo(CircuitState.CLOSED);
+            }
+            return;
+        }
+        if (state == CircuitState.OPEN) return; // Late outcome of a call admitted before opening
+        if (count == outcomes.length) {
+            if (outcomes[next]) failures--;
+        } else {
+            count++;
+        }
+        outcomes[next] = failed;
+        if (failed) failures++;
+        next = (next + 1) % outcomes.length;
+        if (count >= minCalls && failures >= failureRateThreshold * count) {
+            open(nowMillis);
+        }
+    }
+
+    private void open(final long nowMillis) {
+        openedAt = nowMillis;
+        timesOpened++;
+        moveTo(CircuitState.OPEN);
+    }
+
+    private void clearWindow() {
+        next = 0;
+        count = 0;
+        failures = 0;
+    }
+
+    private void moveTo(final CircuitState target) {
+        state = target;
+        EventLog.record(LogEvent.GATEWAY_CIRCUIT_CHANGED, name, target.ordinal());
+    }
+
+    // Getters Section Start
+    public String getName() {
+        return name;
+    }
+    public CircuitState getState() {
+        return state;
+    }
+    // Failed share of the calls in the window, 0 while it is empty
+    public synchronized double getFailureRate() {
+        return count == 0 ? 0 : (double) failures / count;
+    }
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+    // Getters Section End
+}
@@ -0,0 +1,107 @@
+package Utilities;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Encodes primitive columns for the on-disk booking history: values are delta encoded,
+ * zig-zag mapped so small negative deltas stay small, written as varints and then deflated.
+ * Sorted or slowly changing columns (timestamps, IDs) shrink to a few bits per value.
+ */
+public final class ColumnCodec {
+
+    private ColumnCodec() {
+    }
+
+    public static byte[] encodeInts(final int[] values) {
+        final long[] widened = new long[values.length];
+        for (int i = 0; i < values.length; i++) {
+            widened[i] = values[i];
+        }
+        return encodeLongs(widened);
+    }
+
+    public static int[] decodeInts(final byte[] encoded, final int count) throws DataFormatException {
+        final long[] values = decodeLongs(encoded, count);
+        final int[] narrowed = new int[count];
+        for (int i = 0; i < count; i++) {
+            narrowed[i] = (int) values[i];
+        }
+        return narrowed;
+    }
+
+    public static byte[] encodeLongs(final long[] values) {
+        final ByteArrayOutputStream varints = new ByteArrayOutputStream(values.length * 2);
+        long previous = 0;
+        for (long value : values) {
+            final long delta = value - previous;
+            long zigzag = (delta << 1) ^ (delta >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                varints.write((int) ((zigzag & 0x7F) | 0x80));
+                zigzag >>>= 7;
+            }
+            varints.write((int) zigzag);
+            previous = value;
+        }
+        return deflate(varints.toByteArray());
+    }
+
+    public static long[] decodeLongs(final byte[] encoded, final int count) throws DataFormatException {
+        final byte[] varints = inflate(encoded);
+        final long[] values = new long[count];
+        long previous = 0;
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            long zigzag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = varints[position++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            previous += (zigzag >>> 1) ^ -(zigzag & 1);
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    private static byte[] deflate(final byte[] raw) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+            final byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(final byte[] compressed) throws DataFormatException {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] out = new byte[Math.max(64, compressed.length * 4)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == out.length) out = Arrays.copyOf(out, out.length * 2);
+                final int inflated = inflater.inflate(out, length, out.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated column data");
+                }
+                length += inflated;
+            }
+            return out; // Trailing slack is never read, the decoder stops after count values
+        } finally {
+            inflater.end();
+        }
+    }
+}
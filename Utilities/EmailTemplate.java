@@ -0,0 +1,47 @@
+package Utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A text template with {{placeholders}}. The text is split into literal and placeholder parts
+ * once, up front, so rendering is a single pass of StringBuilder appends with no parsing.
+ */
+public class EmailTemplate {
+
+    private final String[] literals; // literals[i] comes before placeholders[i]; the last literal closes the text
+    private final String[] placeholders;
+
+    public EmailTemplate(final String text) {
+        final List<String> literalParts = new ArrayList<>();
+        final List<String> placeholderParts = new ArrayList<>();
+        int from = 0;
+        while (true) {
+            final int open = text.indexOf("{{", from);
+            final int close = open < 0 ? -1 : text.indexOf("}}", open + 2);
+            if (close < 0) {
+                literalParts.add(text.substring(from));
+                break;
+            }
+            literalParts.add(text.substring(from, open));
+            placeholderParts.add(text.substring(open + 2, close).trim());
+            from = close + 2;
+        }
+        this.literals = literalParts.toArray(new String[0]);
+        this.placeholders = placeholderParts.toArray(new String[0]);
+    }
+
+    // Unknown placeholders render as empty text
+    public String render(final Map<String, String> values) {
+        final StringBuilder out = new StringBuilder(256);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            final String value = values.get(placeholders[i]);
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        return out.append(literals[literals.length - 1]).toString();
+    }
+}
@@ -0,0 +1,272 @@
+package Utilities;
+
+import CommonEnum.LogEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured event log for the booking hot path. Request threads never format or do I/O: a record is
+ * a fixed 64-byte slot (timestamp, thread ID, event, three numeric arguments and up to 16 ASCII chars
+ * of text, e.g. a booking ID) claimed with one CAS in a lock-free multi-producer ring. A background
+ * writer drains the ring into rolling binary files (events-00000.bin, ...) and, optionally, formats
+ * the records onto the console. When the ring is full, records are dropped and counted, never waited on.
+ *
+ * Code logs through the static record() methods. Until start() installs a log, they print the
+ * formatted message straight away, like the plain println calls they replace.
+ *
+ * File format: an 8-byte header (MAGIC, VERSION) followed by records of RECORD_BYTES, little-endian:
+ *   long timestamp | long threadId | int event ordinal | int text length | long arg0..arg2 | 16 bytes text
+ */
+public final class EventLog {
+
+    public static final int MAGIC = 0x45564c47; // "EVLG"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 8;
+    public static final int RECORD_BYTES = 64;
+    public static final int MAX_TEXT = 16;
+    private static final int SLOT_LONGS = RECORD_BYTES / Long.BYTES;
+    private static final long IDLE_PARK_NANOS = 1_000_000; // Writer sleeps 1ms when the ring is empty
+
+    private static volatile EventLog installed;
+
+    private final long[] slots; // SLOT_LONGS longs per record
+    private final AtomicLongArray published; // Sequence + 1 once a slot's record is fully written
+    private final int mask; // Ring capacity - 1
+    private final AtomicLong tail = new AtomicLong(); // Next sequence to claim
+    private volatile long head; // Next sequence the writer reads
+    private final LongAdder dropped = new LongAdder();
+    private final Path directory;
+    private final long maxFileBytes; // Roll over once the current file reaches this size
+    private final int maxFiles; // Oldest files are deleted beyond this many
+    private final boolean echoToConsole;
+    private final Thread writer;
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private final Deque<Path> files = new ArrayDeque<>();
+    private FileChannel channel; // Writer thread only
+    private long fileBytes;
+    private int fileIndex;
+    private volatile boolean running = true;
+
+    private EventLog(final Path directory, final int ringCapacity, final long maxFileBytes, final int maxFiles,
+                     final boolean echoToConsole) throws IOException {
+        if (Integer.bitCount(ringCapacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two, was " + ringCapacity);
+        }
+        this.slots = new long[ringCapacity * SLOT_LONGS];
+        this.published = new AtomicLongArray(ringCapacity);
+        this.mask = ringCapacity - 1;
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.echoToConsole = echoToConsole;
+        Files.createDirectories(directory);
+        while (Files.exists(fileName(fileIndex))) {
+            files.addLast(fileName(fileIndex++)); // Continue after files from earlier runs
+        }
+        openNextFile();
+        this.writer = new Thread(this::writeLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Installs the process-wide event log. ringCapacity (a power of two) bounds how many records
+     * may wait for the writer; echoToConsole additionally prints every record, formatted off-thread.
+     */
+    public static synchronized EventLog start(final Path directory, final int ringCapacity, final long maxFileBytes,
+                                              final int maxFiles, final boolean echoToConsole) throws IOException {
+        if (installed != null) {
+            throw new IllegalStateException("Event log already started");
+        }
+        installed = new EventLog(directory, ringCapacity, maxFileBytes, maxFiles, echoToConsole);
+        return installed;
+    }
+
+    // Drains whatever is still in the ring, closes the file and goes back to direct printing
+    public static synchronized void stop() {
+        final EventLog log = installed;
+        if (log == null) return;
+        installed = null;
+        log.running = false;
+        LockSupport.unpark(log.writer);
+        try {
+            log.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void record(final LogEvent event) {
+        record(event, null, 0, 0, 0);
+    }
+
+    public static void record(final LogEvent event, final long arg0) {
+        record(event, null, arg0, 0, 0);
+    }
+
+    public static void record(final LogEvent event, final long arg0, final long arg1) {
+        record(event, null, arg0, arg1, 0);
+    }
+
+    public static void record(final LogEvent event, final String text) {
+        record(event, text, 0, 0, 0);
+    }
+
+    public static void record(final LogEvent event, final String text, final long arg0) {
+        record(event, text, arg0, 0, 0);
+    }
+
+    public static void record(final LogEvent event, final String text, final long arg0, final long arg1, final long arg2) {
+        final EventLog log = installed;
+        if (log == null) {
+            System.out.println(event.format(text == null ? "" : text, arg0, arg1, arg2));
+            return;
+        }
+        log.append(event, text, arg0, arg1, arg2);
+    }
+
+    // Producer side: claim a slot with one CAS, fill it with plain writes, then publish it
+    private void append(final LogEvent event, final String text, final long arg0, final long arg1, final long arg2) {
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head > mask) {
+                dropped.increment(); // Ring full, the writer is behind; never block the request thread
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        final int base = (int) (sequence & mask) * SLOT_LONGS;
+        final int textLength = text == null ? 0 : Math.min(text.length(), MAX_TEXT);
+        slots[base] = System.currentTimeMillis();
+        slots[base + 1] = Thread.currentThread().getId();
+        slots[base + 2] = (long) event.ordinal() << 32 | textLength;
+        slots[base + 3] = arg0;
+        slots[base + 4] = arg1;
+        slots[base + 5] = arg2;
+        slots[base + 6] = packText(text, 0, textLength);
+        slots[base + 7] = packText(text, 8, textLength);
+        published.lazySet((int) (sequence & mask), sequence + 1); // Release: the writer sees the whole record
+    }
+
+    // Eight chars (as bytes, low byte first) of the text starting at from
+    private static long packText(final String text, final int from, final int length) {
+        long packed = 0;
+        for (int i = Math.min(length, from + 8) - 1; i >= from; i--) {
+            packed = packed << 8 | (text.charAt(i) & 0xFF);
+        }
+        return packed;
+    }
+
+    private void writeLoop() {
+        while (true) {
+            final boolean wasRunning = running;
+            final int drained = drain();
+            if (drained == 0) {
+                if (!wasRunning && head == tail.get()) {
+                    break; // Stopped and nothing left in flight
+                }
+                flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        flush();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Event log: could not close " + fileName(fileIndex - 1) + ": " + e.getMessage());
+        }
+    }
+
+    // Moves every published record from the ring to the file buffer (and console); returns how many
+    private int drain() {
+        int count = 0;
+        long sequence = head;
+        while (published.get((int) (sequence & mask)) == sequence + 1) {
+            final int base = (int) (sequence & mask) * SLOT_LONGS;
+            writeRecord(slots[base], slots[base + 1], slots[base + 2], slots[base + 3], slots[base + 4],
+                    slots[base + 5], slots[base + 6], slots[base + 7]);
+            sequence++;
+            head = sequence; // Frees the slot for producers
+            count++;
+        }
+        final long lost = dropped.sumThenReset();
+        if (lost > 0) {
+            writeRecord(System.currentTimeMillis(), writer.getId(), (long) LogEvent.EVENTS_DROPPED.ordinal() << 32,
+                    lost, 0, 0, 0, 0);
+        }
+        return count;
+    }
+
+    private void writeRecord(final long timestamp, final long threadId, final long eventAndLength, final long arg0,
+                             final long arg1, final long arg2, final long text0, final long text1) {
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        buffer.putLong(timestamp).putLong(threadId)
+                .putInt((int) (eventAndLength >>> 32)).putInt((int) eventAndLength)
+                .putLong(arg0).putLong(arg1).putLong(arg2).putLong(text0).putLong(text1);
+        if (echoToConsole) {
+            final LogEvent event = LogEvent.values()[(int) (eventAndLength >>> 32)];
+            System.out.println(event.format(unpackText(text0, text1, (int) eventAndLength), arg0, arg1, arg2));
+        }
+    }
+
+    public static String unpackText(final long text0, final long text1, final int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) (((i < 8 ? text0 : text1) >>> (8 * (i % 8))) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    private void flush() {
+        if (buffer.position() == 0) return;
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                fileBytes += channel.write(buffer);
+            }
+            if (fileBytes >= maxFileBytes) {
+                channel.close();
+                openNextFile();
+            }
+        } catch (IOException e) {
+            System.err.println("Event log: write failed, " + buffer.remaining() + " bytes lost: " + e.getMessage());
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void openNextFile() throws IOException {
+        final Path file = fileName(fileIndex++);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        fileBytes = HEADER_BYTES;
+        files.addLast(file);
+        while (files.size() > maxFiles) {
+            Files.deleteIfExists(files.removeFirst());
+        }
+    }
+
+    private Path fileName(final int index) {
+        return directory.resolve(String.format("events-%05d.bin", index));
+    }
+}
@@ -0,0 +1,101 @@
+package Utilities;
+
+import CommonEnum.LogEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decodes binary event log files written by EventLog into readable lines.
+ *
+ * Usage: java Utilities.EventLogReader <directory or .bin files...> [--event NAME] [--thread ID]
+ * A directory is read file by file in name order, which is also write order.
+ */
+public class EventLogReader {
+
+    public static void main(String[] args) throws IOException {
+        final List<Path> inputs = new ArrayList<>();
+        String eventFilter = null;
+        long threadFilter = -1;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--event") && i + 1 < args.length) {
+                eventFilter = args[++i];
+            } else if (args[i].equals("--thread") && i + 1 < args.length) {
+                threadFilter = Long.parseLong(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: java Utilities.EventLogReader <directory or .bin files...> [--event NAME] [--thread ID]");
+            System.exit(2);
+        }
+        long printed = 0;
+        for (Path file : expand(inputs)) {
+            printed += print(file, eventFilter, threadFilter);
+        }
+        System.err.println(printed + " records.");
+    }
+
+    private static List<Path> expand(final List<Path> inputs) throws IOException {
+        final List<Path> files = new ArrayList<>();
+        for (Path input : inputs) {
+            if (Files.isDirectory(input)) {
+                try (Stream<Path> listing = Files.list(input)) {
+                    files.addAll(listing.filter(path -> path.getFileName().toString().endsWith(".bin"))
+                            .sorted().collect(Collectors.toList()));
+                }
+            } else {
+                files.add(input);
+            }
+        }
+        return files;
+    }
+
+    private static long print(final Path file, final String eventFilter, final long threadFilter) throws IOException {
+        final ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < EventLog.HEADER_BYTES || data.getInt() != EventLog.MAGIC) {
+            System.err.println(file + ": not an event log file, skipped.");
+            return 0;
+        }
+        final int version = data.getInt();
+        if (version != EventLog.VERSION) {
+            System.err.println(file + ": unsupported version " + version + ", skipped.");
+            return 0;
+        }
+        final LogEvent[] events = LogEvent.values();
+        long printed = 0;
+        while (data.remaining() >= EventLog.RECORD_BYTES) {
+            final long timestamp = data.getLong();
+            final long threadId = data.getLong();
+            final int ordinal = data.getInt();
+            final int textLength = Math.min(data.getInt(), EventLog.MAX_TEXT);
+            final long arg0 = data.getLong(), arg1 = data.getLong(), arg2 = data.getLong();
+            final long text0 = data.getLong(), text1 = data.getLong();
+            if (ordinal < 0 || ordinal >= events.length) {
+                System.out.println(Instant.ofEpochMilli(timestamp) + " [thread " + threadId + "] unknown event " + ordinal);
+                continue;
+            }
+            final LogEvent event = events[ordinal];
+            if ((eventFilter != null && !event.name().equals(eventFilter)) || (threadFilter >= 0 && threadId != threadFilter)) {
+                continue;
+            }
+            System.out.println(Instant.ofEpochMilli(timestamp) + " [thread " + threadId + "] " + event.name() + " "
+                    + event.format(EventLog.unpackText(text0, text1, textLength), arg0, arg1, arg2));
+            printed++;
+        }
+        if (data.hasRemaining()) {
+            System.err.println(file + ": " + data.remaining() + " trailing bytes of a partial record ignored.");
+        }
+        return printed;
+    }
+}
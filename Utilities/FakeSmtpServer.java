@@ -0,0 +1,204 @@
+package Utilities;
+
+import CommonEnum.LogEvent;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process SMTP server for local runs and load tests. It accepts and counts messages
+ * without delivering them, and can inject the failure modes a real relay shows: slow replies,
+ * temporary rejections (451), permanent recipient rejections (550) and dropped connections.
+ */
+public class FakeSmtpServer {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "fake-smtp-session");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong received = new AtomicLong(); // Messages accepted with 250
+    private final AtomicLong rejected = new AtomicLong(); // Transactions answered with 4xx/5xx
+    private final AtomicLong connections = new AtomicLong(); // Sessions opened so far
+    private volatile String lastMessage; // Raw DATA of the last accepted message
+
+    // Failure injection, all adjustable while running
+    private volatile long latencyMillis; // Delay before answering each finished DATA section
+    private volatile double transientFailureRate; // Share of messages answered with 451
+    private volatile double dropConnectionRate; // Share of messages after which the socket is closed unanswered
+    private volatile String rejectedDomain; // Recipients at this domain get 550
+
+    public FakeSmtpServer() throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress()); // Any free local port
+    }
+
+    public void start() {
+        final Thread acceptor = new Thread(this::acceptLoop, "fake-smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        EventLog.record(LogEvent.FAKE_SMTP_STARTED, getPort());
+    }
+
+    public void stop() {
+        try {
+            serverSocket.close();
+        } catch (IOException ignored) {
+            // Already closed
+        }
+        sessions.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sessions.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return; // Socket closed by stop()
+            }
+        }
+    }
+
+    private void serve(final Socket socket) {
+        try (Socket client = socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            reply(out, "220 fake-smtp ready");
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                final String verb = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (verb) {
+                    case "EHLO":
+                    case "HELO":
+                        reply(out, "250-fake-smtp\r\n250 PIPELINING");
+                        break;
+                    case "MAIL":
+                        recipient = null;
+                        reply(out, "250 OK");
+                        break;
+                    case "RCPT":
+                        recipient = line.substring(line.indexOf(':') + 1).trim();
+                        final String domain = rejectedDomain;
+                        if (domain != null && recipient.endsWith(domain + ">")) {
+                            rejected.incrementAndGet();
+                            reply(out, "550 No such user " + recipient);
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                        break;
+                    case "DATA":
+                        if (recipient == null) {
+                            reply(out, "503 RCPT first");
+                            break;
+                        }
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        final StringBuilder data = new StringBuilder();
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            data.append(line.startsWith("..") ? line.substring(1) : line).append('\n');
+                        }
+                        if (!answerData(out, data.toString())) {
+                            return; // Simulated connection drop
+                        }
+                        recipient = null;
+                        break;
+                    case "RSET":
+                        recipient = null;
+                        reply(out, "250 OK");
+                        break;
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ignored) {
+            // Client went away
+        }
+    }
+
+    // Answers a finished DATA section; false when the connection should be dropped instead
+    private boolean answerData(final BufferedWriter out, final String data) throws IOException {
+        final long latency = latencyMillis;
+        if (latency > 0) {
+            try {
+                Thread.sleep(latency);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < dropConnectionRate) {
+            return false;
+        }
+        if (random.nextDouble() < transientFailureRate) {
+            rejected.incrementAndGet();
+            reply(out, "451 Try again later");
+            return true;
+        }
+        received.incrementAndGet();
+        lastMessage = data;
+        reply(out, "250 Queued");
+        return true;
+    }
+
+    private static void reply(final BufferedWriter out, final String text) throws IOException {
+        out.write(text);
+        out.write("\r\n");
+        out.flush();
+    }
+
+    // Setters Section Start
+    public void setLatencyMillis(final long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+    public void setTransientFailureRate(final double transientFailureRate) {
+        this.transientFailureRate = transientFailureRate;
+    }
+    public void setDropConnectionRate(final double dropConnectionRate) {
+        this.dropConnectionRate = dropConnectionRate;
+    }
+    public void setRejectedDomain(final String rejectedDomain) {
+        this.rejectedDomain = rejectedDomain;
+    }
+    // Setters Section End
+
+    // Getters Section Start
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    public long getReceivedCount() {
+        return received.get();
+    }
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+    public long getConnectionCount() {
+        return connections.get();
+    }
+    public String getLastMessage() {
+        return lastMessage;
+    }
+    // Getters Section End
+}
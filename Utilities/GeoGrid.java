@@ -0,0 +1,174 @@
+package Utilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Spatial index of points on a fixed geohash grid: 12 latitude bits and 13 longitude bits interleaved,
+ * i.e. 5-character geohash cells of about 4.9 x 4.9 km at the equator (narrower towards the poles).
+ * A radius query only visits the cells overlapping the circle's bounding box, or, when that box spans
+ * more cells than are occupied (huge radii, sparse data), just the occupied cells. Cells are
+ * copy-on-write lists, so queries run without locking while points are being added.
+ */
+public class GeoGrid<T> {
+
+    private static final int LAT_BITS = 12;
+    private static final int LON_BITS = 13;
+    private static final double CELL_LAT_DEGREES = 180.0 / (1 << LAT_BITS);
+    private static final double CELL_LON_DEGREES = 360.0 / (1 << LON_BITS);
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE_LAT = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final Map<Long, List<Entry<T>>> cells = new ConcurrentHashMap<>(); // key = geohash of the cell
+
+    public void add(final T value, final double latitude, final double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Not a valid location: " + latitude + ", " + longitude);
+        }
+        final Entry<T> entry = new Entry<>(value, latitude, longitude);
+        cells.compute(geohash(latIndex(latitude), lonIndex(longitude)), (cell, entries) -> {
+            final List<Entry<T>> updated = entries == null ? new ArrayList<>(1) : new ArrayList<>(entries);
+            updated.add(entry);
+            return Collections.unmodifiableList(updated);
+        });
+    }
+
+    // Every value within radiusKm of the point (great-circle distance), in no particular order
+    public List<Match<T>> withinRadius(final double latitude, final double longitude, final double radiusKm) {
+        return withinRadius(latitude, longitude, radiusKm, value -> true);
+    }
+
+    // Every value within radiusKm of the point that passes the filter, in no particular order
+    public List<Match<T>> withinRadius(final double latitude, final double longitude, final double radiusKm,
+                                       final Predicate<? super T> filter) {
+        final List<Match<T>> matches = new ArrayList<>();
+        scan(latitude, longitude, radiusKm, filter, matches);
+        return matches;
+    }
+
+    // How many values within radiusKm of the point pass the filter, without building any matches
+    public int countWithinRadius(final double latitude, final double longitude, final double radiusKm,
+                                 final Predicate<? super T> filter) {
+        return scan(latitude, longitude, radiusKm, filter, null);
+    }
+
+    // Visits every value within radiusKm that passes the filter, adding it to matches unless that is null
+    private int scan(final double latitude, final double longitude, final double radiusKm,
+                     final Predicate<? super T> filter, final List<Match<T>> matches) {
+        final double latDelta = radiusKm / KM_PER_DEGREE_LAT;
+        final int minLat = latIndex(Math.max(-90, latitude - latDelta));
+        final int maxLat = latIndex(Math.min(90, latitude + latDelta));
+        // Longitude degrees shrink with latitude; near the poles (or for huge radii) scan every column
+        final double widestLatitude = Math.min(89.9, Math.abs(latitude) + latDelta);
+        final double lonDelta = radiusKm / (KM_PER_DEGREE_LAT * Math.cos(Math.toRadians(widestLatitude)));
+        final int lonColumns = 1 << LON_BITS;
+        final int firstLon, lonCount;
+        if (lonDelta >= 180) {
+            firstLon = 0;
+            lonCount = lonColumns;
+        } else {
+            firstLon = lonIndex(wrapLongitude(longitude - lonDelta));
+            final int lastLon = lonIndex(wrapLongitude(longitude + lonDelta));
+            lonCount = Math.floorMod(lastLon - firstLon, lonColumns) + 1; // Handles boxes crossing the antimeridian
+        }
+        int found = 0;
+        if ((long) (maxLat - minLat + 1) * lonCount > cells.size()) {
+            // Fewer occupied cells than cells in the box: checking every point is cheaper than probing the box
+            for (List<Entry<T>> entries : cells.values()) {
+                found += collect(entries, latitude, longitude, radiusKm, filter, matches);
+            }
+            return found;
+        }
+        for (int lat = minLat; lat <= maxLat; lat++) {
+            for (int i = 0; i < lonCount; i++) {
+                final List<Entry<T>> entries = cells.get(geohash(lat, (firstLon + i) % lonColumns));
+                if (entries != null) {
+                    found += collect(entries, latitude, longitude, radiusKm, filter, matches);
+                }
+            }
+        }
+        return found;
+    }
+
+    private int collect(final List<Entry<T>> entries, final double latitude, final double longitude,
+                        final double radiusKm, final Predicate<? super T> filter, final List<Match<T>> matches) {
+        int found = 0;
+        for (Entry<T> entry : entries) {
+            final double distance = distanceKm(latitude, longitude, entry.latitude, entry.longitude);
+            if (distance <= radiusKm && filter.test(entry.value)) {
+                found++;
+                if (matches != null) {
+                    matches.add(new Match<>(entry.value, distance));
+                }
+            }
+        }
+        return found;
+    }
+
+    // Haversine great-circle distance
+    public static double distanceKm(final double lat1, final double lon1, final double lat2, final double lon2) {
+        final double dLat = Math.toRadians(lat2 - lat1);
+        final double dLon = Math.toRadians(lon2 - lon1);
+        final double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static int latIndex(final double latitude) {
+        return Math.min((1 << LAT_BITS) - 1, (int) ((latitude + 90) / CELL_LAT_DEGREES));
+    }
+
+    private static int lonIndex(final double longitude) {
+        return Math.min((1 << LON_BITS) - 1, (int) ((longitude + 180) / CELL_LON_DEGREES));
+    }
+
+    private static double wrapLongitude(final double longitude) {
+        return longitude < -180 ? longitude + 360 : longitude > 180 ? longitude - 360 : longitude;
+    }
+
+    // Geohash bit order: longitude bit first, then alternating, most significant bits first
+    private static long geohash(final int latIndex, final int lonIndex) {
+        long hash = 0;
+        for (int bit = LON_BITS - 1; bit >= 0; bit--) {
+            hash = hash << 1 | (lonIndex >>> bit & 1);
+            if (bit < LAT_BITS) {
+                hash = hash << 1 | (latIndex >>> bit & 1);
+            }
+        }
+        return hash;
+    }
+
+    private static final class Entry<T> {
+        private final T value;
+        private final double latitude;
+        private final double longitude;
+
+        private Entry(final T value, final double latitude, final double longitude) {
+            this.value = value;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+    // A query hit with its distance from the query point
+    public static final class Match<T> {
+        private final T value;
+        private final double distanceKm;
+
+        private Match(final T value, final double distanceKm) {
+            this.value = value;
+            this.distanceKm = distanceKm;
+        }
+
+        public T getValue() {
+            return value;
+        }
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package Utilities;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of the last windowSize calls, with percentiles. Recording is a slot write under a short
+ * lock; a sorted copy for percentile() is rebuilt only every REFRESH_EVERY recordings, so readers on
+ * the request path never sort and see numbers at most that many calls old.
+ */
+public class LatencyWindow {
+
+    private static final int REFRESH_EVERY = 16;
+
+    private final long[] samples; // Ring of nanosecond latencies, guarded by this
+    private int next;
+    private int count;
+    private int sinceRefresh;
+    private volatile long[] sorted = new long[0]; // Snapshot of the window, ascending
+
+    public LatencyWindow(final int windowSize) {
+        this.samples = new long[windowSize];
+    }
+
+    public void record(final long latencyNanos) {
+        long[] snapshot = null;
+        synchronized (this) {
+            samples[next] = latencyNanos;
+            next = (next + 1) % samples.length;
+            if (count < samples.length) count++;
+            if (++sinceRefresh >= REFRESH_EVERY || count < REFRESH_EVERY) {
+                sinceRefresh = 0;
+                snapshot = Arrays.copyOf(samples, count);
+            }
+        }
+        if (snapshot != null) {
+            Arrays.sort(snapshot); // Outside the lock; a slightly stale snapshot winning the race is harmless
+            sorted = snapshot;
+        }
+    }
+
+    // Latency at the given quantile (0..1) in nanoseconds, or -1 before anything was recorded
+    public long percentile(final double quantile) {
+        final long[] snapshot = sorted;
+        if (snapshot.length == 0) return -1;
+        return snapshot[Math.min(snapshot.length - 1, (int) (snapshot.length * quantile))];
+    }
+
+    public int getSampleCount() {
+        return sorted.length;
+    }
+}
@@ -0,0 +1,27 @@
+package Utilities;
+
+import CommonEnum.RequestPriority;
+
+// Thrown instead of queueing a request when the system is over its concurrency limit
+public class RequestRejectedException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RequestPriority priority;
+    private final long retryAfterMillis; // Hint for clients: how long to back off before trying again
+
+    public RequestRejectedException(final RequestPriority priority, final long retryAfterMillis) {
+        super("Server busy, " + priority + " request rejected. Retry after " + retryAfterMillis + " ms.");
+        this.priority = priority;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    // Getters Section Start
+    public RequestPriority getPriority() {
+        return priority;
+    }
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+    // Getters Section End
+}
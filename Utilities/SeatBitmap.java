@@ -0,0 +1,220 @@
+package Utilities;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Availability of every seat of a show as one bit per seat, in the screen's layout order
+ * (bit i = screen.getSeats().get(i), set when the seat is free), tagged with the version it was
+ * taken at. A 2,000-seat hall is 250 bytes raw, and usually far less run-length encoded.
+ *
+ * Wire formats (all integers are unsigned LEB128 varints):
+ * <pre>
+ * RAW  : 0, version, seatCount, ceil(seatCount / 8) bytes, seat i in bit (i % 8) of byte i / 8
+ * RLE  : 1, version, seatCount, first bit (0/1), run lengths of alternating bits
+ * DIFF : 2, fromVersion, toVersion, change count, positions of flipped seats as gaps from the previous one
+ * </pre>
+ * encode() picks whichever of RAW and RLE is smaller. A client keeps the decoded bitmap and its
+ * version and afterwards asks for a DIFF against it, which apply() turns into the new bitmap.
+ */
+public final class SeatBitmap {
+
+    public static final byte FORMAT_RAW = 0;
+    public static final byte FORMAT_RLE = 1;
+    public static final byte FORMAT_DIFF = 2;
+
+    private final int size;
+    private final long[] words;
+    private final long version;
+
+    public SeatBitmap(final int size, final long[] words, final long version) {
+        this.size = size;
+        this.words = words;
+        this.version = version;
+    }
+
+    public static long[] newWords(final int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    public static void set(final long[] words, final int index) {
+        words[index >>> 6] |= 1L << index;
+    }
+
+    // True when the seat at this layout position is free
+    public boolean isAvailable(final int index) {
+        return (words[index >>> 6] & 1L << index) != 0;
+    }
+
+    public int countAvailable() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public byte[] encode() {
+        final byte[] rle = encodeRle();
+        final byte[] raw = encodeRaw();
+        return rle.length < raw.length ? rle : raw;
+    }
+
+    public byte[] encodeRaw() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(rawLength());
+        out.write(FORMAT_RAW);
+        writeVarLong(out, version);
+        writeVarLong(out, size);
+        for (int i = 0; i < (size + 7) >>> 3; i++) {
+            out.write((int) (words[i >>> 3] >>> ((i & 7) << 3)));
+        }
+        return out.toByteArray();
+    }
+
+    public byte[] encodeRle() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT_RLE);
+        writeVarLong(out, version);
+        writeVarLong(out, size);
+        if (size == 0) {
+            return out.toByteArray();
+        }
+        boolean bit = isAvailable(0);
+        out.write(bit ? 1 : 0);
+        int run = 0;
+        for (int i = 0; i < size; i++) {
+            if (isAvailable(i) != bit) {
+                writeVarLong(out, run);
+                bit = !bit;
+                run = 0;
+            }
+            run++;
+        }
+        writeVarLong(out, run);
+        return out.toByteArray();
+    }
+
+    // The changes that turn the older bitmap into this one; both must describe the same layout
+    public byte[] encodeDiff(final SeatBitmap from) {
+        if (from.size != size) {
+            throw new IllegalArgumentException("Seat counts differ: " + from.size + " vs " + size);
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(FORMAT_DIFF);
+        writeVarLong(out, from.version);
+        writeVarLong(out, version);
+        int changes = 0;
+        for (int w = 0; w < words.length; w++) {
+            changes += Long.bitCount(words[w] ^ from.words[w]);
+        }
+        writeVarLong(out, changes);
+        int previous = 0;
+        for (int w = 0; w < words.length; w++) {
+            long flipped = words[w] ^ from.words[w];
+            while (flipped != 0) {
+                final int position = (w << 6) + Long.numberOfTrailingZeros(flipped);
+                writeVarLong(out, position - previous);
+                previous = position;
+                flipped &= flipped - 1;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static SeatBitmap decode(final byte[] encoded) {
+        final Reader in = new Reader(encoded);
+        final int format = in.readByte();
+        final long version = in.readVarLong();
+        final int size = (int) in.readVarLong();
+        final long[] words = newWords(size);
+        if (format == FORMAT_RAW) {
+            for (int i = 0; i < (size + 7) >>> 3; i++) {
+                words[i >>> 3] |= (long) in.readByte() << ((i & 7) << 3);
+            }
+        } else if (format == FORMAT_RLE) {
+            if (size > 0) {
+                boolean bit = in.readByte() == 1;
+                int position = 0;
+                while (position < size) {
+                    final int run = (int) in.readVarLong();
+                    if (bit) {
+                        for (int i = position; i < position + run; i++) {
+                            set(words, i);
+                        }
+                    }
+                    position += run;
+                    bit = !bit;
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Not a full seat bitmap, format " + format);
+        }
+        return new SeatBitmap(size, words, version);
+    }
+
+    // Applies a DIFF made against this bitmap's version; a full encoding simply replaces it
+    public SeatBitmap apply(final byte[] update) {
+        if (update[0] != FORMAT_DIFF) {
+            return decode(update);
+        }
+        final Reader in = new Reader(update);
+        in.readByte();
+        final long fromVersion = in.readVarLong();
+        if (fromVersion != version) {
+            throw new IllegalArgumentException("Diff is against version " + fromVersion + ", bitmap is " + version);
+        }
+        final long toVersion = in.readVarLong();
+        final long[] updated = Arrays.copyOf(words, words.length);
+        int position = 0;
+        for (long changes = in.readVarLong(); changes > 0; changes--) {
+            position += (int) in.readVarLong();
+            updated[position >>> 6] ^= 1L << position;
+        }
+        return new SeatBitmap(size, updated, toVersion);
+    }
+
+    private int rawLength() {
+        return 1 + 10 + 5 + ((size + 7) >>> 3);
+    }
+
+    private static void writeVarLong(final ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+        private final byte[] bytes;
+        private int position;
+
+        private Reader(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private int readByte() {
+            return bytes[position++] & 0xFF;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                final int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    // Getters Section Start
+    public int getSize() {
+        return size;
+    }
+    public long getVersion() {
+        return version;
+    }
+    // Getters Section End
+}
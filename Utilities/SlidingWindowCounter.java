@@ -0,0 +1,71 @@
+package Utilities;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A striped counter over the last hour in one-minute buckets, plus a cumulative total.
+ * Updates never allocate: a thread picks its stripe from its ID and bumps one slot of a
+ * preallocated array. Each stripe owns its own run of the array, padded away from the next, so
+ * threads on different stripes bumping the current minute never share a cache line. Buckets are recycled in place as minutes roll over, so an increment
+ * racing with a rollover can be lost; that is fine for dashboard numbers.
+ */
+public class SlidingWindowCounter {
+
+    public static final int MAX_WINDOW_MINUTES = 60;
+    private static final int STRIPES = 4; // Power of two, spreads concurrent writers over separate slots
+    private static final int STRIPE_LENGTH = MAX_WINDOW_MINUTES + 8; // One bucket per minute plus a cache line of padding
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * STRIPE_LENGTH); // [stripe * STRIPE_LENGTH + bucket]
+    private final AtomicLongArray bucketMinutes = new AtomicLongArray(MAX_WINDOW_MINUTES); // Epoch minute each bucket holds
+    private final LongAdder total = new LongAdder(); // Cumulative count since creation
+
+    public void add(final long amount, final long nowMillis) {
+        final long minute = nowMillis / MILLIS_PER_MINUTE;
+        final int bucket = (int) (minute % MAX_WINDOW_MINUTES);
+        final long bucketMinute = bucketMinutes.get(bucket);
+        if (bucketMinute < minute && bucketMinutes.compareAndSet(bucket, bucketMinute, minute)) {
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                counts.set(stripe * STRIPE_LENGTH + bucket, 0); // This thread won the rollover, clear the stale minute
+            }
+        }
+        final int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+        counts.addAndGet(stripe * STRIPE_LENGTH + bucket, amount);
+        total.add(amount);
+    }
+
+    /**
+     * Takes back an amount added at atMillis: from that minute's bucket while the window still holds
+     * it, and always from the total. Slots may briefly dip below zero if the add and the subtraction
+     * land on different stripes; the sums over a bucket stay right.
+     */
+    public void subtract(final long amount, final long atMillis, final long nowMillis) {
+        final long minute = atMillis / MILLIS_PER_MINUTE;
+        final int bucket = (int) (minute % MAX_WINDOW_MINUTES);
+        if (minute > nowMillis / MILLIS_PER_MINUTE - MAX_WINDOW_MINUTES && bucketMinutes.get(bucket) == minute) {
+            final int stripe = (int) (Thread.currentThread().getId() & (STRIPES - 1));
+            counts.addAndGet(stripe * STRIPE_LENGTH + bucket, -amount);
+        }
+        total.add(-amount);
+    }
+
+    // Sum over the last windowMinutes minutes, including the current (partial) minute
+    public long sum(final int windowMinutes, final long nowMillis) {
+        final long currentMinute = nowMillis / MILLIS_PER_MINUTE;
+        final int window = Math.min(windowMinutes, MAX_WINDOW_MINUTES);
+        long sum = 0;
+        for (long minute = currentMinute - window + 1; minute <= currentMinute; minute++) {
+            final int bucket = (int) (minute % MAX_WINDOW_MINUTES);
+            if (bucketMinutes.get(bucket) != minute) continue; // Nothing recorded in that minute
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                sum += counts.get(stripe * STRIPE_LENGTH + bucket);
+            }
+        }
+        return sum;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+}
@@ -0,0 +1,116 @@
+package Utilities;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One open SMTP session. Several messages are sent over it one transaction after another
+ * (MAIL, RCPT, DATA), so a batch pays for the TCP and greeting round trips only once.
+ */
+public class SmtpConnection implements Closeable {
+
+    private static final int TIMEOUT_MILLIS = 10_000;
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final BufferedWriter writer;
+
+    public SmtpConnection(final String host, final int port) throws IOException {
+        this.socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port), TIMEOUT_MILLIS);
+        socket.setSoTimeout(TIMEOUT_MILLIS);
+        socket.setTcpNoDelay(true);
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        expect(readReply(), 220, "greeting");
+        expect(command("EHLO movie-booking"), 250, "EHLO");
+    }
+
+    /**
+     * Sends one message and returns the server's final reply code (250 on success). A 4xx or
+     * 5xx reply leaves the session usable; an IOException means the connection must be dropped.
+     */
+    public int send(final String from, final String to, final String subject, final String body) throws IOException {
+        int reply = command("MAIL FROM:<" + from + ">");
+        if (reply / 100 != 2) return reset(reply);
+        reply = command("RCPT TO:<" + to + ">");
+        if (reply / 100 != 2) return reset(reply);
+        reply = command("DATA");
+        if (reply != 354) return reset(reply);
+
+        writer.write("From: " + from + "\r\nTo: " + to + "\r\nSubject: " + subject + "\r\n\r\n");
+        for (String line : body.split("\r?\n", -1)) {
+            if (line.startsWith(".")) {
+                writer.write('.'); // Dot-stuffing, so a body line can't end the DATA section
+            }
+            writer.write(line);
+            writer.write("\r\n");
+        }
+        writer.write(".\r\n");
+        writer.flush();
+        return readReply();
+    }
+
+    public boolean isOpen() {
+        return !socket.isClosed();
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!socket.isClosed()) {
+                writer.write("QUIT\r\n");
+                writer.flush();
+            }
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Nothing left to release
+        }
+    }
+
+    private int reset(final int reply) throws IOException {
+        command("RSET"); // Abort the transaction, the session stays usable
+        return reply;
+    }
+
+    private int command(final String line) throws IOException {
+        writer.write(line);
+        writer.write("\r\n");
+        writer.flush();
+        return readReply();
+    }
+
+    // Reads a (possibly multi-line) reply and returns its code
+    private int readReply() throws IOException {
+        while (true) {
+            final String line = reader.readLine();
+            if (line == null || line.length() < 3) {
+                throw new IOException("SMTP connection closed by server");
+            }
+            if (line.length() == 3 || line.charAt(3) == ' ') {
+                try {
+                    return Integer.parseInt(line.substring(0, 3));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed SMTP reply: " + line);
+                }
+            }
+        }
+    }
+
+    private static void expect(final int reply, final int expected, final String step) throws IOException {
+        if (reply != expected) {
+            throw new IOException("SMTP " + step + " failed with " + reply);
+        }
+    }
+}
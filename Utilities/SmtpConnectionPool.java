@@ -0,0 +1,77 @@
+package Utilities;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of SMTP sessions to one server. Connections are opened lazily up to the pool size
+ * and handed back after each batch; a broken one is closed and its place freed for a new one.
+ */
+public class SmtpConnectionPool {
+
+    private final String host;
+    private final int port;
+    private final int maxConnections;
+    private final BlockingQueue<SmtpConnection> idle;
+    private final AtomicInteger open = new AtomicInteger(); // Connections currently open (idle or borrowed)
+    private volatile boolean closed;
+
+    public SmtpConnectionPool(final String host, final int port, final int maxConnections) {
+        this.host = host;
+        this.port = port;
+        this.maxConnections = maxConnections;
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+    }
+
+    // Blocks until a connection is free or one may be opened; null if the timeout passes first
+    public SmtpConnection borrow(final long timeoutMillis) throws IOException, InterruptedException {
+        if (closed) {
+            throw new IOException("SMTP connection pool is closed");
+        }
+        SmtpConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        while (true) {
+            final int current = open.get();
+            if (current >= maxConnections) {
+                return idle.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            if (open.compareAndSet(current, current + 1)) {
+                try {
+                    return new SmtpConnection(host, port);
+                } catch (IOException e) {
+                    open.decrementAndGet();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public void giveBack(final SmtpConnection connection) {
+        if (closed || !connection.isOpen() || !idle.offer(connection)) {
+            invalidate(connection);
+        }
+    }
+
+    // Drops a connection that failed mid-conversation
+    public void invalidate(final SmtpConnection connection) {
+        connection.close();
+        open.decrementAndGet();
+    }
+
+    public void close() {
+        closed = true;
+        SmtpConnection connection;
+        while ((connection = idle.poll()) != null) {
+            invalidate(connection);
+        }
+    }
+
+    public int getOpenConnections() {
+        return open.get();
+    }
+}
@@ -0,0 +1,41 @@
+package Utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which isolation partition (bulkhead and seat-lock shard) serves a theatre. Theatres are
+ * spread by ID unless assigned explicitly, e.g. to keep a whole chain in its own partition ahead of a
+ * premiere. Assign theatres before their shows go on sale: holds already placed stay in the old shard.
+ */
+public class TheatrePartitioner {
+
+    private final int partitionCount;
+    private final Map<Integer, Integer> assignments = new ConcurrentHashMap<>(); // key = theatre ID
+
+    public TheatrePartitioner(final int partitionCount) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("Need at least one partition, was " + partitionCount);
+        }
+        this.partitionCount = partitionCount;
+    }
+
+    // Puts every given theatre (e.g. one chain) in the partition
+    public void assign(final int partition, final int... theatreIds) {
+        if (partition < 0 || partition >= partitionCount) {
+            throw new IllegalArgumentException("No partition " + partition + ", there are " + partitionCount);
+        }
+        for (int theatreId : theatreIds) {
+            assignments.put(theatreId, partition);
+        }
+    }
+
+    public int partitionOf(final int theatreId) {
+        final Integer assigned = assignments.get(theatreId);
+        return assigned != null ? assigned : Math.floorMod(theatreId, partitionCount);
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+}